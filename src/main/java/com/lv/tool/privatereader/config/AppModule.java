@@ -7,7 +7,6 @@ import com.lv.tool.privatereader.repository.ChapterCacheRepository;
 import com.lv.tool.privatereader.repository.ReadingProgressRepository;
 import com.lv.tool.privatereader.repository.StorageRepository;
 import com.lv.tool.privatereader.repository.impl.FileBookRepository;
-import com.lv.tool.privatereader.repository.impl.FileChapterCacheRepository;
 import com.lv.tool.privatereader.repository.impl.SqliteReadingProgressRepository;
 import com.lv.tool.privatereader.repository.impl.FileStorageRepository;
 import com.lv.tool.privatereader.service.BookService;
@@ -37,7 +36,10 @@ public class AppModule extends AbstractModule {
             bind(StorageRepository.class).to(FileStorageRepository.class).in(Singleton.class);
             bind(BookRepository.class).to(FileBookRepository.class).in(Singleton.class);
             bind(ReadingProgressRepository.class).to(SqliteReadingProgressRepository.class).in(Singleton.class);
-            bind(ChapterCacheRepository.class).to(FileChapterCacheRepository.class).in(Singleton.class);
+            // 章节缓存统一由ChapterCacheManager管理，直接使用平台注册的服务实例
+            bind(ChapterCacheRepository.class).toProvider(() ->
+                    com.intellij.openapi.application.ApplicationManager.getApplication().getService(ChapterCacheRepository.class))
+                .in(Singleton.class);
 
             // 绑定Service接口到实现类，并设置为应用级别单例
             bind(BookService.class).to(BookServiceImpl.class).in(Singleton.class);
@@ -5,7 +5,6 @@ import com.google.inject.Injector;
 import com.intellij.openapi.diagnostic.Logger;
 import com.lv.tool.privatereader.repository.*;
 import com.lv.tool.privatereader.repository.impl.FileBookRepository;
-import com.lv.tool.privatereader.repository.impl.FileChapterCacheRepository;
 import com.lv.tool.privatereader.repository.impl.SqliteReadingProgressRepository;
 import com.lv.tool.privatereader.repository.impl.FileStorageRepository;
 import com.lv.tool.privatereader.service.*;
@@ -1,7 +1,11 @@
 package com.lv.tool.privatereader.events;
 
 import com.intellij.util.messages.Topic;
+import com.lv.tool.privatereader.model.Book;
+import com.lv.tool.privatereader.parser.NovelParser;
+
 import java.util.EventListener;
+import java.util.List;
 
 /**
  * Contains events related to book data.
@@ -23,5 +27,41 @@ public class BookEvents {
         void bookDataLoaded();
     }
 
+    /**
+     * Listener for chapter lists that are still being crawled page by page.
+     */
+    public interface ChapterListListener extends EventListener {
+        /**
+         * Topic for ChapterListListener events.
+         */
+        Topic<ChapterListListener> CHAPTER_LIST_TOPIC = Topic.create("Chapter List Loading", ChapterListListener.class);
+
+        /**
+         * Fired with the chapters found so far, in site order, while more catalogue pages are still loading.
+         *
+         * @param bookUrl  URL of the book page being parsed
+         * @param chapters snapshot of the chapters found so far
+         */
+        void chapterListPartiallyLoaded(String bookUrl, List<NovelParser.Chapter> chapters);
+    }
+
+    /**
+     * Listener for chapters that appeared on the site since the chapter list was last stored.
+     */
+    public interface NewChaptersListener extends EventListener {
+        /**
+         * Topic for NewChaptersListener events.
+         */
+        Topic<NewChaptersListener> NEW_CHAPTERS_TOPIC = Topic.create("New Chapters Found", NewChaptersListener.class);
+
+        /**
+         * Fired after a chapter list refresh has stored chapters that were not known before.
+         *
+         * @param book  the book whose chapter list was refreshed
+         * @param added the new chapters, in site order
+         */
+        void newChaptersFound(Book book, List<NovelParser.Chapter> added);
+    }
+
     // Add other book-related events or listeners here if needed
 } 
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.DumbAware;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.startup.StartupActivity;
+import com.lv.tool.privatereader.service.BookUpdateChecker;
 import com.lv.tool.privatereader.service.ReaderModeSwitcher;
 import com.lv.tool.privatereader.storage.StorageManager;
 import com.lv.tool.privatereader.storage.DatabaseManager;
@@ -93,6 +94,9 @@ public class PrivateReaderStartupActivity implements StartupActivity, DumbAware
                         LOG.info("PrivateReaderStartupActivity: Starting post-initialization tasks in background...");
                         storageManager.performPostInitializationTasks();
                         LOG.info("PrivateReaderStartupActivity: Post-initialization tasks finished successfully.");
+
+                        // 书籍数据就绪后开始后台检查书架更新
+                        BookUpdateChecker.getInstance().start();
                     } catch (Exception e) {
                         LOG.error("PrivateReaderStartupActivity: Error during post-initialization tasks execution", e);
                     }
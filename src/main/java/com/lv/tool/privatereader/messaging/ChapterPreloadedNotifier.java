@@ -0,0 +1,21 @@
+package com.lv.tool.privatereader.messaging;
+
+import com.intellij.util.messages.Topic;
+import com.lv.tool.privatereader.model.Book;
+import com.lv.tool.privatereader.parser.NovelParser;
+
+import java.util.function.Supplier;
+
+public interface ChapterPreloadedNotifier {
+    Topic<ChapterPreloadedNotifier> TOPIC = Topic.create("PrivateReader.ChapterPreloaded", ChapterPreloadedNotifier.class);
+
+    /**
+     * 预加载器缓存了章节内容，或确认预加载范围内的章节已在缓存中时调用
+     * 在预加载线程上同步调用，耗时的处理应切换到其他调度器
+     * @param book 书籍
+     * @param chapter 章节
+     * @param content 获取章节内容，已在缓存中的章节调用时才从缓存读取，应在调用方线程之外调用；
+     *                内容已不在缓存中时返回null
+     */
+    void chapterPreloaded(Book book, NovelParser.Chapter chapter, Supplier<String> content);
+}
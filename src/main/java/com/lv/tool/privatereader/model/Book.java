@@ -1,6 +1,7 @@
 package com.lv.tool.privatereader.model;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.time.temporal.ChronoUnit;
@@ -56,6 +57,10 @@ public class Book {
     @Tag @Expose private int currentChapterIndex;
     /** 是否已读完 */
     @Tag @Expose private boolean finished;
+    /** 上次检查章节更新的时间戳 */
+    @Tag @Expose private long lastCheckedMillis;
+    /** 章节列表是否直接来自书籍页面，新建的解析器据此在书籍页面未变化时跳过解析 */
+    @Tag @Expose private boolean chaptersFromBookPage;
     /** 缓存的章节列表 */
     @Tag
     @XCollection(style = XCollection.Style.v2)
@@ -237,6 +242,40 @@ public class Book {
         }
     }
     
+    /**
+     * 在章节列表末尾追加新章节
+     * 只为新章节更新索引Map，不重建已有章节的索引；已在列表中的章节会被跳过
+     * @param newChapters 新章节
+     * @return 实际追加的章节数
+     */
+    public int appendCachedChapters(List<Chapter> newChapters) {
+        if (newChapters == null || newChapters.isEmpty()) {
+            return 0;
+        }
+        if (cachedChapters == null) {
+            setCachedChapters(new ArrayList<>());
+        } else if (chapterIndexMap == null || chapterObjectMap == null
+                || (chapterIndexMap.isEmpty() && !cachedChapters.isEmpty())) {
+            // 反序列化得到的书籍尚未建立索引
+            updateChapterMaps(cachedChapters);
+        }
+
+        // 复制一份再追加，其他地方持有的旧列表不受影响
+        List<Chapter> merged = new ArrayList<>(cachedChapters.size() + newChapters.size());
+        merged.addAll(cachedChapters);
+        for (Chapter chapter : newChapters) {
+            if (chapter != null && chapter.url() != null && !chapterIndexMap.containsKey(chapter.url())) {
+                chapterIndexMap.put(chapter.url(), merged.size());
+                chapterObjectMap.put(chapter.url(), chapter);
+                merged.add(chapter);
+            }
+        }
+        int appended = merged.size() - cachedChapters.size();
+        this.cachedChapters = merged;
+        this.totalChapters = merged.size();
+        return appended;
+    }
+
     /**
      * 更新章节索引Map和章节对象Map
      * @param chapters 章节列表
@@ -322,6 +361,7 @@ public class Book {
                 LOG.info("创建书籍解析器: " + url);
                 parser = ParserFactory.createParser(url);
                 if (parser != null) {
+                    parser.setChaptersFromBookPage(chaptersFromBookPage);
                     LOG.info("成功创建书籍解析器: " + url);
                 } else {
                     LOG.error("创建书籍解析器失败: " + url + "，ParserFactory返回null");
@@ -347,6 +387,22 @@ public class Book {
         this.lastReadTimeMillis = lastReadTimeMillis;
     }
 
+    public long getLastCheckedMillis() {
+        return lastCheckedMillis;
+    }
+
+    public void setLastCheckedMillis(long lastCheckedMillis) {
+        this.lastCheckedMillis = lastCheckedMillis;
+    }
+
+    public boolean isChaptersFromBookPage() {
+        return chaptersFromBookPage;
+    }
+
+    public void setChaptersFromBookPage(boolean chaptersFromBookPage) {
+        this.chaptersFromBookPage = chaptersFromBookPage;
+    }
+
     public long getCreateTimeMillis() {
         return createTimeMillis;
     }
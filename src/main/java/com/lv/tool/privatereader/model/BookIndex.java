@@ -29,8 +29,12 @@ public class BookIndex {
     @Tag @Expose private long lastReadTimeMillis;
     /** 总章节数 */
     @Tag @Expose private int totalChapters;
+    /** 当前阅读章节索引 */
+    @Tag @Expose private int currentChapterIndex;
     /** 是否已读完 */
     @Tag @Expose private boolean finished;
+    /** 上次检查章节更新的时间戳 */
+    @Tag @Expose private long lastCheckedMillis;
 
     public BookIndex() {
         this.createTimeMillis = System.currentTimeMillis();
@@ -52,7 +56,9 @@ public class BookIndex {
         index.lastChapter = book.getLastChapter();
         index.lastReadTimeMillis = book.getLastReadTimeMillis();
         index.totalChapters = book.getTotalChapters();
+        index.currentChapterIndex = book.getCurrentChapterIndex();
         index.finished = book.isFinished();
+        index.lastCheckedMillis = book.getLastCheckedMillis();
         return index;
     }
 
@@ -120,6 +126,14 @@ public class BookIndex {
         this.totalChapters = totalChapters;
     }
 
+    public int getCurrentChapterIndex() {
+        return currentChapterIndex;
+    }
+
+    public void setCurrentChapterIndex(int currentChapterIndex) {
+        this.currentChapterIndex = currentChapterIndex;
+    }
+
     public boolean isFinished() {
         return finished;
     }
@@ -128,6 +142,14 @@ public class BookIndex {
         this.finished = finished;
     }
 
+    public long getLastCheckedMillis() {
+        return lastCheckedMillis;
+    }
+
+    public void setLastCheckedMillis(long lastCheckedMillis) {
+        this.lastCheckedMillis = lastCheckedMillis;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,64 @@
+package com.lv.tool.privatereader.model;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 书架条目
+ *
+ * 书架列表和搜索只需要的书籍信息，由常驻内存的书籍索引生成，不包含章节列表，
+ * 获取时不读取书籍详情文件。
+ *
+ * @param id 书籍ID
+ * @param title 标题
+ * @param author 作者
+ * @param url 书籍来源URL
+ * @param createTimeMillis 创建时间
+ * @param lastReadTimeMillis 上次阅读时间
+ * @param currentChapterIndex 当前阅读章节索引
+ * @param totalChapters 总章节数
+ * @param finished 是否已读完
+ */
+public record BookshelfEntry(@NotNull String id, @NotNull String title, @NotNull String author, @NotNull String url,
+                             long createTimeMillis, long lastReadTimeMillis,
+                             int currentChapterIndex, int totalChapters, boolean finished) {
+
+    @NotNull
+    public static BookshelfEntry fromIndex(@NotNull BookIndex index) {
+        return new BookshelfEntry(index.getId(), nullToEmpty(index.getTitle()), nullToEmpty(index.getAuthor()),
+                nullToEmpty(index.getUrl()), index.getCreateTimeMillis(), index.getLastReadTimeMillis(),
+                index.getCurrentChapterIndex(), index.getTotalChapters(), index.isFinished());
+    }
+
+    @NotNull
+    public static BookshelfEntry fromBook(@NotNull Book book) {
+        return new BookshelfEntry(book.getId(), nullToEmpty(book.getTitle()), nullToEmpty(book.getAuthor()),
+                nullToEmpty(book.getUrl()), book.getCreateTimeMillis(), book.getLastReadTimeMillis(),
+                book.getCurrentChapterIndex(), book.getTotalChapters(), book.isFinished());
+    }
+
+    /**
+     * 阅读进度，与 {@link Book#getReadingProgress()} 一致
+     */
+    public double progress() {
+        if (totalChapters == 0) return 0.0;
+        return (double) currentChapterIndex / totalChapters;
+    }
+
+    /**
+     * 创建只含书架信息的书籍对象，用于列表显示和按ID加载完整书籍
+     */
+    @NotNull
+    public Book toBook() {
+        Book book = new Book(id, title, author, url);
+        book.setCreateTimeMillis(createTimeMillis);
+        book.setLastReadTimeMillis(lastReadTimeMillis);
+        book.setCurrentChapterIndex(currentChapterIndex);
+        book.setTotalChapters(totalChapters);
+        book.setFinished(finished);
+        return book;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
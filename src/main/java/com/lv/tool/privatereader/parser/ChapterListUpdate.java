@@ -0,0 +1,95 @@
+package com.lv.tool.privatereader.parser;
+
+import com.lv.tool.privatereader.parser.NovelParser.Chapter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 章节列表刷新结果
+ *
+ * 与已保存的章节列表按URL比较：
+ * - UNCHANGED：没有变化，或网络获取失败（空列表不会覆盖已有章节）
+ * - APPENDED：已有章节按原顺序保持不变，只在末尾新增了章节，只需追加 {@link #added()}
+ * - REPLACED：章节被重排或首次获取，需要用 {@link #chapters()} 整体替换
+ *
+ * 获取的列表比已保存的短时无法区分网站删除了章节还是目录页抓取不完整，
+ * 此时保留已有章节，只追加其中新出现的章节，不会因一次不完整的抓取丢失章节
+ *
+ * @param type 变化类型
+ * @param chapters 刷新后的完整章节列表，APPENDED 时为null，调用方在原列表上追加
+ * @param added 新出现的章节，按网站顺序
+ */
+public record ChapterListUpdate(@NotNull Type type, @Nullable List<Chapter> chapters, @NotNull List<Chapter> added) {
+
+    public enum Type {
+        UNCHANGED,
+        APPENDED,
+        REPLACED
+    }
+
+    @NotNull
+    public static ChapterListUpdate unchanged() {
+        return new ChapterListUpdate(Type.UNCHANGED, null, List.of());
+    }
+
+    @NotNull
+    public static ChapterListUpdate appended(@NotNull List<Chapter> added) {
+        return added.isEmpty() ? unchanged() : new ChapterListUpdate(Type.APPENDED, null, List.copyOf(added));
+    }
+
+    /**
+     * 比较已保存的章节列表和重新获取的完整列表
+     *
+     * @param known 已保存的章节列表
+     * @param fetched 重新获取的章节列表
+     * @return 刷新结果
+     */
+    @NotNull
+    public static ChapterListUpdate diff(@Nullable List<Chapter> known, @Nullable List<Chapter> fetched) {
+        if (fetched == null || fetched.isEmpty()) {
+            return unchanged();
+        }
+        if (known == null || known.isEmpty()) {
+            return new ChapterListUpdate(Type.REPLACED, fetched, fetched);
+        }
+
+        // 常见情况：已有章节是新列表的前缀
+        if (fetched.size() >= known.size() && isPrefix(known, fetched)) {
+            return appended(fetched.subList(known.size(), fetched.size()));
+        }
+
+        Set<String> knownUrls = new HashSet<>(known.size() * 2);
+        for (Chapter chapter : known) {
+            knownUrls.add(chapter.url());
+        }
+        List<Chapter> added = new ArrayList<>();
+        for (Chapter chapter : fetched) {
+            if (!knownUrls.contains(chapter.url())) {
+                added.add(chapter);
+            }
+        }
+        // 列表变短（包括只抓到已有章节的前一部分）可能是目录页抓取失败，不能据此删除章节
+        if (fetched.size() < known.size()) {
+            return appended(added);
+        }
+        return new ChapterListUpdate(Type.REPLACED, fetched, added);
+    }
+
+    private static boolean isPrefix(List<Chapter> known, List<Chapter> fetched) {
+        for (int i = 0; i < known.size(); i++) {
+            if (!known.get(i).url().equals(fetched.get(i).url())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean hasNewChapters() {
+        return !added.isEmpty();
+    }
+}
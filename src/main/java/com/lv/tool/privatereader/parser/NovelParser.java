@@ -64,6 +64,31 @@ public interface NovelParser {
      */
     List<Chapter> parseChapterList();
 
+    /**
+     * 刷新章节列表，与已知章节比较得出变化
+     * 默认重新解析完整列表后比较，能判断目录是否变化或只获取目录末尾的解析器可以覆盖此方法
+     *
+     * @param known 已保存的章节列表
+     * @return 刷新结果
+     */
+    default ChapterListUpdate refreshChapterList(List<Chapter> known) {
+        return ChapterListUpdate.diff(known, parseChapterList());
+    }
+
+    /**
+     * 上次解析的章节是否直接来自书籍页面
+     * 由书籍保存，新建解析器时恢复，使首次刷新也能在书籍页面未变化时跳过解析
+     */
+    default boolean isChaptersFromBookPage() {
+        return false;
+    }
+
+    /**
+     * 恢复保存的章节来源，不支持增量刷新的解析器忽略
+     */
+    default void setChaptersFromBookPage(boolean chaptersFromBookPage) {
+    }
+
     /**
      * 获取章节内容
      * 优先使用缓存，缓存不存在或过期时才获取新内容
@@ -0,0 +1,130 @@
+package com.lv.tool.privatereader.parser.common;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 多关键词匹配自动机（Aho-Corasick）
+ *
+ * 构建一次后可被多个线程共享。调用方逐字符调用 {@link #next(int, char)} 推进状态，
+ * 再用 {@link #longestMatch(int)} 查询在当前字符处结束的最长关键词，
+ * 一遍扫描即可找出所有关键词的出现位置，代价与关键词数量无关。
+ */
+final class AhoCorasickMatcher {
+    static final int ROOT = 0;
+
+    /**
+     * 每个状态的出边，按字符排序以便二分查找
+     */
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] fail;
+    /**
+     * 在该状态结束的最长关键词长度（包括经失败链可达的关键词），0表示没有
+     */
+    private final int[] longest;
+
+    AhoCorasickMatcher(@NotNull String... keywords) {
+        List<StringBuilder> chars = new ArrayList<>();
+        List<List<Integer>> targets = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        chars.add(new StringBuilder());
+        targets.add(new ArrayList<>());
+        lengths.add(0);
+
+        for (String keyword : keywords) {
+            if (keyword.isEmpty()) continue;
+            int state = ROOT;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                int index = chars.get(state).indexOf(String.valueOf(c));
+                if (index >= 0) {
+                    state = targets.get(state).get(index);
+                } else {
+                    int created = chars.size();
+                    chars.add(new StringBuilder());
+                    targets.add(new ArrayList<>());
+                    lengths.add(0);
+                    chars.get(state).append(c);
+                    targets.get(state).add(created);
+                    state = created;
+                }
+            }
+            lengths.set(state, Math.max(lengths.get(state), keyword.length()));
+        }
+
+        int size = chars.size();
+        edgeChars = new char[size][];
+        edgeTargets = new int[size][];
+        for (int state = 0; state < size; state++) {
+            char[] c = chars.get(state).toString().toCharArray();
+            Integer[] order = new Integer[c.length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, (x, y) -> Character.compare(c[x], c[y]));
+            edgeChars[state] = new char[c.length];
+            edgeTargets[state] = new int[c.length];
+            for (int i = 0; i < order.length; i++) {
+                edgeChars[state][i] = c[order[i]];
+                edgeTargets[state][i] = targets.get(state).get(order[i]);
+            }
+        }
+
+        fail = new int[size];
+        longest = new int[size];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : edgeTargets[ROOT]) {
+            fail[child] = ROOT;
+            longest[child] = lengths.get(child);
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < edgeChars[state].length; i++) {
+                char c = edgeChars[state][i];
+                int child = edgeTargets[state][i];
+                int f = fail[state];
+                int target;
+                while ((target = edge(f, c)) < 0 && f != ROOT) {
+                    f = fail[f];
+                }
+                fail[child] = target >= 0 ? target : ROOT;
+                longest[child] = Math.max(lengths.get(child), longest[fail[child]]);
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * 读入一个字符后的状态
+     *
+     * @param state 当前状态，初始为 {@link #ROOT}
+     * @param c 读入的字符
+     * @return 新状态
+     */
+    int next(int state, char c) {
+        int target;
+        while ((target = edge(state, c)) < 0 && state != ROOT) {
+            state = fail[state];
+        }
+        return target >= 0 ? target : ROOT;
+    }
+
+    /**
+     * 在刚读入的字符处结束的最长关键词长度
+     *
+     * @param state {@link #next(int, char)} 返回的状态
+     * @return 关键词长度，没有关键词在此结束时返回0
+     */
+    int longestMatch(int state) {
+        return longest[state];
+    }
+
+    private int edge(int state, char c) {
+        int index = Arrays.binarySearch(edgeChars[state], c);
+        return index >= 0 ? edgeTargets[state][index] : -1;
+    }
+}
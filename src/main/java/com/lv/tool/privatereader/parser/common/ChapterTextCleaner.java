@@ -0,0 +1,198 @@
+package com.lv.tool.privatereader.parser.common;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 章节正文清理器
+ *
+ * 按固定顺序执行正文清理规则，规则在类加载时构建一次：
+ * 1. 去掉开头的广告或网址（广告、推广、http、www、com等开头，直到第一个句读符号）
+ * 2. 去掉站点名及其后直到句读符号的内容，站点名由 Aho-Corasick 自动机一次扫描匹配
+ * 3. 去掉“最新章节！”
+ * 4. 句读符号（，。！？）后换行并吸收两侧空白，其余连续空白折叠为一个换行
+ * 5. 整段文本只是一个章节标题时清空
+ *
+ * 第1到3步在一遍扫描中写入缓冲区，第4步再扫描一遍写入另一个缓冲区，
+ * 两个缓冲区按线程复用。结果与原先依次调用 replaceAll 的实现一致。
+ */
+public final class ChapterTextCleaner {
+    private static final String[] LEADING_AD_PREFIXES = {"广告", "推广", "http", "www", "com", "net", "org", "xyz"};
+    private static final AhoCorasickMatcher SITE_NAMES = new AhoCorasickMatcher(
+            "八八中文网", "88中文网", "求书网", "新笔趣阁", "笔趣阁", "顶点小说", "番茄小说");
+    private static final String LATEST_CHAPTER_MARK = "最新章节";
+
+    /**
+     * 整段文本为标题时清空，只在文本开头尝试匹配
+     */
+    private static final Pattern[] TITLE_ONLY_RULES = {
+            Pattern.compile("^\\s*第[0-9零一二三四五六七八九十百千万亿]+[章节卷集部篇].*$"),
+            Pattern.compile("^\\s*[0-9]+[、.][^0-9]*$"),
+            Pattern.compile("^\\s*第[0-9零一二三四五六七八九十百千万亿]+回.*$"),
+            Pattern.compile("^\\s*[序楔终][章话].*$"),
+            Pattern.compile("^\\s*[前序楔引]言.*$"),
+            Pattern.compile("^\\s*[后终]记.*$"),
+            Pattern.compile("^\\s*[卷部篇][0-9零一二三四五六七八九十百千万亿]+.*$"),
+            Pattern.compile("^\\s*[上中下]篇.*$|^\\s*番外.*$|^\\s*特别篇.*$|^\\s*外传.*$"),
+            Pattern.compile("^\\s*[早中午晚]章.*$|^\\s*[春夏秋冬]章.*$"),
+            Pattern.compile("^\\s*(间|幕)?插.*$")
+    };
+
+    /**
+     * 超过该容量的缓冲区用完后不再保留，避免线程长期占用大块内存
+     */
+    private static final int MAX_RETAINED_CAPACITY = 256 * 1024;
+    private static final ThreadLocal<StringBuilder[]> BUFFERS =
+            ThreadLocal.withInitial(() -> new StringBuilder[]{new StringBuilder(), new StringBuilder()});
+
+    private ChapterTextCleaner() {
+    }
+
+    /**
+     * 清理正文文本
+     *
+     * @param text 正文容器的文本
+     * @return 清理后的文本，段落之间以换行分隔
+     */
+    @NotNull
+    public static String clean(@NotNull String text) {
+        StringBuilder[] buffers = BUFFERS.get();
+        StringBuilder stripped = buffers[0];
+        StringBuilder folded = buffers[1];
+        stripped.setLength(0);
+        folded.setLength(0);
+        try {
+            removeAds(text, stripped);
+            foldWhitespace(stripped, folded);
+            for (Pattern rule : TITLE_ONLY_RULES) {
+                Matcher matcher = rule.matcher(folded);
+                if (matcher.lookingAt()) {
+                    folded.delete(0, matcher.end());
+                }
+            }
+            return trim(folded);
+        } finally {
+            if (stripped.capacity() > MAX_RETAINED_CAPACITY || folded.capacity() > MAX_RETAINED_CAPACITY) {
+                BUFFERS.remove();
+            }
+        }
+    }
+
+    /**
+     * 第1到3步：按句读符号分段，段内出现站点名时从最靠前的站点名处删到段尾
+     */
+    private static void removeAds(String text, StringBuilder out) {
+        int n = text.length();
+        int segmentStart = leadingAdEnd(text);
+        int cutAt = -1;
+        int state = AhoCorasickMatcher.ROOT;
+        // 删除“最新章节！”后，之前的字符不再参与匹配，与一次 replaceAll 的结果一致
+        int markFloor = 0;
+        for (int i = segmentStart; i <= n; i++) {
+            char c = i < n ? text.charAt(i) : 0;
+            if (i < n && !isSentencePunctuation(c)) {
+                state = SITE_NAMES.next(state, c);
+                int length = SITE_NAMES.longestMatch(state);
+                if (length > 0 && (cutAt < 0 || i - length + 1 < cutAt)) {
+                    cutAt = i - length + 1;
+                }
+                continue;
+            }
+            out.append(text, segmentStart, cutAt >= 0 ? cutAt : i);
+            if (i == n) break;
+
+            int markStart = out.length() - LATEST_CHAPTER_MARK.length();
+            if (c == '！' && markStart >= markFloor && endsWithMark(out, markStart)) {
+                out.setLength(markStart);
+                markFloor = markStart;
+            } else {
+                out.append(c);
+            }
+            segmentStart = i + 1;
+            cutAt = -1;
+            state = AhoCorasickMatcher.ROOT;
+        }
+    }
+
+    /**
+     * 开头是广告或网址时返回其后第一个句读符号的位置，否则返回0
+     */
+    private static int leadingAdEnd(String text) {
+        int start = 0;
+        while (start < text.length() && isRegexWhitespace(text.charAt(start))) start++;
+        for (String prefix : LEADING_AD_PREFIXES) {
+            if (startsWithIgnoreAsciiCase(text, start, prefix)) {
+                for (int i = start + prefix.length(); i < text.length(); i++) {
+                    if (isSentencePunctuation(text.charAt(i))) return i;
+                }
+                return text.length();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 第4步：句读符号后换行并吸收两侧空白，其余连续空白折叠为一个换行
+     */
+    private static void foldWhitespace(CharSequence in, StringBuilder out) {
+        int n = in.length();
+        boolean afterPunctuation = false;
+        int i = 0;
+        while (i < n) {
+            char c = in.charAt(i);
+            if (isRegexWhitespace(c)) {
+                int end = i + 1;
+                while (end < n && isRegexWhitespace(in.charAt(end))) end++;
+                if (!afterPunctuation && !(end < n && isSentencePunctuation(in.charAt(end)))) {
+                    out.append('\n');
+                }
+                i = end;
+                continue;
+            }
+            out.append(c);
+            afterPunctuation = isSentencePunctuation(c);
+            if (afterPunctuation) {
+                out.append('\n');
+            }
+            i++;
+        }
+    }
+
+    private static boolean endsWithMark(StringBuilder out, int from) {
+        for (int i = 0; i < LATEST_CHAPTER_MARK.length(); i++) {
+            if (out.charAt(from + i) != LATEST_CHAPTER_MARK.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static boolean startsWithIgnoreAsciiCase(String text, int offset, String prefix) {
+        if (offset + prefix.length() > text.length()) return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            char a = text.charAt(offset + i);
+            char b = prefix.charAt(i);
+            if (a != b && !(a < 128 && Character.toLowerCase(a) == b)) return false;
+        }
+        return true;
+    }
+
+    private static String trim(StringBuilder text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) <= ' ') start++;
+        while (end > start && text.charAt(end - 1) <= ' ') end--;
+        return text.substring(start, end);
+    }
+
+    private static boolean isSentencePunctuation(char c) {
+        return c == '，' || c == '。' || c == '！' || c == '？';
+    }
+
+    /**
+     * 与正则表达式 \s 相同的空白字符
+     */
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
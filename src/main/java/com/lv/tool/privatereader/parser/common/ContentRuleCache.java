@@ -0,0 +1,248 @@
+package com.lv.tool.privatereader.parser.common;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Selector;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 站点正文规则缓存
+ *
+ * 从文本密度分析的结果中为每个站点学习正文容器的CSS路径：
+ * - 同一站点连续几次分析得到相同的路径后，记为该站点的规则并保存到磁盘
+ * - 之后该站点的章节直接用规则 selectFirst，不再做全页分析
+ * - 规则连续几次选中的元素不是有效正文（过短或文本密度过低）时作废，重新学习
+ *
+ * 路径只使用标签名、id和class，从最近的带id祖先开始，不使用 nth-child，
+ * 页面中广告数量变化不会影响路径。只有路径能唯一定位到分析结果时才会学习。
+ */
+final class ContentRuleCache {
+    private static final Logger LOG = Logger.getInstance(ContentRuleCache.class);
+    private static final int LEARN_THRESHOLD = 3;
+    private static final int MAX_FAILURES = 2;
+    private static final int MAX_PATH_DEPTH = 8;
+    private static final int MAX_RULES = 512;
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][\\w-]*");
+
+    private static final ContentRuleCache INSTANCE =
+            new ContentRuleCache(Path.of(PathManager.getSystemPath(), "private-reader", "content-rules.json"));
+
+    private final Path file;
+    private final Gson gson = new Gson();
+    private Map<String, Rule> rules;
+    private final Map<String, Candidate> candidates = new HashMap<>();
+    private final Map<String, Integer> failures = new HashMap<>();
+
+    ContentRuleCache(@NotNull Path file) {
+        this.file = file;
+    }
+
+    @NotNull
+    static ContentRuleCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 获取站点已学到的正文选择器
+     *
+     * @param host 站点
+     * @return 选择器，尚未学到时返回null
+     */
+    @Nullable
+    synchronized String ruleFor(@NotNull String host) {
+        Rule rule = rules().get(host);
+        return rule != null ? rule.selector : null;
+    }
+
+    /**
+     * 记录规则选中了有效正文
+     *
+     * @param host 站点
+     */
+    synchronized void recordRuleHit(@NotNull String host) {
+        failures.remove(host);
+        Rule rule = rules().get(host);
+        if (rule != null) {
+            rule.hits++;
+        }
+    }
+
+    /**
+     * 记录规则没有选中有效正文，连续失败达到上限时作废规则
+     *
+     * @param host 站点
+     */
+    synchronized void recordRuleMiss(@NotNull String host) {
+        int count = failures.merge(host, 1, Integer::sum);
+        if (count < MAX_FAILURES) return;
+
+        failures.remove(host);
+        Rule removed = rules().remove(host);
+        if (removed != null) {
+            LOG.info("站点正文规则失效，重新学习: " + host + " -> " + removed.selector + "，累计命中 " + removed.hits + " 次");
+            save();
+        }
+    }
+
+    /**
+     * 记录一次分析得到的正文元素，同一路径连续出现足够次数后学习为规则
+     *
+     * @param host 站点
+     * @param root 页面根元素
+     * @param element 分析得到的正文元素
+     */
+    void learn(@NotNull String host, @NotNull Element root, @NotNull Element element) {
+        String selector = stablePath(root, element);
+        if (selector == null) {
+            return;
+        }
+        synchronized (this) {
+            Candidate candidate = candidates.get(host);
+            if (candidate == null || !candidate.selector.equals(selector)) {
+                candidates.put(host, new Candidate(selector));
+                return;
+            }
+            if (++candidate.count < LEARN_THRESHOLD) {
+                return;
+            }
+            candidates.remove(host);
+            Rule rule = new Rule();
+            rule.selector = selector;
+            rule.learnedAt = System.currentTimeMillis();
+            Map<String, Rule> all = rules();
+            all.put(host, rule);
+            if (all.size() > MAX_RULES) {
+                all.entrySet().stream()
+                        .min(Comparator.comparingLong(e -> e.getValue().learnedAt))
+                        .ifPresent(oldest -> all.remove(oldest.getKey()));
+            }
+            LOG.info("学到站点正文规则: " + host + " -> " + selector);
+            save();
+        }
+    }
+
+    /**
+     * 获取页面所属的站点
+     *
+     * @return 站点，页面没有地址时返回null
+     */
+    @Nullable
+    static String hostOf(@NotNull Element root) {
+        Document document = root.ownerDocument();
+        if (document == null || document.location().isEmpty()) {
+            return null;
+        }
+        try {
+            return URI.create(document.location()).getHost();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 生成元素的稳定路径，路径不能唯一定位到该元素时返回null
+     */
+    @Nullable
+    static String stablePath(@NotNull Element root, @NotNull Element element) {
+        Deque<String> parts = new ArrayDeque<>();
+        Element current = element;
+        while (current != null && !(current instanceof Document) && parts.size() < MAX_PATH_DEPTH) {
+            StringBuilder part = new StringBuilder(current.normalName());
+            String id = current.id();
+            boolean hasId = !id.isEmpty() && IDENTIFIER.matcher(id).matches();
+            if (hasId) {
+                part.append('#').append(id);
+            } else {
+                for (String className : current.classNames()) {
+                    if (IDENTIFIER.matcher(className).matches()) {
+                        part.append('.').append(className);
+                    }
+                }
+            }
+            parts.addFirst(part.toString());
+            if (hasId) break;
+            current = current.parent();
+        }
+        String selector = String.join(" > ", parts);
+        try {
+            return root.selectFirst(selector) == element ? selector : null;
+        } catch (Selector.SelectorParseException e) {
+            return null;
+        }
+    }
+
+    private Map<String, Rule> rules() {
+        if (rules == null) {
+            rules = load();
+        }
+        return rules;
+    }
+
+    private Map<String, Rule> load() {
+        try {
+            Map<String, Rule> loaded = gson.fromJson(Files.readString(file, StandardCharsets.UTF_8),
+                    new TypeToken<LinkedHashMap<String, Rule>>() {}.getType());
+            if (loaded != null) {
+                loaded.values().removeIf(rule -> rule == null || rule.selector == null);
+                LOG.debug("加载站点正文规则: " + loaded.size() + " 个站点");
+                return loaded;
+            }
+        } catch (NoSuchFileException e) {
+            // 尚未学到任何规则
+        } catch (IOException | JsonParseException e) {
+            LOG.warn("读取站点正文规则失败，重新学习: " + e.getMessage());
+        }
+        return new LinkedHashMap<>();
+    }
+
+    private void save() {
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "content-rules", ".tmp");
+            try {
+                Files.writeString(temp, gson.toJson(rules), StandardCharsets.UTF_8);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            LOG.warn("保存站点正文规则失败: " + e.getMessage());
+        }
+    }
+
+    private static final class Rule {
+        private String selector;
+        private long learnedAt;
+        private long hits;
+    }
+
+    private static final class Candidate {
+        private final String selector;
+        private int count = 1;
+
+        Candidate(String selector) {
+            this.selector = selector;
+        }
+    }
+}
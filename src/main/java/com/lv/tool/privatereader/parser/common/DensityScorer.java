@@ -0,0 +1,182 @@
+package com.lv.tool.privatereader.parser.common;
+
+import org.jetbrains.annotations.NotNull;
+import org.jsoup.nodes.Attribute;
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.DataNode;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 文本密度评分器
+ *
+ * 一次自底向上的遍历算出子树中每个元素的统计量，结果保存在表中供排序反复使用：
+ * - 文本长度：连续空白按一个字符计，只含空白的文本节点（元素之间的缩进和换行）不计，
+ *   与 {@code Element.text()} 的长度接近
+ * - 链接文本长度：位于 a 元素内的文本长度
+ * - 标签数和内部HTML长度：HTML长度按不格式化输出估算，不再为每个候选元素序列化子树
+ *
+ * 原先每个候选元素都要调用 text() 和 html()，排序比较时还会重复计算，
+ * 而候选元素层层嵌套，同一子树会被遍历很多次。
+ */
+final class DensityScorer {
+    private static final Set<String> VOID_TAGS = Set.of(
+            "area", "base", "br", "col", "embed", "hr", "img", "input", "link", "meta", "param", "source", "track", "wbr");
+
+    private final Map<Element, Stats> stats = new IdentityHashMap<>();
+    private final List<Element> candidates = new ArrayList<>();
+
+    private DensityScorer() {
+    }
+
+    /**
+     * 统计子树中的所有元素
+     *
+     * @param root 子树根元素
+     * @param candidateTags 需要按文档顺序记录为候选的标签
+     * @return 评分结果
+     */
+    @NotNull
+    static DensityScorer score(@NotNull Element root, @NotNull Set<String> candidateTags) {
+        DensityScorer scorer = new DensityScorer();
+        ArrayDeque<Accumulator> open = new ArrayDeque<>();
+        NodeTraversor.traverse(new NodeVisitor() {
+            @Override
+            public void head(Node node, int depth) {
+                if (node instanceof Element) {
+                    Element element = (Element) node;
+                    open.push(new Accumulator());
+                    if (candidateTags.contains(element.normalName())) {
+                        scorer.candidates.add(element);
+                    }
+                } else if (!open.isEmpty()) {
+                    Accumulator parent = open.peek();
+                    if (node instanceof TextNode) {
+                        TextNode textNode = (TextNode) node;
+                        String text = textNode.getWholeText();
+                        // 缩进越深、嵌套越多的容器空白节点越多，计入文本会抬高它们的得分
+                        if (!textNode.isBlank()) {
+                            parent.textLength += normalisedLength(text);
+                        }
+                        parent.htmlLength += text.length();
+                    } else if (node instanceof DataNode) {
+                        parent.htmlLength += ((DataNode) node).getWholeData().length();
+                    } else if (node instanceof Comment) {
+                        parent.htmlLength += ((Comment) node).getData().length() + 7;
+                    }
+                }
+            }
+
+            @Override
+            public void tail(Node node, int depth) {
+                if (!(node instanceof Element)) return;
+                Element element = (Element) node;
+                Accumulator self = open.pop();
+                if (element.normalName().equals("a")) {
+                    self.linkTextLength = self.textLength;
+                }
+                scorer.stats.put(element, new Stats(self.textLength, self.linkTextLength, self.tagCount, self.htmlLength));
+                Accumulator parent = open.peek();
+                if (parent != null) {
+                    parent.textLength += self.textLength;
+                    parent.linkTextLength += self.linkTextLength;
+                    parent.tagCount += self.tagCount + 1;
+                    parent.htmlLength += self.htmlLength + tagLength(element);
+                }
+            }
+        }, root);
+        return scorer;
+    }
+
+    /**
+     * 获取元素的统计量
+     *
+     * @param element 子树中的元素
+     * @return 统计量，不在子树中时返回空统计
+     */
+    @NotNull
+    Stats get(@NotNull Element element) {
+        Stats result = stats.get(element);
+        return result != null ? result : Stats.EMPTY;
+    }
+
+    /**
+     * 按文档顺序排列的候选元素
+     */
+    @NotNull
+    List<Element> candidates() {
+        return candidates;
+    }
+
+    /**
+     * 连续空白按一个字符计算的文本长度
+     */
+    private static int normalisedLength(String text) {
+        int length = 0;
+        boolean lastWhitespace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            boolean whitespace = c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u00a0';
+            if (!whitespace || !lastWhitespace) {
+                length++;
+            }
+            lastWhitespace = whitespace;
+        }
+        return length;
+    }
+
+    /**
+     * 元素自身开始和结束标签的长度
+     */
+    private static int tagLength(Element element) {
+        String name = element.tagName();
+        int length = name.length() + 2;
+        for (Attribute attribute : element.attributes()) {
+            length += attribute.getKey().length() + attribute.getValue().length() + 4;
+        }
+        if (!VOID_TAGS.contains(element.normalName())) {
+            length += name.length() + 3;
+        }
+        return length;
+    }
+
+    /**
+     * 元素的统计量
+     *
+     * @param textLength 文本长度
+     * @param linkTextLength 其中位于链接内的文本长度
+     * @param tagCount 子孙元素数
+     * @param htmlLength 内部HTML长度（估算）
+     */
+    record Stats(int textLength, int linkTextLength, int tagCount, int htmlLength) {
+        static final Stats EMPTY = new Stats(0, 0, 0, 0);
+
+        double density() {
+            return htmlLength > 0 ? (double) textLength / htmlLength : 0;
+        }
+
+        /**
+         * 排序用的得分：密度乘以非链接文本长度，导航和推荐列表的链接文本不计分
+         */
+        double score() {
+            return density() * (textLength - linkTextLength);
+        }
+    }
+
+    private static final class Accumulator {
+        private int textLength;
+        private int linkTextLength;
+        private int tagCount;
+        private int htmlLength;
+    }
+}
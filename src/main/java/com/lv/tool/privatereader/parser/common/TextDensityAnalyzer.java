@@ -3,11 +3,15 @@ package com.lv.tool.privatereader.parser.common;
 import com.intellij.openapi.diagnostic.Logger;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.jsoup.select.Selector;
 import java.util.*;
 
 /**
  * 文本密度分析器
  * 用于智能识别网页中的正文内容
+ *
+ * 分析结果会按站点学习为正文规则（见 {@link ContentRuleCache}），
+ * 同一站点之后的章节优先用规则直接定位。
  */
 public class TextDensityAnalyzer {
     private static final Logger LOG = Logger.getInstance(TextDensityAnalyzer.class);
@@ -38,18 +42,48 @@ public class TextDensityAnalyzer {
      */
     public static Element findContentElement(Element root) {
         LOG.debug("开始查找正文内容...");
-        
+        String host = ContentRuleCache.hostOf(root);
+        ContentRuleCache ruleCache = ContentRuleCache.getInstance();
+
+        // 0. 站点已学到正文规则时直接定位
+        if (host != null) {
+            String rule = ruleCache.ruleFor(host);
+            if (rule != null) {
+                Element element = selectFirstQuietly(root, rule);
+                if (isValidContentElement(element)) {
+                    LOG.debug("通过站点规则找到有效内容: " + rule);
+                    ruleCache.recordRuleHit(host);
+                    return element;
+                }
+                LOG.debug("站点规则未找到有效内容: " + rule);
+                ruleCache.recordRuleMiss(host);
+            }
+        }
+
         // 1. 首先尝试常见的内容容器class/id
         LOG.debug("尝试通过常见选择器查找...");
         Element element = findByCommonSelectors(root);
         if (isValidContentElement(element)) {
             LOG.info("通过常见选择器找到有效内容");
-            return element;
+        } else {
+            // 2. 基于文本密度分析
+            LOG.debug("尝试通过文本密度分析查找...");
+            element = findByTextDensity(root);
+        }
+
+        if (element != null && host != null) {
+            ruleCache.learn(host, root, element);
         }
+        return element;
+    }
 
-        // 2. 基于文本密度分析
-        LOG.debug("尝试通过文本密度分析查找...");
-        return findByTextDensity(root);
+    private static Element selectFirstQuietly(Element root, String selector) {
+        try {
+            return root.selectFirst(selector);
+        } catch (Selector.SelectorParseException e) {
+            LOG.warn("无效的站点正文规则: " + selector);
+            return null;
+        }
     }
 
     private static Element findByCommonSelectors(Element root) {
@@ -82,30 +116,28 @@ public class TextDensityAnalyzer {
         return null;
     }
 
-    private static Element findByTextDensity(Element root) {
+    static Element findByTextDensity(Element root) {
+        // 一次遍历统计所有元素的文本长度、链接文本长度和HTML长度，之后的筛选和排序只查表
+        DensityScorer scorer = DensityScorer.score(root, CONTENT_TAGS);
+        LOG.debug("找到潜在内容容器数量: " + scorer.candidates().size());
+
         List<Element> candidates = new ArrayList<>();
-        
-        // 收集所有可能的内容容器
-        Elements elements = root.select(String.join(",", CONTENT_TAGS));
-        LOG.debug("找到潜在内容容器数量: " + elements.size());
-        
-        for (Element element : elements) {
-            if (isValidContentElement(element) && !containsNoiseKeywords(element)) {
+        for (Element element : scorer.candidates()) {
+            DensityScorer.Stats stats = scorer.get(element);
+            if (isValidContent(stats) && !containsNoiseKeywords(element)) {
                 candidates.add(element);
-                LOG.debug("添加候选内容容器，文本长度: " + element.text().length());
+                LOG.debug("添加候选内容容器，文本长度: " + stats.textLength());
             }
         }
 
-        // 按文本密度排序
-        candidates.sort((a, b) -> Double.compare(
-            getTextDensity(b) * b.text().length(),
-            getTextDensity(a) * a.text().length()
-        ));
+        // 按文本密度与非链接文本长度的乘积排序
+        candidates.sort(Comparator.comparingDouble((Element element) -> scorer.get(element).score()).reversed());
 
         if (!candidates.isEmpty()) {
             Element best = candidates.get(0);
+            DensityScorer.Stats stats = scorer.get(best);
             LOG.info(String.format("找到最佳内容容器 - 文本长度: %d, 密度: %.2f", 
-                best.text().length(), getTextDensity(best)));
+                stats.textLength(), stats.density()));
             return best;
         }
 
@@ -115,14 +147,16 @@ public class TextDensityAnalyzer {
 
     private static boolean isValidContentElement(Element element) {
         if (element == null) return false;
-        
-        String text = element.text().trim();
-        if (text.length() < MIN_TEXT_LENGTH) {
-            LOG.debug("内容长度不足: " + text.length());
+        return isValidContent(DensityScorer.score(element, Set.of()).get(element));
+    }
+
+    private static boolean isValidContent(DensityScorer.Stats stats) {
+        if (stats.textLength() < MIN_TEXT_LENGTH) {
+            LOG.debug("内容长度不足: " + stats.textLength());
             return false;
         }
 
-        double density = getTextDensity(element);
+        double density = stats.density();
         boolean valid = density >= TEXT_DENSITY_THRESHOLD;
         
         if (!valid) {
@@ -1,8 +1,12 @@
 package com.lv.tool.privatereader.parser.common;
 
+import java.util.regex.Pattern;
+
 /**
  * 文本格式化工具
  * 用于处理小说文本的格式化，包括段落、对话、场景分隔符和标题的处理
+ *
+ * 所有正则表达式在类加载时编译一次，不再在每次格式化时重新编译。
  */
 public class TextFormatter {
     private static final int MAX_PARAGRAPH_LENGTH = 500;
@@ -29,6 +33,49 @@ public class TextFormatter {
         "，", "。", "！", "？", "；", "：", "、", "…"
     };
 
+    private static final Pattern LINE_BREAK = Pattern.compile("\\r\\n|\\r");
+    private static final Pattern SPACES = Pattern.compile("[ 　\\t]+");
+    private static final Pattern ELLIPSIS = Pattern.compile("…{2,}|\\.\\.\\.");
+    private static final Pattern EXCLAMATIONS = Pattern.compile("!{2,}");
+    private static final Pattern QUESTIONS = Pattern.compile("\\?{2,}");
+    private static final Pattern SENTENCE_END = Pattern.compile("([。！？])(?=[^「」『』\\s])");
+    private static final Pattern SENTENCE_END_BEFORE_NEWLINE = Pattern.compile("([。！？])(?=\\n)");
+    private static final Pattern DIALOG_END = Pattern.compile("([。！？][「」『』])(?=[^，。！？])");
+    private static final Pattern TITLE_LINE = Pattern.compile("(?m)^(第[零一二三四五六七八九十百千万]+[章节]\\s*[^\\n]+)$");
+    private static final Pattern PARAGRAPH_BREAK = Pattern.compile(
+        "\\n\\s*\\n+" +                     // 空行
+        "|(?<=[。！？])(?=\\s*\\n)" +       // 句末换行
+        "|(?<=[。！？])(?=[^，。！？]*?(" + String.join("|", PARAGRAPH_INDICATORS) + "))" // 指示词
+    );
+    private static final Pattern TITLE_PARAGRAPH = Pattern.compile("^\\s*第[零一二三四五六七八九十百千万]+[章节].*$");
+    private static final Pattern SENTENCE_BREAK = Pattern.compile("(?<=[。！？])");
+    private static final Pattern DIALOG_PAIR = Pattern.compile(".*[「『].*[」』].*");
+    private static final Pattern DIALOG_UNCLOSED = Pattern.compile(".*[「『][^「『」』]+$");
+    private static final Pattern BRACKETS = Pattern.compile("\\s*([（）()《》「」『』]+)\\s*");
+
+    /**
+     * 后处理中每个标点的规则，顺序与 PUNCTUATION_MARKS 一致
+     */
+    private static final Pattern[] PUNCTUATION_RULES = new Pattern[PUNCTUATION_MARKS.length];
+    private static final String[] PUNCTUATION_REPLACEMENTS = new String[PUNCTUATION_MARKS.length];
+    private static final Pattern[] DIALOG_MARKER_RULES = new Pattern[DIALOG_MARKERS.length];
+
+    static {
+        for (int i = 0; i < PUNCTUATION_MARKS.length; i++) {
+            String mark = PUNCTUATION_MARKS[i];
+            if (mark.equals("。") || mark.equals("！") || mark.equals("？")) {
+                PUNCTUATION_RULES[i] = Pattern.compile("\\s*" + mark + "(?!\\s)");
+                PUNCTUATION_REPLACEMENTS[i] = mark + " ";
+            } else {
+                PUNCTUATION_RULES[i] = Pattern.compile("\\s*" + mark + "\\s*");
+                PUNCTUATION_REPLACEMENTS[i] = mark;
+            }
+        }
+        for (int i = 0; i < DIALOG_MARKERS.length; i++) {
+            DIALOG_MARKER_RULES[i] = Pattern.compile("\\s*" + DIALOG_MARKERS[i] + "\\s*");
+        }
+    }
+
     /**
      * 格式化文本内容
      */
@@ -48,25 +95,23 @@ public class TextFormatter {
      */
     private static String preprocess(String text) {
         // 基础清理
-        text = text.replaceAll("\\r\\n|\\r", "\n")
-                  .replaceAll("[ 　\\t]+", " ")
-                  .trim();
+        text = LINE_BREAK.matcher(text).replaceAll("\n");
+        text = SPACES.matcher(text).replaceAll(" ").trim();
         
         // 标点规范化
-        text = text.replaceAll("…{2,}|\\.\\.\\.", "……")
-                  .replaceAll("!{2,}", "！！")
-                  .replaceAll("\\?{2,}", "？？");
+        text = ELLIPSIS.matcher(text).replaceAll("……");
+        text = EXCLAMATIONS.matcher(text).replaceAll("！！");
+        text = QUESTIONS.matcher(text).replaceAll("？？");
         
         // 在句末添加空格
-        text = text.replaceAll("([。！？])(?=[^「」『』\\s])", "$1 ");
-        text = text.replaceAll("([。！？])(?=\\n)", "$1 ");
+        text = SENTENCE_END.matcher(text).replaceAll("$1 ");
+        text = SENTENCE_END_BEFORE_NEWLINE.matcher(text).replaceAll("$1 ");
         
         // 处理对话
-        text = text.replaceAll("([。！？][「」『』])(?=[^，。！？])", "$1 ");
+        text = DIALOG_END.matcher(text).replaceAll("$1 ");
         
         // 处理标题
-        text = text.replaceAll("(?m)^(第[零一二三四五六七八九十百千万]+[章节]\\s*[^\\n]+)$", 
-            "\n\n        $1\n\n");
+        text = TITLE_LINE.matcher(text).replaceAll("\n\n        $1\n\n");
         
         return text;
     }
@@ -76,11 +121,7 @@ public class TextFormatter {
      */
     private static String formatParagraphs(String text) {
         // 按基本规则分段
-        String[] rawParagraphs = text.split(
-            "\\n\\s*\\n+" +                     // 空行
-            "|(?<=[。！？])(?=\\s*\\n)" +       // 句末换行
-            "|(?<=[。！？])(?=[^，。！？]*?(" + String.join("|", PARAGRAPH_INDICATORS) + "))" // 指示词
-        );
+        String[] rawParagraphs = PARAGRAPH_BREAK.split(text);
         
         StringBuilder result = new StringBuilder();
         boolean lastWasDialog = false;
@@ -90,7 +131,7 @@ public class TextFormatter {
             if (para.isEmpty()) continue;
             
             // 标题处理
-            if (para.matches("^\\s*第[零一二三四五六七八九十百千万]+[章节].*$")) {
+            if (TITLE_PARAGRAPH.matcher(para).matches()) {
                 result.append("\n    ").append(para).append("\n");
                 lastWasDialog = false;
                 continue;
@@ -105,7 +146,7 @@ public class TextFormatter {
             
             // 长段落智能拆分
             if (para.length() > MAX_PARAGRAPH_LENGTH) {
-                String[] sentences = para.split("(?<=[。！？])");
+                String[] sentences = SENTENCE_BREAK.split(para);
                 StringBuilder temp = new StringBuilder();
                 
                 for (String sent : sentences) {
@@ -143,8 +184,8 @@ public class TextFormatter {
      * 判断是否包含对话
      */
     private static boolean containsDialog(String text) {
-        return text.matches(".*[「『].*[」』].*") || 
-               text.matches(".*[「『][^「『」』]+$") ||  // 未闭合的引号(跨段对话)
+        return DIALOG_PAIR.matcher(text).matches() || 
+               DIALOG_UNCLOSED.matcher(text).matches() ||  // 未闭合的引号(跨段对话)
                text.startsWith("「") || text.startsWith("『");
     }
 
@@ -164,22 +205,22 @@ public class TextFormatter {
      * 后处理文本
      */
     private static String postprocess(String text) {
-        // 处理标点符号前后的空格，但保留句末空格
-        for (String mark : PUNCTUATION_MARKS) {
-            if (mark.equals("。") || mark.equals("！") || mark.equals("？")) {
-                text = text.replaceAll("\\s*" + mark + "(?!\\s)", mark + " ");
-            } else {
-                text = text.replaceAll("\\s*" + mark + "\\s*", mark);
+        // 处理标点符号前后的空格，但保留句末空格；不含该标点时跳过
+        for (int i = 0; i < PUNCTUATION_MARKS.length; i++) {
+            if (text.contains(PUNCTUATION_MARKS[i])) {
+                text = PUNCTUATION_RULES[i].matcher(text).replaceAll(PUNCTUATION_REPLACEMENTS[i]);
             }
         }
         
         // 处理对话标记前后的空格
-        for (String marker : DIALOG_MARKERS) {
-            text = text.replaceAll("\\s*" + marker + "\\s*", marker);
+        for (int i = 0; i < DIALOG_MARKERS.length; i++) {
+            if (text.contains(DIALOG_MARKERS[i])) {
+                text = DIALOG_MARKER_RULES[i].matcher(text).replaceAll(DIALOG_MARKERS[i]);
+            }
         }
         
         // 处理括号前后的空格
-        text = text.replaceAll("\\s*([（）()《》「」『』]+)\\s*", "$1");
+        text = BRACKETS.matcher(text).replaceAll("$1");
         
         return text;
     }
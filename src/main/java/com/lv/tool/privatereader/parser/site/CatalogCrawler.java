@@ -0,0 +1,397 @@
+package com.lv.tool.privatereader.parser.site;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.lv.tool.privatereader.async.ReactiveSchedulers;
+import com.lv.tool.privatereader.parser.NovelParser;
+import com.lv.tool.privatereader.util.SafeHttpRequestExecutor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 目录页爬取器
+ *
+ * 书籍页面上找不到章节时，从目录链接出发抓取章节目录：
+ * - 同一批目录页并发请求，最多 {@link #MAX_CONCURRENT_PAGES} 个，
+ *   同一站点的连接数另受 {@link SafeHttpRequestExecutor} 的每站点上限约束
+ * - 目录页中的分页链接作为下一批页面继续抓取：分页区域中的页码、翻页下拉框的选项、下一页和尾页等
+ * - 分页区域是页码链接最近的、自身 class 或 id 为 page、pages、pagination、pager 的祖先元素，
+ *   其中至少有两个页码链接且页码链接占一半以上，包住整个页面的同名元素不算；
+ *   分页区域之外的数字链接不会被当作目录页，被识别为章节的链接仍是章节
+ * - 页面按发现的先后抓取，但尾页和窗口式分页（1 2 3 … 50）使页面发现顺序与网站顺序不一致，
+ *   因此每个页面带有页码：取自页码链接文本或下拉框中的位置，都没有时取自地址中与入口地址不同的数字，
+ *   章节按页码顺序合并，同页码按发现顺序，先出现的同一地址优先
+ * - 每抓取一页就把按页码排好的当前结果交给进度回调，界面可以先显示已加载的部分
+ *
+ * 单个页面失败只记录日志，不影响其他页面。
+ */
+final class CatalogCrawler {
+    private static final Logger LOG = Logger.getInstance(CatalogCrawler.class);
+    static final int MAX_CONCURRENT_PAGES = 4;
+    static final int MAX_PAGES = 200;
+
+    private static final String PAGE_SELECT_SELECTOR = "select[onchange] option[value]";
+    /**
+     * 分页区域自身的 class 或 id
+     */
+    private static final Pattern PAGER_NAME = Pattern.compile("(?i)page|pages|pagination|pager");
+    /**
+     * 分页区域中至少要有的页码链接数
+     */
+    private static final int MIN_PAGER_LINKS = 2;
+    /**
+     * 向上查找分页区域的最大层数
+     */
+    private static final int MAX_PAGER_DEPTH = 4;
+    /**
+     * 分页区域中的页码文本，如 2、[2]、第2页、101-200
+     */
+    private static final Pattern PAGE_NUMBER_TEXT = Pattern.compile("^(?:\\[?\\d+]?|第\\d+页|\\d+\\s*-\\s*\\d+)$");
+    /**
+     * 不在分页区域中也可以确定是翻页的链接文本
+     */
+    private static final Pattern PAGE_LINK_TEXT = Pattern.compile("^(?:下一?页|下一頁|尾页|末页|第\\d+页)$");
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+    /**
+     * 无法确定页码的页面排在最后
+     */
+    private static final int UNKNOWN_PAGE = Integer.MAX_VALUE;
+
+    private final UrlHashSet seenUrls;
+    private final List<NovelParser.Chapter> chapters;
+    private final Consumer<List<NovelParser.Chapter>> progress;
+    private final Set<String> pages = new LinkedHashSet<>();
+    /**
+     * 页面地址到页码，来自其他页面上指向它的页码链接或下拉框选项
+     */
+    private final Map<String, Integer> pageNumbers = new HashMap<>();
+    /**
+     * 页面地址到发现顺序，页码相同时的排序依据
+     */
+    private final Map<String, Integer> discoveryOrder = new HashMap<>();
+    private final List<CatalogPage> fetched = new ArrayList<>();
+    private Set<String> baseNumbers;
+    private int scheduledPages;
+    private boolean limitReached;
+    private String tailPage;
+
+    /**
+     * @param seenUrls 已收集的章节地址，与调用方共享
+     * @param chapters 收集结果，抓取完成后新章节按页码顺序追加到末尾
+     * @param progress 每抓取一页后收到当前结果的副本
+     */
+    CatalogCrawler(@NotNull UrlHashSet seenUrls, @NotNull List<NovelParser.Chapter> chapters,
+                   @NotNull Consumer<List<NovelParser.Chapter>> progress) {
+        this.seenUrls = seenUrls;
+        this.chapters = chapters;
+        this.progress = progress;
+    }
+
+    /**
+     * 标记页面已抓取过，之后遇到这些页面的链接时不再抓取
+     *
+     * @param urls 页面地址
+     */
+    void skip(@NotNull Collection<String> urls) {
+        pages.addAll(urls);
+    }
+
+    /**
+     * 已抓取和跳过的全部页面，按发现顺序
+     */
+    @NotNull
+    Set<String> pages() {
+        return new LinkedHashSet<>(pages);
+    }
+
+    /**
+     * 按页码顺序最后一个含有章节链接的页面，新章节通常出现在这一页或它链接的后续页面
+     *
+     * @return 页面地址，没有页面含章节链接时返回null
+     */
+    @Nullable
+    String tailPage() {
+        return tailPage;
+    }
+
+    /**
+     * 从一组目录链接开始抓取
+     *
+     * @param catalogUrls 书籍页面上的目录链接，按页面顺序
+     * @return 完成信号，值为成功解析的目录页数
+     */
+    @NotNull
+    Mono<Integer> crawl(@NotNull List<String> catalogUrls) {
+        return Mono.defer(() -> {
+            if (!catalogUrls.isEmpty()) {
+                baseNumbers = digitRuns(catalogUrls.get(0));
+            }
+            return crawlWave(schedule(catalogUrls), 0);
+        }).doOnSuccess(parsed -> mergeAll());
+    }
+
+    private Mono<Integer> crawlWave(List<String> wave, int parsedSoFar) {
+        if (wave.isEmpty()) {
+            return Mono.just(parsedSoFar);
+        }
+        LOG.info("并发抓取 " + wave.size() + " 个目录页面，已解析 " + parsedSoFar + " 个");
+        List<String> nextWave = new ArrayList<>();
+        return Flux.fromIterable(wave)
+                .flatMapSequential(this::fetch, MAX_CONCURRENT_PAGES)
+                // flatMapSequential 按输入顺序逐个发出，记录步骤不会并发执行
+                .doOnNext(page -> record(page, nextWave))
+                .count()
+                .flatMap(parsed -> crawlWave(nextWave, parsedSoFar + parsed.intValue()));
+    }
+
+    private Mono<CatalogPage> fetch(String url) {
+        return SafeHttpRequestExecutor.executeCatalogGetRequestAsync(url)
+                .publishOn(ReactiveSchedulers.getInstance().compute())
+                .map(response -> parse(url, response.body()))
+                .onErrorResume(e -> {
+                    LOG.warn("解析目录页面失败: " + url + "，" + e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private static CatalogPage parse(String url, String html) {
+        Document document = Jsoup.parse(html, url);
+        List<PageLink> pageLinks = new ArrayList<>();
+        String host = hostOf(url);
+        Elements options = document.select(PAGE_SELECT_SELECTOR);
+        for (int i = 0; i < options.size(); i++) {
+            addPageLink(pageLinks, host, url, options.get(i).absUrl("value"), i + 1);
+        }
+        // 分页区域中的页码链接不参与章节识别
+        Set<Element> pagerLinks = new HashSet<>();
+        for (List<Element> group : findPagerLinks(document)) {
+            for (Element link : group) {
+                pagerLinks.add(link);
+                addPageLink(pageLinks, host, url, link.absUrl("href"), firstNumber(link.text().trim()));
+            }
+        }
+        Elements candidates = new Elements();
+        for (Element link : document.select("a[href]")) {
+            if (pagerLinks.contains(link)) {
+                continue;
+            }
+            String text = link.text().trim();
+            if (PAGE_LINK_TEXT.matcher(text).matches()) {
+                addPageLink(pageLinks, host, url, link.absUrl("href"),
+                        text.startsWith("第") ? firstNumber(text) : UNKNOWN_PAGE);
+                continue;
+            }
+            candidates.add(link);
+        }
+        return new CatalogPage(url, ChapterLinkClassifier.classify(candidates), pageLinks);
+    }
+
+    /**
+     * 按分页区域分组的页码链接
+     * 每个页码链接归入最近的分页名称祖先元素，页码链接不足两个或不到该元素链接数一半的分组被丢弃
+     */
+    private static Collection<List<Element>> findPagerLinks(Document document) {
+        Map<Element, List<Element>> groups = new LinkedHashMap<>();
+        for (Element link : document.select("a[href]")) {
+            if (!PAGE_NUMBER_TEXT.matcher(link.text().trim()).matches()) {
+                continue;
+            }
+            Element pager = link.parent();
+            for (int depth = 0; pager != null && depth < MAX_PAGER_DEPTH && !isPagerName(pager); depth++) {
+                pager = pager.parent();
+            }
+            if (pager != null && isPagerName(pager)) {
+                groups.computeIfAbsent(pager, k -> new ArrayList<>()).add(link);
+            }
+        }
+        groups.entrySet().removeIf(entry -> entry.getValue().size() < MIN_PAGER_LINKS
+                || entry.getValue().size() * 2 < entry.getKey().select("a[href]").size());
+        return groups.values();
+    }
+
+    private static boolean isPagerName(Element element) {
+        if (PAGER_NAME.matcher(element.id()).matches()) {
+            return true;
+        }
+        for (String className : element.classNames()) {
+            if (PAGER_NAME.matcher(className).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void addPageLink(List<PageLink> pageLinks, String host, String pageUrl, String link, int number) {
+        if (host != null && !link.isEmpty() && !link.equals(pageUrl) && host.equals(hostOf(link))) {
+            pageLinks.add(new PageLink(link, number));
+        }
+    }
+
+    /**
+     * 记录抓取到的页面，调度新发现的页面，并按页码顺序发布当前结果
+     */
+    private void record(CatalogPage page, List<String> nextWave) {
+        List<String> urls = new ArrayList<>(page.pageLinks().size());
+        for (PageLink link : page.pageLinks()) {
+            if (link.number() != UNKNOWN_PAGE) {
+                pageNumbers.putIfAbsent(link.url(), link.number());
+            }
+            urls.add(link.url());
+        }
+        nextWave.addAll(schedule(urls));
+        fetched.add(page);
+        LOG.debug("目录页面 " + page.url() + " 含 " + page.chapters().size() + " 个章节链接");
+        if (!page.chapters().isEmpty()) {
+            progress.accept(ordered());
+        }
+    }
+
+    /**
+     * 抓取结束后按页码顺序合并所有页面的章节
+     */
+    private void mergeAll() {
+        fetched.sort(pageOrder());
+        int before = chapters.size();
+        for (CatalogPage page : fetched) {
+            if (!page.chapters().isEmpty()) {
+                tailPage = page.url();
+            }
+            for (NovelParser.Chapter chapter : page.chapters()) {
+                if (!pages.contains(chapter.url()) && seenUrls.add(chapter.url())) {
+                    chapters.add(chapter);
+                }
+            }
+        }
+        LOG.debug("合并 " + fetched.size() + " 个目录页面，新增 " + (chapters.size() - before) + " 个章节");
+        fetched.clear();
+    }
+
+    /**
+     * 当前已抓取页面按页码顺序合并的结果，不修改共享的去重集合
+     */
+    private List<NovelParser.Chapter> ordered() {
+        Set<String> added = new HashSet<>();
+        List<CatalogPage> sorted = new ArrayList<>(fetched);
+        sorted.sort(pageOrder());
+        List<NovelParser.Chapter> result = new ArrayList<>(chapters);
+        for (CatalogPage page : sorted) {
+            for (NovelParser.Chapter chapter : page.chapters()) {
+                String url = chapter.url();
+                if (!pages.contains(url) && !seenUrls.contains(url) && added.add(url)) {
+                    result.add(chapter);
+                }
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    private Comparator<CatalogPage> pageOrder() {
+        return Comparator.<CatalogPage>comparingInt(page -> pageNumber(page.url()))
+                .thenComparingInt(page -> discoveryOrder.getOrDefault(page.url(), Integer.MAX_VALUE));
+    }
+
+    /**
+     * 页面的页码：优先使用页码链接和下拉框给出的页码，其次使用地址中入口地址没有的最后一个数字，
+     * 与入口地址数字相同的页面视为第一页
+     */
+    private int pageNumber(String url) {
+        Integer number = pageNumbers.get(url);
+        if (number != null) {
+            return number;
+        }
+        Set<String> base = baseNumbers != null ? baseNumbers : Set.of();
+        String last = null;
+        for (String run : digitRunList(url)) {
+            if (!base.contains(run)) {
+                last = run;
+            }
+        }
+        if (last == null) {
+            return 1;
+        }
+        return last.length() > 9 ? UNKNOWN_PAGE : Integer.parseInt(last);
+    }
+
+    private static Set<String> digitRuns(String url) {
+        return new HashSet<>(digitRunList(url));
+    }
+
+    private static List<String> digitRunList(String url) {
+        List<String> runs = new ArrayList<>();
+        Matcher matcher = DIGITS.matcher(url);
+        while (matcher.find()) {
+            runs.add(matcher.group());
+        }
+        return runs;
+    }
+
+    private static int firstNumber(String text) {
+        Matcher matcher = DIGITS.matcher(text);
+        if (!matcher.find() || matcher.group().length() > 9) {
+            return UNKNOWN_PAGE;
+        }
+        return Integer.parseInt(matcher.group());
+    }
+
+    /**
+     * 过滤已抓取过的页面，总页数不超过上限
+     */
+    private List<String> schedule(List<String> urls) {
+        List<String> scheduled = new ArrayList<>();
+        for (String url : urls) {
+            if (scheduledPages >= MAX_PAGES) {
+                if (!limitReached) {
+                    limitReached = true;
+                    LOG.warn("目录页面数量达到上限 " + MAX_PAGES + "，不再继续抓取");
+                }
+                break;
+            }
+            if (!url.isEmpty() && pages.add(url)) {
+                discoveryOrder.put(url, discoveryOrder.size());
+                scheduled.add(url);
+                scheduledPages++;
+            }
+        }
+        return scheduled;
+    }
+
+    private static String hostOf(String url) {
+        try {
+            return URI.create(url).getHost();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 目录页中的分页链接
+     *
+     * @param url 页面地址
+     * @param number 页码，无法确定时为 {@link #UNKNOWN_PAGE}
+     */
+    private record PageLink(String url, int number) {
+    }
+
+    private record CatalogPage(String url, List<NovelParser.Chapter> chapters, List<PageLink> pageLinks) {
+    }
+}
@@ -0,0 +1,136 @@
+package com.lv.tool.privatereader.parser.site;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.lv.tool.privatereader.parser.NovelParser;
+import com.lv.tool.privatereader.parser.common.ChapterTitleUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 章节链接分类器
+ *
+ * 判断规则与原先逐条调用 {@code String.matches} 的实现一致，只是改为预编译并调整求值顺序：
+ * 1. 标题规则：{@link ChapterTitleUtils#isChapterTitle}，先按首字符过滤
+ * 2. URL规则：先做 contains 判断；其余规则都要求URL中有数字，
+ *    一遍扫描确认有数字且没有换行符后，才执行合并后的正则表达式
+ * 3. 智能分析：前两项都不满足时，URL含数字且标题长度和内容看起来合理也算章节
+ *
+ * 目录页常有几千到上万个链接，调试日志只在开启调试级别时拼接。
+ */
+final class ChapterLinkClassifier {
+    private static final Logger LOG = Logger.getInstance(ChapterLinkClassifier.class);
+
+    /**
+     * 原先四条URL正则的并集，它们的前缀相同，合并后只需匹配一次
+     */
+    private static final Pattern URL_PATTERN = Pattern.compile(
+            ".*/(?:(\\d+).(html|htm|shtml|aspx|php)$|chapter_\\d+.*|c\\d+.*|\\d+/\\d+.*)");
+    private static final String[] URL_KEYWORDS = {"/chapter/", "/read/", "/book/"};
+    private static final String[] NON_CHAPTER_URL_KEYWORDS = {"javascript", "login", "register"};
+    private static final String[] NON_CHAPTER_TITLE_KEYWORDS = {"登录", "注册", "首页", "最新", "排行"};
+
+    private ChapterLinkClassifier() {
+    }
+
+    /**
+     * 从链接列表中收集章节，按文档顺序追加，已出现过的地址跳过
+     *
+     * @param links 页面中的链接
+     * @param seenUrls 已收集的章节地址
+     * @param chapters 收集结果
+     * @return 本次新增的章节数
+     */
+    static int collect(@NotNull Elements links, @NotNull UrlHashSet seenUrls,
+                       @NotNull List<NovelParser.Chapter> chapters) {
+        boolean debug = LOG.isDebugEnabled();
+        int added = 0;
+        for (NovelParser.Chapter chapter : classify(links)) {
+            if (seenUrls.add(chapter.url())) {
+                chapters.add(chapter);
+                added++;
+                if (debug) {
+                    LOG.debug("找到章节: " + chapter.title() + " -> " + chapter.url());
+                }
+            }
+        }
+        return added;
+    }
+
+    /**
+     * 按文档顺序列出链接中的章节，不去重
+     *
+     * 只读取链接本身，可以在多个页面上并行执行
+     *
+     * @param links 页面中的链接
+     * @return 章节列表
+     */
+    @NotNull
+    static List<NovelParser.Chapter> classify(@NotNull Elements links) {
+        List<NovelParser.Chapter> chapters = new ArrayList<>();
+        for (Element link : links) {
+            String href = link.attr("abs:href");
+            String title = link.text().trim();
+            if (isChapterLink(href, title)) {
+                chapters.add(new NovelParser.Chapter(title, href));
+            }
+        }
+        return chapters;
+    }
+
+    /**
+     * 判断链接是否指向章节
+     *
+     * @param href 链接的绝对地址
+     * @param title 链接文本
+     * @return 是否是章节链接
+     */
+    static boolean isChapterLink(String href, String title) {
+        if (href == null || title == null || href.isEmpty() || title.isEmpty()) {
+            return false;
+        }
+
+        if (ChapterTitleUtils.isChapterTitle(title) || containsAny(href, URL_KEYWORDS)) {
+            return true;
+        }
+
+        // 其余规则都要求URL中有数字，且正则中的 . 不匹配换行符
+        if (!hasDigitOnSingleLine(href)) {
+            return false;
+        }
+        if (URL_PATTERN.matcher(href).matches()) {
+            return true;
+        }
+
+        return !containsAny(href, NON_CHAPTER_URL_KEYWORDS)
+                && title.length() >= 2 && title.length() <= 50
+                && !containsAny(title, NON_CHAPTER_TITLE_KEYWORDS);
+    }
+
+    private static boolean containsAny(String text, String[] keywords) {
+        for (String keyword : keywords) {
+            if (text.contains(keyword)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 与 {@code text.matches(".*\\d+.*")} 等价：含ASCII数字且没有正则意义上的换行符
+     */
+    private static boolean hasDigitOnSingleLine(String text) {
+        boolean digit = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return false;
+            }
+        }
+        return digit;
+    }
+}
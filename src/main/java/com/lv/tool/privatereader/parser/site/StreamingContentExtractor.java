@@ -0,0 +1,333 @@
+package com.lv.tool.privatereader.parser.site;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jsoup.parser.Parser;
+
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 章节正文流式提取器
+ *
+ * 顺序扫描一遍页面HTML，不构建DOM：
+ * - 按 {@link UniversalParser} 的常用正文选择器（div#content1、div.content_read、div.box_con #content）
+ *   定位第一个正文容器
+ * - script、style、iframe 等原始文本元素整体跳过，其中的内容不会被当作标签解析
+ * - 容器内的链接、广告和底部导航子树直接跳过，只收集其余文本
+ * - 正文容器结束后立即停止扫描，页面后续部分不再处理
+ *
+ * 收集到的文本与 Jsoup {@code Element.text()} 的空白规则一致：连续空白合并为一个空格，
+ * 块级元素和换行标签前后插入空格。
+ *
+ * 找不到容器、容器不是div、页面在容器结束前截断或正文过短时返回null，
+ * 调用方应退回完整的DOM解析。
+ */
+final class StreamingContentExtractor {
+    private static final int MIN_CONTENT_LENGTH = 50;
+
+    /**
+     * 内容不按HTML解析的元素，扫描时直接跳到对应的结束标签
+     */
+    private static final Set<String> RAW_TEXT_TAGS = Set.of(
+            "script", "style", "iframe", "textarea", "title", "xmp", "noembed", "noframes");
+    private static final Set<String> REMOVED_TAGS = Set.of("script", "style", "a", "iframe");
+    private static final Set<String> VOID_TAGS = Set.of(
+            "area", "base", "br", "col", "embed", "hr", "img", "input", "link", "meta", "param", "source", "track", "wbr");
+    private static final Set<String> BLOCK_TAGS = Set.of(
+            "address", "article", "aside", "blockquote", "center", "dd", "div", "dl", "dt", "fieldset", "figcaption",
+            "figure", "footer", "form", "h1", "h2", "h3", "h4", "h5", "h6", "header", "hr", "li", "main", "nav",
+            "ol", "p", "pre", "section", "table", "tbody", "td", "tfoot", "th", "thead", "tr", "ul");
+
+    private final String html;
+    private final int length;
+    private int pos;
+
+    private int divDepth;
+    private final ArrayDeque<Integer> boxConDepths = new ArrayDeque<>();
+    private boolean inContainer;
+    private int containerDivDepth;
+    private String skipTag;
+    private int skipDepth;
+    private boolean finished;
+    private boolean unsure;
+
+    private final StringBuilder text = new StringBuilder();
+
+    private StreamingContentExtractor(@NotNull String html) {
+        this.html = html;
+        this.length = html.length();
+    }
+
+    /**
+     * 提取页面正文容器中的文本
+     *
+     * @param html 页面HTML
+     * @return 未经清理的正文文本，无法确定正文位置时返回null
+     */
+    @Nullable
+    static String extract(@NotNull String html) {
+        return new StreamingContentExtractor(html).run();
+    }
+
+    @Nullable
+    private String run() {
+        while (pos < length && !finished) {
+            char c = html.charAt(pos);
+            if (c == '<' && pos + 1 < length) {
+                char next = html.charAt(pos + 1);
+                if (next == '!') {
+                    skipDeclaration();
+                    continue;
+                }
+                if (next == '?') {
+                    skipPast('>', pos + 2);
+                    continue;
+                }
+                if (next == '/' || isAsciiLetter(next)) {
+                    readTag(next == '/');
+                    continue;
+                }
+            }
+            // 文本：不构成标签的 '<' 按普通字符处理
+            int end = html.indexOf('<', c == '<' ? pos + 1 : pos);
+            if (end < 0) end = length;
+            if (inContainer && skipTag == null) {
+                appendText(pos, end);
+            }
+            pos = end;
+        }
+        if (!finished || unsure) {
+            return null;
+        }
+        String result = text.toString().trim();
+        return result.length() >= MIN_CONTENT_LENGTH ? result : null;
+    }
+
+    private void readTag(boolean closing) {
+        int i = pos + (closing ? 2 : 1);
+        int nameStart = i;
+        while (i < length && isTagNameChar(html.charAt(i))) i++;
+        if (i == nameStart) {
+            // "</" 后不是标签名，按注释处理
+            skipPast('>', i);
+            return;
+        }
+        String name = html.substring(nameStart, i).toLowerCase(Locale.ROOT);
+
+        String id = null;
+        String cls = null;
+        while (i < length) {
+            char c = html.charAt(i);
+            if (c == '>') {
+                i++;
+                break;
+            }
+            if (c == '/' || isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            int attrStart = i;
+            while (i < length && !isWhitespace(html.charAt(i)) && "=>/".indexOf(html.charAt(i)) < 0) i++;
+            int attrEnd = i;
+            while (i < length && isWhitespace(html.charAt(i))) i++;
+            if (i >= length || html.charAt(i) != '=') {
+                continue;
+            }
+            i++;
+            while (i < length && isWhitespace(html.charAt(i))) i++;
+            int valueStart;
+            int valueEnd;
+            if (i < length && (html.charAt(i) == '"' || html.charAt(i) == '\'')) {
+                valueStart = i + 1;
+                valueEnd = html.indexOf(html.charAt(i), valueStart);
+                if (valueEnd < 0) valueEnd = length;
+                i = Math.min(length, valueEnd + 1);
+            } else {
+                valueStart = i;
+                while (i < length && !isWhitespace(html.charAt(i)) && html.charAt(i) != '>') i++;
+                valueEnd = i;
+            }
+            // 只为需要的属性分配字符串
+            if (!closing && isAttribute(attrStart, attrEnd, "id")) {
+                id = html.substring(valueStart, valueEnd).trim();
+            } else if (!closing && isAttribute(attrStart, attrEnd, "class")) {
+                cls = html.substring(valueStart, valueEnd);
+            }
+        }
+        pos = i;
+
+        if (closing) {
+            onEndTag(name);
+        } else {
+            onStartTag(name, id, cls);
+            if (RAW_TEXT_TAGS.contains(name)) {
+                skipRawText(name);
+            }
+        }
+    }
+
+    private void onStartTag(String name, @Nullable String id, @Nullable String cls) {
+        boolean isVoid = VOID_TAGS.contains(name);
+        boolean isDiv = name.equals("div");
+        if (isDiv) {
+            divDepth++;
+        }
+
+        if (inContainer) {
+            if (skipTag != null) {
+                if (name.equals(skipTag) && !isVoid) skipDepth++;
+                return;
+            }
+            if (isRemoved(name, cls)) {
+                if (!isVoid && !RAW_TEXT_TAGS.contains(name)) {
+                    skipTag = name;
+                    skipDepth = 1;
+                }
+                return;
+            }
+            if (BLOCK_TAGS.contains(name) || name.equals("br")) {
+                separator();
+            }
+            return;
+        }
+
+        boolean candidate = (isDiv && ("content1".equals(id) || hasClass(cls, "content_read")))
+                || ("content".equals(id) && !boxConDepths.isEmpty());
+        if (candidate) {
+            if (!isDiv) {
+                // 非div容器的结束位置依赖HTML的隐式闭合规则，交给完整解析
+                unsure = true;
+                finished = true;
+                return;
+            }
+            inContainer = true;
+            containerDivDepth = divDepth;
+            return;
+        }
+        if (isDiv && hasClass(cls, "box_con")) {
+            boxConDepths.push(divDepth);
+        }
+    }
+
+    private void onEndTag(String name) {
+        boolean skipping = skipTag != null;
+        if (inContainer && skipping && name.equals(skipTag) && --skipDepth == 0) {
+            skipTag = null;
+        }
+        if (name.equals("div")) {
+            divDepth--;
+            if (inContainer && divDepth < containerDivDepth) {
+                finished = true;
+                return;
+            }
+            while (!boxConDepths.isEmpty() && divDepth < boxConDepths.peek()) {
+                boxConDepths.pop();
+            }
+        }
+        if (inContainer && !skipping && BLOCK_TAGS.contains(name)) {
+            separator();
+        }
+    }
+
+    private static boolean isRemoved(String name, @Nullable String cls) {
+        return REMOVED_TAGS.contains(name)
+                || (name.equals("div") && hasClass(cls, "adsbygoogle"))
+                || hasClass(cls, "bottem") || hasClass(cls, "bottem2");
+    }
+
+    private static boolean hasClass(@Nullable String cls, String className) {
+        if (cls == null) return false;
+        int from = 0;
+        int n = cls.length();
+        while (from < n) {
+            while (from < n && isWhitespace(cls.charAt(from))) from++;
+            int end = from;
+            while (end < n && !isWhitespace(cls.charAt(end))) end++;
+            if (end - from == className.length() && cls.regionMatches(true, from, className, 0, className.length())) {
+                return true;
+            }
+            from = end;
+        }
+        return false;
+    }
+
+    /**
+     * 追加文本，解码实体并合并空白
+     */
+    private void appendText(int start, int end) {
+        int amp = html.indexOf('&', start);
+        if (amp >= 0 && amp < end) {
+            String decoded = Parser.unescapeEntities(html.substring(start, end), false);
+            appendNormalised(decoded, 0, decoded.length());
+        } else {
+            appendNormalised(html, start, end);
+        }
+    }
+
+    private void appendNormalised(String source, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            // 与Jsoup一致：不换行空格按空白处理，零宽空格和软连字符丢弃
+            if (isWhitespace(c) || c == '\u00a0') {
+                separator();
+            } else if (c != '\u200b' && c != '\u00ad') {
+                text.append(c);
+            }
+        }
+    }
+
+    private void separator() {
+        if (text.length() > 0 && text.charAt(text.length() - 1) != ' ') {
+            text.append(' ');
+        }
+    }
+
+    /**
+     * 跳过原始文本元素的内容，直到对应的结束标签之后
+     */
+    private void skipRawText(String name) {
+        int i = pos;
+        while ((i = html.indexOf("</", i)) >= 0) {
+            int nameEnd = i + 2 + name.length();
+            if (html.regionMatches(true, i + 2, name, 0, name.length())
+                    && (nameEnd >= length || !isTagNameChar(html.charAt(nameEnd)))) {
+                skipPast('>', nameEnd);
+                return;
+            }
+            i += 2;
+        }
+        pos = length;
+    }
+
+    private void skipDeclaration() {
+        if (html.startsWith("<!--", pos)) {
+            int end = html.indexOf("-->", pos + 4);
+            pos = end < 0 ? length : end + 3;
+        } else {
+            skipPast('>', pos + 2);
+        }
+    }
+
+    private void skipPast(char c, int from) {
+        int end = html.indexOf(c, from);
+        pos = end < 0 ? length : end + 1;
+    }
+
+    private boolean isAttribute(int start, int end, String name) {
+        return end - start == name.length() && html.regionMatches(true, start, name, 0, name.length());
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isTagNameChar(char c) {
+        return isAsciiLetter(c) || (c >= '0' && c <= '9') || c == '-' || c == ':';
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+    }
+}
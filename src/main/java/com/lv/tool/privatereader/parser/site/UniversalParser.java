@@ -1,9 +1,13 @@
 package com.lv.tool.privatereader.parser.site;
 
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.diagnostic.Logger;
+import com.lv.tool.privatereader.events.BookEvents;
 import com.lv.tool.privatereader.exception.PrivateReaderException;
+import com.lv.tool.privatereader.parser.ChapterListUpdate;
 import com.lv.tool.privatereader.parser.NovelParser;
-import com.lv.tool.privatereader.parser.common.ChapterTitleUtils;
+import com.lv.tool.privatereader.parser.common.ChapterTextCleaner;
 import com.lv.tool.privatereader.parser.common.MetadataAnalyzer;
 import com.lv.tool.privatereader.parser.common.TextDensityAnalyzer;
 import com.lv.tool.privatereader.parser.common.TextFormatter;
@@ -22,6 +26,8 @@ import java.security.SecureRandom;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Pattern;
 
 /**
@@ -37,6 +43,10 @@ public final class UniversalParser implements NovelParser {
     private final SSLSocketFactory sslSocketFactory;
     private boolean initialized = false;
     private IOException lastInitError = null;
+    // 上次解析的章节是否直接来自书籍页面（新建时由书籍恢复）；来自目录页时记录抓取过的页面和最后一个含章节的页面
+    private boolean chaptersFromBookPage;
+    private Set<String> catalogPages = Set.of();
+    private String catalogTailPage;
 
     public UniversalParser(final String url) {
         this.url = url;
@@ -66,12 +76,12 @@ public final class UniversalParser implements NovelParser {
             System.setProperty("https.proxyHost", "");
             System.setProperty("https.proxyPort", "");
 
-            // 使用安全的HTTP请求执行器，带有重试机制
-            String htmlContent = SafeHttpRequestExecutor.executeGetRequest(url);
+            // 使用安全的HTTP请求执行器，带有重试机制；书籍页面变化不频繁，使用条件请求
+            String htmlContent = SafeHttpRequestExecutor.executeCachedGetRequest(url);
 
             // 添加显式的 null 检查
             if (htmlContent == null) {
-                LOG.error("SafeHttpRequestExecutor.executeGetRequest返回null，URL: " + url);
+                LOG.error("SafeHttpRequestExecutor.executeCachedGetRequest返回null，URL: " + url);
                 lastInitError = new IOException("获取页面内容失败 (返回 null): " + url);
                 return false;
             }
@@ -155,7 +165,7 @@ public final class UniversalParser implements NovelParser {
     public List<Chapter> parseChapterList() {
         LOG.debug("开始解析章节列表...");
         List<Chapter> chapters = new ArrayList<>();
-        java.util.Set<String> seenUrls = new java.util.HashSet<>();
+        UrlHashSet seenUrls = new UrlHashSet();
 
         try {
             // 确保解析器已初始化
@@ -169,67 +179,32 @@ public final class UniversalParser implements NovelParser {
             Elements links = document.select("a[href]");
             LOG.debug("找到链接数量: " + links.size() + "，正在分析...");
 
-            int processedLinks = 0;
-            for (Element link : links) {
-                String href = link.attr("abs:href");
-                String title = link.text().trim();
-
-                if (isChapterLink(href, title) && seenUrls.add(href)) {
-                    chapters.add(new Chapter(title, href));
-                    LOG.debug("找到章节: " + title + " -> " + href);
-                }
-
-                processedLinks++;
-                if (processedLinks % 100 == 0) {
-                    LOG.info(String.format("已处理 %d/%d 个链接，找到 %d 个章节",
-                        processedLinks, links.size(), chapters.size()));
-                }
-            }
+            ChapterLinkClassifier.collect(links, seenUrls, chapters);
+            LOG.info(String.format("已处理 %d 个链接，找到 %d 个章节", links.size(), chapters.size()));
+            chaptersFromBookPage = !chapters.isEmpty();
+            catalogTailPage = null;
         } catch (IOException e) {
             LOG.error("解析章节列表时发生错误: " + e.getMessage(), e);
             // 返回空列表，不抛出异常
         }
 
-        // 如果没有找到章节，尝试查找可能的章节目录页面
+        // 如果没有找到章节，并发抓取目录页面及其分页
         if (chapters.isEmpty() && document != null) {
             LOG.info("直接解析未找到章节，尝试查找目录页面...");
-            Elements catalogLinks = document.select("a:matches(目录|章节|卷章|分卷|分章)");
-            LOG.debug("找到可能的目录链接数量: " + catalogLinks.size() + "，开始逐个尝试...");
+            List<String> catalogUrls = document.select("a:matches(目录|章节|卷章|分卷|分章)").eachAttr("abs:href");
+            LOG.debug("找到可能的目录链接数量: " + catalogUrls.size() + "，开始并发抓取...");
 
-            for (Element link : catalogLinks) {
-                try {
-                    String catalogUrl = link.attr("abs:href");
-                    LOG.info("正在尝试解析目录页面: " + catalogUrl);
-
-                    // 使用安全的HTTP请求执行器
-                    String catalogHtml = SafeHttpRequestExecutor.executeGetRequest(catalogUrl);
-
-                    Document catalogDoc = Jsoup.parse(catalogHtml, catalogUrl);
-                    Elements catalogChapters = catalogDoc.select("a[href]");
-                    LOG.debug("目录页面中找到链接数量: " + catalogChapters.size() + "，开始分析...");
-
-                    int processedCatalogLinks = 0;
-                    for (Element chapter : catalogChapters) {
-                        String href = chapter.attr("abs:href");
-                        String title = chapter.text().trim();
-                        if (isChapterLink(href, title) && seenUrls.add(href)) {
-                            chapters.add(new Chapter(title, href));
-                            LOG.debug("从目录页面找到章节: " + title + " -> " + href);
-                        }
-
-                        processedCatalogLinks++;
-                        if (processedCatalogLinks % 50 == 0) {
-                            LOG.info(String.format("目录页面已处理 %d/%d 个链接，找到 %d 个章节",
-                                processedCatalogLinks, catalogChapters.size(), chapters.size()));
-                        }
-                    }
-                    if (!chapters.isEmpty()) {
-                        LOG.info(String.format("成功从目录页面解析到章节列表，共 %d 章，继续尝试其他目录链接...", chapters.size()));
-                        // 不再break，继续尝试解析其他目录页面以聚合所有章节
-                    }
-                } catch (IOException e) {
-                    LOG.warn("解析目录页面失败: " + e.getMessage() + "，尝试下一个目录链接");
-                }
+            CatalogCrawler crawler = new CatalogCrawler(seenUrls, chapters, this::publishPartialChapters);
+            try {
+                int pages = crawler.crawl(catalogUrls).toFuture().get();
+                LOG.info(String.format("目录页面抓取完成，解析 %d 个页面，共 %d 章", pages, chapters.size()));
+                catalogPages = crawler.pages();
+                catalogTailPage = crawler.tailPage();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOG.warn("抓取目录页面时线程被中断，返回已找到的 " + chapters.size() + " 章");
+            } catch (ExecutionException e) {
+                LOG.warn("抓取目录页面失败: " + e.getCause().getMessage());
             }
         }
 
@@ -243,6 +218,75 @@ public final class UniversalParser implements NovelParser {
         return chapters;
     }
 
+    /**
+     * 增量刷新章节列表
+     * - 章节来自书籍页面且页面未变化（304或内容摘要相同）时直接返回无变化
+     * - 章节来自分页目录时只重新抓取最后一个含章节的目录页及其后新出现的分页，新章节追加在末尾
+     * - 其他情况重新解析完整列表后与已知章节比较
+     */
+    @Override
+    public ChapterListUpdate refreshChapterList(List<Chapter> known) {
+        if (known == null || known.isEmpty()) {
+            return ChapterListUpdate.diff(known, parseChapterList());
+        }
+        if (catalogTailPage != null) {
+            return refreshCatalogTail(known);
+        }
+
+        try {
+            SafeHttpRequestExecutor.CachedResponse response = SafeHttpRequestExecutor.executeCachedGetRequestWithStatus(url);
+            if (response.unchanged() && chaptersFromBookPage) {
+                LOG.info("书籍页面未变化，章节列表无需更新: " + url);
+                return ChapterListUpdate.unchanged();
+            }
+            document = Jsoup.parse(response.body(), url);
+            initialized = true;
+            lastInitError = null;
+        } catch (IOException e) {
+            LOG.warn("刷新章节列表时获取书籍页面失败: " + e.getMessage());
+            return ChapterListUpdate.unchanged();
+        }
+        return ChapterListUpdate.diff(known, parseChapterList());
+    }
+
+    @Override
+    public boolean isChaptersFromBookPage() {
+        return chaptersFromBookPage;
+    }
+
+    @Override
+    public void setChaptersFromBookPage(boolean chaptersFromBookPage) {
+        this.chaptersFromBookPage = chaptersFromBookPage;
+    }
+
+    private ChapterListUpdate refreshCatalogTail(List<Chapter> known) {
+        UrlHashSet seenUrls = new UrlHashSet();
+        for (Chapter chapter : known) {
+            seenUrls.add(chapter.url());
+        }
+        List<Chapter> added = new ArrayList<>();
+        CatalogCrawler crawler = new CatalogCrawler(seenUrls, added, partial -> {});
+        String tail = catalogTailPage;
+        List<String> earlierPages = new ArrayList<>(catalogPages);
+        earlierPages.remove(tail);
+        crawler.skip(earlierPages);
+        try {
+            crawler.crawl(List.of(tail)).toFuture().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ChapterListUpdate.unchanged();
+        } catch (ExecutionException e) {
+            LOG.warn("刷新目录末页失败: " + e.getCause().getMessage());
+            return ChapterListUpdate.unchanged();
+        }
+        catalogPages = crawler.pages();
+        if (crawler.tailPage() != null) {
+            catalogTailPage = crawler.tailPage();
+        }
+        LOG.info("从目录末页 " + tail + " 开始刷新，新增 " + added.size() + " 章");
+        return ChapterListUpdate.appended(added);
+    }
+
     @Override
     public String parseChapterContent(String chapterId) {
         LOG.debug("开始解析章节内容: " + chapterId);
@@ -268,19 +312,26 @@ public final class UniversalParser implements NovelParser {
 
             LOG.info("成功获取章节页面内容，长度: " + html.length());
 
-            // 优化：只使用UTF-8编码，避免重复解析
+            // 先流式提取正文，只扫描一遍页面且不构建DOM；无法确定正文位置时再完整解析
             String content = null;
-            try {
-                content = java.util.concurrent.CompletableFuture.supplyAsync(() -> {
-                    Document chapterDoc = Jsoup.parse(html, chapterId);
-                    return extractContent(chapterDoc);
-                }).get(10, java.util.concurrent.TimeUnit.SECONDS);
-            } catch (java.util.concurrent.TimeoutException te) {
-                LOG.error("[超时保护] 内容提取超时(10秒): " + chapterId, te);
-                throw new PrivateReaderException("章节内容正文提取超时(10秒)", te, PrivateReaderException.ExceptionType.PARSE_ERROR);
-            } catch (Exception e) {
-                LOG.error("[异常保护] 内容提取异常: " + chapterId, e);
-                throw new PrivateReaderException("章节内容正文提取异常: " + e.getMessage(), e, PrivateReaderException.ExceptionType.PARSE_ERROR);
+            String streamedText = StreamingContentExtractor.extract(html);
+            if (streamedText != null) {
+                LOG.debug("流式提取到正文，原始长度: " + streamedText.length() + " 字符");
+                content = cleanContent(streamedText);
+            } else {
+                LOG.debug("流式提取未能确定正文位置，使用完整DOM解析: " + chapterId);
+                try {
+                    content = java.util.concurrent.CompletableFuture.supplyAsync(() -> {
+                        Document chapterDoc = Jsoup.parse(html, chapterId);
+                        return extractContent(chapterDoc);
+                    }).get(10, java.util.concurrent.TimeUnit.SECONDS);
+                } catch (java.util.concurrent.TimeoutException te) {
+                    LOG.error("[超时保护] 内容提取超时(10秒): " + chapterId, te);
+                    throw new PrivateReaderException("章节内容正文提取超时(10秒)", te, PrivateReaderException.ExceptionType.PARSE_ERROR);
+                } catch (Exception e) {
+                    LOG.error("[异常保护] 内容提取异常: " + chapterId, e);
+                    throw new PrivateReaderException("章节内容正文提取异常: " + e.getMessage(), e, PrivateReaderException.ExceptionType.PARSE_ERROR);
+                }
             }
 
             if (content != null && !content.isEmpty()) {
@@ -304,52 +355,16 @@ public final class UniversalParser implements NovelParser {
         }
     }
 
-    private boolean isChapterLink(String href, String title) {
-        if (href == null || title == null || href.isEmpty() || title.isEmpty()) {
-            return false;
-        }
-
-        // 1. URL特征判断
-        boolean urlMatch = href.contains("/chapter/") ||
-                          href.contains("/read/") ||
-                          href.contains("/book/") ||
-                          href.matches(".*/(\\d+).(html|htm|shtml|aspx|php)$") ||
-                          href.matches(".*/chapter_\\d+.*") ||
-                          href.matches(".*/c\\d+.*") ||
-                          href.matches(".*/\\d+/\\d+.*");
-
-        // 2. 标题特征判断
-        boolean titleMatch = ChapterTitleUtils.isChapterTitle(title);
-
-        // 3. 智能分析
-        if (!urlMatch && !titleMatch) {
-            // 检查URL中的数字序列
-            boolean hasSequentialNumbers = href.matches(".*\\d+.*") &&
-                                        !href.contains("javascript") &&
-                                        !href.contains("login") &&
-                                        !href.contains("register");
-
-            // 检查标题长度和内容
-            boolean titleLengthValid = title.length() >= 2 && title.length() <= 50;
-            boolean titleHasValidChars = !title.contains("登录") &&
-                                       !title.contains("注册") &&
-                                       !title.contains("首页") &&
-                                       !title.contains("最新") &&
-                                       !title.contains("排行");
-
-            // 如果URL包含序列数字且标题看起来合理，认为是章节链接
-            if (hasSequentialNumbers && titleLengthValid && titleHasValidChars) {
-                LOG.debug("通过智能分析识别到章节链接 - 标题: " + title);
-                return true;
-            }
-        }
-
-        if (urlMatch || titleMatch) {
-            LOG.debug("识别到章节链接 - 标题: " + title + ", URL: " + href +
-                     " (URL匹配: " + urlMatch + ", 标题匹配: " + titleMatch + ")");
+    /**
+     * 通知界面目录页抓取过程中已找到的章节
+     */
+    private void publishPartialChapters(List<Chapter> chapters) {
+        Application application = ApplicationManager.getApplication();
+        if (application == null || application.isDisposed()) {
+            return;
         }
-
-        return urlMatch || titleMatch;
+        application.getMessageBus().syncPublisher(BookEvents.ChapterListListener.CHAPTER_LIST_TOPIC)
+            .chapterListPartiallyLoaded(url, chapters);
     }
 
     private SSLSocketFactory createInsecureSSLSocketFactory() {
@@ -381,30 +396,7 @@ public final class UniversalParser implements NovelParser {
                 LOG.info("已找到正文内容，开始清理...");
                 content.select("script, style, a, iframe, div.adsbygoogle, .bottem, .bottem2").remove();
 
-                String text = content.text();
-                LOG.debug("原始内容长度: " + text.length() + " 字符");
-
-                text = text.replaceAll("(?i)^\\s*(广告|推广|http|www|com|net|org|xyz)[^，。！？]*", "")
-                        .replaceAll("(?i)(八八中文网|88中文网|求书网|新笔趣阁|笔趣阁|顶点小说|番茄小说)[^，。！？]*", "")
-                        .replaceAll("最新章节！", "")
-                        .replaceAll("\\s*([，。！？])\\s*", "$1\n")
-                        .replaceAll("\\s+", "\n")
-                        .replaceAll("\\n{3,}", "\n\n")
-                        .replaceAll("^\\s*第[0-9零一二三四五六七八九十百千万亿]+[章节卷集部篇].*$", "")
-                        .replaceAll("^\\s*[0-9]+[、.][^0-9]*$", "")
-                        .replaceAll("^\\s*第[0-9零一二三四五六七八九十百千万亿]+回.*$", "")
-                        .replaceAll("^\\s*[序楔终][章话].*$", "")
-                        .replaceAll("^\\s*[前序楔引]言.*$", "")
-                        .replaceAll("^\\s*[后终]记.*$", "")
-                        .replaceAll("^\\s*[卷部篇][0-9零一二三四五六七八九十百千万亿]+.*$", "")
-                        .replaceAll("^\\s*[上中下]篇.*$|^\\s*番外.*$|^\\s*特别篇.*$|^\\s*外传.*$", "")
-                        .replaceAll("^\\s*[早中午晚]章.*$|^\\s*[春夏秋冬]章.*$", "")
-                        .replaceAll("^\\s*(间|幕)?插.*$", "")
-                        .trim();
-
-                String formatted = TextFormatter.format(text);
-                LOG.info(String.format("内容处理完成，最终长度: %d 字符", formatted.length()));
-                return formatted;
+                return cleanContent(content.text());
             }
         } catch (Exception e) {
             LOG.error("提取内容时发生错误", e);
@@ -413,6 +405,20 @@ public final class UniversalParser implements NovelParser {
         return null;
     }
 
+    /**
+     * 清理正文文本中的广告和章节标题，并格式化
+     * 清理规则见 {@link ChapterTextCleaner}
+     */
+    private String cleanContent(String text) {
+        LOG.debug("原始内容长度: " + text.length() + " 字符");
+
+        text = ChapterTextCleaner.clean(text);
+
+        String formatted = TextFormatter.format(text);
+        LOG.info(String.format("内容处理完成，最终长度: %d 字符", formatted.length()));
+        return formatted;
+    }
+
     /**
      * 计算文本的乱码评分
      * 分数越低表示乱码可能性越小
@@ -0,0 +1,89 @@
+package com.lv.tool.privatereader.parser.site;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 紧凑的URL去重集合
+ *
+ * 只保存URL的64位哈希，开放寻址存放在一个 long 数组中，不保留字符串本身，
+ * 也不为每个元素创建节点对象。上万个章节地址只占一百多KB。
+ * 64位哈希在万级元素下的碰撞概率约为 10^-11，可以忽略。
+ *
+ * 非线程安全。
+ */
+final class UrlHashSet {
+    private static final int INITIAL_CAPACITY = 1024;
+    /**
+     * 0 用作空槽标记，哈希恰好为0的URL改用该值
+     */
+    private static final long ZERO_REPLACEMENT = 0x9E3779B97F4A7C15L;
+
+    private long[] table = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * 添加URL
+     *
+     * @param url URL
+     * @return URL之前不在集合中时返回true
+     */
+    boolean add(@NotNull String url) {
+        if ((size + 1) * 4 > table.length * 3) {
+            resize();
+        }
+        if (insert(table, hash(url))) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    boolean contains(@NotNull String url) {
+        long h = hash(url);
+        int mask = table.length - 1;
+        for (int i = (int) h & mask; table[i] != 0; i = (i + 1) & mask) {
+            if (table[i] == h) return true;
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static boolean insert(long[] slots, long h) {
+        int mask = slots.length - 1;
+        int i = (int) h & mask;
+        while (slots[i] != 0) {
+            if (slots[i] == h) return false;
+            i = (i + 1) & mask;
+        }
+        slots[i] = h;
+        return true;
+    }
+
+    private void resize() {
+        long[] larger = new long[table.length * 2];
+        for (long h : table) {
+            if (h != 0) insert(larger, h);
+        }
+        table = larger;
+    }
+
+    /**
+     * FNV-1a 逐字符累积后再做一次 murmur3 的末尾混合，使低位分布均匀
+     */
+    private static long hash(String url) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < url.length(); i++) {
+            h ^= url.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE1A85EC3L;
+        h ^= h >>> 33;
+        return h != 0 ? h : ZERO_REPLACEMENT;
+    }
+}
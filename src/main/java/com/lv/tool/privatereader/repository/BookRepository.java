@@ -1,10 +1,14 @@
 package com.lv.tool.privatereader.repository;
 
 import com.lv.tool.privatereader.model.Book;
+import com.lv.tool.privatereader.model.BookshelfEntry;
+import com.lv.tool.privatereader.parser.NovelParser.Chapter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * 书籍仓库接口
@@ -31,6 +35,36 @@ public interface BookRepository {
     @NotNull
     List<Book> getAllBooks();
     
+    /**
+     * 获取书架条目，按上次阅读时间倒序
+     * 默认实现从不加载详情的书籍列表生成，实现类可以常驻内存。
+     *
+     * @return 书架条目
+     */
+    @NotNull
+    default List<BookshelfEntry> getBookshelf() {
+        return getAllBooks(false).stream()
+                .map(BookshelfEntry::fromBook)
+                .sorted(Comparator.comparingLong(BookshelfEntry::lastReadTimeMillis).reversed())
+                .toList();
+    }
+
+    /**
+     * 搜索书架中书名或作者包含关键词的书籍，不区分大小写
+     * 默认实现逐本比较，实现类可以使用预先建立的索引并支持更多匹配方式。
+     *
+     * @param keyword 关键词，为空时返回全部书籍
+     * @return 匹配的书架条目，按上次阅读时间倒序
+     */
+    @NotNull
+    default List<BookshelfEntry> searchBookshelf(@NotNull String keyword) {
+        String lowerKeyword = keyword.trim().toLowerCase(Locale.ROOT);
+        return getBookshelf().stream()
+                .filter(entry -> entry.title().toLowerCase(Locale.ROOT).contains(lowerKeyword)
+                        || entry.author().toLowerCase(Locale.ROOT).contains(lowerKeyword))
+                .toList();
+    }
+    
     /**
      * 根据ID获取书籍
      * 
@@ -54,6 +88,28 @@ public interface BookRepository {
      */
     void updateBook(@NotNull Book book);
     
+    /**
+     * 保存在章节列表末尾新增的章节
+     * 调用前书籍的章节列表应已包含这些章节。默认实现整体保存书籍，
+     * 实现类可以只写入新增部分。
+     *
+     * @param book 书籍
+     * @param added 新增的章节
+     */
+    default void appendChapters(@NotNull Book book, @NotNull List<Chapter> added) {
+        updateBook(book);
+    }
+
+    /**
+     * 保存书籍的上次检查更新时间
+     * 后台检查更新会频繁调用，默认实现整体保存书籍，实现类可以只更新索引。
+     *
+     * @param book 书籍
+     */
+    default void updateLastChecked(@NotNull Book book) {
+        updateBook(book);
+    }
+    
     /**
      * 批量更新书籍
      * 
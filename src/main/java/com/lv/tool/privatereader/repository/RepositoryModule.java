@@ -3,8 +3,8 @@ package com.lv.tool.privatereader.repository;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.Service;
 import com.intellij.openapi.diagnostic.Logger;
+import com.lv.tool.privatereader.storage.cache.ChapterCacheAdapter;
 import com.lv.tool.privatereader.repository.impl.FileBookRepository;
-import com.lv.tool.privatereader.repository.impl.FileChapterCacheRepository;
 import com.lv.tool.privatereader.repository.impl.SqliteReadingProgressRepository;
 import com.lv.tool.privatereader.repository.impl.FileStorageRepository;
 import org.jetbrains.annotations.NotNull;
@@ -127,15 +127,15 @@ public final class RepositoryModule {
                 if (this.chapterCacheRepository == null) {
                     LOG.warn("未能从应用服务获取 ChapterCacheRepository，创建新实例");
                     if (this.storageRepository != null) {
-                        this.chapterCacheRepository = new FileChapterCacheRepository();
+                        this.chapterCacheRepository = new ChapterCacheAdapter();
                         if (this.chapterCacheRepository == null) {
-                            LOG.error("创建 FileChapterCacheRepository 新实例失败！");
+                            LOG.error("创建 ChapterCacheAdapter 新实例失败！");
                             initializationOk = false;
                         } else {
-                            LOG.info("成功创建 FileChapterCacheRepository 实例");
+                            LOG.info("成功创建 ChapterCacheAdapter 实例");
                         }
                     } else {
-                        LOG.error("无法创建 FileChapterCacheRepository，因为 StorageRepository 未初始化！");
+                        LOG.error("无法创建 ChapterCacheAdapter，因为 StorageRepository 未初始化！");
                         initializationOk = false;
                     }
                 } else {
@@ -145,19 +145,19 @@ public final class RepositoryModule {
                 LOG.error("获取或创建 ChapterCacheRepository 失败，尝试创建新实例", e);
                 if (this.storageRepository != null) {
                     try {
-                        this.chapterCacheRepository = new FileChapterCacheRepository();
+                        this.chapterCacheRepository = new ChapterCacheAdapter();
                         if (this.chapterCacheRepository == null) {
-                            LOG.error("创建 FileChapterCacheRepository 新实例也失败！");
+                            LOG.error("创建 ChapterCacheAdapter 新实例也失败！");
                             initializationOk = false;
                         } else {
-                            LOG.info("成功创建 FileChapterCacheRepository 实例 (catch block)");
+                            LOG.info("成功创建 ChapterCacheAdapter 实例 (catch block)");
                         }
                     } catch (Exception e2) {
-                        LOG.error("创建 FileChapterCacheRepository 新实例时发生严重错误！", e2);
+                        LOG.error("创建 ChapterCacheAdapter 新实例时发生严重错误！", e2);
                         initializationOk = false;
                     }
                 } else {
-                    LOG.error("无法在 catch 块中创建 FileChapterCacheRepository，因为 StorageRepository 未初始化！");
+                    LOG.error("无法在 catch 块中创建 ChapterCacheAdapter，因为 StorageRepository 未初始化！");
                     initializationOk = false;
                 }
             }
@@ -0,0 +1,245 @@
+package com.lv.tool.privatereader.repository.impl;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import com.intellij.openapi.diagnostic.Logger;
+import com.lv.tool.privatereader.model.Book;
+import com.lv.tool.privatereader.parser.NovelParser.Chapter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 书籍详情流式解码器
+ *
+ * 直接从文件流逐个读取 details.json 中的字段，不再先把整个文件读成字符串、
+ * 构建 JSON 树，再用 Gson 转换章节列表子树。章节数较多（数千章）的书籍解析时
+ * 只分配最终的 Book 和 Chapter 对象。
+ *
+ * 字段缺失、为null或类型不符时使用与原解析逻辑相同的默认值，未知字段直接跳过。
+ */
+final class BookDetailsReader {
+    private static final Logger LOG = Logger.getInstance(BookDetailsReader.class);
+
+    private BookDetailsReader() {
+    }
+
+    /**
+     * 读取书籍详情文件
+     *
+     * @param file 书籍详情文件
+     * @param bookId 书籍ID，文件中没有ID时使用
+     * @return 解析后的书籍，内容格式错误时返回null
+     * @throws IOException 读取文件失败
+     */
+    @Nullable
+    static Book read(@NotNull Path file, @NotNull String bookId) throws IOException {
+        try (Reader reader = new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8)) {
+            return read(reader, bookId);
+        } catch (MalformedJsonException | EOFException | IllegalStateException | NumberFormatException e) {
+            LOG.error("Failed to parse JSON content for book: " + bookId + ", file: " + file + ", 错误: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @NotNull
+    private static Book read(@NotNull Reader source, @NotNull String bookId) throws IOException {
+        JsonReader in = new JsonReader(source);
+        in.setLenient(true);
+
+        String id = bookId;
+        String title = "未知标题";
+        String author = "未知作者";
+        String url = null;
+        String sourceId = null;
+        long createTimeMillis = System.currentTimeMillis();
+        String lastChapter = null;
+        int totalChapters = 0;
+        String lastReadChapter = null;
+        String lastReadChapterId = null;
+        int lastReadPosition = 0;
+        long lastReadTimeMillis = 0;
+        long lastCheckedMillis = 0;
+        int currentChapterIndex = 0;
+        boolean finished = false;
+        int lastReadPage = 1;
+        boolean chaptersFromBookPage = false;
+        List<Chapter> chapters = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    id = readString(in, bookId);
+                    break;
+                case "title":
+                    title = readString(in, title);
+                    break;
+                case "author":
+                    author = readString(in, author);
+                    break;
+                case "url":
+                    url = readString(in, null);
+                    break;
+                case "sourceId":
+                    sourceId = readString(in, null);
+                    break;
+                case "createTimeMillis":
+                    createTimeMillis = readLong(in, createTimeMillis);
+                    break;
+                case "lastChapter":
+                    lastChapter = readString(in, null);
+                    break;
+                case "totalChapters":
+                    totalChapters = (int) readLong(in, 0);
+                    break;
+                case "lastReadChapter":
+                    lastReadChapter = readString(in, null);
+                    break;
+                case "lastReadChapterId":
+                    lastReadChapterId = readString(in, null);
+                    break;
+                case "lastReadPosition":
+                    lastReadPosition = (int) readLong(in, 0);
+                    break;
+                case "lastReadTimeMillis":
+                    lastReadTimeMillis = readLong(in, 0);
+                    break;
+                case "lastCheckedMillis":
+                    lastCheckedMillis = readLong(in, 0);
+                    break;
+                case "currentChapterIndex":
+                    currentChapterIndex = (int) readLong(in, 0);
+                    break;
+                case "finished":
+                    finished = readBoolean(in, false);
+                    break;
+                case "lastReadPage":
+                    lastReadPage = (int) readLong(in, 1);
+                    break;
+                case "chaptersFromBookPage":
+                    chaptersFromBookPage = readBoolean(in, false);
+                    break;
+                case "cachedChapters":
+                    chapters = readChapters(in);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+
+        Book book = new Book(id, title, author, url);
+        book.setSourceId(sourceId);
+        book.setCreateTimeMillis(createTimeMillis);
+        book.setLastChapter(lastChapter);
+        book.setTotalChapters(totalChapters);
+        book.setLastReadChapter(lastReadChapter);
+        book.setLastReadChapterId(lastReadChapterId);
+        book.setLastReadPosition(lastReadPosition);
+        book.setLastReadTimeMillis(lastReadTimeMillis);
+        book.setLastCheckedMillis(lastCheckedMillis);
+        book.setCurrentChapterIndex(currentChapterIndex);
+        book.setFinished(finished);
+        book.setLastReadPage(lastReadPage);
+        book.setChaptersFromBookPage(chaptersFromBookPage);
+        // 与原逻辑一致：章节列表缺失时使用空列表
+        book.setCachedChapters(chapters != null ? chapters : new ArrayList<>());
+        return book;
+    }
+
+    /**
+     * 读取章节列表，不是对象的元素会被跳过
+     */
+    @Nullable
+    private static List<Chapter> readChapters(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_ARRAY) {
+            in.skipValue();
+            return null;
+        }
+        List<Chapter> chapters = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                continue;
+            }
+            String title = "";
+            String url = "";
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "title":
+                        title = readString(in, "");
+                        break;
+                    case "url":
+                        url = readString(in, "");
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            chapters.add(new Chapter(title, url));
+        }
+        in.endArray();
+        return chapters;
+    }
+
+    private static String readString(JsonReader in, String defaultValue) throws IOException {
+        switch (in.peek()) {
+            case STRING, NUMBER:
+                return in.nextString();
+            case BOOLEAN:
+                return String.valueOf(in.nextBoolean());
+            case NULL:
+                in.nextNull();
+                return defaultValue;
+            default:
+                in.skipValue();
+                return defaultValue;
+        }
+    }
+
+    private static long readLong(JsonReader in, long defaultValue) throws IOException {
+        JsonToken token = in.peek();
+        if (token != JsonToken.NUMBER && token != JsonToken.STRING) {
+            in.skipValue();
+            return defaultValue;
+        }
+        String value = in.nextString();
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            try {
+                return (long) Double.parseDouble(value);
+            } catch (NumberFormatException ignored) {
+                return defaultValue;
+            }
+        }
+    }
+
+    private static boolean readBoolean(JsonReader in, boolean defaultValue) throws IOException {
+        switch (in.peek()) {
+            case BOOLEAN:
+                return in.nextBoolean();
+            case STRING:
+                return Boolean.parseBoolean(in.nextString());
+            default:
+                in.skipValue();
+                return defaultValue;
+        }
+    }
+}
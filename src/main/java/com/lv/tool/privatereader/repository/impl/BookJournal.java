@@ -0,0 +1,353 @@
+package com.lv.tool.privatereader.repository.impl;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.intellij.openapi.diagnostic.Logger;
+import com.lv.tool.privatereader.model.Book;
+import com.lv.tool.privatereader.model.BookIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * 书籍进度日志
+ *
+ * 翻页等高频操作只修改阅读进度，不必每次都重写整个 details.json（包含完整章节列表）和 index.json。
+ * 进度变更以一行JSON的形式顺序追加到日志文件：
+ * - 内存中保留每本书最新的一条记录，从文件加载书籍或索引时叠加在快照之上
+ * - 定期将记录合并（检查点）到 details.json 和 index.json，然后清空日志
+ * - 启动时读取日志恢复尚未合并的记录，尾部不完整的行会被忽略
+ *
+ * 每条记录保存的是字段的最新值而不是增量，重复回放是幂等的。
+ * 同一个日志文件在进程内只有一个实例，多个仓库实例共享同一把锁。
+ */
+final class BookJournal {
+    private static final Logger LOG = Logger.getInstance(BookJournal.class);
+    private static final Map<Path, BookJournal> JOURNALS = new ConcurrentHashMap<>();
+
+    private final Path file;
+    /**
+     * 尚未合并到快照的记录，每本书只保留最新一条
+     * 日志文件中的记录始终只涉及这里的书籍
+     */
+    private final Map<String, Delta> pending = new LinkedHashMap<>();
+    private FileChannel channel;
+    private int recordCount;
+
+    private BookJournal(Path file) {
+        this.file = file;
+        load();
+    }
+
+    /**
+     * 获取指定文件的日志实例
+     *
+     * @param file 日志文件路径
+     * @return 日志实例
+     */
+    @NotNull
+    static BookJournal forFile(@NotNull Path file) {
+        return JOURNALS.computeIfAbsent(file.toAbsolutePath().normalize(), BookJournal::new);
+    }
+
+    /**
+     * 追加一条进度记录
+     *
+     * @param delta 进度记录
+     * @return 日志中的记录数
+     */
+    synchronized int append(@NotNull Delta delta) throws IOException {
+        write(delta);
+        pending.put(delta.id(), delta);
+        return recordCount;
+    }
+
+    /**
+     * 书籍的完整快照已写入时调用
+     * 如果日志中还有该书的旧记录，追加一条与快照一致的记录，避免回放时用旧值覆盖新快照
+     *
+     * @param book 已保存的书籍
+     */
+    synchronized void supersede(@NotNull Book book) throws IOException {
+        if (pending.containsKey(book.getId())) {
+            append(Delta.fromBook(book));
+        }
+    }
+
+    /**
+     * 丢弃书籍的记录
+     *
+     * @param bookId 书籍ID
+     */
+    synchronized void remove(@NotNull String bookId) throws IOException {
+        if (pending.remove(bookId) != null) {
+            write(Delta.removed(bookId));
+        }
+    }
+
+    /**
+     * 获取书籍尚未合并的最新记录
+     *
+     * @param bookId 书籍ID
+     * @return 进度记录，不存在时返回null
+     */
+    @Nullable
+    synchronized Delta get(@NotNull String bookId) {
+        return pending.get(bookId);
+    }
+
+    synchronized boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /**
+     * 将尚未合并的记录写入快照，然后重写日志
+     * 合并过程中不持有锁，期间追加的新记录保留到下一次检查点
+     *
+     * @param applier 合并单条记录，返回是否成功
+     * @return 合并的记录数
+     */
+    int checkpoint(@NotNull Predicate<Delta> applier) {
+        List<Delta> snapshot;
+        synchronized (this) {
+            if (pending.isEmpty()) return 0;
+            snapshot = new ArrayList<>(pending.values());
+        }
+
+        List<Delta> applied = new ArrayList<>(snapshot.size());
+        for (Delta delta : snapshot) {
+            try {
+                if (applier.test(delta)) {
+                    applied.add(delta);
+                }
+            } catch (Exception e) {
+                LOG.error("合并进度记录失败: " + delta.id() + ", 错误: " + e.getMessage(), e);
+            }
+        }
+
+        synchronized (this) {
+            for (Delta delta : applied) {
+                pending.remove(delta.id(), delta);
+            }
+            try {
+                rewrite();
+            } catch (IOException e) {
+                LOG.error("重写进度日志失败: " + file + ", 错误: " + e.getMessage(), e);
+            }
+        }
+        return applied.size();
+    }
+
+    /**
+     * 清空日志
+     */
+    synchronized void clear() {
+        pending.clear();
+        closeChannel();
+        recordCount = 0;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.warn("删除进度日志失败: " + file + ", 错误: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 关闭日志文件，之后的追加会重新打开
+     */
+    synchronized void close() {
+        closeChannel();
+    }
+
+    private void load() {
+        if (!Files.exists(file)) return;
+        int lineNumber = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                try {
+                    Delta delta = Delta.fromJson(JsonParser.parseString(line).getAsJsonObject());
+                    recordCount++;
+                    if (delta.removed()) {
+                        pending.remove(delta.id());
+                    } else {
+                        pending.put(delta.id(), delta);
+                    }
+                } catch (Exception e) {
+                    LOG.warn("忽略损坏的进度日志记录: " + file + " 第" + lineNumber + "行");
+                }
+            }
+        } catch (IOException e) {
+            LOG.error("读取进度日志失败: " + file + ", 错误: " + e.getMessage(), e);
+        }
+        if (!pending.isEmpty()) {
+            LOG.info("从进度日志恢复 " + pending.size() + " 本书籍尚未合并的阅读进度");
+        }
+    }
+
+    private void write(Delta delta) throws IOException {
+        ensureChannel();
+        ByteBuffer line = ByteBuffer.wrap((delta.toJson() + "\n").getBytes(StandardCharsets.UTF_8));
+        while (line.hasRemaining()) {
+            channel.write(line);
+        }
+        recordCount++;
+    }
+
+    private void ensureChannel() throws IOException {
+        if (channel != null && channel.isOpen()) return;
+        Files.createDirectories(file.getParent());
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.READ);
+        long size = channel.size();
+        channel.position(size);
+        if (size > 0) {
+            // 上次退出时最后一行可能没有写完，补一个换行，避免与新记录粘连
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, size - 1);
+            if (last.get(0) != '\n') {
+                channel.write(ByteBuffer.wrap(new byte[]{'\n'}));
+            }
+        }
+    }
+
+    /**
+     * 只保留尚未合并的记录，先写临时文件再替换，避免写入过程中崩溃丢失记录
+     */
+    private void rewrite() throws IOException {
+        closeChannel();
+        if (pending.isEmpty()) {
+            Files.deleteIfExists(file);
+            recordCount = 0;
+            return;
+        }
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        StringBuilder content = new StringBuilder();
+        for (Delta delta : pending.values()) {
+            content.append(delta.toJson()).append('\n');
+        }
+        Files.writeString(tempFile, content, StandardCharsets.UTF_8);
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        recordCount = pending.size();
+    }
+
+    private void closeChannel() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOG.warn("关闭进度日志失败: " + file + ", 错误: " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    /**
+     * 单本书籍的进度记录，保存的是字段的最新值
+     */
+    record Delta(String id, boolean removed, String lastReadChapter, String lastReadChapterId,
+                 int lastReadPosition, int lastReadPage, int currentChapterIndex, long lastReadTimeMillis,
+                 int totalChapters, String lastChapter, boolean finished) {
+
+        @NotNull
+        static Delta fromBook(@NotNull Book book) {
+            return new Delta(book.getId(), false, book.getLastReadChapter(), book.getLastReadChapterId(),
+                    book.getLastReadPosition(), book.getLastReadPage(), book.getCurrentChapterIndex(),
+                    book.getLastReadTimeMillis(), book.getTotalChapters(), book.getLastChapter(), book.isFinished());
+        }
+
+        @NotNull
+        static Delta removed(@NotNull String bookId) {
+            return new Delta(bookId, true, null, null, 0, 0, 0, 0L, 0, null, false);
+        }
+
+        /**
+         * 将记录叠加到从快照加载的书籍上
+         */
+        void applyTo(@NotNull Book book) {
+            book.setLastReadChapter(lastReadChapter);
+            book.setLastReadChapterId(lastReadChapterId);
+            book.setLastReadPosition(lastReadPosition);
+            book.setLastReadPage(lastReadPage);
+            book.setCurrentChapterIndex(currentChapterIndex);
+            book.setLastReadTimeMillis(lastReadTimeMillis);
+            book.setTotalChapters(totalChapters);
+            book.setLastChapter(lastChapter);
+            book.setFinished(finished);
+        }
+
+        /**
+         * 将记录叠加到从 index.json 加载的索引条目上
+         */
+        void applyTo(@NotNull BookIndex index) {
+            index.setLastReadTimeMillis(lastReadTimeMillis);
+            index.setTotalChapters(totalChapters);
+            index.setCurrentChapterIndex(currentChapterIndex);
+            index.setLastChapter(lastChapter);
+            index.setFinished(finished);
+        }
+
+        @NotNull
+        String toJson() {
+            JsonObject json = new JsonObject();
+            json.addProperty("id", id);
+            if (removed) {
+                json.addProperty("removed", true);
+                return json.toString();
+            }
+            json.addProperty("lastReadChapter", lastReadChapter);
+            json.addProperty("lastReadChapterId", lastReadChapterId);
+            json.addProperty("lastReadPosition", lastReadPosition);
+            json.addProperty("lastReadPage", lastReadPage);
+            json.addProperty("currentChapterIndex", currentChapterIndex);
+            json.addProperty("lastReadTimeMillis", lastReadTimeMillis);
+            json.addProperty("totalChapters", totalChapters);
+            json.addProperty("lastChapter", lastChapter);
+            json.addProperty("finished", finished);
+            return json.toString();
+        }
+
+        @NotNull
+        static Delta fromJson(@NotNull JsonObject json) {
+            String id = json.get("id").getAsString();
+            if (json.has("removed") && json.get("removed").getAsBoolean()) {
+                return removed(id);
+            }
+            return new Delta(id, false,
+                    getString(json, "lastReadChapter"),
+                    getString(json, "lastReadChapterId"),
+                    json.get("lastReadPosition").getAsInt(),
+                    json.get("lastReadPage").getAsInt(),
+                    json.get("currentChapterIndex").getAsInt(),
+                    json.get("lastReadTimeMillis").getAsLong(),
+                    json.get("totalChapters").getAsInt(),
+                    getString(json, "lastChapter"),
+                    json.get("finished").getAsBoolean());
+        }
+
+        @Nullable
+        private static String getString(JsonObject json, String key) {
+            JsonElement element = json.get(key);
+            return element == null || element.isJsonNull() ? null : element.getAsString();
+        }
+    }
+}
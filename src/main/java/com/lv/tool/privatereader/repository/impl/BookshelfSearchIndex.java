@@ -0,0 +1,340 @@
+package com.lv.tool.privatereader.repository.impl;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.lv.tool.privatereader.model.BookshelfEntry;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 书架搜索索引
+ *
+ * 每本书的书名和作者预先规范化（NFKC、小写），含汉字时另外生成拼音首字母，
+ * 如"斗破苍穹"可以用"dpcq"搜到，含多音字时每种读音组合各生成一个首字母关键字。所有关键字的单字和相邻两字组成倒排表：
+ * 搜索词为一个字时直接取单字表，否则取搜索词中最少命中的两字组合作为候选，
+ * 再逐个确认包含整个搜索词。
+ *
+ * 不可变，书名和作者未变化时可以跨书架快照复用。
+ */
+final class BookshelfSearchIndex {
+    static final BookshelfSearchIndex EMPTY = new BookshelfSearchIndex(new String[0], new String[0], new String[0],
+            new String[0][], new HashMap<>());
+
+    private static final int[] NO_MATCH = new int[0];
+
+    private final String[] ids;
+    private final String[] titles;
+    private final String[] authors;
+    /**
+     * 每本书规范化后的关键字：书名、作者及其各种读音的拼音首字母
+     */
+    private final String[][] keys;
+    /**
+     * 单字和两字组合到书籍位置的倒排表，位置按升序排列
+     */
+    private final Map<Long, int[]> grams;
+
+    private BookshelfSearchIndex(String[] ids, String[] titles, String[] authors, String[][] keys,
+                                 Map<Long, int[]> grams) {
+        this.ids = ids;
+        this.titles = titles;
+        this.authors = authors;
+        this.keys = keys;
+        this.grams = grams;
+    }
+
+    /**
+     * 为书架条目建立索引
+     *
+     * @param entries 书架条目，搜索结果中的位置对应这里的顺序
+     * @return 搜索索引
+     */
+    @NotNull
+    static BookshelfSearchIndex build(@NotNull List<BookshelfEntry> entries) {
+        int size = entries.size();
+        String[] ids = new String[size];
+        String[] titles = new String[size];
+        String[] authors = new String[size];
+        String[][] keys = new String[size][];
+        Map<Long, Postings> postings = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            BookshelfEntry entry = entries.get(i);
+            ids[i] = entry.id();
+            titles[i] = entry.title();
+            authors[i] = entry.author();
+            keys[i] = keysOf(entry.title(), entry.author());
+            for (String key : keys[i]) {
+                for (int j = 0; j < key.length(); j++) {
+                    postings.computeIfAbsent(unigram(key.charAt(j)), k -> new Postings()).add(i);
+                    if (j + 1 < key.length()) {
+                        postings.computeIfAbsent(bigram(key.charAt(j), key.charAt(j + 1)), k -> new Postings()).add(i);
+                    }
+                }
+            }
+        }
+        Map<Long, int[]> grams = new HashMap<>(postings.size() * 2);
+        for (Map.Entry<Long, Postings> entry : postings.entrySet()) {
+            grams.put(entry.getKey(), entry.getValue().toArray());
+        }
+        return new BookshelfSearchIndex(ids, titles, authors, keys, grams);
+    }
+
+    /**
+     * 索引是否与书架条目的顺序、书名和作者一致，一致时可以直接复用
+     */
+    boolean covers(@NotNull List<BookshelfEntry> entries) {
+        if (entries.size() != ids.length) {
+            return false;
+        }
+        for (int i = 0; i < ids.length; i++) {
+            BookshelfEntry entry = entries.get(i);
+            if (!ids[i].equals(entry.id()) || !titles[i].equals(entry.title()) || !authors[i].equals(entry.author())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 搜索书名、作者或拼音首字母包含关键词的书籍
+     *
+     * @param keyword 关键词，为空时返回全部书籍
+     * @return 匹配书籍的位置，按升序排列
+     */
+    @NotNull
+    int[] search(@NotNull String keyword) {
+        String query = normalize(keyword.trim());
+        if (query.isEmpty()) {
+            int[] all = new int[ids.length];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+
+        int[] candidates;
+        if (query.length() == 1) {
+            candidates = grams.getOrDefault(unigram(query.charAt(0)), NO_MATCH);
+        } else {
+            candidates = null;
+            for (int i = 0; i + 1 < query.length(); i++) {
+                int[] gram = grams.get(bigram(query.charAt(i), query.charAt(i + 1)));
+                if (gram == null) {
+                    return NO_MATCH;
+                }
+                if (candidates == null || gram.length < candidates.length) {
+                    candidates = gram;
+                }
+            }
+        }
+        if (query.length() <= 2) {
+            // 倒排表只记录同一关键字内的字，命中即包含
+            return candidates.clone();
+        }
+
+        int[] matches = new int[candidates.length];
+        int count = 0;
+        for (int position : candidates) {
+            for (String key : keys[position]) {
+                if (key.contains(query)) {
+                    matches[count++] = position;
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    private static String[] keysOf(String title, String author) {
+        String normalizedTitle = normalize(title);
+        String normalizedAuthor = normalize(author);
+        List<String> titleInitials = PinyinInitials.of(normalizedTitle);
+        List<String> authorInitials = PinyinInitials.of(normalizedAuthor);
+        String[] keys = new String[2 + titleInitials.size() + authorInitials.size()];
+        keys[0] = normalizedTitle;
+        keys[1] = normalizedAuthor;
+        int next = 2;
+        for (String initials : titleInitials) {
+            keys[next++] = initials;
+        }
+        for (String initials : authorInitials) {
+            keys[next++] = initials;
+        }
+        return keys;
+    }
+
+    /**
+     * 全角字符转为半角，英文转为小写
+     */
+    static String normalize(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+
+    private static long unigram(char c) {
+        return c;
+    }
+
+    private static long bigram(char first, char second) {
+        return 1L << 32 | (long) first << 16 | second;
+    }
+
+    /**
+     * 按书籍位置升序追加，同一本书只记录一次
+     */
+    private static final class Postings {
+        private int[] positions = new int[4];
+        private int size;
+
+        void add(int position) {
+            if (size > 0 && positions[size - 1] == position) {
+                return;
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(positions, size);
+        }
+    }
+
+    /**
+     * 汉字拼音首字母
+     *
+     * 首字母表 pinyin/initials.txt 按码位顺序为 U+4E00 到 U+9FFF 的每个字记录一个小写字母，
+     * 没有读音的字记为 '-'，换行符只为方便查看。表由 Unicode 拼音排序数据生成，
+     * 多音字取排序数据中的第一个读音，不一定是常用读音，如"长"记为 z。
+     *
+     * 多音字表 pinyin/polyphones.txt 每行一个常用多音字及其所有读音的首字母，常用读音在前，
+     * 如"长 cz"，这些字按多音字表生成首字母，"长夜余火"同时生成 cyyh 和 zyyh。
+     * 读音组合最多生成 {@link #MAX_VARIANTS} 种，超出时其余多音字只取常用读音。
+     * 两个表都在首次使用时加载，加载失败时所有汉字都没有首字母或不区分多音字。
+     */
+    static final class PinyinInitials {
+        private static final Logger LOG = Logger.getInstance(PinyinInitials.class);
+        private static final char FIRST = '\u4E00';
+        private static final char LAST = '\u9FFF';
+        private static final String TABLE_RESOURCE = "/pinyin/initials.txt";
+        private static final String POLYPHONE_RESOURCE = "/pinyin/polyphones.txt";
+        /**
+         * 一个关键字最多生成的首字母组合数
+         */
+        private static final int MAX_VARIANTS = 8;
+
+        private PinyinInitials() {
+        }
+
+        /**
+         * 生成拼音首字母，汉字取首字母，英文和数字保留，其他字符忽略
+         *
+         * @param normalized 规范化后的文本
+         * @return 各种读音组合的首字母，第一个全部取常用读音；文本中没有可识别的汉字时返回空列表
+         */
+        static List<String> of(String normalized) {
+            byte[] table = Table.INITIALS;
+            String[] polyphones = Table.POLYPHONES;
+            List<StringBuilder> variants = null;
+            boolean hasHanzi = false;
+            for (int i = 0; i < normalized.length(); i++) {
+                char c = normalized.charAt(i);
+                char initial = 0;
+                String readings = null;
+                if (c >= FIRST && c <= LAST) {
+                    readings = polyphones[c - FIRST];
+                    initial = readings != null ? readings.charAt(0) : (char) table[c - FIRST];
+                    hasHanzi |= initial != 0;
+                } else if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                    initial = c;
+                }
+                if (initial == 0) {
+                    continue;
+                }
+                if (variants == null) {
+                    variants = new ArrayList<>(2);
+                    variants.add(new StringBuilder(normalized.length()));
+                }
+                int count = variants.size();
+                if (readings != null) {
+                    // 其他读音接在已有组合的副本后面，已有组合再追加常用读音
+                    for (int r = 1; r < readings.length(); r++) {
+                        for (int v = 0; v < count && variants.size() < MAX_VARIANTS; v++) {
+                            variants.add(new StringBuilder(variants.get(v)).append(readings.charAt(r)));
+                        }
+                    }
+                }
+                for (int v = 0; v < count; v++) {
+                    variants.get(v).append(initial);
+                }
+            }
+            if (!hasHanzi) {
+                return List.of();
+            }
+            List<String> initials = new ArrayList<>(variants.size());
+            for (StringBuilder variant : variants) {
+                initials.add(variant.toString());
+            }
+            return initials;
+        }
+
+        private static final class Table {
+            static final byte[] INITIALS = load();
+            static final String[] POLYPHONES = loadPolyphones();
+
+            private static byte[] load() {
+                byte[] table = new byte[LAST - FIRST + 1];
+                try (InputStream in = PinyinInitials.class.getResourceAsStream(TABLE_RESOURCE)) {
+                    if (in == null) {
+                        LOG.warn("找不到拼音首字母表: " + TABLE_RESOURCE);
+                        return table;
+                    }
+                    int position = 0;
+                    for (byte b : in.readAllBytes()) {
+                        if (b == '\n' || b == '\r') {
+                            continue;
+                        }
+                        if (position == table.length) {
+                            break;
+                        }
+                        table[position++] = b >= 'a' && b <= 'z' ? b : 0;
+                    }
+                } catch (IOException e) {
+                    LOG.warn("加载拼音首字母表失败: " + e.getMessage());
+                }
+                return table;
+            }
+
+            private static String[] loadPolyphones() {
+                String[] polyphones = new String[LAST - FIRST + 1];
+                try (InputStream in = PinyinInitials.class.getResourceAsStream(POLYPHONE_RESOURCE)) {
+                    if (in == null) {
+                        LOG.warn("找不到多音字表: " + POLYPHONE_RESOURCE);
+                        return polyphones;
+                    }
+                    for (String line : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\\R")) {
+                        String[] fields = line.trim().split("\\s+");
+                        if (fields.length != 2 || fields[0].length() != 1
+                                || !fields[1].chars().allMatch(b -> b >= 'a' && b <= 'z')) {
+                            continue;
+                        }
+                        char c = fields[0].charAt(0);
+                        if (c >= FIRST && c <= LAST) {
+                            polyphones[c - FIRST] = fields[1];
+                        }
+                    }
+                } catch (IOException e) {
+                    LOG.warn("加载多音字表失败: " + e.getMessage());
+                }
+                return polyphones;
+            }
+        }
+    }
+}
@@ -5,17 +5,22 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
 import com.google.gson.TypeAdapter;
 import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.Application;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
+import com.lv.tool.privatereader.async.ReactiveSchedulers;
 import com.lv.tool.privatereader.model.Book;
 import com.lv.tool.privatereader.model.BookIndex;
+import com.lv.tool.privatereader.model.BookshelfEntry;
+import com.lv.tool.privatereader.parser.NovelParser.Chapter;
 import com.lv.tool.privatereader.repository.BookRepository;
 import com.lv.tool.privatereader.repository.StorageRepository;
 import org.jetbrains.annotations.NotNull;
@@ -28,14 +33,23 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.nio.file.attribute.BasicFileAttributes;
 import com.lv.tool.privatereader.service.ChapterService;
 import com.google.inject.Inject;
@@ -46,28 +60,64 @@ import com.intellij.openapi.components.Service;
  *
  * 基于文件系统实现书籍仓库接口，管理书籍数据的持久化存储。
  * 采用分离存储方案：
- * - 主索引文件：存储所有书籍的基本信息，位于 private-reader/books/index.json
+ * - 主索引文件：存储所有书籍的基本信息，位于 private-reader/books/index.json，
+ *   首次使用时加载到内存，之后的修改在内存中完成，并合并延迟写回文件
  * - 书籍详情文件：每本书单独存储详细信息，位于 private-reader/books/{bookId}/details.json
+ * - 进度日志：只修改阅读进度的更新追加到 private-reader/books/journal.log，定期合并到上述两个文件
+ * - 章节追加日志：刷新发现的新章节追加到 private-reader/books/{bookId}/chapters.log，
+ *   读取详情时叠加到章节列表末尾，下次整体保存详情时合并
  */
 @Service(Service.Level.APP)
-public final class FileBookRepository implements BookRepository {
+public final class FileBookRepository implements BookRepository, Disposable {
     private static final Logger LOG = Logger.getInstance(FileBookRepository.class);
     private static final int MAX_CACHE_SIZE = 100; // 最大内存缓存数量
     private static final int MAX_CHAPTER_FETCH_RETRY = 3; // 最大章节获取重试次数
+    private static final String JOURNAL_FILE_NAME = "journal.log";
+    private static final long JOURNAL_CHECKPOINT_INTERVAL_SECONDS = 30; // 进度日志合并间隔
+    private static final int JOURNAL_MAX_RECORDS = 500; // 日志记录数超过该值时立即合并
+    private static final long INDEX_SAVE_DELAY_MS = 500; // 索引写回延迟，期间的多次修改合并为一次写入
+    private static final String CHAPTER_LOG_FILE_NAME = "chapters.log";
+    private static final int CHAPTER_LOG_MAX_RECORDS = 500; // 追加的章节数超过该值时整体保存详情
 
     // 记录每本书尝试从URL获取章节列表的次数
     private static final Map<String, Integer> chapterFetchRetryCount = new HashMap<>();
 
     private final StorageRepository storageRepository;
     private final Gson gson;
+    private final BookJournal journal;
+    private final reactor.core.Disposable checkpointTask;
+
+    // 常驻内存的书籍索引，按ID查找，保持 index.json 中的顺序
+    private final Map<String, BookIndex> bookIndices = new LinkedHashMap<>();
+    private volatile boolean bookIndicesLoaded;
+    private final AtomicBoolean indexSaveScheduled = new AtomicBoolean();
+    private final Object indexFileLock = new Object();
+
+    // 书架投影，由内存索引生成，索引变化后在下次获取时重建；受 bookIndices 锁保护
+    private Bookshelf bookshelf = Bookshelf.EMPTY;
+    private boolean bookshelfStale = true;
+
+    // 最近一次写入或读取的 details.json 中除阅读进度外的内容摘要，用于判断更新是否只涉及进度
+    private final Map<String, DetailsSignature> persistedDetails = new ConcurrentHashMap<>();
+
+    // 每本书章节追加日志中的记录数；追加日志和整体保存详情时删除日志互斥
+    private final Map<String, Integer> chapterLogRecords = new ConcurrentHashMap<>();
+    private final Object chapterLogLock = new Object();
+
+    // 每本书保存 details.json 的锁，定时合并、前台更新和后台保存可能同时写同一本书
+    private final Map<String, Object> detailsLocks = new ConcurrentHashMap<>();
+    // 书籍文件清理和修复是否已执行
+    private final AtomicBoolean maintenanceDone = new AtomicBoolean();
 
     // 内存缓存，使用LRU策略
-    private final Map<String, CacheEntry> bookCache = new LinkedHashMap<String, CacheEntry>(MAX_CACHE_SIZE, 0.75f, true) {
-        @Override
-        protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
-            return size() > MAX_CACHE_SIZE;
-        }
-    };
+    // 按访问排序的 LinkedHashMap 读取时也会修改链表，IO线程和定时合并进度日志的线程会同时访问，需要同步
+    private final Map<String, CacheEntry> bookCache = Collections.synchronizedMap(
+            new LinkedHashMap<String, CacheEntry>(MAX_CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                    return size() > MAX_CACHE_SIZE;
+                }
+            });
 
     // 缓存条目，包含数据和时间戳
     private static class CacheEntry {
@@ -87,27 +137,41 @@ public final class FileBookRepository implements BookRepository {
     public FileBookRepository() {
         this.storageRepository = com.intellij.openapi.application.ApplicationManager.getApplication().getService(StorageRepository.class);
         this.gson = createSecureGson();
+        this.journal = BookJournal.forFile(Path.of(storageRepository.getBooksPath(), JOURNAL_FILE_NAME));
+        this.checkpointTask = ReactiveSchedulers.getInstance().timer().schedulePeriodically(
+                this::checkpointJournal, JOURNAL_CHECKPOINT_INTERVAL_SECONDS,
+                JOURNAL_CHECKPOINT_INTERVAL_SECONDS, TimeUnit.SECONDS);
 
         // 清空重试计数Map
         synchronized (chapterFetchRetryCount) {
             chapterFetchRetryCount.clear();
         }
 
-        // 启动后台线程，在应用启动后清理和修复损坏的书籍文件
-        javax.swing.SwingUtilities.invokeLater(() -> {
-            try {
-                LOG.info("开始自动检查和修复书籍文件...");
-                // 首先清理损坏的文件
-                int cleanedCount = cleanupCorruptedBooks();
-                LOG.info("已清理 " + cleanedCount + " 个损坏的书籍文件");
-
-                // 然后修复阅读位置和内容
-                int repairedCount = repairMissingReadingContent();
-                LOG.info("已修复 " + repairedCount + " 本书籍的阅读位置");
-            } catch (Exception e) {
-                LOG.error("自动修复过程中出错: " + e.getMessage(), e);
-            }
-        });
+        // 加载后在后台清理和修复损坏的书籍文件，只执行一次
+        ReactiveSchedulers.getInstance().background().schedule(this::runMaintenanceOnce);
+    }
+
+    /**
+     * 清理损坏的书籍文件并修复阅读位置
+     *
+     * 只在加载后执行一次，之后读取书籍列表不再重复扫描书籍目录。
+     */
+    private void runMaintenanceOnce() {
+        if (!maintenanceDone.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LOG.info("开始自动检查和修复书籍文件...");
+            // 首先清理损坏的文件
+            int cleanedCount = cleanupCorruptedBooks();
+            LOG.info("已清理 " + cleanedCount + " 个损坏的书籍文件");
+
+            // 然后修复阅读位置和内容
+            int repairedCount = repairMissingReadingContent();
+            LOG.info("已修复 " + repairedCount + " 本书籍的阅读位置");
+        } catch (Exception e) {
+            LOG.error("自动修复过程中出错: " + e.getMessage(), e);
+        }
     }
 
     /**
@@ -238,20 +302,8 @@ public final class FileBookRepository implements BookRepository {
     public List<Book> getAllBooks(boolean loadDetails) {
         List<Book> books = new ArrayList<>();
 
-        // 添加标志位，防止递归调用
-        boolean isRepairInProgress = Thread.currentThread().getStackTrace().length > 60;
-
-        // 尝试清理和修复损坏的书籍文件
-        try {
-            // 先清理损坏的文件
-            cleanupCorruptedBooks();
-            // 然后修复阅读位置，但防止递归调用
-            if (!isRepairInProgress) {
-                repairMissingReadingContent();
-            }
-        } catch (Exception e) {
-            LOG.warn("书籍维护过程中出错: " + e.getMessage(), e);
-        }
+        // 后台维护尚未开始时先完成，保证首次读取的列表已清理
+        runMaintenanceOnce();
 
         try {
             // 读取所有书籍索引
@@ -273,23 +325,11 @@ public final class FileBookRepository implements BookRepository {
                         } else {
                             // 如果详情获取失败，尝试从索引创建简化版本
                             LOG.warn("无法加载书籍详情: " + index.getId() + "，创建简化版本");
-                            Book simpleBook = new Book(index.getId(), index.getTitle(), index.getAuthor(), index.getUrl());
-                            simpleBook.setCreateTimeMillis(index.getCreateTimeMillis());
-                            simpleBook.setLastChapter(index.getLastChapter());
-                            simpleBook.setLastReadTimeMillis(index.getLastReadTimeMillis());
-                            simpleBook.setTotalChapters(index.getTotalChapters());
-                            simpleBook.setFinished(index.isFinished());
-                            books.add(simpleBook);
+                            books.add(bookFromIndex(index));
                         }
                     } else {
                         // 只使用索引信息创建简化版本
-                        Book simpleBook = new Book(index.getId(), index.getTitle(), index.getAuthor(), index.getUrl());
-                        simpleBook.setCreateTimeMillis(index.getCreateTimeMillis());
-                        simpleBook.setLastChapter(index.getLastChapter());
-                        simpleBook.setLastReadTimeMillis(index.getLastReadTimeMillis());
-                        simpleBook.setTotalChapters(index.getTotalChapters());
-                        simpleBook.setFinished(index.isFinished());
-                        books.add(simpleBook);
+                        books.add(bookFromIndex(index));
                     }
                 } catch (Exception e) {
                     LOG.error("加载书籍失败 [" + index.getId() + "]: " + e.getMessage(), e);
@@ -312,6 +352,77 @@ public final class FileBookRepository implements BookRepository {
         return getAllBooks(true);
     }
 
+    /**
+     * 获取书架条目
+     *
+     * 直接使用常驻内存的书架投影，不做书籍文件维护，也不读取详情文件。
+     */
+    @Override
+    @NotNull
+    public List<BookshelfEntry> getBookshelf() {
+        return bookshelf().byLastRead();
+    }
+
+    /**
+     * 搜索书架
+     *
+     * 匹配书名、作者及其拼音首字母，使用书架投影中预先建立的搜索索引。
+     */
+    @Override
+    @NotNull
+    public List<BookshelfEntry> searchBookshelf(@NotNull String keyword) {
+        Bookshelf shelf = bookshelf();
+        if (keyword.isBlank()) {
+            return shelf.byLastRead();
+        }
+        int[] positions = shelf.searchIndex().search(keyword);
+        List<BookshelfEntry> matches = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            matches.add(shelf.entries().get(position));
+        }
+        matches.sort(Bookshelf.BY_LAST_READ);
+        return matches;
+    }
+
+    /**
+     * 获取书架投影，索引变化后重建
+     * 书名和作者都没有变化时（如只更新了阅读进度）沿用原来的搜索索引
+     */
+    private Bookshelf bookshelf() {
+        ensureBookIndicesLoaded();
+        synchronized (bookIndices) {
+            if (bookshelfStale) {
+                List<BookshelfEntry> entries = new ArrayList<>(bookIndices.size());
+                for (BookIndex index : bookIndices.values()) {
+                    entries.add(BookshelfEntry.fromIndex(index));
+                }
+                BookshelfSearchIndex searchIndex = bookshelf.searchIndex().covers(entries)
+                        ? bookshelf.searchIndex() : BookshelfSearchIndex.build(entries);
+                List<BookshelfEntry> byLastRead = new ArrayList<>(entries);
+                byLastRead.sort(Bookshelf.BY_LAST_READ);
+                bookshelf = new Bookshelf(List.copyOf(entries), List.copyOf(byLastRead), searchIndex);
+                bookshelfStale = false;
+            }
+            return bookshelf;
+        }
+    }
+
+    /**
+     * 只使用索引信息创建简化版本的书籍，不含章节列表
+     * 更新检查只读取这种书籍，必须带上上次检查时间，否则每本书都会被当作到期
+     */
+    private static Book bookFromIndex(BookIndex index) {
+        Book book = new Book(index.getId(), index.getTitle(), index.getAuthor(), index.getUrl());
+        book.setCreateTimeMillis(index.getCreateTimeMillis());
+        book.setLastChapter(index.getLastChapter());
+        book.setLastReadTimeMillis(index.getLastReadTimeMillis());
+        book.setTotalChapters(index.getTotalChapters());
+        book.setCurrentChapterIndex(index.getCurrentChapterIndex());
+        book.setFinished(index.isFinished());
+        book.setLastCheckedMillis(index.getLastCheckedMillis());
+        return book;
+    }
+
     @Override
     @Nullable
     public Book getBook(String bookId) {
@@ -346,8 +457,7 @@ public final class FileBookRepository implements BookRepository {
                      String bookDir = storageRepository.getBookDirectory(bookId);
                      File detailsFile = new File(bookDir, "details.json");
                      if (detailsFile.exists()) {
-                         String jsonContent = new String(java.nio.file.Files.readAllBytes(detailsFile.toPath()), java.nio.charset.StandardCharsets.UTF_8);
-                         Book fileBook = parseBookFromJson(jsonContent, bookId); // Use parsing method
+                         Book fileBook = readBookDetails(detailsFile, bookId); // Use parsing method
                          if (fileBook != null) {
                               //修复数据不一致
                               fileBook = restoreLastReadingPosition(fileBook);
@@ -405,8 +515,7 @@ public final class FileBookRepository implements BookRepository {
 
             Book fileBook = null;
             try {
-                String jsonContent = new String(java.nio.file.Files.readAllBytes(detailsFile.toPath()), java.nio.charset.StandardCharsets.UTF_8);
-                fileBook = parseBookFromJson(jsonContent, bookId); //解析书籍
+                fileBook = readBookDetails(detailsFile, bookId); //解析书籍
 
                 // === Fetch Missing Chapters Logic Start ===
                 if (fileBook != null && (fileBook.getCachedChapters() == null || fileBook.getCachedChapters().isEmpty()) &&
@@ -484,7 +593,7 @@ public final class FileBookRepository implements BookRepository {
             } catch (Exception parseEx) {
                  // Handle parsing error (potentially recover from index)
                   LOG.error("解析文件获取书籍失败，无法处理损坏的文件: " + parseEx.getMessage(), parseEx);
-                  // (Recovery logic from index might be called here if parseBookFromJson didn't handle it)
+                  // (Recovery logic from index might be called here if readBookDetails didn't handle it)
                   Book recoveredBook = recoverBookFromIndex(bookId);
                   if (recoveredBook != null) {
                        LOG.info("从索引恢复书籍成功 (after parse error): " + bookId);
@@ -569,66 +678,24 @@ public final class FileBookRepository implements BookRepository {
     }
 
     /**
-     * 解析 JSON 字符串为 Book 对象
+     * 读取书籍详情文件，并叠加章节追加日志和进度日志中尚未合并的记录
      *
-     * @param jsonContent JSON 内容
+     * @param detailsFile 书籍详情文件
      * @param bookId 书籍 ID
      * @return 解析后的 Book 对象，如果解析失败则返回 null
      */
-    private Book parseBookFromJson(String jsonContent, String bookId) {
-        if (jsonContent == null || jsonContent.isEmpty()) {
-            LOG.warn("JSON content is null or empty for book: " + bookId);
-            return null;
-        }
-
-        try {
-            com.google.gson.JsonObject json = com.google.gson.JsonParser.parseString(jsonContent).getAsJsonObject();
-            Book book = new Book(
-                getStringFromJson(json, "id", bookId), // Ensure ID is correct
-                getStringFromJson(json, "title", "未知标题"),
-                getStringFromJson(json, "author", "未知作者"),
-                getStringFromJson(json, "url", null)
-            );
-
-            // --- Metadata Only --- Keep these fields
-            book.setSourceId(getStringFromJson(json, "sourceId", null));
-            book.setCreateTimeMillis(getLongFromJson(json, "createTimeMillis", System.currentTimeMillis()));
-            book.setLastChapter(getStringFromJson(json, "lastChapter", null));
-            book.setTotalChapters(getIntFromJson(json, "totalChapters", 0));
-
-            // --- Progress Data --- Restore these fields from JSON parsing
-            book.setLastReadChapter(getStringFromJson(json, "lastReadChapter", null));
-            book.setLastReadChapterId(getStringFromJson(json, "lastReadChapterId", null));
-            book.setLastReadPosition(getIntFromJson(json, "lastReadPosition", 0));
-            book.setLastReadTimeMillis(getLongFromJson(json, "lastReadTimeMillis", 0));
-            book.setCurrentChapterIndex(getIntFromJson(json, "currentChapterIndex", 0));
-            book.setFinished(getBooleanFromJson(json, "finished", false));
-            book.setLastReadPage(getIntFromJson(json, "lastReadPage", 1));
-
-            // --- Cached Chapters (Optional - decide if this belongs here or separate cache)
-            // If cachedChapters are stored in details.json, keep this part.
-            // If they are large and stored separately, remove this.
-            // Assuming they are small enough to keep in details.json for now:
-            if (json.has("cachedChapters") && json.get("cachedChapters").isJsonArray()) {
-                try {
-                    // Use Gson to parse the Chapter list
-                    java.lang.reflect.Type chapterListType = new com.google.gson.reflect.TypeToken<List<com.lv.tool.privatereader.parser.NovelParser.Chapter>>(){}.getType();
-                    List<com.lv.tool.privatereader.parser.NovelParser.Chapter> chapters = gson.fromJson(json.get("cachedChapters"), chapterListType);
-                    book.setCachedChapters(chapters);
-                } catch (Exception e) {
-                    LOG.warn("Failed to parse cachedChapters for book: " + bookId, e);
-                    book.setCachedChapters(new ArrayList<>()); // Set empty list on error
-                }
-            } else {
-                book.setCachedChapters(new ArrayList<>());
+    private Book readBookDetails(File detailsFile, String bookId) throws IOException {
+        Book book = BookDetailsReader.read(detailsFile.toPath(), bookId);
+        if (book != null) {
+            BookIndex index = getBookIndex(bookId);
+            if (index != null && index.getLastCheckedMillis() > book.getLastCheckedMillis()) {
+                book.setLastCheckedMillis(index.getLastCheckedMillis());
             }
-
-            LOG.debug("Successfully parsed book from JSON: " + book.getId());
-            return book;
-        } catch (com.google.gson.JsonSyntaxException | IllegalStateException | NullPointerException e) {
-            LOG.error("Failed to parse JSON content for book: " + bookId + ". Content: " + jsonContent.substring(0, Math.min(jsonContent.length(), 200)) + "...", e);
-            return null;
+            applyChapterLog(book, detailsFile.toPath().resolveSibling(CHAPTER_LOG_FILE_NAME));
+            persistedDetails.put(bookId, DetailsSignature.of(book));
+            applyJournal(book);
         }
+        return book;
     }
 
     // 辅助方法，从JsonObject安全获取各种类型的值
@@ -682,60 +749,23 @@ public final class FileBookRepository implements BookRepository {
      */
     private Book recoverBookFromIndex(String bookId) {
         try {
-            File indexFile = new File(storageRepository.getBooksFilePath());
-            if (!indexFile.exists()) {
+            BookIndex index = getBookIndex(bookId);
+            if (index == null) {
                 return null;
             }
 
-            // 直接读取文件内容
-            String jsonContent = new String(java.nio.file.Files.readAllBytes(indexFile.toPath()), java.nio.charset.StandardCharsets.UTF_8);
-
-            // 手动解析JSON数组
-            try {
-                com.google.gson.JsonArray jsonArray = com.google.gson.JsonParser.parseString(jsonContent).getAsJsonArray();
-
-                for (int i = 0; i < jsonArray.size(); i++) {
-                    com.google.gson.JsonObject indexObject = jsonArray.get(i).getAsJsonObject();
-                    String id = getStringFromJson(indexObject, "id", "");
-
-                    if (id.equals(bookId)) {
-                        // 找到匹配的索引项
-                        String title = getStringFromJson(indexObject, "title", "未知标题");
-                        String author = getStringFromJson(indexObject, "author", "未知作者");
-                        String url = getStringFromJson(indexObject, "url", "");
-
-                        Book book = new Book(bookId, title, author, url);
-                        book.setCreateTimeMillis(getLongFromJson(indexObject, "createTimeMillis", System.currentTimeMillis()));
-                        book.setLastChapter(getStringFromJson(indexObject, "lastChapter", null));
-                        book.setLastReadTimeMillis(getLongFromJson(indexObject, "lastReadTimeMillis", 0L));
-                        book.setTotalChapters(getIntFromJson(indexObject, "totalChapters", 0));
-                        book.setFinished(getBooleanFromJson(indexObject, "finished", false));
-                        return book;
-                    }
-                }
-            } catch (Exception e) {
-                LOG.error("解析书籍索引JSON失败: " + e.getMessage(), e);
-
-                // 回退到使用GSON解析
-                try (FileReader reader = new FileReader(indexFile)) {
-                    List<BookIndex> indices = gson.fromJson(reader, new TypeToken<List<BookIndex>>(){}.getType());
-                    if (indices == null) {
-                        return null;
-                    }
-
-                    for (BookIndex index : indices) {
-                        if (index.getId().equals(bookId)) {
-                            Book book = new Book(bookId, index.getTitle(), index.getAuthor(), index.getUrl());
-                            book.setCreateTimeMillis(index.getCreateTimeMillis());
-                            book.setLastChapter(index.getLastChapter());
-                            book.setLastReadTimeMillis(index.getLastReadTimeMillis());
-                            book.setTotalChapters(index.getTotalChapters());
-                            book.setFinished(index.isFinished());
-                            return book;
-                        }
-                    }
-                }
-            }
+            Book book = new Book(bookId,
+                    index.getTitle() != null && !index.getTitle().isEmpty() ? index.getTitle() : "未知标题",
+                    index.getAuthor() != null && !index.getAuthor().isEmpty() ? index.getAuthor() : "未知作者",
+                    index.getUrl() != null ? index.getUrl() : "");
+            book.setCreateTimeMillis(index.getCreateTimeMillis() > 0 ? index.getCreateTimeMillis() : System.currentTimeMillis());
+            book.setLastChapter(index.getLastChapter());
+            book.setLastReadTimeMillis(index.getLastReadTimeMillis());
+            book.setTotalChapters(index.getTotalChapters());
+            book.setFinished(index.isFinished());
+            book.setLastCheckedMillis(index.getLastCheckedMillis());
+            applyJournal(book);
+            return book;
         } catch (Exception e) {
             LOG.error("从索引恢复书籍信息失败: " + e.getMessage(), e);
         }
@@ -797,6 +827,19 @@ public final class FileBookRepository implements BookRepository {
             }
              // === Preserve Chapters Logic End ===
 
+            // 只修改了阅读进度时追加到进度日志，由检查点合并到详情和索引文件
+            if (existingBook != null && isProgressOnlyUpdate(book)) {
+                int records = journal.append(BookJournal.Delta.fromBook(book));
+                bookCache.put(book.getId(), new CacheEntry(book));
+                // 内存索引立即更新，index.json 由检查点写回
+                putBookIndex(book);
+                if (records >= JOURNAL_MAX_RECORDS) {
+                    ReactiveSchedulers.getInstance().background().schedule(this::checkpointJournal);
+                }
+                LOG.debug("[SAVE_TRACE] FBR.updateBook: Appended progress to journal for book: " + book.getId());
+                return;
+            }
+
             // 保存书籍详情 (now potentially with chapters preserved)
             // Add log before saveBookDetails
             LOG.debug("[SAVE_TRACE] FBR.updateBook: Calling saveBookDetails for book: " + book.getId());
@@ -811,6 +854,9 @@ public final class FileBookRepository implements BookRepository {
             // Add log after updateBookIndex
             LOG.debug("[SAVE_TRACE] FBR.updateBook: Returned from updateBookIndex for book: " + book.getId());
 
+            // 日志中的旧记录不能覆盖刚写入的快照
+            journal.supersede(book);
+
             // 更新缓存
             bookCache.put(book.getId(), new CacheEntry(book));
 
@@ -847,6 +893,11 @@ public final class FileBookRepository implements BookRepository {
             // 从索引文件中移除
             removeBookFromIndex(book.getId());
 
+            // 丢弃进度日志中的记录
+            journal.remove(book.getId());
+            persistedDetails.remove(book.getId());
+            chapterLogRecords.remove(book.getId());
+
             // 从缓存中移除
             bookCache.remove(book.getId());
 
@@ -859,6 +910,13 @@ public final class FileBookRepository implements BookRepository {
     @Override
     public void clearAllBooks() {
         try {
+            // 清空进度日志
+            journal.clear();
+            persistedDetails.clear();
+            synchronized (chapterLogLock) {
+                chapterLogRecords.clear();
+            }
+
             // 清空书籍目录
             File booksDir = new File(storageRepository.getBooksPath());
             if (booksDir.exists() && booksDir.isDirectory()) {
@@ -867,7 +925,7 @@ public final class FileBookRepository implements BookRepository {
                     for (File file : files) {
                         if (file.isDirectory()) {
                             deleteDirectory(file);
-                        } else if (!file.getName().equals("index.json")) {
+                        } else if (!file.getName().equals("index.json") && !file.getName().equals(JOURNAL_FILE_NAME)) {
                             file.delete();
                         }
                     }
@@ -875,10 +933,17 @@ public final class FileBookRepository implements BookRepository {
             }
 
             // 清空索引文件
-            File indexFile = new File(storageRepository.getBooksFilePath());
-            if (indexFile.exists()) {
-                try (FileWriter writer = new FileWriter(indexFile)) {
-                    writer.write("[]");
+            synchronized (indexFileLock) {
+                synchronized (bookIndices) {
+                    bookIndices.clear();
+                    bookIndicesLoaded = true;
+                    bookshelfStale = true;
+                }
+                File indexFile = new File(storageRepository.getBooksFilePath());
+                if (indexFile.exists()) {
+                    try (FileWriter writer = new FileWriter(indexFile)) {
+                        writer.write("[]");
+                    }
                 }
             }
 
@@ -899,99 +964,221 @@ public final class FileBookRepository implements BookRepository {
     /**
      * 保存书籍详情到文件
      *
+     * 同一本书的保存互斥执行；内容先写入唯一的临时文件，再原子替换 details.json。
+     *
      * @param book 书籍对象
+     * @return 详情文件是否写入成功
      */
-    public void saveBookDetails(Book book) {
+    public boolean saveBookDetails(Book book) {
         if (book == null || book.getId() == null) {
             LOG.error("无法保存书籍详情：book 或 bookId 为空");
-            return;
+            return false;
         }
 
         // 获取书籍目录路径
         String bookDirPath = storageRepository.getBookDirectory(book.getId());
         if (bookDirPath == null) {
             LOG.error("无法获取书籍目录路径，无法保存: " + book.getId());
-            return;
+            return false;
         }
 
-        // 创建临时文件和目标文件
-        File detailsFile = new File(bookDirPath, "details.json");
-        File tempFile = new File(bookDirPath, "details.json.tmp");
+        Path detailsFile = Path.of(bookDirPath, "details.json");
 
-        // 确保父目录存在
-        File parentDir = detailsFile.getParentFile();
-        if (parentDir != null && !parentDir.exists()) {
-            if (!parentDir.mkdirs()) {
-                LOG.error("无法创建书籍详情目录: " + parentDir.getAbsolutePath());
-                return;
+        synchronized (detailsLocks.computeIfAbsent(book.getId(), id -> new Object())) {
+            Path tempFile = null;
+            try {
+                LOG.debug("开始保存书籍详情: " + book.getTitle());
+
+                // 确保父目录存在
+                Files.createDirectories(detailsFile.getParent());
+
+                // 创建一个简化的书籍对象，只包含需要保存的字段
+                Map<String, Object> bookData = new HashMap<>();
+                bookData.put("id", book.getId());
+                bookData.put("title", book.getTitle());
+                bookData.put("author", book.getAuthor());
+                bookData.put("url", book.getUrl());
+                bookData.put("sourceId", book.getSourceId());
+                bookData.put("createTimeMillis", book.getCreateTimeMillis());
+                bookData.put("lastChapter", book.getLastChapter());
+                bookData.put("totalChapters", book.getTotalChapters());
+
+                // Add progress data to details.json to ensure persistence across sessions
+                bookData.put("lastReadChapter", book.getLastReadChapter());
+                bookData.put("lastReadChapterId", book.getLastReadChapterId());
+                bookData.put("lastReadPosition", book.getLastReadPosition());
+                bookData.put("lastReadTimeMillis", book.getLastReadTimeMillis());
+                bookData.put("currentChapterIndex", book.getCurrentChapterIndex());
+                bookData.put("finished", book.isFinished());
+                bookData.put("lastReadPage", book.getLastReadPage());
+                bookData.put("chaptersFromBookPage", book.isChaptersFromBookPage());
+
+                List<Chapter> savedChapters = book.getCachedChapters();
+                bookData.put("cachedChapters", savedChapters != null ? savedChapters : new ArrayList<>());
+
+                // 使用Gson序列化为JSON
+                String json = gson.toJson(bookData);
+
+                // 先写入临时文件，再替换目标文件
+                tempFile = Files.createTempFile(detailsFile.getParent(), "details.json.", ".tmp");
+                Files.writeString(tempFile, json, StandardCharsets.UTF_8);
+                try {
+                    Files.move(tempFile, detailsFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempFile, detailsFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+
+                persistedDetails.put(book.getId(), DetailsSignature.of(book));
+                discardChapterLog(book, savedChapters);
+                LOG.debug("已保存书籍详情: " + detailsFile);
+                return true;
+            } catch (Exception e) {
+                LOG.error("保存书籍详情失败: " + book.getId(), e);
+                return false;
+            } finally {
+                // 清理未能替换目标文件的临时文件
+                if (tempFile != null) {
+                    try {
+                        Files.deleteIfExists(tempFile);
+                    } catch (IOException e) {
+                        LOG.warn("删除临时文件失败: " + tempFile + ", " + e.getMessage());
+                    }
+                }
             }
         }
+    }
 
-        try {
-            LOG.debug("开始保存书籍详情: " + book.getTitle());
-
-            // 创建一个简化的书籍对象，只包含需要保存的字段
-            Map<String, Object> bookData = new HashMap<>();
-            bookData.put("id", book.getId());
-            bookData.put("title", book.getTitle());
-            bookData.put("author", book.getAuthor());
-            bookData.put("url", book.getUrl());
-            bookData.put("sourceId", book.getSourceId());
-            bookData.put("createTimeMillis", book.getCreateTimeMillis());
-            bookData.put("lastChapter", book.getLastChapter());
-            bookData.put("totalChapters", book.getTotalChapters());
-            
-            // Add progress data to details.json to ensure persistence across sessions
-            bookData.put("lastReadChapter", book.getLastReadChapter());
-            bookData.put("lastReadChapterId", book.getLastReadChapterId());
-            bookData.put("lastReadPosition", book.getLastReadPosition());
-            bookData.put("lastReadTimeMillis", book.getLastReadTimeMillis());
-            bookData.put("currentChapterIndex", book.getCurrentChapterIndex());
-            bookData.put("finished", book.isFinished());
-            bookData.put("lastReadPage", book.getLastReadPage());
-
-            bookData.put("cachedChapters", book.getCachedChapters() != null ? book.getCachedChapters() : new ArrayList<>());
+    /**
+     * 更新上次检查更新时间
+     *
+     * 只修改内存索引并延迟写回 index.json，不重写详情文件；
+     * 详情文件中的值在下次完整保存时更新，读取时以索引为准。
+     */
+    @Override
+    public void updateLastChecked(@NotNull Book book) {
+        if (book.getId() == null || book.getId().isEmpty()) {
+            return;
+        }
+        BookIndex index = getBookIndex(book.getId());
+        if (index == null) {
+            updateBook(book);
+            return;
+        }
+        synchronized (bookIndices) {
+            index.setLastCheckedMillis(book.getLastCheckedMillis());
+        }
+        scheduleIndexSave();
+    }
 
-            // 使用Gson序列化为JSON
-            String json = gson.toJson(bookData);
+    /**
+     * 追加新章节
+     *
+     * 新章节逐行写入书籍目录下的章节追加日志，不重写包含全部章节的 details.json。
+     * 日志中的记录数超过上限时整体保存一次详情，保存成功后日志被删除。
+     */
+    @Override
+    public void appendChapters(@NotNull Book book, @NotNull List<Chapter> added) {
+        if (book.getId() == null || book.getId().isEmpty() || added.isEmpty()) {
+            return;
+        }
+        String bookDir = storageRepository.getBookDirectory(book.getId());
+        if (bookDir == null) {
+            LOG.error("无法获取书籍目录路径，无法追加章节: " + book.getId());
+            return;
+        }
 
-            // 先写入临时文件
-            try (FileWriter writer = new FileWriter(tempFile)) {
-                writer.write(json);
-                writer.flush();
+        // gson 开启了格式化输出，每行一条记录需要用 JsonElement.toString() 的单行形式
+        StringBuilder lines = new StringBuilder();
+        for (Chapter chapter : added) {
+            JsonObject json = new JsonObject();
+            json.addProperty("title", chapter.title());
+            json.addProperty("url", chapter.url());
+            lines.append(json).append('\n');
+        }
+
+        int records;
+        IOException logFailure = null;
+        synchronized (chapterLogLock) {
+            try {
+                Files.writeString(Path.of(bookDir, CHAPTER_LOG_FILE_NAME), lines, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                records = chapterLogRecords.merge(book.getId(), added.size(), Integer::sum);
+            } catch (IOException e) {
+                logFailure = e;
+                records = 0;
             }
+        }
+        if (logFailure != null) {
+            // 保存详情时会获取书籍的保存锁，不能在持有 chapterLogLock 时调用
+            LOG.warn("写入章节追加日志失败，整体保存书籍: " + book.getId() + ", " + logFailure.getMessage());
+            updateBook(book);
+            return;
+        }
 
-            // 如果临时文件写入成功，则重命名为目标文件
-            if (tempFile.exists() && tempFile.length() > 0) {
-                // 如果目标文件已存在，先删除
-                if (detailsFile.exists()) {
-                    if (!detailsFile.delete()) {
-                        LOG.warn("无法删除已存在的书籍详情文件: " + detailsFile.getAbsolutePath());
-                    }
-                }
+        persistedDetails.put(book.getId(), DetailsSignature.of(book));
+        updateBookIndex(book);
+        // 日志中追加前记录的进度带有旧的章节数和最新章节，不能覆盖追加后的章节信息
+        try {
+            journal.supersede(book);
+        } catch (IOException e) {
+            LOG.error("追加章节后更新进度日志失败: " + book.getId(), e);
+        }
+        bookCache.put(book.getId(), new CacheEntry(book));
+        LOG.info("追加 " + added.size() + " 个新章节: " + book.getTitle() + "，共 " + book.getTotalChapters() + " 章");
 
-                // 重命名临时文件为目标文件
-                if (tempFile.renameTo(detailsFile)) {
-                    LOG.debug("已保存书籍详情: " + detailsFile.getAbsolutePath());
-                } else {
-                    LOG.error("重命名临时文件失败: " + tempFile.getAbsolutePath() + " -> " + detailsFile.getAbsolutePath());
-                    // 尝试复制文件内容
-                    try {
-                        Files.copy(tempFile.toPath(), detailsFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-                        tempFile.delete(); // 删除临时文件
-                        LOG.debug("通过复制保存书籍详情: " + detailsFile.getAbsolutePath());
-                    } catch (IOException copyEx) {
-                        LOG.error("复制临时文件失败: " + copyEx.getMessage(), copyEx);
+        if (records >= CHAPTER_LOG_MAX_RECORDS) {
+            ReactiveSchedulers.getInstance().background().schedule(() -> saveBookDetails(book));
+        }
+    }
+
+    /**
+     * 把章节追加日志中的章节叠加到章节列表末尾，已在列表中的章节跳过
+     */
+    private void applyChapterLog(Book book, Path logFile) {
+        if (!Files.exists(logFile)) {
+            chapterLogRecords.remove(book.getId());
+            return;
+        }
+        List<Chapter> appended = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(logFile, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) continue;
+                try {
+                    JsonObject json = JsonParser.parseString(line).getAsJsonObject();
+                    String url = getStringFromJson(json, "url", null);
+                    if (url != null) {
+                        appended.add(new Chapter(getStringFromJson(json, "title", ""), url));
                     }
+                } catch (JsonParseException | IllegalStateException e) {
+                    // 写入中断留下的不完整记录
+                    LOG.warn("跳过无法解析的章节追加记录: " + book.getId());
                 }
-            } else {
-                LOG.error("临时文件写入失败或为空: " + tempFile.getAbsolutePath());
             }
-        } catch (Exception e) {
-            LOG.error("保存书籍详情失败: " + book.getId(), e);
-            // 清理临时文件
-            if (tempFile.exists()) {
-                tempFile.delete();
+        } catch (IOException e) {
+            LOG.warn("读取章节追加日志失败: " + logFile + ", " + e.getMessage());
+            return;
+        }
+        book.appendCachedChapters(appended);
+        chapterLogRecords.put(book.getId(), appended.size());
+    }
+
+    /**
+     * 详情已包含全部章节后删除章节追加日志
+     * 保存期间又有章节追加时书籍的章节列表已被替换，此时保留日志
+     */
+    private void discardChapterLog(Book book, List<Chapter> savedChapters) {
+        synchronized (chapterLogLock) {
+            if (book.getCachedChapters() != savedChapters) {
+                return;
+            }
+            String bookDir = storageRepository.getBookDirectory(book.getId());
+            try {
+                if (bookDir != null && Files.deleteIfExists(Path.of(bookDir, CHAPTER_LOG_FILE_NAME))) {
+                    LOG.debug("章节追加日志已合并到书籍详情: " + book.getId());
+                }
+                chapterLogRecords.remove(book.getId());
+            } catch (IOException e) {
+                LOG.warn("删除章节追加日志失败: " + book.getId() + ", " + e.getMessage());
             }
         }
     }
@@ -999,36 +1186,15 @@ public final class FileBookRepository implements BookRepository {
     /**
      * 更新书籍索引
      */
-    private void updateBookIndex(Book book) {
+    private boolean updateBookIndex(Book book) {
         try {
-            // Add log at start
             LOG.debug("[SAVE_TRACE] FBR.updateBookIndex: Starting update for book: " + book.getId());
-            // 读取当前索引
-            List<BookIndex> indices = readBookIndices();
-
-            // 查找并更新或添加
-            boolean found = false;
-            for (int i = 0; i < indices.size(); i++) {
-                if (indices.get(i).getId().equals(book.getId())) {
-                    indices.set(i, BookIndex.fromBook(book));
-                    found = true;
-                    break;
-                }
-            }
-
-            if (!found) {
-                indices.add(BookIndex.fromBook(book));
-            }
-
-            // 保存更新的索引
-            // Add log before saveBookIndices
-            LOG.debug("[SAVE_TRACE] FBR.updateBookIndex: Calling saveBookIndices");
-            saveBookIndices(indices);
-            // Add log after saveBookIndices
-            LOG.debug("[SAVE_TRACE] FBR.updateBookIndex: Returned from saveBookIndices");
+            putBookIndex(book);
+            scheduleIndexSave();
+            return true;
         } catch (Exception e) {
-            // Modify log in catch block
             LOG.error("[SAVE_TRACE] FBR.updateBookIndex: Exception during update for book: " + book.getId(), e);
+            return false;
         }
     }
 
@@ -1037,14 +1203,15 @@ public final class FileBookRepository implements BookRepository {
      */
     private void removeBookFromIndex(String bookId) {
         try {
-            // 读取当前索引
-            List<BookIndex> indices = readBookIndices();
-
-            // 移除指定ID的书籍
-            indices.removeIf(index -> index.getId().equals(bookId));
-
-            // 保存更新的索引
-            saveBookIndices(indices);
+            ensureBookIndicesLoaded();
+            boolean removed;
+            synchronized (bookIndices) {
+                removed = bookIndices.remove(bookId) != null;
+                bookshelfStale |= removed;
+            }
+            if (removed) {
+                scheduleIndexSave();
+            }
         } catch (Exception e) {
             LOG.error("从索引中移除书籍失败: " + e.getMessage(), e);
         }
@@ -1052,8 +1219,83 @@ public final class FileBookRepository implements BookRepository {
 
     /**
      * 读取书籍索引列表
+     *
+     * @return 内存索引的副本，按 index.json 中的顺序排列
      */
     private List<BookIndex> readBookIndices() {
+        ensureBookIndicesLoaded();
+        synchronized (bookIndices) {
+            return new ArrayList<>(bookIndices.values());
+        }
+    }
+
+    @Nullable
+    private BookIndex getBookIndex(String bookId) {
+        ensureBookIndicesLoaded();
+        synchronized (bookIndices) {
+            return bookIndices.get(bookId);
+        }
+    }
+
+    private void putBookIndex(Book book) {
+        ensureBookIndicesLoaded();
+        BookIndex index = BookIndex.fromBook(book);
+        synchronized (bookIndices) {
+            // 检查时间只写索引，调用方持有的Book对象中可能是旧值
+            BookIndex previous = bookIndices.get(book.getId());
+            if (previous != null && previous.getLastCheckedMillis() > index.getLastCheckedMillis()) {
+                index.setLastCheckedMillis(previous.getLastCheckedMillis());
+            }
+            bookIndices.put(book.getId(), index);
+            bookshelfStale = true;
+        }
+    }
+
+    private void ensureBookIndicesLoaded() {
+        if (bookIndicesLoaded) return;
+        synchronized (bookIndices) {
+            if (bookIndicesLoaded) return;
+            for (BookIndex index : loadBookIndices()) {
+                if (index.getId() != null && !index.getId().isEmpty()) {
+                    bookIndices.put(index.getId(), index);
+                }
+            }
+            bookIndicesLoaded = true;
+            bookshelfStale = true;
+            LOG.info("已加载书籍索引: " + bookIndices.size() + " 条目");
+        }
+    }
+
+    /**
+     * 延迟写回索引文件，延迟期间的多次修改只写入一次
+     */
+    private void scheduleIndexSave() {
+        if (indexSaveScheduled.compareAndSet(false, true)) {
+            ReactiveSchedulers.getInstance().timer().schedule(
+                    this::flushBookIndices, INDEX_SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 将内存索引写回文件
+     * 先清除调度标志再取快照，写入期间的修改会触发下一次写回
+     */
+    private void flushBookIndices() {
+        indexSaveScheduled.set(false);
+        synchronized (indexFileLock) {
+            List<BookIndex> snapshot;
+            synchronized (bookIndices) {
+                if (!bookIndicesLoaded) return;
+                snapshot = new ArrayList<>(bookIndices.values());
+            }
+            saveBookIndices(snapshot);
+        }
+    }
+
+    /**
+     * 从 index.json 加载书籍索引列表
+     */
+    private List<BookIndex> loadBookIndices() {
         File indexFile = new File(storageRepository.getBooksFilePath());
         if (!indexFile.exists()) {
             return new ArrayList<>();
@@ -1078,11 +1320,14 @@ public final class FileBookRepository implements BookRepository {
                     index.setLastChapter(getStringFromJson(indexObject, "lastChapter", null));
                     index.setLastReadTimeMillis(getLongFromJson(indexObject, "lastReadTimeMillis", 0L));
                     index.setTotalChapters(getIntFromJson(indexObject, "totalChapters", 0));
+                    index.setCurrentChapterIndex(getIntFromJson(indexObject, "currentChapterIndex", 0));
                     index.setFinished(getBooleanFromJson(indexObject, "finished", false));
+                    index.setLastCheckedMillis(getLongFromJson(indexObject, "lastCheckedMillis", 0L));
 
                     indices.add(index);
                 }
 
+                applyJournal(indices);
                 return indices;
             } catch (Exception e) {
                 LOG.warn("手动解析JSON索引文件失败，尝试使用GSON: " + e.getMessage());
@@ -1090,7 +1335,11 @@ public final class FileBookRepository implements BookRepository {
                 // 作为备选，使用GSON解析
                 try (FileReader reader = new FileReader(indexFile)) {
                     List<BookIndex> indices = gson.fromJson(reader, new TypeToken<List<BookIndex>>(){}.getType());
-                    return indices != null ? indices : new ArrayList<>();
+                    if (indices == null) {
+                        return new ArrayList<>();
+                    }
+                    applyJournal(indices);
+                    return indices;
                 }
             }
         } catch (Exception e) {
@@ -1160,6 +1409,123 @@ public final class FileBookRepository implements BookRepository {
         }
     }
 
+    /**
+     * 判断本次更新是否只涉及阅读进度
+     * 标题、作者、来源和章节列表与最近一次写入的详情文件一致时，只需追加进度日志
+     */
+    private boolean isProgressOnlyUpdate(Book book) {
+        DetailsSignature persisted = persistedDetails.get(book.getId());
+        return persisted != null && persisted.equals(DetailsSignature.of(book));
+    }
+
+    private void applyJournal(Book book) {
+        BookJournal.Delta delta = journal.get(book.getId());
+        if (delta != null) {
+            delta.applyTo(book);
+        }
+    }
+
+    private void applyJournal(List<BookIndex> indices) {
+        if (journal.isEmpty()) return;
+        for (BookIndex index : indices) {
+            BookJournal.Delta delta = journal.get(index.getId());
+            if (delta != null) {
+                delta.applyTo(index);
+            }
+        }
+    }
+
+    /**
+     * 将进度日志合并到详情和索引文件
+     */
+    private void checkpointJournal() {
+        try {
+            int merged = journal.checkpoint(delta -> {
+                Book book = loadBookForCheckpoint(delta.id());
+                if (book == null) {
+                    LOG.debug("书籍已不存在，丢弃进度记录: " + delta.id());
+                    return true;
+                }
+                // 写入失败的记录保留在日志中，等下次合并时重试
+                return saveBookDetails(book) && updateBookIndex(book);
+            });
+            if (merged > 0) {
+                LOG.info("进度日志已合并 " + merged + " 本书籍");
+            }
+        } catch (Exception e) {
+            LOG.error("合并进度日志失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 获取需要合并的书籍，优先使用内存缓存（已包含最新进度），
+     * 否则读取详情文件并叠加日志记录，不会触发章节列表的网络请求
+     */
+    @Nullable
+    private Book loadBookForCheckpoint(String bookId) throws IOException {
+        CacheEntry cachedEntry = bookCache.get(bookId);
+        if (cachedEntry != null) {
+            return cachedEntry.book;
+        }
+        File detailsFile = new File(storageRepository.getBookDirectory(bookId), "details.json");
+        if (!detailsFile.exists()) {
+            return null;
+        }
+        return readBookDetails(detailsFile, bookId);
+    }
+
+    @Override
+    public void dispose() {
+        checkpointTask.dispose();
+        checkpointJournal();
+        journal.close();
+        if (indexSaveScheduled.get()) {
+            flushBookIndices();
+        }
+    }
+
+    /**
+     * 详情文件中除阅读进度外的内容摘要
+     * 章节列表按内容摘要比较：替换列表或原地修改章节标题、地址都会完整重写详情文件
+     */
+    private record DetailsSignature(String title, String author, String url, String sourceId,
+                                    long createTimeMillis, int chapterCount, long chapterDigest) {
+        static DetailsSignature of(Book book) {
+            List<Chapter> chapters = book.getCachedChapters();
+            return new DetailsSignature(book.getTitle(), book.getAuthor(), book.getUrl(), book.getSourceId(),
+                    book.getCreateTimeMillis(), chapters == null ? 0 : chapters.size(), digest(chapters));
+        }
+
+        /**
+         * 按顺序混合每章地址和标题的哈希值，字符串哈希值有缓存，每次只是一遍整数运算
+         */
+        private static long digest(List<Chapter> chapters) {
+            if (chapters == null) return 0;
+            long digest = 1;
+            for (Chapter chapter : chapters) {
+                long urlHash = chapter == null ? 0 : Objects.hashCode(chapter.url());
+                long titleHash = chapter == null ? 0 : Objects.hashCode(chapter.title());
+                digest = digest * 0x9E3779B97F4A7C15L + (urlHash << 32 | (titleHash & 0xFFFFFFFFL));
+                digest ^= digest >>> 29;
+            }
+            return digest;
+        }
+    }
+
+    /**
+     * 书架快照
+     *
+     * @param entries 按索引顺序排列，与搜索索引中的位置对应
+     * @param byLastRead 按上次阅读时间倒序排列
+     * @param searchIndex 书名和作者的搜索索引
+     */
+    private record Bookshelf(List<BookshelfEntry> entries, List<BookshelfEntry> byLastRead,
+                             BookshelfSearchIndex searchIndex) {
+        static final Bookshelf EMPTY = new Bookshelf(List.of(), List.of(), BookshelfSearchIndex.EMPTY);
+        static final Comparator<BookshelfEntry> BY_LAST_READ =
+                Comparator.comparingLong(BookshelfEntry::lastReadTimeMillis).reversed();
+    }
+
     /**
      * 删除目录及其内容
      */
@@ -5,6 +5,7 @@ import com.google.inject.Singleton;
 import com.intellij.openapi.application.Application;
 import com.intellij.openapi.diagnostic.Logger;
 import com.lv.tool.privatereader.repository.StorageRepository;
+import com.lv.tool.privatereader.storage.cache.ChapterCacheManager;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
@@ -124,7 +125,10 @@ public final class FileStorageRepository implements StorageRepository {
         try {
             // 删除所有存储目录内容
             deleteDirectoryContents(new File(getBooksPath()));
-            deleteDirectoryContents(new File(getCachePath()));
+            // 章节缓存由ChapterCacheManager清理，同时重置段文件句柄和淘汰索引
+            com.intellij.openapi.application.ApplicationManager.getApplication()
+                .getService(ChapterCacheManager.class)
+                .clearAllCache();
             deleteDirectoryContents(new File(getSettingsPath()));
             LOG.info("清空所有存储");
         } catch (Exception e) {
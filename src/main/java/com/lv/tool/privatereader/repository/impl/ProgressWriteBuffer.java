@@ -0,0 +1,188 @@
+package com.lv.tool.privatereader.repository.impl;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.lv.tool.privatereader.async.ReactiveSchedulers;
+import com.lv.tool.privatereader.model.BookProgressData;
+import com.lv.tool.privatereader.storage.DatabaseManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 阅读进度写缓冲
+ *
+ * 滚动和翻页会以很高的频率保存进度，但只有每本书最新的位置有意义：
+ * - 每本书只保留最新一条进度，被覆盖的写入计入合并次数
+ * - 第一条进度进入缓冲后延迟一段时间写出，缓冲的书籍数达到上限时立即写出
+ * - 多本书的进度在一个事务中批量写入
+ * - 关闭时由持有者调用 {@link #flush()} 写出剩余进度
+ *
+ * 复制缓冲内容和写入数据库都在数据库写线程上执行，与同样在写线程上执行的删除操作严格有序。
+ */
+final class ProgressWriteBuffer {
+    private static final Logger LOG = Logger.getInstance(ProgressWriteBuffer.class);
+
+    /**
+     * 批量写入缓冲中的进度
+     */
+    @FunctionalInterface
+    interface BatchWriter {
+        void write(@NotNull DatabaseManager.ManagedConnection connection,
+                   @NotNull List<BookProgressData> batch) throws SQLException;
+    }
+
+    private final DatabaseManager databaseManager;
+    private final BatchWriter batchWriter;
+    private final long flushDelayMs;
+    private final int maxPendingBooks;
+
+    private final Map<String, BookProgressData> pending = new LinkedHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    private final AtomicLong offeredCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+
+    ProgressWriteBuffer(@NotNull DatabaseManager databaseManager, @NotNull BatchWriter batchWriter,
+                        long flushDelayMs, int maxPendingBooks) {
+        this.databaseManager = databaseManager;
+        this.batchWriter = batchWriter;
+        this.flushDelayMs = flushDelayMs;
+        this.maxPendingBooks = maxPendingBooks;
+    }
+
+    /**
+     * 放入一条进度，覆盖同一本书尚未写出的进度
+     *
+     * @param progress 进度
+     */
+    void offer(@NotNull BookProgressData progress) {
+        boolean full;
+        synchronized (pending) {
+            if (pending.put(progress.bookId(), progress) != null) {
+                coalescedCount.incrementAndGet();
+            }
+            full = pending.size() >= maxPendingBooks;
+        }
+        offeredCount.incrementAndGet();
+
+        if (full) {
+            ReactiveSchedulers.getInstance().io().schedule(this::flushQuietly);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            ReactiveSchedulers.getInstance().timer().schedule(
+                    this::flushQuietly, flushDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 获取书籍尚未写出的进度
+     *
+     * @param bookId 书籍ID
+     * @return 进度，不存在时返回null
+     */
+    @Nullable
+    BookProgressData get(@NotNull String bookId) {
+        synchronized (pending) {
+            return pending.get(bookId);
+        }
+    }
+
+    /**
+     * 获取尚未写出的进度中时间最新的一条
+     *
+     * @return 进度，缓冲为空时返回null
+     */
+    @Nullable
+    BookProgressData latest() {
+        synchronized (pending) {
+            BookProgressData latest = null;
+            for (BookProgressData progress : pending.values()) {
+                if (latest == null || progress.lastReadTimestamp() > latest.lastReadTimestamp()) {
+                    latest = progress;
+                }
+            }
+            return latest;
+        }
+    }
+
+    /**
+     * 丢弃书籍尚未写出的进度
+     * 需要在数据库写线程上与删除语句一起执行，避免已取出的旧进度在删除后写入
+     *
+     * @param bookId 书籍ID
+     */
+    void remove(@NotNull String bookId) {
+        synchronized (pending) {
+            pending.remove(bookId);
+        }
+    }
+
+    /**
+     * 将缓冲中的进度写入数据库
+     * 先清除调度标志再复制缓冲内容，条目在提交成功后才移出缓冲，写入期间读取缓冲仍能得到最新进度；
+     * 只移除与写入内容相同的条目，写入期间放入的新进度保留并触发下一次写出。
+     * 写入失败时条目原样留在缓冲中
+     *
+     * @return 写入的书籍数
+     * @throws SQLException 写入失败
+     */
+    int flush() throws SQLException {
+        flushScheduled.set(false);
+        List<BookProgressData> drained = new ArrayList<>();
+        int written = databaseManager.writeInTransaction(connection -> {
+            synchronized (pending) {
+                drained.addAll(pending.values());
+            }
+            if (drained.isEmpty()) {
+                return 0;
+            }
+            batchWriter.write(connection, drained);
+            return drained.size();
+        });
+        if (written > 0) {
+            synchronized (pending) {
+                for (BookProgressData progress : drained) {
+                    pending.remove(progress.bookId(), progress);
+                }
+            }
+            flushCount.incrementAndGet();
+            writtenCount.addAndGet(written);
+            LOG.debug("写出阅读进度: " + written + " 本书籍, 累计合并 " + coalescedCount.get() + " 次写入");
+        }
+        return written;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            LOG.warn("写出阅读进度失败，将在下次写出时重试: " + e.getMessage());
+            synchronized (pending) {
+                if (pending.isEmpty()) return;
+            }
+            if (flushScheduled.compareAndSet(false, true)) {
+                ReactiveSchedulers.getInstance().timer().schedule(
+                        this::flushQuietly, flushDelayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @NotNull
+    SqliteReadingProgressRepository.WriteBufferStats toStats() {
+        int pendingCount;
+        synchronized (pending) {
+            pendingCount = pending.size();
+        }
+        return new SqliteReadingProgressRepository.WriteBufferStats(pendingCount,
+                offeredCount.get(), coalescedCount.get(), flushCount.get(), writtenCount.get());
+    }
+}
@@ -1,5 +1,6 @@
 package com.lv.tool.privatereader.repository.impl;
 
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.components.Service;
 import com.intellij.openapi.diagnostic.Logger;
 import com.lv.tool.privatereader.model.Book;
@@ -9,21 +10,30 @@ import com.lv.tool.privatereader.storage.DatabaseManager;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Timestamp;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Implementation of ReadingProgressRepository using SQLite for persistent storage.
  * Handles reading and writing progress data to a shared database file.
+ * <p>
+ * Progress updates are buffered in a {@link ProgressWriteBuffer}, which keeps only the latest
+ * position per book and writes them out in one transaction. Reads check the buffer first,
+ * so callers always see their own most recent update.
  */
 @Service(Service.Level.APP)
-public final class SqliteReadingProgressRepository implements ReadingProgressRepository {
+public final class SqliteReadingProgressRepository implements ReadingProgressRepository, Disposable {
     private static final Logger LOG = Logger.getInstance(SqliteReadingProgressRepository.class);
+    // Delay between the first buffered update and the write-out
+    private static final long FLUSH_DELAY_MS = 1000;
+    // Write out immediately once this many books have pending updates
+    private static final int MAX_PENDING_BOOKS = 32;
+
     private final DatabaseManager databaseManager;
+    private final ProgressWriteBuffer writeBuffer;
 
     // Using UPSERT (ON CONFLICT DO UPDATE) for SQLite
     // Ensure book_id is the primary key or has a unique index for this to work correctly.
@@ -64,6 +74,8 @@ public final class SqliteReadingProgressRepository implements ReadingProgressRep
     public SqliteReadingProgressRepository() {
         // Obtain the application-level service instance
         this.databaseManager = DatabaseManager.getInstance();
+        this.writeBuffer = new ProgressWriteBuffer(databaseManager, SqliteReadingProgressRepository::writeBatch,
+                FLUSH_DELAY_MS, MAX_PENDING_BOOKS);
     }
 
     // --- Implementation of ReadingProgressRepository --- //
@@ -74,28 +86,28 @@ public final class SqliteReadingProgressRepository implements ReadingProgressRep
         LOG.debug(String.format("Updating progress in SQLite: Book='%s'(ID:%s), ChapterID=%s, Title='%s', Pos=%d, Page=%d, Finished=%b, Timestamp=%d",
                 book.getTitle(), book.getId(), chapterId, chapterTitle, position, page, book.isFinished(), currentTimestamp));
 
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(UPSERT_PROGRESS_SQL)) {
-
-            pstmt.setString(1, book.getId());
-            pstmt.setString(2, chapterId);
-            pstmt.setString(3, chapterTitle);
-            pstmt.setInt(4, position);
-            pstmt.setInt(5, page);
-            pstmt.setInt(6, book.isFinished() ? 1 : 0); // Store boolean as integer
-            pstmt.setLong(7, currentTimestamp); // Store timestamp as long (epoch millis)
-
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
-                LOG.debug("Successfully upserted progress for book: " + book.getId());
-            } else {
-                // This might happen if the insert/update didn't change anything, which is unlikely with timestamp
-                LOG.warn("Upsert progress command affected 0 rows for book: " + book.getId());
-            }
-        } catch (SQLException e) {
-            LOG.error("Failed to update reading progress in SQLite for book: " + book.getId(), e);
-            // Consider re-throwing as a custom exception or handling it
+        writeBuffer.offer(new BookProgressData(book.getId(), chapterId, chapterTitle, position, page,
+                book.isFinished(), currentTimestamp));
+    }
+
+    /**
+     * Upserts a batch of buffered progress entries. Runs inside the buffer's transaction.
+     */
+    private static void writeBatch(@NotNull DatabaseManager.ManagedConnection connection,
+                                   @NotNull List<BookProgressData> batch) throws SQLException {
+        PreparedStatement pstmt = connection.prepare(UPSERT_PROGRESS_SQL);
+        for (BookProgressData progress : batch) {
+            pstmt.setString(1, progress.bookId());
+            pstmt.setString(2, progress.lastReadChapterId());
+            pstmt.setString(3, progress.lastReadChapterTitle());
+            pstmt.setInt(4, progress.lastReadPosition());
+            pstmt.setInt(5, progress.lastReadPage());
+            pstmt.setInt(6, progress.isFinished() ? 1 : 0); // Store boolean as integer
+            pstmt.setLong(7, progress.lastReadTimestamp()); // Store timestamp as long (epoch millis)
+            pstmt.addBatch();
         }
+        pstmt.executeBatch();
+        LOG.debug("Upserted progress for " + batch.size() + " book(s) in one transaction");
     }
 
     @Override
@@ -137,10 +149,14 @@ public final class SqliteReadingProgressRepository implements ReadingProgressRep
     @Override
     public void resetProgress(@NotNull Book book) {
         LOG.debug("Resetting progress in SQLite for book: " + book.getId());
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(DELETE_PROGRESS_SQL)) {
-            pstmt.setString(1, book.getId());
-            int affectedRows = pstmt.executeUpdate();
+        try {
+            int affectedRows = databaseManager.write(connection -> {
+                // Drop the buffered entry on the writer thread so a pending flush cannot re-insert it
+                writeBuffer.remove(book.getId());
+                PreparedStatement pstmt = connection.prepare(DELETE_PROGRESS_SQL);
+                pstmt.setString(1, book.getId());
+                return pstmt.executeUpdate();
+            });
             LOG.debug("Reset progress deleted " + affectedRows + " row(s) for book: " + book.getId());
         } catch (SQLException e) {
             LOG.error("Failed to reset reading progress in SQLite for book: " + book.getId(), e);
@@ -157,24 +173,18 @@ public final class SqliteReadingProgressRepository implements ReadingProgressRep
      */
     @NotNull
     public Optional<BookProgressData> getProgress(@NotNull String bookId) {
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(GET_PROGRESS_SQL)) {
-
-            pstmt.setString(1, bookId);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    BookProgressData data = new BookProgressData(
-                            rs.getString("book_id"),
-                            rs.getString("last_read_chapter_id"),
-                            rs.getString("last_read_chapter_title"),
-                            rs.getInt("last_read_position"),
-                            rs.getInt("last_read_page"),
-                            rs.getInt("is_finished") == 1, // Convert integer back to boolean
-                            rs.getLong("last_read_timestamp") // Read timestamp as long
-                    );
-                    return Optional.of(data);
+        BookProgressData buffered = writeBuffer.get(bookId);
+        if (buffered != null) {
+            return Optional.of(buffered);
+        }
+        try {
+            return databaseManager.read(connection -> {
+                PreparedStatement pstmt = connection.prepare(GET_PROGRESS_SQL);
+                pstmt.setString(1, bookId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.next() ? Optional.of(toProgressData(rs)) : Optional.<BookProgressData>empty();
                 }
-            }
+            });
         } catch (SQLException e) {
             LOG.error("Failed to get reading progress from SQLite for book: " + bookId, e);
         }
@@ -188,25 +198,81 @@ public final class SqliteReadingProgressRepository implements ReadingProgressRep
      */
     @NotNull
     public Optional<BookProgressData> getLastReadProgressData() {
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(GET_LAST_READ_SQL);
-             ResultSet rs = pstmt.executeQuery()) {
-
-            if (rs.next()) {
-                BookProgressData data = new BookProgressData(
-                        rs.getString("book_id"),
-                        rs.getString("last_read_chapter_id"),
-                        rs.getString("last_read_chapter_title"),
-                        rs.getInt("last_read_position"),
-                        rs.getInt("last_read_page"),
-                        rs.getInt("is_finished") == 1,
-                        rs.getLong("last_read_timestamp")
-                );
-                return Optional.of(data);
-            }
+        BookProgressData buffered = writeBuffer.latest();
+        Optional<BookProgressData> stored = Optional.empty();
+        try {
+            stored = databaseManager.read(connection -> {
+                try (ResultSet rs = connection.prepare(GET_LAST_READ_SQL).executeQuery()) {
+                    return rs.next() ? Optional.of(toProgressData(rs)) : Optional.<BookProgressData>empty();
+                }
+            });
         } catch (SQLException e) {
             LOG.error("Failed to get last read progress data from SQLite", e);
         }
-        return Optional.empty();
+        if (buffered != null && (stored.isEmpty() || buffered.lastReadTimestamp() >= stored.get().lastReadTimestamp())) {
+            return Optional.of(buffered);
+        }
+        return stored;
+    }
+
+    /**
+     * Writes all buffered progress updates to the database immediately.
+     */
+    public void flushProgress() {
+        try {
+            writeBuffer.flush();
+        } catch (SQLException e) {
+            LOG.error("Failed to flush buffered reading progress to SQLite", e);
+        }
+    }
+
+    /**
+     * Returns statistics of the progress write buffer.
+     */
+    @NotNull
+    public WriteBufferStats getWriteBufferStats() {
+        return writeBuffer.toStats();
+    }
+
+    @Override
+    public void dispose() {
+        flushProgress();
+        WriteBufferStats stats = writeBuffer.toStats();
+        LOG.info("Progress write buffer: " + stats.offeredCount() + " update(s) received, "
+                + stats.coalescedCount() + " coalesced, " + stats.writtenCount() + " written in "
+                + stats.flushCount() + " flush(es)");
+    }
+
+    private static BookProgressData toProgressData(ResultSet rs) throws SQLException {
+        return new BookProgressData(
+                rs.getString("book_id"),
+                rs.getString("last_read_chapter_id"),
+                rs.getString("last_read_chapter_title"),
+                rs.getInt("last_read_position"),
+                rs.getInt("last_read_page"),
+                rs.getInt("is_finished") == 1, // Convert integer back to boolean
+                rs.getLong("last_read_timestamp") // Read timestamp as long
+        );
+    }
+
+    /**
+     * Progress write buffer statistics.
+     *
+     * @param pendingCount   books with updates not yet written
+     * @param offeredCount   progress updates received
+     * @param coalescedCount updates replaced by a newer update for the same book before being written
+     * @param flushCount     write-outs that wrote at least one book
+     * @param writtenCount   rows written to the database
+     */
+    public record WriteBufferStats(int pendingCount, long offeredCount, long coalescedCount,
+                                   long flushCount, long writtenCount) {
+        /**
+         * Fraction of received updates that never reached the database.
+         *
+         * @return coalesce rate (0-1)
+         */
+        public double coalesceRate() {
+            return offeredCount == 0 ? 0.0 : (double) coalescedCount / offeredCount;
+        }
     }
-} 
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.lv.tool.privatereader.service;
 
 import com.lv.tool.privatereader.model.Book;
+import com.lv.tool.privatereader.model.BookshelfEntry;
 import com.lv.tool.privatereader.service.ChapterService.EnhancedChapter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -23,6 +24,23 @@ public interface BookService {
      */
     Flux<Book> getAllBooks();
 
+    /**
+     * 获取书架条目
+     * 只含列表显示需要的信息，不读取书籍详情
+     *
+     * @return 按上次阅读时间倒序的书架条目
+     */
+    Flux<BookshelfEntry> getBookshelf();
+
+    /**
+     * 搜索书架
+     * 匹配书名、作者及其拼音首字母，不读取书籍详情
+     *
+     * @param keyword 关键词，为空时返回全部书籍
+     * @return 按上次阅读时间倒序的匹配条目
+     */
+    Flux<BookshelfEntry> searchBookshelf(@NotNull String keyword);
+
     /**
      * 添加书籍
      *
@@ -0,0 +1,276 @@
+package com.lv.tool.privatereader.service;
+
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.text.StringUtil;
+import com.lv.tool.privatereader.async.ReactiveSchedulers;
+import com.lv.tool.privatereader.model.Book;
+import com.lv.tool.privatereader.parser.ChapterListUpdate;
+import com.lv.tool.privatereader.parser.NovelParser;
+import com.lv.tool.privatereader.repository.BookRepository;
+import com.lv.tool.privatereader.settings.PluginSettings;
+import com.lv.tool.privatereader.storage.cache.ChapterCacheManager;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.Disposable.Swap;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 书架更新检查服务
+ *
+ * 在后台定期检查书架上所有未读完的书籍是否有新章节：
+ * - 每本书的检查间隔为 {@link #CHECK_INTERVAL_MS}，另加按书籍固定的随机偏移，
+ *   避免同一时间加入的书籍总是一起检查
+ * - 同一站点最多同时检查 {@link #MAX_CHECKS_PER_HOST} 本书，不同站点并行，
+ *   同时检查的站点数不超过 {@link #MAX_CONCURRENT_HOSTS}
+ * - 章节列表通过 {@link ChapterService#refreshChapterList} 增量刷新，
+ *   页面请求带 ETag / Last-Modified，未变化的页面服务器只返回304
+ * - 检查时间保存在书籍索引中，重启后继续按原计划检查；检查失败或超时同样记录，
+ *   无法访问的站点按正常间隔重试，不会每轮都被请求
+ * - 书籍页面未变化时不重新解析：章节是否来自书籍页面随书籍保存，每次检查新建的解析器也能直接判断
+ * - 发现新章节时预加载第一个新章节，一轮检查结束后合并成一条气泡通知
+ */
+@Service(Service.Level.APP)
+public final class BookUpdateChecker implements Disposable {
+    private static final Logger LOG = Logger.getInstance(BookUpdateChecker.class);
+    /**
+     * 书架更新需要弹出提示，"Private Reader" 通知组不显示气泡，使用单独的气泡通知组
+     */
+    private static final String NOTIFICATION_GROUP_ID = "Private Reader Updates";
+
+    static final long CHECK_INTERVAL_MS = TimeUnit.HOURS.toMillis(2);
+    /**
+     * 每本书的检查时间在间隔基础上最多推迟的比例
+     */
+    private static final double JITTER_RATIO = 0.25;
+    private static final Duration STARTUP_DELAY = Duration.ofMinutes(1);
+    private static final Duration TICK_INTERVAL = Duration.ofMinutes(10);
+    private static final Duration CHECK_TIMEOUT = Duration.ofMinutes(2);
+    static final int MAX_CHECKS_PER_HOST = 2;
+    static final int MAX_CONCURRENT_HOSTS = 8;
+    /**
+     * 通知中逐本列出的书籍数
+     */
+    private static final int NOTIFICATION_MAX_BOOKS = 5;
+
+    private final Swap ticker = Disposables.swap();
+    private final AtomicBoolean checking = new AtomicBoolean();
+
+    public static BookUpdateChecker getInstance() {
+        return ApplicationManager.getApplication().getService(BookUpdateChecker.class);
+    }
+
+    /**
+     * 启动定时检查，重复调用无效
+     */
+    public synchronized void start() {
+        if (ticker.get() != null) {
+            return;
+        }
+        LOG.info("启动书架更新检查，间隔 " + TimeUnit.MILLISECONDS.toMinutes(CHECK_INTERVAL_MS) + " 分钟");
+        ticker.update(Flux.interval(STARTUP_DELAY, TICK_INTERVAL, ReactiveSchedulers.getInstance().timer())
+                .onBackpressureDrop()
+                .concatMap(tick -> checkDueBooks()
+                        .onErrorResume(e -> {
+                            LOG.warn("书架更新检查失败: " + e.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe());
+    }
+
+    /**
+     * 检查所有到期的书籍
+     * 上一轮还未结束时直接返回
+     *
+     * @return 发现新章节的书籍数
+     */
+    @NotNull
+    public Mono<Integer> checkDueBooks() {
+        return Mono.defer(() -> {
+            PluginSettings settings = ApplicationManager.getApplication().getService(PluginSettings.class);
+            if (settings != null && (!settings.isEnabled() || !settings.isAutoUpdate())) {
+                return Mono.just(0);
+            }
+            if (!checking.compareAndSet(false, true)) {
+                LOG.debug("上一轮更新检查尚未结束，跳过");
+                return Mono.just(0);
+            }
+            return Mono.fromCallable(this::findDueBooks)
+                    .subscribeOn(ReactiveSchedulers.getInstance().background())
+                    .flatMap(this::checkBooks)
+                    .doFinally(signal -> checking.set(false));
+        });
+    }
+
+    /**
+     * 从书籍索引中找出需要检查的书籍，按站点分组
+     * 只读取索引，不加载章节列表
+     */
+    private Map<String, List<Book>> findDueBooks() {
+        BookRepository repository = ApplicationManager.getApplication().getService(BookRepository.class);
+        Map<String, List<Book>> byHost = new LinkedHashMap<>();
+        if (repository == null) {
+            return byHost;
+        }
+        long now = System.currentTimeMillis();
+        for (Book book : repository.getAllBooks(false)) {
+            if (book.isFinished() || book.getUrl() == null || book.getUrl().isEmpty()) {
+                continue;
+            }
+            if (now < nextCheckMillis(book)) {
+                continue;
+            }
+            byHost.computeIfAbsent(hostOf(book.getUrl()), h -> new ArrayList<>()).add(book);
+        }
+        return byHost;
+    }
+
+    /**
+     * 下次检查时间：上次检查时间加上间隔和按书籍固定的偏移
+     * 偏移由书籍ID和上次检查时间决定，同一轮中多次计算结果相同
+     */
+    static long nextCheckMillis(Book book) {
+        long last = book.getLastCheckedMillis();
+        if (last <= 0) {
+            return 0;
+        }
+        long seed = book.getId().hashCode() * 0x9E3779B97F4A7C15L ^ last;
+        double fraction = (seed >>> 11) * 0x1.0p-53;
+        return last + CHECK_INTERVAL_MS + (long) (CHECK_INTERVAL_MS * JITTER_RATIO * fraction);
+    }
+
+    private Mono<Integer> checkBooks(Map<String, List<Book>> byHost) {
+        if (byHost.isEmpty()) {
+            return Mono.just(0);
+        }
+        int total = byHost.values().stream().mapToInt(List::size).sum();
+        long startTime = System.currentTimeMillis();
+        LOG.info("开始检查 " + total + " 本书籍的更新，涉及 " + byHost.size() + " 个站点");
+        return Flux.fromIterable(byHost.values())
+                .flatMap(books -> Flux.fromIterable(books)
+                        .flatMap(this::checkBook, MAX_CHECKS_PER_HOST), MAX_CONCURRENT_HOSTS)
+                .collectList()
+                .map(updated -> {
+                    LOG.info("更新检查完成: " + total + " 本书籍，" + updated.size() + " 本有新章节，耗时 "
+                            + (System.currentTimeMillis() - startTime) + "ms");
+                    notifyNewChapters(updated);
+                    return updated.size();
+                });
+    }
+
+    /**
+     * 检查一本书，有新章节时返回检查结果
+     */
+    private Mono<BookUpdate> checkBook(Book indexEntry) {
+        ChapterService chapterService = ApplicationManager.getApplication().getService(ChapterService.class);
+        BookRepository repository = ApplicationManager.getApplication().getService(BookRepository.class);
+        return Mono.fromCallable(() -> repository.getBook(indexEntry.getId()))
+                .subscribeOn(ReactiveSchedulers.getInstance().io())
+                .flatMap(book -> chapterService.refreshChapterList(book)
+                        .timeout(CHECK_TIMEOUT, ReactiveSchedulers.getInstance().timer())
+                        .doOnSuccess(update -> recordCheck(repository, book))
+                        .doOnError(e -> recordCheck(repository, book))
+                        .filter(ChapterListUpdate::hasNewChapters)
+                        .map(update -> new BookUpdate(book, update.added())))
+                .doOnNext(this::prefetchFirstNewChapter)
+                .onErrorResume(e -> {
+                    LOG.warn("检查书籍更新失败: " + indexEntry.getTitle() + "，" + e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private static void recordCheck(BookRepository repository, Book book) {
+        book.setLastCheckedMillis(System.currentTimeMillis());
+        repository.updateLastChecked(book);
+    }
+
+    /**
+     * 预加载第一个新章节，打开书籍时可以直接从缓存读取
+     * 在检查线程上同步执行，计入同一站点的并发数
+     */
+    private void prefetchFirstNewChapter(BookUpdate update) {
+        Book book = update.book();
+        NovelParser.Chapter chapter = update.added().get(0);
+        ChapterCacheManager cacheManager = ApplicationManager.getApplication().getService(ChapterCacheManager.class);
+        NovelParser parser = book.getParser();
+        if (cacheManager == null || parser == null
+                || cacheManager.isCached(book.getId(), chapter.url())) {
+            return;
+        }
+        try {
+            String content = parser.parseChapterContent(chapter.url());
+            if (content != null && !content.isEmpty()) {
+                cacheManager.cacheContent(book.getId(), chapter.url(), content);
+                LOG.info("已预加载新章节: " + chapter.title() + "，书籍: " + book.getTitle());
+            }
+        } catch (Exception e) {
+            LOG.warn("预加载新章节失败: " + chapter.title() + "，书籍: " + book.getTitle() + "，" + e.getMessage());
+        }
+    }
+
+    private void notifyNewChapters(List<BookUpdate> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        PluginSettings settings = ApplicationManager.getApplication().getService(PluginSettings.class);
+        if (settings != null && !settings.isShowNotifications()) {
+            return;
+        }
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < updates.size() && i < NOTIFICATION_MAX_BOOKS; i++) {
+            BookUpdate update = updates.get(i);
+            List<NovelParser.Chapter> added = update.added();
+            if (content.length() > 0) {
+                content.append("<br>");
+            }
+            // 通知内容按HTML显示，书名和章节标题来自网页，需要转义
+            content.append("《").append(StringUtil.escapeXmlEntities(StringUtil.notNullize(update.book().getTitle())))
+                    .append("》新增 ").append(added.size())
+                    .append(" 章：").append(StringUtil.escapeXmlEntities(added.get(added.size() - 1).title()));
+        }
+        if (updates.size() > NOTIFICATION_MAX_BOOKS) {
+            content.append("<br>等 ").append(updates.size()).append(" 本书籍");
+        }
+        ApplicationManager.getApplication().invokeLater(() -> NotificationGroupManager.getInstance()
+                .getNotificationGroup(NOTIFICATION_GROUP_ID)
+                .createNotification("书架更新", content.toString(), NotificationType.INFORMATION)
+                .notify(null));
+    }
+
+    private static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host : url;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        ticker.dispose();
+    }
+
+    /**
+     * 有新章节的书籍
+     *
+     * @param book 书籍
+     * @param added 新章节，按网站顺序
+     */
+    private record BookUpdate(Book book, List<NovelParser.Chapter> added) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.lv.tool.privatereader.service;
 
 import com.lv.tool.privatereader.model.Book;
+import com.lv.tool.privatereader.parser.ChapterListUpdate;
 import com.lv.tool.privatereader.parser.NovelParser.Chapter;
 import org.jetbrains.annotations.NotNull;
 import reactor.core.publisher.Flux;
@@ -39,6 +40,16 @@ public interface ChapterService {
      */
     Mono<List<Chapter>> getChapterList(@NotNull Book book);
 
+    /**
+     * 增量刷新章节列表
+     * 与已保存的章节列表按URL比较，只追加新章节，有新章节时发布
+     * {@link com.lv.tool.privatereader.events.BookEvents.NewChaptersListener} 事件
+     *
+     * @param book 书籍
+     * @return 刷新结果
+     */
+    Mono<ChapterListUpdate> refreshChapterList(@NotNull Book book);
+
     /**
      * 清除书籍缓存
      *
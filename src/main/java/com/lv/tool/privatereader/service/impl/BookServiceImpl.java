@@ -3,6 +3,7 @@ package com.lv.tool.privatereader.service.impl;
 import com.intellij.openapi.application.ApplicationManager;
 import com.lv.tool.privatereader.async.ReactiveSchedulers;
 import com.lv.tool.privatereader.model.Book;
+import com.lv.tool.privatereader.model.BookshelfEntry;
 import com.lv.tool.privatereader.repository.BookRepository;
 import com.lv.tool.privatereader.repository.ReadingProgressRepository;
 import com.lv.tool.privatereader.service.BookService;
@@ -25,6 +26,20 @@ public class BookServiceImpl implements BookService {
                 .flatMapMany(Flux::fromIterable);
     }
 
+    @Override
+    public Flux<BookshelfEntry> getBookshelf() {
+        return Mono.fromCallable(() -> bookRepository.getBookshelf())
+                .subscribeOn(ReactiveSchedulers.getInstance().io())
+                .flatMapMany(Flux::fromIterable);
+    }
+
+    @Override
+    public Flux<BookshelfEntry> searchBookshelf(@NotNull String keyword) {
+        return Mono.fromCallable(() -> bookRepository.searchBookshelf(keyword))
+                .subscribeOn(ReactiveSchedulers.getInstance().io())
+                .flatMapMany(Flux::fromIterable);
+    }
+
     @Override
     public Mono<Book> getBookById(@NotNull String bookId) {
         return Mono.fromCallable(() -> Optional.ofNullable(bookRepository.getBook(bookId)))
@@ -8,7 +8,9 @@ import com.intellij.openapi.diagnostic.Logger;
 import com.lv.tool.privatereader.exception.PrivateReaderException;
 import com.lv.tool.privatereader.async.ReactiveSchedulers;
 import com.lv.tool.privatereader.async.ReactiveTaskManager;
+import com.lv.tool.privatereader.events.BookEvents;
 import com.lv.tool.privatereader.model.Book;
+import com.lv.tool.privatereader.parser.ChapterListUpdate;
 import com.lv.tool.privatereader.parser.NovelParser;
 import com.lv.tool.privatereader.parser.NovelParser.Chapter;
 import com.lv.tool.privatereader.repository.BookRepository;
@@ -272,7 +274,9 @@ public final class ChapterServiceImpl implements ChapterService {
                     if (parser == null) {
                         throw new IllegalStateException("Parser not initialized for book: " + book.getTitle());
                     }
-                    return parser.parseChapterList();
+                    List<Chapter> chapters = parser.parseChapterList();
+                    book.setChaptersFromBookPage(parser.isChaptersFromBookPage());
+                    return chapters;
                 })
                 .subscribeOn(reactiveSchedulers.io())
                 .doOnSuccess(chaptersFromNetwork -> {
@@ -309,8 +313,9 @@ public final class ChapterServiceImpl implements ChapterService {
                                 LOG.info("触发后台章节列表更新 for '" + book.getTitle() + "'");
                                 lastNetworkCheckCache.put(bookId, System.currentTimeMillis());
                                 
-                                // 创建并启动任务，任务完成后自动清理并发锁
-                                Mono<List<Chapter>> task = networkChaptersMono
+                                // 已有章节列表，只做增量刷新；任务完成后自动清理并发锁
+                                Mono<List<Chapter>> task = refreshChapterList(book)
+                                    .map(update -> book.getCachedChapters())
                                     .doFinally(signal -> chapterListMonoCache.invalidate(bookId));
                                 
                                 task.subscribe();
@@ -340,6 +345,77 @@ public final class ChapterServiceImpl implements ChapterService {
                 }));
     }
 
+    @Override
+    public Mono<ChapterListUpdate> refreshChapterList(@NotNull Book book) {
+        ensureServicesInitialized();
+        return Mono.fromCallable(() -> {
+                    NovelParser parser = book.getParser();
+                    if (parser == null) {
+                        throw new IllegalStateException("Parser not initialized for book: " + book.getTitle());
+                    }
+                    ChapterListUpdate update = parser.refreshChapterList(book.getCachedChapters());
+                    saveChapterSource(book, parser, update);
+                    applyChapterListUpdate(book, update);
+                    return update;
+                })
+                .subscribeOn(reactiveSchedulers.io())
+                .doOnSuccess(update -> {
+                    if (update.hasNewChapters()) {
+                        ApplicationManager.getApplication().getMessageBus()
+                                .syncPublisher(BookEvents.NewChaptersListener.NEW_CHAPTERS_TOPIC)
+                                .newChaptersFound(book, update.added());
+                    }
+                })
+                .doOnError(error -> LOG.warn("增量刷新章节列表失败 for '" + book.getTitle() + "': " + error.getMessage()));
+    }
+
+    /**
+     * 记录章节是否来自书籍页面，下次新建解析器时恢复
+     * 章节列表被整体替换时随书籍一起保存，否则来源变化时单独保存一次
+     */
+    private void saveChapterSource(Book book, NovelParser parser, ChapterListUpdate update) {
+        boolean fromBookPage = parser.isChaptersFromBookPage();
+        if (book.isChaptersFromBookPage() == fromBookPage) {
+            return;
+        }
+        book.setChaptersFromBookPage(fromBookPage);
+        if (update.type() != ChapterListUpdate.Type.REPLACED && bookRepository != null) {
+            bookRepository.updateBook(book);
+        }
+    }
+
+    /**
+     * 把刷新结果写入Book对象、内存缓存和持久化存储
+     * 只有新增章节时只追加，不重写整个章节列表
+     */
+    private void applyChapterListUpdate(Book book, ChapterListUpdate update) {
+        String bookId = book.getId();
+        lastNetworkCheckCache.put(bookId, System.currentTimeMillis());
+        switch (update.type()) {
+            case UNCHANGED:
+                LOG.info("章节列表没有变化 for '" + book.getTitle() + "'");
+                return;
+            case APPENDED:
+                int appended = book.appendCachedChapters(update.added());
+                LOG.info("追加 " + appended + " 个新章节 for '" + book.getTitle() + "'");
+                if (appended > 0 && bookRepository != null) {
+                    bookRepository.appendChapters(book, update.added());
+                }
+                break;
+            case REPLACED:
+                LOG.info("章节列表已变化，整体替换为 " + update.chapters().size() + " 个章节，其中新增 "
+                        + update.added().size() + " 个 for '" + book.getTitle() + "'");
+                book.setCachedChapters(update.chapters());
+                if (bookRepository != null) {
+                    bookRepository.updateBook(book);
+                }
+                break;
+            default:
+                return;
+        }
+        bookChapterListCache.put(bookId, book.getCachedChapters());
+    }
+
     /**
      * 回退到缓存的辅助方法
      */
@@ -14,6 +14,7 @@ import com.intellij.util.messages.MessageBusConnection;
 import com.lv.tool.privatereader.async.ReactiveSchedulers;
 import com.lv.tool.privatereader.events.ChapterChangeManager;
 import com.lv.tool.privatereader.events.ChapterChangeEventSource;
+import com.lv.tool.privatereader.messaging.ChapterPreloadedNotifier;
 import com.lv.tool.privatereader.messaging.CurrentChapterNotifier;
 import com.lv.tool.privatereader.model.Book;
 import com.lv.tool.privatereader.model.BookProgressData;
@@ -31,11 +32,11 @@ import org.jetbrains.annotations.Nullable;
 import reactor.core.publisher.Mono;
 import com.intellij.openapi.application.ModalityState;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * NotificationService 实现类
@@ -63,7 +64,11 @@ public final class NotificationServiceImpl implements NotificationService, Dispo
     private ChapterChangeManager chapterChangeManager;
 
     // 分页相关字段
-    private List<String> currentPages = new ArrayList<>();
+    /** 最近使用的章节分页表数量，覆盖当前章节和前后翻到的章节 */
+    private static final int MAX_PAGE_TABLES = 4;
+    /** 当前章节和提前分页的相邻章节共用的分页表缓存 */
+    private final PageTableCache pageTables = new PageTableCache(MAX_PAGE_TABLES);
+    private PageTable currentPages = PageTable.EMPTY;
     private int currentPageIndex = 0;
     private Book currentBook;
     private String currentChapterId;
@@ -87,6 +92,7 @@ public final class NotificationServiceImpl implements NotificationService, Dispo
                 handleChapterChangedEvent(changedBook, newChapter);
             }
         });
+        this.messageBusConnection.subscribe(ChapterPreloadedNotifier.TOPIC, this::prepareAdjacentChapter);
     }
 
     /**
@@ -124,7 +130,7 @@ public final class NotificationServiceImpl implements NotificationService, Dispo
         int oldPageIndex = this.currentPageIndex;
         LOG.debug(String.format("[页码调试] setCurrentChapterContent 调用前的页码索引: %d", oldPageIndex));
 
-        this.currentPages = paginateContent(content, pageSize);
+        this.currentPages = pageTableFor(content, pageSize);
         this.currentPageIndex = 0; // Reset to first page
 
         LOG.debug(String.format("[页码调试] setCurrentChapterContent 调用后的页码索引: %d (重置为0)", this.currentPageIndex));
@@ -136,7 +142,7 @@ public final class NotificationServiceImpl implements NotificationService, Dispo
         ensureServicesInitialized();
         LOG.debug("NotificationServiceImpl: 计算总页数");
         int pageSize = notificationSettings != null ? notificationSettings.getPageSize() : 70; // Use setting for page size
-        return paginateContent(content, pageSize).size();
+        return pageTableFor(content, pageSize).size();
     }
 
     @Override
@@ -144,9 +150,9 @@ public final class NotificationServiceImpl implements NotificationService, Dispo
         ensureServicesInitialized();
         LOG.debug("NotificationServiceImpl: 获取页码 " + pageNumber + " 的内容");
         int pageSize = notificationSettings != null ? notificationSettings.getPageSize() : 70; // Use setting for page size
-        List<String> pages = paginateContent(content, pageSize);
+        PageTable pages = pageTableFor(content, pageSize);
         if (pageNumber > 0 && pageNumber <= pages.size()) {
-            return pages.get(pageNumber - 1); // pageNumber is 1-based, list index is 0-based
+            return pages.page(pageNumber - 1).toString(); // pageNumber is 1-based, page index is 0-based
         }
         LOG.warn("NotificationServiceImpl: 无效的页码: " + pageNumber);
         return "Invalid page number.";
@@ -216,7 +222,16 @@ public final class NotificationServiceImpl implements NotificationService, Dispo
                     }
                     
                     // 分页并设置当前页码
+                    PageTable previousPages = currentPages;
                     setCurrentChapterContent(content);
+                    // 同一章节修改了页面大小时，页码按原页面第一个字符的位置换算
+                    // 分页表保存的是清理HTML后的文本，比较两个分页表而不是原始内容
+                    if (previousPages != currentPages && !previousPages.isEmpty()
+                            && previousPages.pageSize() != currentPages.pageSize()
+                            && previousPages.content().equals(currentPages.content())) {
+                        int previousIndex = Math.max(0, Math.min(savedPageNumber - 1, previousPages.size() - 1));
+                        savedPageNumber = currentPages.pageAt(previousPages.pageStart(previousIndex)) + 1;
+                    }
                     
                     // 确保页码在有效范围内
                     if (savedPageNumber <= 0) {
@@ -230,7 +245,7 @@ public final class NotificationServiceImpl implements NotificationService, Dispo
                     LOG.debug(String.format("[页码调试] 设置当前页码索引: %d (页码: %d)", currentPageIndex, savedPageNumber));
                     
                     // 获取当前页内容
-                    String pageContent = currentPages.get(currentPageIndex);
+                    CharSequence pageContent = currentPages.page(currentPageIndex);
                     
                     // 构建通知标题和内容
                     String notificationTitle = book.getTitle() + " - " + title;
@@ -298,11 +313,10 @@ public final class NotificationServiceImpl implements NotificationService, Dispo
             notificationTitle += String.format(" (第%d页/共%d页)", currentPageIndex + 1, currentPages.size());
         }
 
-        // 清理内容并创建通知
-        String cleanContent = cleanHtmlTags(content);
+        // 分页前已清理HTML标签，直接创建通知
         Notification notification = NotificationGroupManager.getInstance()
                 .getNotificationGroup(NOTIFICATION_GROUP_ID)
-                .createNotification(cleanContent, NotificationType.INFORMATION)
+                .createNotification(content, NotificationType.INFORMATION)
                 .setTitle(notificationTitle);
 
         // 如果启用，则添加导航操作
@@ -480,6 +494,15 @@ private void addNotificationActions(@NotNull Project project, @NotNull Notificat
         }
         showLoadingNotification(project, "正在加载章节...");
 
+        // 在加载前记录翻章，预加载策略据此学习阅读方向和速度并统计命中率
+        ensureServicesInitialized();
+        if (chapterPreloader != null) {
+            int currentIndex = currentBook.getChapterIndex(currentChapterId);
+            if (currentIndex >= 0) {
+                chapterPreloader.recordNavigation(currentBook, currentIndex + direction);
+            }
+        }
+
         List<Chapter> cachedChapters = currentBook.getCachedChapters();
         if (cachedChapters != null && !cachedChapters.isEmpty()) {
             LOG.info("使用Book中的cachedChapters进行导航，章节数量: " + cachedChapters.size());
@@ -497,7 +520,7 @@ private void addNotificationActions(@NotNull Project project, @NotNull Notificat
     private void updateAndShowPage(@NotNull Project project, int newPageIndex) {
         this.currentPageIndex = newPageIndex;
         String title = currentBook.getTitle() + " - " + currentChapterTitle;
-        String pageContent = currentPages.get(currentPageIndex);
+        CharSequence pageContent = currentPages.page(currentPageIndex);
         String progressText = notificationSettings != null && notificationSettings.isShowReadingProgress() ?
                 String.format("进度: 第 %d 页，共 %d 页", currentPageIndex + 1, currentPages.size()) : "";
         String notificationContent = pageContent + (progressText.isEmpty() ? "" : "\n\n" + progressText);
@@ -615,7 +638,7 @@ private void addNotificationActions(@NotNull Project project, @NotNull Notificat
 
         // 构建通知标题和内容
         String title = currentBook.getTitle() + " - " + targetChapterTitle;
-        String pageContent = currentPages.get(currentPageIndex);
+        CharSequence pageContent = currentPages.page(currentPageIndex);
         String progressText = notificationSettings != null && notificationSettings.isShowReadingProgress() ?
                 "进度: 第 " + (currentPageIndex + 1) + " 页，共 " + currentPages.size() + " 页" : "";
         String notificationContent = pageContent + (progressText.isEmpty() ? "" : "\n\n" + progressText);
@@ -707,7 +730,13 @@ private void addNotificationActions(@NotNull Project project, @NotNull Notificat
         // 获取目标章节
         Chapter targetChapter = cachedChapters.get(targetIndex);
         String targetChapterId = targetChapter.url();
-        String targetChapterTitle = targetChapter.title();
+
+        // 相邻章节已提前分页时直接显示
+        PageTable prepared = pageTables.get(currentBook.getId(), targetChapterId, currentPageSize());
+        if (prepared != null) {
+            showNavigatedChapter(project, targetChapter, targetIndex, prepared, false);
+            return;
+        }
 
         // 使用异步方式获取章节内容，避免阻塞UI线程
         Mono.fromCallable(() -> {
@@ -727,63 +756,77 @@ private void addNotificationActions(@NotNull Project project, @NotNull Notificat
             // 在获取到章节内容后，在UI线程上处理显示逻辑
             reactiveSchedulers.runOnUI(() -> {
                 if (content == null || content.isEmpty()) {
-                    LOG.warn("目标章节内容为空: " + targetChapterId);
+                    LOG.warn("[通知栏模式] 目标章节内容为空: " + targetChapterId);
                     showError("导航失败", "目标章节内容为空");
                     return;
                 }
+                showNavigatedChapter(project, targetChapter, targetIndex,
+                        pageTableFor(currentBook.getId(), targetChapterId, content, currentPageSize()), false);
+            });
+        });
+    }
 
-                // 更新当前章节信息
-                currentChapterId = targetChapterId;
-                currentChapterTitle = targetChapterTitle;
-
-                // 分页并设置为第一页
-                setCurrentChapterContent(content);
-                if (currentPages.isEmpty()) {
-                    LOG.warn("[通知栏模式] 分页后内容为空，无法显示通知: " + targetChapterId);
-                    showError("显示章节失败", "分页后内容为空");
-                    return;
-                }
+    /**
+     * 显示导航到的章节并保存阅读进度
+     * 在UI线程上执行
+     *
+     * @param project 当前项目
+     * @param targetChapter 目标章节
+     * @param targetIndex 目标章节索引
+     * @param pages 目标章节的分页表
+     * @param lastPage 是否显示最后一页，否则显示第一页
+     */
+    private void showNavigatedChapter(@NotNull Project project, @NotNull Chapter targetChapter, int targetIndex,
+                                      @NotNull PageTable pages, boolean lastPage) {
+        String targetChapterId = targetChapter.url();
+        String targetChapterTitle = targetChapter.title();
 
-                // 设置为第一页
-                currentPageIndex = 0;
+        // 更新当前章节信息
+        currentChapterId = targetChapterId;
+        currentChapterTitle = targetChapterTitle;
+        currentPages = pages;
+        if (currentPages.isEmpty()) {
+            LOG.warn("[通知栏模式] 分页后内容为空，无法显示通知: " + targetChapterId);
+            showError("显示章节失败", "分页后内容为空");
+            return;
+        }
+        currentPageIndex = lastPage ? currentPages.size() - 1 : 0;
 
-                // 构建通知标题和内容
-                String title = currentBook.getTitle() + " - " + targetChapterTitle;
-                String pageContent = currentPages.get(currentPageIndex);
-                String progressText = notificationSettings != null && notificationSettings.isShowReadingProgress() ?
-                        "进度: 第 " + (currentPageIndex + 1) + " 页，共 " + currentPages.size() + " 页" : "";
-                String notificationContent = pageContent + (progressText.isEmpty() ? "" : "\n\n" + progressText);
+        // 构建通知标题和内容
+        String title = currentBook.getTitle() + " - " + targetChapterTitle;
+        CharSequence pageContent = currentPages.page(currentPageIndex);
+        String progressText = notificationSettings != null && notificationSettings.isShowReadingProgress() ?
+                "进度: 第 " + (currentPageIndex + 1) + " 页，共 " + currentPages.size() + " 页" : "";
+        String notificationContent = pageContent + (progressText.isEmpty() ? "" : "\n\n" + progressText);
 
-                // 显示通知
-                showCurrentPageInternal(project, title, notificationContent);
+        // 显示通知
+        showCurrentPageInternal(project, title, notificationContent);
 
-                // 保存阅读进度
-                SqliteReadingProgressRepository readingProgressRepository = ApplicationManager.getApplication().getService(SqliteReadingProgressRepository.class);
-                if (readingProgressRepository != null) {
-                    readingProgressRepository.updateProgress(currentBook, targetChapterId, targetChapterTitle, 0, currentPageIndex + 1);
-                    LOG.info(String.format("[页码调试] 直接保存页码: %d", currentPageIndex + 1));
-                } else {
-                    LOG.warn("[页码调试] 无法获取 SqliteReadingProgressRepository 实例，使用 bookService.saveReadingProgress 方法");
-                    bookService.saveReadingProgress(currentBook, targetChapterId, targetChapterTitle, currentPageIndex);
-                }
+        // 保存阅读进度
+        SqliteReadingProgressRepository readingProgressRepository = ApplicationManager.getApplication().getService(SqliteReadingProgressRepository.class);
+        if (readingProgressRepository != null) {
+            readingProgressRepository.updateProgress(currentBook, targetChapterId, targetChapterTitle, 0, currentPageIndex + 1);
+            LOG.info(String.format("[页码调试] 直接保存页码: %d", currentPageIndex + 1));
+        } else {
+            LOG.warn("[页码调试] 无法获取 SqliteReadingProgressRepository 实例，使用 bookService.saveReadingProgress 方法");
+            bookService.saveReadingProgress(currentBook, targetChapterId, targetChapterTitle, currentPageIndex);
+        }
 
-                // 记录日志
-                LOG.info("[通知栏模式] 使用cachedChapters导航到章节: " + targetChapterId);
+        // 记录日志
+        LOG.info("[通知栏模式] 使用cachedChapters导航到章节" + (lastPage ? "的最后一页: " : ": ") + targetChapterId);
 
-                // 触发章节预加载
-                triggerChapterPreload(currentBook, targetIndex);
+        // 触发章节预加载
+        triggerChapterPreload(currentBook, targetIndex);
 
-                // 设置事件源
-                if (chapterChangeManager != null) {
-                    chapterChangeManager.setEventSource(ChapterChangeEventSource.NOTIFICATION_SERVICE);
-                }
-                // 发布章节变更事件
-                ApplicationManager.getApplication().getMessageBus()
-                        .syncPublisher(CurrentChapterNotifier.TOPIC)
-                        .currentChapterChanged(currentBook, targetChapter);
-                LOG.info("[通知栏模式] 已发布章节变更事件: " + targetChapter.title());
-            });
-        });
+        // 设置事件源
+        if (chapterChangeManager != null) {
+            chapterChangeManager.setEventSource(ChapterChangeEventSource.NOTIFICATION_SERVICE);
+        }
+        // 发布章节变更事件
+        ApplicationManager.getApplication().getMessageBus()
+                .syncPublisher(CurrentChapterNotifier.TOPIC)
+                .currentChapterChanged(currentBook, targetChapter);
+        LOG.info("[通知栏模式] 已发布章节变更事件: " + targetChapter.title());
     }
 
     // Existing reactive methods (kept for compatibility if still used elsewhere)
@@ -870,7 +913,7 @@ private void addNotificationActions(@NotNull Project project, @NotNull Notificat
             }
 
             // 获取当前页内容
-            String pageContent = currentPages.get(currentPageIndex);
+            CharSequence pageContent = currentPages.page(currentPageIndex);
             String progressText = notificationSettings != null && notificationSettings.isShowReadingProgress() ?
                     "进度: 第 " + (currentPageIndex + 1) + " 页，共 " + currentPages.size() + " 页" : "";
             String notificationContent = pageContent + (progressText.isEmpty() ? "" : "\n\n" + progressText);
@@ -1000,72 +1043,67 @@ private void addNotificationActions(@NotNull Project project, @NotNull Notificat
     }
 
     /**
-     * 将内容分页
-     * 严格按照pageSize进行分页，同时尽量在段落或句子结束处分页，提供更好的阅读体验
-     * 每页字符数严格等于pageSize（除了最后一页可能少于pageSize）
-     *
-     * @param content 内容
-     * @param pageSize 每页字符数
-     * @return 分页后的内容列表
+     * 获取章节内容的分页表
+     * 最近使用的章节保留分页表，页面大小变化时复用已扫描的断点重新分页
      */
-    private List<String> paginateContent(String content, int pageSize) {
-        List<String> pages = new ArrayList<>();
-        if (content == null || content.isEmpty() || pageSize <= 0) {
-            return pages;
-        }
-
-        LOG.info("[分页] 开始分页，内容长度: " + content.length() + ", 页面大小: " + pageSize);
-
-        int textLength = content.length();
-        int startIndex = 0;
-
-        while (startIndex < textLength) {
-            int endIndex = Math.min(startIndex + pageSize, textLength);
-            
-            // If this is not the last chunk of text, try to find a natural break point.
-            if (endIndex < textLength) {
-                int breakPoint = -1;
-                // Look for the last newline character within the current page candidate.
-                for (int i = endIndex - 1; i >= startIndex; i--) {
-                    if (content.charAt(i) == '\n') {
-                        breakPoint = i + 1; // Break after the newline
-                        break;
-                    }
-                }
+    private PageTable pageTableFor(String content, int pageSize) {
+        return pageTableFor(null, null, content, pageSize);
+    }
 
-                // If no newline, look for a sentence break, but don't look back too far.
-                if (breakPoint == -1) {
-                    for (int i = endIndex - 1; i >= startIndex && i > endIndex - 50; i--) { // Look back max 50 chars
-                        char c = content.charAt(i);
-                        if ("。！？.?!".indexOf(c) != -1) {
-                            breakPoint = i + 1;
-                            break;
-                        }
-                    }
-                }
-                
-                // If we found a good break point, adjust the end index.
-                if (breakPoint > startIndex) { // Ensure we are making progress
-                    endIndex = breakPoint;
-                }
-            }
-            
-            pages.add(content.substring(startIndex, endIndex));
-            startIndex = endIndex;
+    /**
+     * 获取章节内容的分页表，已知所属章节时同时按章节索引，相邻章节翻页可直接取用
+     */
+    private synchronized PageTable pageTableFor(@Nullable String bookId, @Nullable String chapterId,
+                                                String content, int pageSize) {
+        if (content == null || content.isEmpty()) {
+            return PageTable.EMPTY;
         }
-
-        // Log page sizes for debugging
-        if (!pages.isEmpty()) {
-            StringBuilder pageSizeInfo = new StringBuilder("[分页] 各页字符数: ");
-            for (int i = 0; i < pages.size(); i++) {
-                if (i > 0) pageSizeInfo.append(", ");
-                pageSizeInfo.append("#").append(i + 1).append(": ").append(pages.get(i).length());
-            }
-            LOG.info(pageSizeInfo.toString());
+        PageTable table = pageTables.get(content, pageSize);
+        if (table == null) {
+            table = layoutChapter(content, pageSize);
+            LOG.debug("[分页] 内容长度: " + content.length() + ", 页面大小: " + pageSize + ", 总页数: " + table.size());
         }
+        pageTables.put(bookId, chapterId, content, table);
+        return table;
+    }
 
-        LOG.info("[分页] 分页完成，总页数: " + pages.size());
-        return pages;
+    /**
+     * 清理HTML标签后分页
+     */
+    private PageTable layoutChapter(String content, int pageSize) {
+        return PageTable.layout(cleanHtmlTags(content), pageSize);
+    }
+
+    private int currentPageSize() {
+        return notificationSettings != null ? notificationSettings.getPageSize() : 70;
+    }
+
+    /**
+     * 预加载器缓存了章节后，如果是当前章节的前一章或后一章，在计算调度器上清理并分页
+     */
+    private void prepareAdjacentChapter(Book book, Chapter chapter, Supplier<String> content) {
+        Book readingBook = currentBook;
+        String readingChapterId = currentChapterId;
+        if (readingBook == null || readingChapterId == null || book == null || chapter == null
+                || content == null || !readingBook.getId().equals(book.getId())) {
+            return;
+        }
+        int currentIndex = readingBook.getChapterIndex(readingChapterId);
+        int chapterIndex = readingBook.getChapterIndex(chapter.url());
+        if (currentIndex < 0 || chapterIndex < 0 || Math.abs(chapterIndex - currentIndex) != 1
+                || pageTables.contains(book.getId(), chapter.url())) {
+            return;
+        }
+        int pageSize = currentPageSize();
+        Mono.fromRunnable(() -> {
+                // 已缓存的章节在这里才读取内容
+                String text = content.get();
+                if (text != null && !text.isEmpty()) {
+                    pageTables.put(book.getId(), chapter.url(), text, layoutChapter(text, pageSize));
+                }
+            })
+            .subscribeOn(reactiveSchedulers.compute())
+            .subscribe(null, e -> LOG.warn("[通知栏模式] 提前分页章节失败: " + chapter.title() + ", 错误: " + e.getMessage()));
     }
 
     /**
@@ -1186,7 +1224,7 @@ private void addNotificationActions(@NotNull Project project, @NotNull Notificat
 
         // 构建通知标题和内容
         String title = currentBook.getTitle() + " - " + targetChapterTitle;
-        String pageContent = currentPages.get(currentPageIndex);
+        CharSequence pageContent = currentPages.page(currentPageIndex);
         String progressText = notificationSettings != null && notificationSettings.isShowReadingProgress() ?
                 "进度: 第 " + (currentPageIndex + 1) + " 页，共 " + currentPages.size() + " 页" : "";
         String notificationContent = pageContent + (progressText.isEmpty() ? "" : "\n\n" + progressText);
@@ -1270,7 +1308,13 @@ private void addNotificationActions(@NotNull Project project, @NotNull Notificat
         // 获取目标章节信息
         Chapter targetChapter = cachedChapters.get(targetIndex);
         String targetChapterId = targetChapter.url();
-        String targetChapterTitle = targetChapter.title();
+
+        // 相邻章节已提前分页时直接显示
+        PageTable prepared = pageTables.get(currentBook.getId(), targetChapterId, currentPageSize());
+        if (prepared != null) {
+            showNavigatedChapter(project, targetChapter, targetIndex, prepared, true);
+            return;
+        }
 
         // 显示加载状态通知
         showLoadingNotification(project, "正在加载章节内容...");
@@ -1297,57 +1341,8 @@ private void addNotificationActions(@NotNull Project project, @NotNull Notificat
                     showError("导航失败", "目标章节内容为空");
                     return;
                 }
-
-                // 更新当前章节信息
-                currentChapterId = targetChapterId;
-                currentChapterTitle = targetChapterTitle;
-
-                // 分页并设置为最后一页
-                setCurrentChapterContent(content);
-                if (currentPages.isEmpty()) {
-                    LOG.warn("[通知栏模式] 分页后内容为空，无法显示通知: " + targetChapterId);
-                    showError("显示章节失败", "分页后内容为空");
-                    return;
-                }
-
-                // 设置为最后一页
-                currentPageIndex = currentPages.size() - 1;
-
-                // 构建通知标题和内容
-                String title = currentBook.getTitle() + " - " + targetChapterTitle;
-                String pageContent = currentPages.get(currentPageIndex);
-                String progressText = notificationSettings != null && notificationSettings.isShowReadingProgress() ?
-                        "进度: 第 " + (currentPageIndex + 1) + " 页，共 " + currentPages.size() + " 页" : "";
-                String notificationContent = pageContent + (progressText.isEmpty() ? "" : "\n\n" + progressText);
-
-                // 显示通知
-                showCurrentPageInternal(project, title, notificationContent);
-
-                // 保存阅读进度
-                SqliteReadingProgressRepository readingProgressRepository = ApplicationManager.getApplication().getService(SqliteReadingProgressRepository.class);
-                if (readingProgressRepository != null) {
-                    readingProgressRepository.updateProgress(currentBook, targetChapterId, targetChapterTitle, 0, currentPageIndex + 1);
-                    LOG.info(String.format("[页码调试] 直接保存页码: %d", currentPageIndex + 1));
-                } else {
-                    LOG.warn("[页码调试] 无法获取 SqliteReadingProgressRepository 实例，使用 bookService.saveReadingProgress 方法");
-                    bookService.saveReadingProgress(currentBook, targetChapterId, targetChapterTitle, currentPageIndex);
-                }
-
-                // 记录日志
-                LOG.info("[通知栏模式] 使用cachedChapters导航到章节的最后一页: " + targetChapterId);
-
-                // 触发章节预加载
-                triggerChapterPreload(currentBook, targetIndex);
-
-                // 设置事件源
-                if (chapterChangeManager != null) {
-                    chapterChangeManager.setEventSource(ChapterChangeEventSource.NOTIFICATION_SERVICE);
-                }
-                // 发布章节变更事件
-                ApplicationManager.getApplication().getMessageBus()
-                        .syncPublisher(CurrentChapterNotifier.TOPIC)
-                        .currentChapterChanged(currentBook, targetChapter);
-                LOG.info("[通知栏模式] 已发布章节变更事件: " + targetChapter.title());
+                showNavigatedChapter(project, targetChapter, targetIndex,
+                        pageTableFor(currentBook.getId(), targetChapterId, content, currentPageSize()), true);
             });
         });
     }
@@ -1549,7 +1544,7 @@ private void addNotificationActions(@NotNull Project project, @NotNull Notificat
 
                                 this.currentPageIndex = pageToLoad - 1;
 
-                                String pageContentToShow = this.currentPages.get(this.currentPageIndex);
+                                CharSequence pageContentToShow = this.currentPages.page(this.currentPageIndex);
                                 String progressText = notificationSettings != null && notificationSettings.isShowReadingProgress() ?
                                      "进度: 第 " + (this.currentPageIndex + 1) + " 页，共 " + this.currentPages.size() + " 页" : "";
                                 String notificationContent = pageContentToShow + (progressText.isEmpty() ? "" : "\n\n" + progressText);
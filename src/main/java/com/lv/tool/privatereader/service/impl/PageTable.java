@@ -0,0 +1,186 @@
+package com.lv.tool.privatereader.service.impl;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * 通知栏阅读模式的分页表
+ *
+ * 分页规则：每页最多 pageSize 个字符，不是最后一页时优先在页内最后一个换行符之后断开，
+ * 页内没有换行符时在末尾50个字符内最后一个句末标点之后断开，都没有则按 pageSize 截断。
+ *
+ * 章节内容只扫描一次，记下所有换行符和句末标点的位置；每页的起始位置保存在 int 数组中，
+ * 查找断点用二分查找，分页耗时只与页数有关。修改页面大小时复用断点位置重新分页。
+ * 获取页面返回内容的只读视图，不复制字符。
+ *
+ * 不可变，可以在线程间共享。
+ */
+final class PageTable {
+    static final PageTable EMPTY = new PageTable("", new int[0], new int[0], 0, new int[]{0}, 0);
+
+    private static final String SENTENCE_ENDS = "。！？.?!";
+    /**
+     * 句末标点最多向前查找的字符数
+     */
+    private static final int SENTENCE_LOOKBACK = 50;
+
+    private final String content;
+    private final int[] newlines;
+    private final int[] sentenceEnds;
+    private final int pageSize;
+    /**
+     * 第 i 页从 starts[i] 开始，starts[pageCount] 为内容长度
+     */
+    private final int[] starts;
+    private final int pageCount;
+
+    private PageTable(String content, int[] newlines, int[] sentenceEnds, int pageSize, int[] starts, int pageCount) {
+        this.content = content;
+        this.newlines = newlines;
+        this.sentenceEnds = sentenceEnds;
+        this.pageSize = pageSize;
+        this.starts = starts;
+        this.pageCount = pageCount;
+    }
+
+    /**
+     * 对章节内容分页
+     *
+     * @param content 章节内容
+     * @param pageSize 每页最多字符数
+     * @return 分页表，内容为空或页面大小无效时没有页面
+     */
+    @NotNull
+    static PageTable layout(@NotNull String content, int pageSize) {
+        if (content.isEmpty()) {
+            return EMPTY;
+        }
+        int[] newlines = new int[16];
+        int newlineCount = 0;
+        int[] sentenceEnds = new int[64];
+        int sentenceEndCount = 0;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c == '\n') {
+                if (newlineCount == newlines.length) newlines = Arrays.copyOf(newlines, newlineCount * 2);
+                newlines[newlineCount++] = i;
+            } else if (SENTENCE_ENDS.indexOf(c) != -1) {
+                if (sentenceEndCount == sentenceEnds.length) sentenceEnds = Arrays.copyOf(sentenceEnds, sentenceEndCount * 2);
+                sentenceEnds[sentenceEndCount++] = i;
+            }
+        }
+        return layout(content, Arrays.copyOf(newlines, newlineCount),
+                Arrays.copyOf(sentenceEnds, sentenceEndCount), pageSize);
+    }
+
+    private static PageTable layout(String content, int[] newlines, int[] sentenceEnds, int pageSize) {
+        int length = content.length();
+        if (pageSize <= 0) {
+            return new PageTable(content, newlines, sentenceEnds, pageSize, new int[]{0}, 0);
+        }
+        int[] starts = new int[length / pageSize + 2];
+        int count = 0;
+        int start = 0;
+        while (start < length) {
+            int end = Math.min(start + pageSize, length);
+            if (end < length) {
+                int newline = lastBefore(newlines, end);
+                if (newline >= start) {
+                    end = newline + 1;
+                } else {
+                    int sentenceEnd = lastBefore(sentenceEnds, end);
+                    if (sentenceEnd >= start && sentenceEnd > end - SENTENCE_LOOKBACK) {
+                        end = sentenceEnd + 1;
+                    }
+                }
+            }
+            if (count + 1 >= starts.length) starts = Arrays.copyOf(starts, starts.length * 2);
+            starts[count++] = start;
+            start = end;
+        }
+        starts[count] = length;
+        return new PageTable(content, newlines, sentenceEnds, pageSize, starts, count);
+    }
+
+    /**
+     * 按新的页面大小重新分页，复用已扫描的断点位置
+     *
+     * @param newPageSize 每页最多字符数
+     * @return 新的分页表，页面大小未变时返回自身
+     */
+    @NotNull
+    PageTable withPageSize(int newPageSize) {
+        if (newPageSize == pageSize || content.isEmpty()) {
+            return this;
+        }
+        return layout(content, newlines, sentenceEnds, newPageSize);
+    }
+
+    /**
+     * 有序数组中小于 limit 的最大值
+     *
+     * @return 没有时返回 -1
+     */
+    private static int lastBefore(int[] positions, int limit) {
+        int index = Arrays.binarySearch(positions, limit);
+        int insertion = index >= 0 ? index : -index - 1;
+        return insertion > 0 ? positions[insertion - 1] : -1;
+    }
+
+    int size() {
+        return pageCount;
+    }
+
+    boolean isEmpty() {
+        return pageCount == 0;
+    }
+
+    int pageSize() {
+        return pageSize;
+    }
+
+    @NotNull
+    String content() {
+        return content;
+    }
+
+    /**
+     * 获取页面内容
+     *
+     * @param index 页面索引，从0开始
+     * @return 内容的只读视图
+     */
+    @NotNull
+    CharSequence page(int index) {
+        if (index < 0 || index >= pageCount) {
+            throw new IndexOutOfBoundsException("页面索引 " + index + " 超出范围，共 " + pageCount + " 页");
+        }
+        return CharBuffer.wrap(content, starts[index], starts[index + 1]);
+    }
+
+    /**
+     * 页面第一个字符在内容中的位置
+     *
+     * @param index 页面索引，从0开始
+     */
+    int pageStart(int index) {
+        return starts[index];
+    }
+
+    /**
+     * 查找包含指定字符的页面
+     *
+     * @param offset 字符在内容中的位置
+     * @return 页面索引，超出内容范围时返回最近的页面
+     */
+    int pageAt(int offset) {
+        if (pageCount == 0) {
+            return 0;
+        }
+        int index = Arrays.binarySearch(starts, 0, pageCount, offset);
+        int page = index >= 0 ? index : -index - 2;
+        return Math.max(0, Math.min(page, pageCount - 1));
+    }
+}
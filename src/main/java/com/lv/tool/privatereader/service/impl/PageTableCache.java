@@ -0,0 +1,116 @@
+package com.lv.tool.privatereader.service.impl;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 章节分页表缓存
+ *
+ * 通知栏模式当前显示的章节和提前分页的相邻章节共用这一份缓存，结果按最近使用保留。
+ * 分页表以章节原始内容为键，已知所属章节时同时按书籍和章节ID索引，
+ * 翻到已准备好的相邻章节时直接显示，不再读取缓存或处理文本。
+ * 页面大小变化时取出的分页表按新大小重新分页。
+ */
+final class PageTableCache {
+    private final int capacity;
+    // 原始内容 -> 分页表，按访问排序
+    private final Map<String, Entry> tables = new LinkedHashMap<>(16, 0.75f, true);
+    // 书籍和章节ID -> 原始内容
+    private final Map<String, String> chapters = new HashMap<>();
+
+    PageTableCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * 按原始内容获取分页表
+     *
+     * @param content 章节原始内容
+     * @param pageSize 当前页面大小
+     * @return 分页表，未缓存时返回null
+     */
+    @Nullable
+    synchronized PageTable get(@NotNull String content, int pageSize) {
+        Entry entry = tables.get(content);
+        return entry == null ? null : resize(content, entry, pageSize);
+    }
+
+    /**
+     * 获取章节的分页表
+     *
+     * @param bookId 书籍ID
+     * @param chapterId 章节ID
+     * @param pageSize 当前页面大小
+     * @return 分页表，章节未准备好时返回null
+     */
+    @Nullable
+    synchronized PageTable get(@NotNull String bookId, @NotNull String chapterId, int pageSize) {
+        String content = chapters.get(key(bookId, chapterId));
+        if (content == null) return null;
+        Entry entry = tables.get(content);
+        return entry == null ? null : resize(content, entry, pageSize);
+    }
+
+    synchronized boolean contains(@NotNull String bookId, @NotNull String chapterId) {
+        return chapters.containsKey(key(bookId, chapterId));
+    }
+
+    /**
+     * 缓存分页表
+     *
+     * @param bookId 书籍ID，不知道所属章节时为null
+     * @param chapterId 章节ID，不知道所属章节时为null
+     * @param content 章节原始内容
+     * @param table 分页表
+     */
+    synchronized void put(@Nullable String bookId, @Nullable String chapterId, @NotNull String content,
+                          @NotNull PageTable table) {
+        String chapterKey = bookId != null && chapterId != null ? key(bookId, chapterId) : null;
+        Entry previous = tables.get(content);
+        if (chapterKey == null && previous != null) {
+            chapterKey = previous.chapterKey;
+        } else if (previous != null && previous.chapterKey != null && !previous.chapterKey.equals(chapterKey)) {
+            chapters.remove(previous.chapterKey, content);
+        }
+        if (chapterKey != null) {
+            // 章节内容变化后旧内容的分页表不再可用
+            String oldContent = chapters.put(chapterKey, content);
+            if (oldContent != null && !oldContent.equals(content)) {
+                tables.remove(oldContent);
+            }
+        }
+        tables.put(content, new Entry(chapterKey, table));
+        Iterator<Map.Entry<String, Entry>> eldest = tables.entrySet().iterator();
+        while (tables.size() > capacity && eldest.hasNext()) {
+            Map.Entry<String, Entry> removed = eldest.next();
+            eldest.remove();
+            if (removed.getValue().chapterKey != null) {
+                chapters.remove(removed.getValue().chapterKey, removed.getKey());
+            }
+        }
+    }
+
+    synchronized void clear() {
+        tables.clear();
+        chapters.clear();
+    }
+
+    private PageTable resize(String content, Entry entry, int pageSize) {
+        if (entry.table.pageSize() == pageSize) return entry.table;
+        PageTable resized = entry.table.withPageSize(pageSize);
+        tables.put(content, new Entry(entry.chapterKey, resized));
+        return resized;
+    }
+
+    private static String key(String bookId, String chapterId) {
+        return bookId + '\n' + chapterId;
+    }
+
+    private record Entry(@Nullable String chapterKey, @NotNull PageTable table) {
+    }
+}
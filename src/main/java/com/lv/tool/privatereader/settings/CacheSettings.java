@@ -16,6 +16,7 @@ import java.nio.file.Path;
  * - 最大缓存大小
  * - 缓存过期时间
  * - 章节预加载设置
+ * - 章节缓存压缩
  */
 @Service(Service.Level.APP)
 public class CacheSettings extends BaseSettings<CacheSettings> {
@@ -31,6 +32,8 @@ public class CacheSettings extends BaseSettings<CacheSettings> {
     private int maxCacheAge = 7; // 默认最大缓存时间（单位：天）
     private boolean enablePreload = true; // 默认启用预加载
     private int preloadDelay = 500; // 默认预加载延迟（单位：毫秒）
+    private int preloadConcurrency = 2; // 默认同一站点的预加载并发数
+    private boolean compressCache = true; // 默认压缩章节缓存
 
     /**
      * 默认构造函数
@@ -239,6 +242,46 @@ public class CacheSettings extends BaseSettings<CacheSettings> {
         markDirty();
     }
 
+    /**
+     * 获取同一站点的预加载并发数
+     *
+     * @return 预加载并发数
+     */
+    public int getPreloadConcurrency() {
+        ensureSettingsLoaded();
+        return preloadConcurrency;
+    }
+
+    /**
+     * 设置同一站点的预加载并发数
+     *
+     * @param preloadConcurrency 预加载并发数
+     */
+    public void setPreloadConcurrency(int preloadConcurrency) {
+        this.preloadConcurrency = preloadConcurrency;
+        markDirty();
+    }
+
+    /**
+     * 是否压缩章节缓存
+     *
+     * @return 是否压缩章节缓存
+     */
+    public boolean isCompressCache() {
+        ensureSettingsLoaded();
+        return compressCache;
+    }
+
+    /**
+     * 设置是否压缩章节缓存
+     *
+     * @param compressCache 是否压缩章节缓存
+     */
+    public void setCompressCache(boolean compressCache) {
+        this.compressCache = compressCache;
+        markDirty();
+    }
+
     /**
      * 获取缓存目录路径
      *
@@ -262,6 +305,8 @@ public class CacheSettings extends BaseSettings<CacheSettings> {
         this.maxCacheAge = source.maxCacheAge;
         this.enablePreload = source.enablePreload;
         this.preloadDelay = source.preloadDelay;
+        this.preloadConcurrency = source.preloadConcurrency;
+        this.compressCache = source.compressCache;
     }
 
     @Override
@@ -279,6 +324,8 @@ public class CacheSettings extends BaseSettings<CacheSettings> {
         settings.maxCacheAge = 7;
         settings.enablePreload = true;
         settings.preloadDelay = 500;
+        settings.preloadConcurrency = 2;
+        settings.compressCache = true;
         return settings;
     }
 } 
\ No newline at end of file
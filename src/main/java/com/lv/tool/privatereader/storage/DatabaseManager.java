@@ -19,14 +19,23 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 import com.lv.tool.privatereader.model.Book;
 import com.lv.tool.privatereader.model.BookProgressData;
 import com.lv.tool.privatereader.repository.ReadingProgressRepository;
 import com.lv.tool.privatereader.repository.StorageRepository;
-// import com.lv.tool.privatereader.repository.impl.SqliteReadingProgressRepository; // Keep this commented or remove if not needed directly
+import com.lv.tool.privatereader.repository.impl.SqliteReadingProgressRepository;
 import org.jetbrains.annotations.Nullable;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -35,16 +44,33 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * Initializes the database table if it doesn't exist.
  * Implemented as a Application Level Service.
  * Includes one-time migration logic from old JSON format.
+ * <p>
+ * Progress reads and writes go through two long-lived connections instead of opening a new one per call:
+ * <ul>
+ *     <li>The write connection is only touched by a single writer thread, so writes never contend for SQLite's lock.</li>
+ *     <li>The read connection is shared by callers under a lock; in WAL mode it does not block the writer.</li>
+ * </ul>
+ * Both connections keep their prepared statements cached by SQL text.
  */
 @Service(Service.Level.APP)
-public final class DatabaseManager {
+public final class DatabaseManager implements Disposable {
     private static final Logger LOG = Logger.getInstance(DatabaseManager.class);
     private static final AtomicBoolean databaseInitialized = new AtomicBoolean(false);
     private static final String MIGRATION_FLAG_KEY = "private.reader.migration.sqlite.v1.complete";
     private static final String BOOK_DETAILS_FILENAME = "book_details.json"; // Assuming this is the old filename
 
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+    // Busy timeout covers other IDE instances sharing the same database file
+    private static final int BUSY_TIMEOUT_MS = 5000;
+
     private final String dbUrl;
 
+    private final ExecutorService writerExecutor;
+    private volatile Thread writerThread;
+    private ManagedConnection writeConnection; // Only accessed on the writer thread
+    private final ReentrantLock readLock = new ReentrantLock();
+    private ManagedConnection readConnection; // Guarded by readLock
+
     // SQL statement to create the progress table
     private static final String CREATE_TABLE_SQL = """
             CREATE TABLE IF NOT EXISTS reading_progress (
@@ -77,6 +103,12 @@ public final class DatabaseManager {
         }
 
         this.dbUrl = DatabaseConstants.getDatabaseUrl();
+        this.writerExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "PrivateReader-SQLite-Writer");
+            thread.setDaemon(true);
+            writerThread = thread;
+            return thread;
+        });
         LOG.info("DatabaseManager initialized. DB URL: " + dbUrl);
         // Ensure database directory and table are initialized on startup
         ensureDatabaseInitialized();
@@ -87,8 +119,218 @@ public final class DatabaseManager {
     }
 
     /**
-     * Gets a connection to the SQLite database.
-     * Initializes the database and table on the first call.
+     * Unit of work executed against a managed connection.
+     *
+     * @param <T> result type
+     */
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T execute(@NotNull ManagedConnection connection) throws SQLException;
+    }
+
+    /**
+     * Runs a write on the single writer thread and waits for its result.
+     * All writes are serialized, so callers never see SQLITE_BUSY from each other.
+     *
+     * @param work the write to execute
+     * @return the result of the work
+     * @throws SQLException if the write fails
+     */
+    public <T> T write(@NotNull SqlWork<T> work) throws SQLException {
+        if (Thread.currentThread() == writerThread) {
+            return runWrite(work);
+        }
+        Future<T> future;
+        try {
+            future = writerExecutor.submit(() -> runWrite(work));
+        } catch (RejectedExecutionException e) {
+            throw new SQLException("Database writer has been shut down.", e);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for database write.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException("Database write failed.", cause);
+        }
+    }
+
+    /**
+     * Runs several statements on the writer thread inside one transaction.
+     * The transaction is rolled back if the work throws.
+     *
+     * @param work the writes to execute
+     * @return the result of the work
+     * @throws SQLException if the transaction fails
+     */
+    public <T> T writeInTransaction(@NotNull SqlWork<T> work) throws SQLException {
+        return write(connection -> {
+            Connection conn = connection.connection();
+            conn.setAutoCommit(false);
+            try {
+                T result = work.execute(connection);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        });
+    }
+
+    /**
+     * Runs a read on the shared read connection.
+     * Reads are serialized with each other but, thanks to WAL, not with the writer.
+     *
+     * @param work the read to execute
+     * @return the result of the work
+     * @throws SQLException if the read fails
+     */
+    public <T> T read(@NotNull SqlWork<T> work) throws SQLException {
+        readLock.lock();
+        try {
+            if (readConnection == null) {
+                readConnection = openManagedConnection();
+            }
+            try {
+                return work.execute(readConnection);
+            } catch (SQLException e) {
+                // The connection may be broken; reopen it on the next read
+                readConnection.close();
+                readConnection = null;
+                throw e;
+            }
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private <T> T runWrite(SqlWork<T> work) throws SQLException {
+        if (writeConnection == null) {
+            writeConnection = openManagedConnection();
+        }
+        try {
+            return work.execute(writeConnection);
+        } catch (SQLException e) {
+            // The connection may be broken; reopen it on the next write
+            writeConnection.close();
+            writeConnection = null;
+            throw e;
+        }
+    }
+
+    private ManagedConnection openManagedConnection() throws SQLException {
+        Connection conn = DriverManager.getConnection(dbUrl);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA journal_mode=WAL;");
+            // NORMAL is durable across application crashes in WAL mode; only an OS crash can lose the last commits
+            stmt.execute("PRAGMA synchronous=NORMAL;");
+            stmt.execute("PRAGMA busy_timeout=" + BUSY_TIMEOUT_MS + ";");
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        LOG.debug("Opened managed SQLite connection to: " + dbUrl);
+        return new ManagedConnection(conn);
+    }
+
+    @Override
+    public void dispose() {
+        Future<?> closing = null;
+        try {
+            closing = writerExecutor.submit(() -> {
+                if (writeConnection != null) {
+                    writeConnection.close();
+                    writeConnection = null;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Database writer already shut down.");
+        }
+        writerExecutor.shutdown();
+        try {
+            if (closing != null) {
+                closing.get(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+        } catch (Exception e) {
+            LOG.warn("Failed to close SQLite write connection cleanly: " + e.getMessage());
+        }
+        readLock.lock();
+        try {
+            if (readConnection != null) {
+                readConnection.close();
+                readConnection = null;
+            }
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * A long-lived connection with a cache of prepared statements keyed by SQL text.
+     * Not thread-safe; {@link #read} and {@link #write} guarantee exclusive access.
+     */
+    public static final class ManagedConnection {
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        private ManagedConnection(@NotNull Connection connection) {
+            this.connection = connection;
+        }
+
+        /**
+         * Returns the cached prepared statement for the SQL, preparing it on first use.
+         * Parameters are cleared; callers must not close the statement.
+         */
+        @NotNull
+        public PreparedStatement prepare(@NotNull String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null || statement.isClosed()) {
+                statement = connection.prepareStatement(sql);
+                statements.put(sql, statement);
+            } else {
+                statement.clearParameters();
+            }
+            return statement;
+        }
+
+        @NotNull
+        public Connection connection() {
+            return connection;
+        }
+
+        private void close() {
+            for (PreparedStatement statement : statements.values()) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    LOG.debug("Failed to close cached statement: " + e.getMessage());
+                }
+            }
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                LOG.warn("Failed to close SQLite connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gets a new connection to the SQLite database.
+     * Prefer {@link #read} and {@link #write}, which reuse managed connections;
+     * this is for one-off operations that need a dedicated connection.
      *
      * @return A valid Connection object.
      * @throws SQLException if a database access error occurs.
@@ -148,6 +390,9 @@ public final class DatabaseManager {
         try (Connection conn = DriverManager.getConnection(dbUrl); // Create dedicated connection for setup
              Statement stmt = conn.createStatement()) {
 
+            // WAL is persistent in the database file; readers no longer block the writer
+            stmt.execute("PRAGMA journal_mode=WAL;");
+
             // Create the table if it doesn't exist
             stmt.execute(CREATE_TABLE_SQL);
             LOG.info("Ensured 'reading_progress' table exists.");
@@ -294,6 +539,11 @@ public final class DatabaseManager {
                 }
             } // DirectoryStream try-with-resources
 
+            // Progress updates are buffered; make sure migrated entries are written before setting the flag
+            if (progressRepository instanceof SqliteReadingProgressRepository sqliteRepository) {
+                sqliteRepository.flushProgress();
+            }
+
             if (errorCount == 0) {
                 LOG.info("Migration from JSON to SQLite completed successfully. Migrated " + migratedCount + " progress entries.");
                 propertiesComponent.setValue(MIGRATION_FLAG_KEY, true); // Set flag only on full success
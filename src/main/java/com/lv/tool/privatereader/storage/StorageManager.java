@@ -72,6 +72,9 @@ public final class StorageManager {
         
         // 迁移设置
         migrateSettings();
+        
+        // 建立章节缓存淘汰索引，避免首次写入缓存时扫描目录
+        getChapterCacheManager().loadEvictionIndex();
         LOG.info("StorageManager 的初始化后任务完成。");
     }
     
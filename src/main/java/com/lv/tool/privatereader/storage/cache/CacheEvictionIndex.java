@@ -0,0 +1,219 @@
+package com.lv.tool.privatereader.storage.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 章节缓存淘汰索引
+ *
+ * 在内存中维护缓存条目的大小与最近访问顺序，替代每次写入时对缓存目录的全量扫描：
+ * - 每个条目记录文件大小和最后访问时间
+ * - 维护缓存总大小的累计值
+ * - 按最近最少使用(LRU)顺序淘汰，无需遍历目录
+ * - 统计命中、未命中和淘汰次数
+ *
+ * 所有修改操作在同一把锁内完成，保证总大小与条目集合一致。
+ */
+final class CacheEvictionIndex {
+
+    /**
+     * 按访问顺序排列的条目，最久未访问的条目位于头部
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalSize;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * 使用已有的缓存条目重建索引
+     * 条目按写入时间升序插入，使最旧的条目最先被淘汰
+     *
+     * @param existing 现有缓存条目
+     */
+    synchronized void rebuild(@NotNull List<Entry> existing) {
+        entries.clear();
+        totalSize = 0;
+        List<Entry> sorted = new ArrayList<>(existing);
+        sorted.sort(Comparator.comparingLong(Entry::getLastAccessTime));
+        for (Entry entry : sorted) {
+            entries.put(key(entry.getBookId(), entry.getChapterId()), entry);
+            totalSize += entry.getSize();
+        }
+    }
+
+    /**
+     * 记录写入的缓存条目，已存在时更新其大小
+     *
+     * @param bookId 书籍ID
+     * @param chapterId 章节ID
+     * @param size 条目大小（字节）
+     */
+    synchronized void put(@NotNull String bookId, @NotNull String chapterId, long size) {
+        Entry previous = entries.put(key(bookId, chapterId),
+                new Entry(bookId, chapterId, size, System.currentTimeMillis()));
+        if (previous != null) {
+            totalSize -= previous.getSize();
+        }
+        totalSize += size;
+    }
+
+    /**
+     * 更新书籍中已有条目的大小，不改变淘汰顺序，不存在的条目忽略
+     * 用于段文件压缩时重新编码了章节
+     *
+     * @param bookId 书籍ID
+     * @param sizes 章节ID到新大小（字节）
+     */
+    synchronized void resize(@NotNull String bookId, @NotNull Map<String, Integer> sizes) {
+        // 按访问排序的 LinkedHashMap 查找会移动条目，遍历则不会
+        for (Entry entry : entries.values()) {
+            if (entry.getBookId().equals(bookId)) {
+                Integer size = sizes.get(entry.getChapterId());
+                if (size != null) {
+                    totalSize += size - entry.size;
+                    entry.size = size;
+                }
+            }
+        }
+    }
+
+    /**
+     * 标记条目被访问，将其移动到最近使用的位置
+     *
+     * @param bookId 书籍ID
+     * @param chapterId 章节ID
+     */
+    synchronized void touch(@NotNull String bookId, @NotNull String chapterId) {
+        Entry entry = entries.get(key(bookId, chapterId));
+        if (entry != null) {
+            entry.lastAccessTime = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * 移除单个条目
+     *
+     * @param bookId 书籍ID
+     * @param chapterId 章节ID
+     */
+    synchronized void remove(@NotNull String bookId, @NotNull String chapterId) {
+        Entry removed = entries.remove(key(bookId, chapterId));
+        if (removed != null) {
+            totalSize -= removed.getSize();
+        }
+    }
+
+    /**
+     * 移除指定书籍的所有条目
+     *
+     * @param bookId 书籍ID
+     */
+    synchronized void removeBook(@NotNull String bookId) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Entry> next = iterator.next();
+            if (next.getValue().getBookId().equals(bookId)) {
+                totalSize -= next.getValue().getSize();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * 清空索引
+     */
+    synchronized void clear() {
+        entries.clear();
+        totalSize = 0;
+    }
+
+    /**
+     * 当总大小超过限制时，弹出最久未使用的条目
+     * 调用方负责删除对应的缓存内容
+     *
+     * @param maxSize 最大缓存大小（字节）
+     * @return 需要淘汰的条目，未超过限制时返回null
+     */
+    @Nullable
+    synchronized Entry pollEldestIfOver(long maxSize) {
+        if (totalSize <= maxSize || entries.isEmpty()) {
+            return null;
+        }
+        Iterator<Entry> iterator = entries.values().iterator();
+        Entry eldest = iterator.next();
+        iterator.remove();
+        totalSize -= eldest.getSize();
+        evictionCount.incrementAndGet();
+        return eldest;
+    }
+
+    void recordHit() {
+        hitCount.incrementAndGet();
+    }
+
+    void recordMiss() {
+        missCount.incrementAndGet();
+    }
+
+    synchronized long getTotalSize() {
+        return totalSize;
+    }
+
+    @NotNull
+    synchronized ChapterCacheManager.CacheStats toStats() {
+        return new ChapterCacheManager.CacheStats(entries.size(), totalSize,
+                hitCount.get(), missCount.get(), evictionCount.get());
+    }
+
+    private static String key(String bookId, String chapterId) {
+        return bookId + '\n' + chapterId;
+    }
+
+    /**
+     * 索引条目
+     */
+    static final class Entry {
+        private final String bookId;
+        private final String chapterId;
+        /**
+         * 只在索引的锁内修改
+         */
+        private long size;
+        private volatile long lastAccessTime;
+
+        Entry(@NotNull String bookId, @NotNull String chapterId, long size, long lastAccessTime) {
+            this.bookId = bookId;
+            this.chapterId = chapterId;
+            this.size = size;
+            this.lastAccessTime = lastAccessTime;
+        }
+
+        @NotNull
+        String getBookId() {
+            return bookId;
+        }
+
+        @NotNull
+        String getChapterId() {
+            return chapterId;
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        long getLastAccessTime() {
+            return lastAccessTime;
+        }
+    }
+}
@@ -11,11 +11,12 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.stream.Stream;
 import java.util.concurrent.TimeUnit;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -26,6 +27,12 @@ import java.nio.charset.StandardCharsets;
  * - 获取缓存的章节内容
  * - 清理过期缓存
  * - 管理缓存大小
+ *
+ * 章节内容保存在 {@link ChapterSegmentStore} 的每本书一个的段文件中，
+ * 旧版本“一章一个文件”的缓存在首次读取时迁移到段文件。
+ * 缓存大小和淘汰顺序由内存中的 {@link CacheEvictionIndex} 维护，
+ * 索引在首次使用时由段文件索引建立，之后随写入、删除和清理增量更新；
+ * 写入、压缩时重新编码和丢弃损坏记录引起的变化由段文件回调通知。
  */
 @Service(Service.Level.APP)
 public final class ChapterCacheManager {
@@ -34,11 +41,35 @@ public final class ChapterCacheManager {
     private final StorageManager storageManager;
     private static final long MAX_CACHE_AGE_MILLIS = TimeUnit.DAYS.toMillis(7); // 默认缓存7天
     private static final long MIN_FREE_SPACE_MB = 100; // 最小剩余空间(MB)
+    private final ChapterSegmentStore segmentStore;
+    private final CacheEvictionIndex evictionIndex = new CacheEvictionIndex();
+    /**
+     * 建立淘汰索引时持有，不能用淘汰索引自身的锁：段文件在自己的锁内回调淘汰索引
+     */
+    private final Object indexLoadLock = new Object();
+    private volatile boolean indexLoaded = false;
 
     public ChapterCacheManager() {
         LOG.info("初始化应用级别的 ChapterCacheManager");
         this.storageManager = ApplicationManager.getApplication().getService(StorageManager.class);
         this.cacheDir = Path.of(storageManager.getCachePath());
+        this.segmentStore = new ChapterSegmentStore(cacheDir);
+        this.segmentStore.setRecordListener(new ChapterSegmentStore.RecordListener() {
+            @Override
+            public void recordWritten(@NotNull String bookId, @NotNull String chapterId, int size) {
+                evictionIndex.put(bookId, chapterId, size);
+            }
+
+            @Override
+            public void recordsResized(@NotNull String bookId, @NotNull Map<String, Integer> sizes) {
+                evictionIndex.resize(bookId, sizes);
+            }
+
+            @Override
+            public void recordDropped(@NotNull String bookId, @NotNull String chapterId) {
+                evictionIndex.remove(bookId, chapterId);
+            }
+        });
         // 不再在启动时清理缓存
         // cleanupCache();
     }
@@ -54,20 +85,54 @@ public final class ChapterCacheManager {
     public String getCachedContent(String bookId, String chapterId) {
         if (!isCacheEnabled()) return null;
 
-        Path cachePath = getCachePath(bookId, chapterId);
-        if (!Files.exists(cachePath)) return null;
+        ChapterSegmentStore.StoredChapter stored = readChapter(bookId, chapterId);
+        // 检查缓存是否过期，不删除过期内容，只返回null表示需要重新获取
+        if (stored == null || isExpired(stored.timestamp())) {
+            evictionIndex.recordMiss();
+            return null;
+        }
+        evictionIndex.touch(bookId, chapterId);
+        evictionIndex.recordHit();
+        return stored.content();
+    }
 
-        try {
-            // 检查缓存是否过期
-            if (isExpired(bookId, chapterId)) {
-                // 不删除过期内容，只返回null表示需要重新获取
-                return null;
+    /**
+     * 检查章节是否有未过期的缓存
+     * 只查段文件的内存索引，不读取内容，不计入命中统计，也不改变淘汰顺序，
+     * 供预加载判断是否需要请求章节
+     *
+     * @param bookId 书籍ID
+     * @param chapterId 章节ID
+     * @return 是否已缓存
+     */
+    public boolean isCached(String bookId, String chapterId) {
+        if (!isCacheEnabled()) return false;
+
+        long timestamp = segmentStore.timestampOf(bookId, chapterId);
+        if (timestamp < 0) {
+            Path legacyPath = getLegacyCachePath(bookId, chapterId);
+            try {
+                timestamp = Files.exists(legacyPath) ? Files.getLastModifiedTime(legacyPath).toMillis() : -1;
+            } catch (IOException e) {
+                return false;
             }
-            return Files.readString(cachePath, StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            LOG.warn("读取缓存失败: " + cachePath + ", 错误: " + e.getMessage());
-            return null;
         }
+        return timestamp >= 0 && !isExpired(timestamp);
+    }
+
+    /**
+     * 读取未过期的缓存内容，不计入命中统计，也不改变淘汰顺序
+     * 用于预加载器通知已缓存的章节，避免预加载的探测影响统计和淘汰
+     *
+     * @param bookId 书籍ID
+     * @param chapterId 章节ID
+     * @return 缓存的章节内容，如果不存在或已过期则返回null
+     */
+    public String peekCachedContent(String bookId, String chapterId) {
+        if (!isCacheEnabled()) return null;
+
+        ChapterSegmentStore.StoredChapter stored = readChapter(bookId, chapterId);
+        return stored == null || isExpired(stored.timestamp()) ? null : stored.content();
     }
 
     /**
@@ -81,15 +146,10 @@ public final class ChapterCacheManager {
     public String getFallbackCachedContent(String bookId, String chapterId) {
         if (!isCacheEnabled()) return null;
 
-        Path cachePath = getCachePath(bookId, chapterId);
-        if (!Files.exists(cachePath)) return null;
-
-        try {
-            return Files.readString(cachePath, StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            LOG.warn("读取备用缓存失败: " + cachePath + ", 错误: " + e.getMessage());
-            return null;
-        }
+        ChapterSegmentStore.StoredChapter stored = readChapter(bookId, chapterId);
+        if (stored == null) return null;
+        evictionIndex.touch(bookId, chapterId);
+        return stored.content();
     }
 
     /**
@@ -103,13 +163,14 @@ public final class ChapterCacheManager {
         if (!isCacheEnabled()) return;
 
         try {
+            ensureIndexLoaded();
+            // 写入新缓存，启用压缩时记录的是压缩后的大小，同样的缓存上限可以容纳更多章节
+            segmentStore.setCompressionEnabled(getCacheSettings().isCompressCache());
+            // 淘汰索引由段文件的回调更新
+            segmentStore.write(bookId, chapterId, content);
+            LOG.debug("缓存内容已写入: " + bookId + " / " + chapterId);
             // 检查并清理缓存
             checkAndEvictCache();
-            // 写入新缓存
-            Path cachePath = getCachePath(bookId, chapterId);
-            Files.createDirectories(cachePath.getParent());
-            Files.writeString(cachePath, content, StandardCharsets.UTF_8);
-            LOG.debug("缓存内容已写入: " + cachePath);
         } catch (IOException e) {
             LOG.error("缓存内容写入失败: " + e.getMessage(), e);
         }
@@ -121,16 +182,18 @@ public final class ChapterCacheManager {
      * @param bookId 书籍ID
      */
     public void clearCache(String bookId) {
+        segmentStore.removeBook(bookId);
+        evictionIndex.removeBook(bookId);
         try {
-            Path bookCacheDir = cacheDir.resolve(bookId);
+            Path bookCacheDir = getLegacyBookDir(bookId);
             if (Files.exists(bookCacheDir)) {
                 try (Stream<Path> walk = Files.walk(bookCacheDir)) {
                     walk.sorted(Comparator.reverseOrder())
                         .map(Path::toFile)
                         .forEach(File::delete);
                 }
-                LOG.info("已清理书籍缓存: " + bookId);
             }
+            LOG.info("已清理书籍缓存: " + bookId);
         } catch (IOException e) {
             LOG.error("清理缓存失败: " + e.getMessage(), e);
         }
@@ -138,111 +201,128 @@ public final class ChapterCacheManager {
 
     /**
      * 检查并清理过期缓存
-     * 根据缓存大小限制，删除最旧的缓存文件
+     * 根据缓存大小限制，按最近最少使用顺序删除缓存条目
      */
     public void checkAndEvictCache() {
-        try {
-            long maxSize = getCacheSettings().getMaxCacheSize() * 1024L * 1024L; // 转换为字节
-            try (Stream<Path> walk = Files.walk(cacheDir)) {
-                walk.filter(Files::isRegularFile)
-                    .sorted(Comparator.comparing(this::getLastModifiedTime))
-                    .forEach(path -> {
-                        try {
-                            if (getCacheSize() > maxSize) {
-                                Files.delete(path);
-                                LOG.debug("已删除过期缓存: " + path);
-                            }
-                        } catch (IOException e) {
-                            LOG.warn("删除缓存文件失败: " + path + ", 错误: " + e.getMessage());
-                        }
-                    });
-            }
-        } catch (IOException e) {
-            LOG.error("清理缓存失败: " + e.getMessage(), e);
+        ensureIndexLoaded();
+        long maxSize = getCacheSettings().getMaxCacheSize() * 1024L * 1024L; // 转换为字节
+        CacheEvictionIndex.Entry eldest;
+        while ((eldest = evictionIndex.pollEldestIfOver(maxSize)) != null) {
+            segmentStore.remove(eldest.getBookId(), eldest.getChapterId());
+            LOG.debug("已删除过期缓存: " + eldest.getBookId() + " / " + eldest.getChapterId());
         }
     }
 
     /**
-     * 检查缓存是否启用
-     * 
-     * @return 是否启用缓存
+     * 获取缓存统计信息
+     *
+     * @return 缓存统计信息
      */
-    private boolean isCacheEnabled() {
-        return getCacheSettings().isEnableCache();
+    @NotNull
+    public CacheStats getCacheStats() {
+        ensureIndexLoaded();
+        return evictionIndex.toStats();
     }
 
     /**
-     * 检查缓存是否过期
-     * 
+     * 建立淘汰索引
+     * 读取一次段文件索引，之后由淘汰索引增量维护，可在后台线程中提前调用
+     */
+    public void loadEvictionIndex() {
+        ensureIndexLoaded();
+    }
+
+    /**
+     * 确保淘汰索引已建立
+     */
+    private void ensureIndexLoaded() {
+        if (indexLoaded) return;
+        synchronized (indexLoadLock) {
+            if (indexLoaded) return;
+            long startTime = System.currentTimeMillis();
+            List<CacheEvictionIndex.Entry> entries = new ArrayList<>();
+            for (ChapterSegmentStore.SegmentEntry entry : segmentStore.listEntries()) {
+                entries.add(new CacheEvictionIndex.Entry(entry.bookId(), entry.chapterId(),
+                        entry.size(), entry.timestamp()));
+            }
+            evictionIndex.rebuild(entries);
+            indexLoaded = true;
+            LOG.info("缓存索引已建立，条目数: " + entries.size() + "，耗时: "
+                    + (System.currentTimeMillis() - startTime) + "ms");
+        }
+    }
+
+    /**
+     * 从段文件读取章节，不存在时尝试迁移旧版本的单文件缓存
+     *
      * @param bookId 书籍ID
      * @param chapterId 章节ID
-     * @return 是否过期
+     * @return 章节内容及写入时间，不存在则返回null
      */
-    private boolean isExpired(String bookId, String chapterId) {
-        Path cachePath = getCachePath(bookId, chapterId);
-        if (!Files.exists(cachePath)) return true;
-        
+    private ChapterSegmentStore.StoredChapter readChapter(String bookId, String chapterId) {
+        ChapterSegmentStore.StoredChapter stored = segmentStore.read(bookId, chapterId);
+        if (stored != null) return stored;
+
+        Path legacyPath = getLegacyCachePath(bookId, chapterId);
+        if (!Files.exists(legacyPath)) return null;
         try {
-            // 获取文件最后修改时间
-            long lastModified = Files.getLastModifiedTime(cachePath).toMillis();
-            // 获取缓存过期时间设置
-            int expirationDays = getCacheSettings().getMaxCacheAge();
-            // 计算过期时间
-            long expirationTime = lastModified + TimeUnit.DAYS.toMillis(expirationDays);
-            
-            return System.currentTimeMillis() > expirationTime;
+            String content = Files.readString(legacyPath, StandardCharsets.UTF_8);
+            long timestamp = Files.getLastModifiedTime(legacyPath).toMillis();
+            ensureIndexLoaded();
+            segmentStore.setCompressionEnabled(getCacheSettings().isCompressCache());
+            segmentStore.write(bookId, chapterId, content, timestamp);
+            Files.deleteIfExists(legacyPath);
+            LOG.debug("已迁移旧缓存文件到段文件: " + legacyPath);
+            return new ChapterSegmentStore.StoredChapter(content, timestamp);
         } catch (IOException e) {
-            LOG.warn("检查缓存过期失败: " + cachePath + ", 错误: " + e.getMessage());
-            return true;
+            LOG.warn("读取缓存失败: " + legacyPath + ", 错误: " + e.getMessage());
+            return null;
         }
     }
 
     /**
-     * 获取当前缓存总大小
+     * 检查缓存是否启用
      * 
-     * @return 缓存总大小（字节）
+     * @return 是否启用缓存
      */
-    private long getCacheSize() throws IOException {
-        try (Stream<Path> walk = Files.walk(cacheDir)) {
-            return walk.filter(Files::isRegularFile)
-                .mapToLong(path -> {
-                    try {
-                        return Files.size(path);
-                    } catch (IOException e) {
-                        LOG.warn("获取文件大小失败: " + path + ", 错误: " + e.getMessage());
-                        return 0L;
-                    }
-                })
-                .sum();
-        }
+    private boolean isCacheEnabled() {
+        return getCacheSettings().isEnableCache();
     }
 
     /**
-     * 获取文件最后修改时间
+     * 检查缓存是否过期
      * 
-     * @param path 文件路径
-     * @return 最后修改时间（毫秒）
+     * @param timestamp 缓存写入时间（毫秒）
+     * @return 是否过期
      */
-    private long getLastModifiedTime(Path path) {
-        try {
-            return Files.getLastModifiedTime(path).toMillis();
-        } catch (IOException e) {
-            LOG.warn("获取文件修改时间失败: " + path + ", 错误: " + e.getMessage());
-            return 0L;
-        }
+    private boolean isExpired(long timestamp) {
+        // 获取缓存过期时间设置
+        int expirationDays = getCacheSettings().getMaxCacheAge();
+        // 计算过期时间
+        long expirationTime = timestamp + TimeUnit.DAYS.toMillis(expirationDays);
+        return System.currentTimeMillis() > expirationTime;
     }
 
     /**
-     * 获取缓存文件路径
+     * 获取旧版本缓存文件路径
      * 
      * @param bookId 书籍ID
      * @param chapterId 章节ID
      * @return 缓存文件路径
      */
-    private Path getCachePath(String bookId, String chapterId) {
-        String safeBookId = StorageManager.getSafeFileName(bookId);
+    private Path getLegacyCachePath(String bookId, String chapterId) {
         String safeFileName = StorageManager.getCacheFileName(chapterId);
-        return cacheDir.resolve(safeBookId).resolve(safeFileName);
+        return getLegacyBookDir(bookId).resolve(safeFileName);
+    }
+
+    /**
+     * 获取旧版本书籍缓存目录
+     *
+     * @param bookId 书籍ID
+     * @return 书籍缓存目录
+     */
+    private Path getLegacyBookDir(String bookId) {
+        return cacheDir.resolve(StorageManager.getSafeFileName(bookId));
     }
 
     /**
@@ -260,6 +340,8 @@ public final class ChapterCacheManager {
      */
     public void clearAllCache() {
         try {
+            segmentStore.clear();
+            evictionIndex.clear();
             if (Files.exists(cacheDir)) {
                 try (Stream<Path> walk = Files.walk(cacheDir)) {
                     walk.sorted(Comparator.reverseOrder())
@@ -318,10 +400,20 @@ public final class ChapterCacheManager {
      * 删除过期缓存
      */
     private void deleteExpiredCache() {
-        try {
-            long now = System.currentTimeMillis();
-            Files.walk(cacheDir)
-                .filter(Files::isRegularFile)
+        long now = System.currentTimeMillis();
+        ensureIndexLoaded();
+        for (ChapterSegmentStore.SegmentEntry entry : segmentStore.listEntries()) {
+            if ((now - entry.timestamp()) > MAX_CACHE_AGE_MILLIS
+                    && segmentStore.remove(entry.bookId(), entry.chapterId())) {
+                evictionIndex.remove(entry.bookId(), entry.chapterId());
+                LOG.debug("删除过期缓存: " + entry.bookId() + " / " + entry.chapterId());
+            }
+        }
+
+        // 旧版本的单文件缓存位于书籍子目录中
+        try (Stream<Path> walk = Files.walk(cacheDir)) {
+            walk.filter(Files::isRegularFile)
+                .filter(p -> !cacheDir.equals(p.getParent()))
                 .filter(p -> {
                     try {
                         long lastModified = Files.getLastModifiedTime(p).toMillis();
@@ -344,36 +436,30 @@ public final class ChapterCacheManager {
     }
 
     /**
-     * 删除旧缓存文件直到空间足够
+     * 删除旧缓存直到空间足够
+     * 每轮按剩余空间的缺口计算淘汰目标：缓存大小（不超过上限）减去缺口，只淘汰缺少的部分。
+     * 段文件中的删除只写入删除标记，每批淘汰后立即压缩以释放磁盘空间。
+     * 压缩需要容纳有效记录副本的空间，空间不够的段文件本轮跳过，下一轮按新的缺口继续淘汰后再压缩
      */
     private void deleteOldCache() {
-        try {
-            // 获取所有缓存文件并按修改时间排序
-            List<Path> cacheFiles = Files.walk(cacheDir)
-                .filter(Files::isRegularFile)
-                .sorted((p1, p2) -> {
-                    try {
-                        return Files.getLastModifiedTime(p1).compareTo(Files.getLastModifiedTime(p2));
-                    } catch (IOException e) {
-                        return 0;
-                    }
-                })
-                .collect(Collectors.toList());
-
-            // 从最旧的文件开始删除，直到空间足够
-            for (Path file : cacheFiles) {
-                if (cacheDir.toFile().getFreeSpace() / (1024 * 1024) >= MIN_FREE_SPACE_MB) {
-                    break;
-                }
-                try {
-                    Files.delete(file);
-                    LOG.debug("删除旧缓存: " + file);
-                } catch (IOException e) {
-                    LOG.warn("删除旧缓存失败: " + file, e);
-                }
+        ensureIndexLoaded();
+        long maxSize = getCacheSettings().getMaxCacheSize() * 1024L * 1024L;
+        long minFreeSpace = MIN_FREE_SPACE_MB * 1024L * 1024L;
+        long shortfall;
+        // 从最久未使用的条目开始删除，直到空间足够
+        while ((shortfall = minFreeSpace - cacheDir.toFile().getFreeSpace()) > 0) {
+            long target = Math.max(0, Math.min(evictionIndex.getTotalSize(), maxSize) - shortfall);
+            CacheEvictionIndex.Entry eldest;
+            int evicted = 0;
+            while ((eldest = evictionIndex.pollEldestIfOver(target)) != null) {
+                segmentStore.remove(eldest.getBookId(), eldest.getChapterId());
+                evicted++;
             }
-        } catch (IOException e) {
-            LOG.error("删除旧缓存失败", e);
+            if (evicted == 0) {
+                break;
+            }
+            segmentStore.compactAll();
+            LOG.debug("已删除旧缓存条目: " + evicted + "，剩余空间缺口: " + shortfall + " 字节");
         }
     }
 
@@ -384,17 +470,28 @@ public final class ChapterCacheManager {
     public void cleanupBookCache(String bookId) {
         if (bookId == null || bookId.isEmpty()) return;
         
-        Path bookCacheDir = cacheDir.resolve(bookId);
-        if (!Files.exists(bookCacheDir)) return;
-        
-        try {
-            Files.walk(bookCacheDir)
-                .sorted(Comparator.reverseOrder())
-                .map(Path::toFile)
-                .forEach(File::delete);
-            LOG.info("清理书籍缓存完成: " + bookId);
-        } catch (IOException e) {
-            LOG.error("清理书籍缓存失败: " + bookId, e);
+        clearCache(bookId);
+        LOG.info("清理书籍缓存完成: " + bookId);
+    }
+
+    /**
+     * 缓存统计信息
+     *
+     * @param entryCount    缓存条目数
+     * @param totalSize     缓存总大小（字节）
+     * @param hitCount      命中次数
+     * @param missCount     未命中次数
+     * @param evictionCount 淘汰次数
+     */
+    public record CacheStats(int entryCount, long totalSize, long hitCount, long missCount, long evictionCount) {
+        /**
+         * 获取命中率
+         *
+         * @return 命中率（0-1）
+         */
+        public double hitRate() {
+            long total = hitCount + missCount;
+            return total == 0 ? 0.0 : (double) hitCount / total;
         }
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
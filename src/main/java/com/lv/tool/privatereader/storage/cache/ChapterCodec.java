@@ -0,0 +1,245 @@
+package com.lv.tool.privatereader.storage.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 章节内容编解码器
+ *
+ * 段文件中的每条内容以一个字节的编码标识开头：
+ * - RAW：UTF-8原文
+ * - DEFLATE：[原文长度][Deflate数据]
+ * - DEFLATE_DICT：[字典ID][原文长度][Deflate数据]，使用书籍的预置字典压缩
+ *
+ * 网文章节通常重复站点模板、广告语和固定的段落格式，
+ * 从同一本书的前几章训练出的预置字典能显著提高短章节的压缩率。
+ */
+final class ChapterCodec {
+    static final byte RAW = 0;
+    static final byte DEFLATE = 1;
+    static final byte DEFLATE_DICT = 2;
+
+    /**
+     * Deflate的回溯窗口为32KB，更大的字典没有意义
+     */
+    static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+    private static final int MIN_COMPRESS_SIZE = 256;
+    private static final int MIN_LINE_LENGTH = 4;
+    private static final int MAX_LINE_LENGTH = 200;
+
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+    private ChapterCodec() {
+    }
+
+    /**
+     * 不压缩，直接编码为UTF-8
+     *
+     * @param content 章节内容
+     * @return 编码后的内容
+     */
+    @NotNull
+    static byte[] encodeRaw(@NotNull String content) {
+        byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+        byte[] encoded = new byte[raw.length + 1];
+        encoded[0] = RAW;
+        System.arraycopy(raw, 0, encoded, 1, raw.length);
+        return encoded;
+    }
+
+    /**
+     * 压缩章节内容，压缩后没有变小时保留原文
+     *
+     * @param content 章节内容
+     * @param dictionary 预置字典，可为null
+     * @param dictionaryId 字典ID
+     * @return 编码后的内容
+     */
+    @NotNull
+    static byte[] encode(@NotNull String content, @Nullable byte[] dictionary, int dictionaryId) {
+        byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+        if (raw.length < MIN_COMPRESS_SIZE) {
+            return encodeRaw(content);
+        }
+
+        Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        if (dictionary != null) {
+            deflater.setDictionary(dictionary);
+        }
+        deflater.setInput(raw);
+        deflater.finish();
+
+        int headerSize = dictionary != null ? 9 : 5;
+        byte[] buffer = new byte[headerSize + raw.length / 2 + 64];
+        int length = headerSize;
+        while (!deflater.finished()) {
+            if (length == buffer.length) {
+                if (buffer.length >= raw.length + 1) {
+                    // 压缩后没有变小
+                    return encodeRaw(content);
+                }
+                buffer = Arrays.copyOf(buffer, Math.min(buffer.length * 2, raw.length + 1));
+            }
+            length += deflater.deflate(buffer, length, buffer.length - length);
+        }
+        if (length >= raw.length + 1) {
+            return encodeRaw(content);
+        }
+
+        ByteBuffer header = ByteBuffer.wrap(buffer, 0, headerSize);
+        if (dictionary != null) {
+            header.put(DEFLATE_DICT).putInt(dictionaryId).putInt(raw.length);
+        } else {
+            header.put(DEFLATE).putInt(raw.length);
+        }
+        return Arrays.copyOf(buffer, length);
+    }
+
+    /**
+     * 解码章节内容
+     *
+     * @param payload 编码后的内容
+     * @param dictionary 书籍的预置字典，可为null
+     * @param dictionaryId 字典ID
+     * @return 章节内容
+     * @throws IOException 内容损坏或字典不匹配时抛出
+     */
+    @NotNull
+    static String decode(@NotNull byte[] payload, @Nullable byte[] dictionary, int dictionaryId) throws IOException {
+        if (payload.length == 0) {
+            throw new IOException("内容为空");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        byte codec = buffer.get();
+        switch (codec) {
+            case RAW:
+                return new String(payload, 1, payload.length - 1, StandardCharsets.UTF_8);
+            case DEFLATE:
+                return inflate(payload, buffer.position() + 4, buffer.getInt(), null);
+            case DEFLATE_DICT:
+                int id = buffer.getInt();
+                if (dictionary == null || id != dictionaryId) {
+                    throw new IOException("压缩字典不匹配: " + id);
+                }
+                return inflate(payload, buffer.position() + 4, buffer.getInt(), dictionary);
+            default:
+                throw new IOException("未知的编码类型: " + codec);
+        }
+    }
+
+    /**
+     * 获取内容的编码类型
+     */
+    static byte codecOf(@NotNull byte[] payload) {
+        return payload.length == 0 ? RAW : payload[0];
+    }
+
+    /**
+     * 计算字典ID
+     */
+    static int dictionaryId(@NotNull byte[] dictionary) {
+        CRC32 crc = new CRC32();
+        crc.update(dictionary);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * 从样本章节训练预置字典
+     *
+     * 在多个样本中重复出现的行（站点名、翻页提示、广告语等）按出现次数排在字典末尾，
+     * 剩余空间用最后一个样本的正文填充，提供常用词汇。
+     * Deflate对字典末尾的内容引用距离最短，因此最常见的内容放在最后。
+     *
+     * @param samples 样本章节内容
+     * @return 预置字典
+     */
+    @NotNull
+    static byte[] trainDictionary(@NotNull List<String> samples) {
+        Map<String, Integer> lineCounts = new HashMap<>();
+        for (String sample : samples) {
+            Set<String> seen = new HashSet<>();
+            for (String line : sample.split("\n")) {
+                String trimmed = line.trim();
+                if (trimmed.length() >= MIN_LINE_LENGTH && trimmed.length() <= MAX_LINE_LENGTH && seen.add(trimmed)) {
+                    lineCounts.merge(trimmed, 1, Integer::sum);
+                }
+            }
+        }
+
+        List<Map.Entry<String, Integer>> repeated = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : lineCounts.entrySet()) {
+            if (entry.getValue() >= 2) {
+                repeated.add(entry);
+            }
+        }
+        // 按节省的字节数升序，使收益最大的行位于字典末尾
+        repeated.sort((a, b) -> Long.compare(
+                (long) a.getValue() * a.getKey().length(), (long) b.getValue() * b.getKey().length()));
+
+        StringBuilder tail = new StringBuilder();
+        for (int i = repeated.size() - 1; i >= 0; i--) {
+            String line = repeated.get(i).getKey();
+            if ((tail.length() + line.length() + 1) * 3 > MAX_DICTIONARY_SIZE / 2) {
+                break;
+            }
+            tail.insert(0, line + "\n");
+        }
+
+        byte[] tailBytes = tail.toString().getBytes(StandardCharsets.UTF_8);
+        int fillSize = MAX_DICTIONARY_SIZE - tailBytes.length;
+        byte[] fill = samples.isEmpty() ? new byte[0] : samples.get(samples.size() - 1).getBytes(StandardCharsets.UTF_8);
+        int fillLength = Math.min(fillSize, fill.length);
+
+        byte[] dictionary = new byte[fillLength + tailBytes.length];
+        System.arraycopy(fill, 0, dictionary, 0, fillLength);
+        System.arraycopy(tailBytes, 0, dictionary, fillLength, tailBytes.length);
+        return dictionary;
+    }
+
+    private static String inflate(byte[] payload, int offset, int rawLength, @Nullable byte[] dictionary) throws IOException {
+        Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(payload, offset, payload.length - offset);
+        byte[] raw = new byte[rawLength];
+        int length = 0;
+        try {
+            while (length < rawLength) {
+                int inflated = inflater.inflate(raw, length, rawLength - length);
+                if (inflated == 0) {
+                    if (inflater.needsDictionary()) {
+                        if (dictionary == null) {
+                            throw new IOException("缺少压缩字典");
+                        }
+                        inflater.setDictionary(dictionary);
+                    } else if (inflater.finished() || inflater.needsInput()) {
+                        break;
+                    }
+                }
+                length += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("解压内容失败: " + e.getMessage(), e);
+        }
+        if (length != rawLength) {
+            throw new IOException("解压内容长度不一致: " + length + " != " + rawLength);
+        }
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,1074 @@
+package com.lv.tool.privatereader.storage.cache;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.lv.tool.privatereader.async.ReactiveSchedulers;
+import com.lv.tool.privatereader.storage.StorageManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * 章节分段存储
+ *
+ * 每本书使用一个只追加的段文件保存所有缓存章节，替代“一章一个文件”的缓存方式：
+ * - 记录格式：[键长度][键][时间戳][内容长度][CRC32][内容]，内容长度为-1表示删除标记
+ * - 打开段文件时顺序扫描记录头，在内存中建立章节ID到记录偏移的索引
+ * - 读取通过 MappedByteBuffer 完成，不再需要逐章打开、检查和读取文件；映射之后新追加的少量记录直接从文件读取
+ * - 被覆盖或删除的记录超过阈值后，在后台调度器上压缩为新一代段文件
+ * - 内容经 {@link ChapterCodec} 编码，启用压缩时使用 Deflate 和每本书训练出的预置字典
+ *
+ * 每本书写入的前几章作为样本训练预置字典，字典作为一条特殊记录保存在段文件中，
+ * 训练完成后在下次压缩时用字典重新编码已有章节。
+ * 旧版本（内容未编码）的段文件在打开时直接重写为当前格式。
+ *
+ * 段文件名为 {@code <安全书籍ID>.<代数>.seg}。压缩时先把新一代写入 {@code .seg.tmp} 临时文件，
+ * 同步到磁盘后再原子重命名为正式文件，只有 {@code .seg} 文件会被打开，中途崩溃留下的临时文件
+ * 在下次打开时删除；重命名完成后才切换到新一代并删除旧文件，旧文件删除失败（例如仍被映射）时
+ * 会在下次打开时清理。磁盘剩余空间不足以容纳有效记录的副本时跳过压缩。
+ *
+ * 章节写入、压缩时重新编码和丢弃损坏的记录都通过 {@link RecordListener} 通知外部维护的缓存大小统计，
+ * 通知在段文件的锁内发出，与压缩的先后顺序一致。
+ */
+public final class ChapterSegmentStore {
+    private static final Logger LOG = Logger.getInstance(ChapterSegmentStore.class);
+    private static final String SEGMENT_SUFFIX = ".seg";
+    /**
+     * 压缩中的新一代段文件后缀，重命名为正式文件前不会被打开
+     */
+    private static final String PARTIAL_SUFFIX = SEGMENT_SUFFIX + ".tmp";
+    private static final int MAGIC = 0x50525347; // "PRSG"
+    private static final int FORMAT_VERSION = 2;
+    /**
+     * 保存预置字典的记录键，章节ID不会以NUL字符开头
+     */
+    private static final String DICTIONARY_KEY = "\u0000dictionary";
+    private static final int TRAINING_SAMPLES = 4;
+    private static final int MAX_SAMPLE_LENGTH = 16 * 1024;
+    private static final int TOMBSTONE = -1;
+    private static final int RECORD_FIXED_SIZE = 4 + 8 + 4 + 4; // 键长度 + 时间戳 + 内容长度 + CRC32
+    /**
+     * 映射区域之后追加的数据达到该大小时才重新映射，较少的部分直接从文件读取
+     */
+    private static final long REMAP_MIN_TAIL_BYTES = 4 * 1024 * 1024;
+    private static final long COMPACT_MIN_GARBAGE_BYTES = 1024 * 1024; // 至少1MB可回收空间才压缩
+    private static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+    /**
+     * 压缩时除有效记录外额外保留的磁盘空间
+     */
+    private static final long COMPACT_FREE_SPACE_MARGIN = 1024 * 1024;
+
+    private final Path rootDir;
+    private final Map<String, Segment> segments = new ConcurrentHashMap<>();
+    /**
+     * 磁盘上存在段文件的书籍文件名前缀，首次使用时扫描一次目录，避免未缓存书籍的每次读取都列目录
+     */
+    private volatile Set<String> knownBaseNames;
+    private volatile boolean compressionEnabled = true;
+    @Nullable
+    private volatile RecordListener recordListener;
+
+    public ChapterSegmentStore(@NotNull Path rootDir) {
+        this.rootDir = rootDir;
+    }
+
+    /**
+     * 设置章节写入、记录大小变化和记录丢弃的回调
+     *
+     * @param listener 回调，为null时不通知
+     */
+    public void setRecordListener(@Nullable RecordListener listener) {
+        this.recordListener = listener;
+    }
+
+    /**
+     * 设置新写入的章节是否压缩，已写入的章节不受影响，读取时总能正确解码
+     *
+     * @param enabled 是否压缩
+     */
+    public void setCompressionEnabled(boolean enabled) {
+        this.compressionEnabled = enabled;
+    }
+
+    public boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    /**
+     * 读取章节内容
+     *
+     * @param bookId 书籍ID
+     * @param chapterId 章节ID
+     * @return 章节内容及写入时间，不存在时返回null
+     */
+    @Nullable
+    public StoredChapter read(String bookId, String chapterId) {
+        Segment segment = getSegment(bookId, false);
+        if (segment == null) return null;
+        try {
+            return segment.read(chapterId);
+        } catch (IOException e) {
+            LOG.warn("读取段文件失败: " + segment.file + ", 错误: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 查询章节的写入时间，只查内存索引，不读取内容
+     *
+     * @param bookId 书籍ID
+     * @param chapterId 章节ID
+     * @return 写入时间（毫秒），不存在时返回-1
+     */
+    public long timestampOf(String bookId, String chapterId) {
+        Segment segment = getSegment(bookId, false);
+        return segment == null ? -1 : segment.timestampOf(chapterId);
+    }
+
+    /**
+     * 写入章节内容，覆盖已存在的同名章节
+     *
+     * @param bookId 书籍ID
+     * @param chapterId 章节ID
+     * @param content 章节内容
+     * @return 写入的记录大小（字节）
+     */
+    public int write(String bookId, String chapterId, String content) throws IOException {
+        return write(bookId, chapterId, content, System.currentTimeMillis());
+    }
+
+    /**
+     * 使用指定时间戳写入章节内容，用于迁移旧缓存时保留原有的写入时间
+     *
+     * @param bookId 书籍ID
+     * @param chapterId 章节ID
+     * @param content 章节内容
+     * @param timestamp 写入时间（毫秒）
+     * @return 写入的记录大小（字节）
+     */
+    public int write(String bookId, String chapterId, String content, long timestamp) throws IOException {
+        Segment segment = getSegment(bookId, true);
+        if (segment == null) {
+            throw new IOException("无法打开段文件: " + bookId);
+        }
+        int size = segment.append(chapterId, content, timestamp);
+        scheduleCompactionIfNeeded(segment);
+        return size;
+    }
+
+    /**
+     * 删除章节，写入删除标记，空间在压缩时回收
+     *
+     * @param bookId 书籍ID
+     * @param chapterId 章节ID
+     * @return 章节是否存在
+     */
+    public boolean remove(String bookId, String chapterId) {
+        Segment segment = getSegment(bookId, false);
+        if (segment == null) return false;
+        try {
+            boolean removed = segment.remove(chapterId);
+            scheduleCompactionIfNeeded(segment);
+            return removed;
+        } catch (IOException e) {
+            LOG.warn("写入删除标记失败: " + segment.file + ", 错误: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 删除早于指定时间写入的章节
+     *
+     * @param bookId 书籍ID，为null时处理所有书籍
+     * @param cutoffMillis 截止时间（毫秒）
+     * @return 删除的章节数
+     */
+    public int removeOlderThan(@Nullable String bookId, long cutoffMillis) {
+        int removed = 0;
+        for (SegmentEntry entry : bookId == null ? listEntries() : listEntries(bookId)) {
+            if (entry.timestamp() < cutoffMillis && remove(entry.bookId(), entry.chapterId())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 删除书籍的段文件
+     *
+     * @param bookId 书籍ID
+     */
+    public void removeBook(String bookId) {
+        Segment segment = segments.remove(bookId);
+        if (segment != null) {
+            segment.close();
+        }
+        String baseName = StorageManager.getSafeFileName(bookId);
+        getKnownBaseNames().remove(baseName);
+        deleteSegmentFiles(baseName);
+    }
+
+    /**
+     * 关闭并删除所有段文件
+     */
+    public void clear() {
+        close();
+        getKnownBaseNames().clear();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(rootDir,
+                "*{" + SEGMENT_SUFFIX + "," + PARTIAL_SUFFIX + "}")) {
+            for (Path file : stream) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            LOG.warn("删除段文件失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 关闭所有已打开的段文件
+     */
+    public void close() {
+        for (Iterator<Segment> it = segments.values().iterator(); it.hasNext(); ) {
+            it.next().close();
+            it.remove();
+        }
+    }
+
+    /**
+     * 列出所有书籍的章节条目，必要时打开目录下的所有段文件
+     *
+     * @return 章节条目列表
+     */
+    @NotNull
+    public List<SegmentEntry> listEntries() {
+        List<SegmentEntry> entries = new ArrayList<>();
+        if (!Files.isDirectory(rootDir)) return entries;
+        Set<String> seen = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(rootDir, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                String bookId = readBookId(file);
+                if (bookId != null && seen.add(bookId)) {
+                    entries.addAll(listEntries(bookId));
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("列出段文件失败: " + e.getMessage());
+        }
+        return entries;
+    }
+
+    /**
+     * 列出指定书籍的章节条目
+     *
+     * @param bookId 书籍ID
+     * @return 章节条目列表
+     */
+    @NotNull
+    public List<SegmentEntry> listEntries(String bookId) {
+        Segment segment = getSegment(bookId, false);
+        return segment == null ? new ArrayList<>() : segment.entries();
+    }
+
+    /**
+     * 获取所有已打开段文件中有效记录的总大小
+     *
+     * @return 有效记录总大小（字节）
+     */
+    public long getLiveSize() {
+        long total = 0;
+        for (Segment segment : segments.values()) {
+            synchronized (segment) {
+                total += segment.liveBytes;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 立即压缩所有存在可回收空间的段文件
+     * 有效记录少的段文件先压缩，需要的临时空间最少，释放的空间可供后面的段文件使用
+     */
+    public void compactAll() {
+        List<Segment> ordered = new ArrayList<>(segments.values());
+        ordered.sort(Comparator.comparingLong(segment -> {
+            synchronized (segment) {
+                return segment.liveBytes;
+            }
+        }));
+        for (Segment segment : ordered) {
+            try {
+                segment.compact();
+            } catch (IOException e) {
+                LOG.warn("压缩段文件失败: " + segment.file + ", 错误: " + e.getMessage());
+            }
+        }
+    }
+
+    private void scheduleCompactionIfNeeded(Segment segment) {
+        if (!segment.needsCompaction()) return;
+        synchronized (segment) {
+            if (segment.compactionScheduled) return;
+            segment.compactionScheduled = true;
+        }
+        ReactiveSchedulers.getInstance().background().schedule(() -> {
+            try {
+                segment.compact();
+            } catch (IOException e) {
+                LOG.warn("后台压缩段文件失败: " + segment.file + ", 错误: " + e.getMessage());
+            } finally {
+                synchronized (segment) {
+                    segment.compactionScheduled = false;
+                }
+            }
+        });
+    }
+
+    @Nullable
+    private Segment getSegment(String bookId, boolean create) {
+        Segment segment = segments.get(bookId);
+        if (segment != null) return segment;
+        String baseName = StorageManager.getSafeFileName(bookId);
+        if (!create && !getKnownBaseNames().contains(baseName)) return null;
+        synchronized (segments) {
+            segment = segments.get(bookId);
+            if (segment != null) return segment;
+            try {
+                segment = openSegment(bookId, baseName, create);
+            } catch (IOException e) {
+                LOG.error("打开段文件失败: " + bookId + ", 错误: " + e.getMessage(), e);
+                return null;
+            }
+            if (segment != null) {
+                segments.put(bookId, segment);
+                getKnownBaseNames().add(baseName);
+                scheduleCompactionIfNeeded(segment);
+            }
+            return segment;
+        }
+    }
+
+    @Nullable
+    private Segment openSegment(String bookId, String baseName, boolean create) throws IOException {
+        List<Path> files = findSegmentFiles(rootDir, baseName);
+        if (files.isEmpty() && !create) {
+            return null;
+        }
+        Segment segment = new Segment(bookId, baseName);
+        if (files.isEmpty()) {
+            Files.createDirectories(rootDir);
+            segment.createGeneration(0);
+            return segment;
+        }
+        // 只保留最新一代，删除压缩时未能删除的旧文件和未完成的临时文件
+        deletePartialFiles(baseName);
+        for (int i = 0; i < files.size() - 1; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+        Path latest = files.get(files.size() - 1);
+        segment.generation = parseGeneration(latest, baseName);
+        segment.file = latest;
+        segment.channel = FileChannel.open(latest, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            segment.scan();
+            if (compressionEnabled && segment.dictionary == null) {
+                segment.trainFromExisting();
+            }
+            if (segment.formatVersion < FORMAT_VERSION) {
+                LOG.info("迁移旧版本段文件: " + latest);
+                segment.compact();
+            }
+        } catch (IOException e) {
+            segment.close();
+            throw e;
+        }
+        return segment;
+    }
+
+    @NotNull
+    private Set<String> getKnownBaseNames() {
+        Set<String> names = knownBaseNames;
+        if (names != null) return names;
+        synchronized (segments) {
+            if (knownBaseNames == null) {
+                Set<String> found = ConcurrentHashMap.newKeySet();
+                if (Files.isDirectory(rootDir)) {
+                    try (DirectoryStream<Path> stream = Files.newDirectoryStream(rootDir, "*" + SEGMENT_SUFFIX)) {
+                        for (Path file : stream) {
+                            String name = file.getFileName().toString();
+                            String withoutSuffix = name.substring(0, name.length() - SEGMENT_SUFFIX.length());
+                            int dot = withoutSuffix.lastIndexOf('.');
+                            if (dot > 0) {
+                                found.add(withoutSuffix.substring(0, dot));
+                            }
+                        }
+                    } catch (IOException e) {
+                        LOG.warn("扫描段文件目录失败: " + e.getMessage());
+                    }
+                }
+                knownBaseNames = found;
+            }
+            return knownBaseNames;
+        }
+    }
+
+    private void deleteSegmentFiles(String baseName) {
+        deletePartialFiles(baseName);
+        for (Path file : findSegmentFiles(rootDir, baseName)) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                LOG.warn("删除段文件失败: " + file + ", 错误: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 删除压缩中途失败或崩溃留下的临时文件
+     */
+    private void deletePartialFiles(String baseName) {
+        if (!Files.isDirectory(rootDir)) return;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(rootDir, baseName + ".*" + PARTIAL_SUFFIX)) {
+            for (Path file : stream) {
+                LOG.info("删除未完成压缩的段文件: " + file);
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            LOG.warn("删除临时段文件失败: " + baseName + ", 错误: " + e.getMessage());
+        }
+    }
+
+    @Nullable
+    private static String readBookId(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(12);
+            if (readFully(channel, header, 0) < 12 || header.getInt(0) != MAGIC) {
+                return null;
+            }
+            int idLength = header.getInt(8);
+            ByteBuffer id = ByteBuffer.allocate(idLength);
+            if (readFully(channel, id, 12) < idLength) {
+                return null;
+            }
+            return new String(id.array(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOG.warn("读取段文件头失败: " + file + ", 错误: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 查找书籍的所有代段文件，按代数升序排列
+     */
+    @NotNull
+    private static List<Path> findSegmentFiles(Path rootDir, String baseName) {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(rootDir)) return files;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(rootDir, baseName + ".*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                if (parseGeneration(file, baseName) >= 0) {
+                    files.add(file);
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("查找段文件失败: " + baseName + ", 错误: " + e.getMessage());
+        }
+        files.sort(Comparator.comparingLong(file -> parseGeneration(file, baseName)));
+        return files;
+    }
+
+    private static long parseGeneration(Path file, String baseName) {
+        String name = file.getFileName().toString();
+        String generation = name.substring(baseName.length() + 1, name.length() - SEGMENT_SUFFIX.length());
+        if (generation.isEmpty() || !generation.chars().allMatch(Character::isDigit)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(generation);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) break;
+            total += read;
+        }
+        return total;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+
+    private static ByteBuffer encodeHeader(String bookId) {
+        byte[] id = bookId.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(12 + id.length);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(id.length).put(id);
+        header.flip();
+        return header;
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * 在指定位置写入一条记录
+     */
+    private static Location writeRecordAt(FileChannel target, long position, String key, byte[] payload,
+                                          long timestamp) throws IOException {
+        ByteBuffer record = encodeRecord(key.getBytes(StandardCharsets.UTF_8), timestamp, payload);
+        int recordSize = record.remaining();
+        long payloadOffset = position + recordSize - payload.length;
+        int crc = record.getInt(recordSize - payload.length - 4);
+        writeFully(target, record, position);
+        return new Location(payloadOffset, payload.length, crc, timestamp, recordSize);
+    }
+
+    private static ByteBuffer encodeRecord(byte[] key, long timestamp, @Nullable byte[] payload) {
+        int payloadLength = payload == null ? 0 : payload.length;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_FIXED_SIZE + key.length + payloadLength);
+        record.putInt(key.length).put(key).putLong(timestamp);
+        if (payload == null) {
+            record.putInt(TOMBSTONE).putInt(0);
+        } else {
+            record.putInt(payload.length).putInt(checksum(payload)).put(payload);
+        }
+        record.flip();
+        return record;
+    }
+
+    /**
+     * 单本书籍的段文件
+     */
+    private final class Segment {
+        private final String bookId;
+        private final String baseName;
+        private final Map<String, Location> index = new HashMap<>();
+        private long generation;
+        private int formatVersion = FORMAT_VERSION;
+        private Path file;
+        private FileChannel channel;
+        private MappedByteBuffer mapped;
+        private long writePosition;
+        private long liveBytes;
+        private long garbageBytes;
+        /**
+         * 书籍的预置压缩字典，训练完成前为null
+         */
+        private byte[] dictionary;
+        private int dictionaryId;
+        private int dictionaryRecordSize;
+        /**
+         * 训练字典的样本章节，训练完成后置为null
+         */
+        private List<String> trainingSamples = new ArrayList<>();
+        /**
+         * 字典训练完成后，已有章节需要在下次压缩时用字典重新编码
+         */
+        private boolean recompressPending;
+        private boolean compactionScheduled;
+        private boolean closed;
+
+        private Segment(String bookId, String baseName) {
+            this.bookId = bookId;
+            this.baseName = baseName;
+        }
+
+        private void createGeneration(long newGeneration) throws IOException {
+            generation = newGeneration;
+            file = rootDir.resolve(baseName + "." + newGeneration + SEGMENT_SUFFIX);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ByteBuffer header = encodeHeader(bookId);
+            int headerSize = header.remaining();
+            writeFully(channel, header, 0);
+            writePosition = headerSize;
+        }
+
+        /**
+         * 顺序扫描记录头建立索引，尾部不完整的记录会被截断
+         * 文件头中的书籍ID与当前书籍不一致时按格式无效处理（安全文件名相同的不同书籍）
+         */
+        private void scan() throws IOException {
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(12);
+            if (readFully(channel, header, 0) < 12 || header.getInt(0) != MAGIC) {
+                throw new IOException("段文件格式无效: " + file);
+            }
+            formatVersion = header.getInt(4);
+            int idLength = header.getInt(8);
+            byte[] expectedId = bookId.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer id = ByteBuffer.allocate(Math.max(idLength, 0));
+            if (idLength != expectedId.length || readFully(channel, id, 12) < idLength
+                    || !Arrays.equals(id.array(), expectedId)) {
+                throw new IOException("段文件格式无效，书籍ID不匹配: " + file + "，期望: " + bookId);
+            }
+            long position = 12L + idLength;
+            ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+            while (position < size) {
+                lengthBuffer.clear();
+                if (readFully(channel, lengthBuffer, position) < 4) break;
+                int keyLength = lengthBuffer.getInt(0);
+                if (keyLength <= 0 || position + RECORD_FIXED_SIZE + keyLength > size) break;
+                ByteBuffer head = ByteBuffer.allocate(keyLength + 16);
+                if (readFully(channel, head, position + 4) < head.capacity()) break;
+                byte[] key = new byte[keyLength];
+                head.get(0, key);
+                long timestamp = head.getLong(keyLength);
+                int length = head.getInt(keyLength + 8);
+                int crc = head.getInt(keyLength + 12);
+                long payloadOffset = position + RECORD_FIXED_SIZE + keyLength;
+                int payloadLength = length == TOMBSTONE ? 0 : length;
+                if (length < TOMBSTONE || payloadOffset + payloadLength > size) break;
+                int recordSize = RECORD_FIXED_SIZE + keyLength + payloadLength;
+                String chapterId = new String(key, StandardCharsets.UTF_8);
+                if (DICTIONARY_KEY.equals(chapterId)) {
+                    loadDictionary(payloadOffset, length, crc, recordSize);
+                    position += recordSize;
+                    continue;
+                }
+                Location previous = length == TOMBSTONE
+                        ? index.remove(chapterId)
+                        : index.put(chapterId, new Location(payloadOffset, length, crc, timestamp, recordSize));
+                if (previous != null) {
+                    liveBytes -= previous.recordSize;
+                    garbageBytes += previous.recordSize;
+                }
+                if (length == TOMBSTONE) {
+                    garbageBytes += recordSize;
+                } else {
+                    liveBytes += recordSize;
+                }
+                position += recordSize;
+            }
+            if (position < size) {
+                LOG.warn("段文件尾部记录不完整，已截断: " + file + " @" + position);
+                channel.truncate(position);
+            }
+            writePosition = position;
+        }
+
+        private void loadDictionary(long offset, int length, int crc, int recordSize) throws IOException {
+            if (length == TOMBSTONE) return;
+            byte[] payload = new byte[length];
+            readFully(channel, ByteBuffer.wrap(payload), offset);
+            if (checksum(payload) != crc) {
+                LOG.warn("段文件字典校验失败，已忽略: " + file);
+                garbageBytes += recordSize;
+                return;
+            }
+            if (dictionary != null) {
+                liveBytes -= dictionaryRecordSize;
+                garbageBytes += dictionaryRecordSize;
+            }
+            dictionary = payload;
+            dictionaryId = ChapterCodec.dictionaryId(payload);
+            dictionaryRecordSize = recordSize;
+            liveBytes += recordSize;
+            trainingSamples = null;
+        }
+
+        synchronized StoredChapter read(String chapterId) throws IOException {
+            if (closed) return null;
+            Location location = index.get(chapterId);
+            if (location == null) return null;
+            byte[] payload = new byte[location.length];
+            long end = location.offset + location.length;
+            // 映射之后追加的记录先直接读取，未映射部分积累到一定大小再重新映射，避免交替读写时每次都重新映射整个文件
+            if (mapped == null || (end > mapped.capacity() && writePosition - mapped.capacity() >= REMAP_MIN_TAIL_BYTES)) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, writePosition);
+            }
+            if (end <= mapped.capacity()) {
+                mapped.get((int) location.offset, payload);
+            } else if (readFully(channel, ByteBuffer.wrap(payload), location.offset) < location.length) {
+                LOG.warn("段文件记录不完整，已丢弃: " + file + ", 章节: " + chapterId);
+                drop(chapterId);
+                return null;
+            }
+            if (checksum(payload) != location.crc) {
+                LOG.warn("段文件记录校验失败，已丢弃: " + file + ", 章节: " + chapterId);
+                drop(chapterId);
+                return null;
+            }
+            String content;
+            try {
+                content = decode(payload, formatVersion);
+            } catch (IOException e) {
+                LOG.warn("段文件记录解码失败，已丢弃: " + file + ", 章节: " + chapterId + ", 错误: " + e.getMessage());
+                drop(chapterId);
+                return null;
+            }
+            return new StoredChapter(content, location.timestamp);
+        }
+
+        synchronized long timestampOf(String chapterId) {
+            if (closed) return -1;
+            Location location = index.get(chapterId);
+            return location == null ? -1 : location.timestamp;
+        }
+
+        synchronized int append(String chapterId, String content, long timestamp) throws IOException {
+            ensureOpen();
+            byte[] payload = encode(content);
+            long recordSize = RECORD_FIXED_SIZE + chapterId.getBytes(StandardCharsets.UTF_8).length + payload.length;
+            if (writePosition + recordSize > MAX_SEGMENT_SIZE) {
+                compact();
+                if (writePosition + recordSize > MAX_SEGMENT_SIZE) {
+                    throw new IOException("段文件已达到大小上限: " + file);
+                }
+            }
+            Location written = writeRecord(chapterId, payload, timestamp);
+            Location previous = index.put(chapterId, written);
+            if (previous != null) {
+                liveBytes -= previous.recordSize;
+                garbageBytes += previous.recordSize;
+            }
+            liveBytes += written.recordSize;
+            RecordListener listener = recordListener;
+            if (listener != null) {
+                listener.recordWritten(bookId, chapterId, written.recordSize);
+            }
+            if (compressionEnabled && dictionary == null) {
+                collectSample(content);
+            }
+            return written.recordSize;
+        }
+
+        synchronized boolean remove(String chapterId) throws IOException {
+            if (closed) return false;
+            Location previous = index.remove(chapterId);
+            if (previous == null) return false;
+            ByteBuffer record = encodeRecord(chapterId.getBytes(StandardCharsets.UTF_8),
+                    System.currentTimeMillis(), null);
+            int recordSize = record.remaining();
+            writeFully(channel, record, writePosition);
+            writePosition += recordSize;
+            liveBytes -= previous.recordSize;
+            garbageBytes += previous.recordSize + recordSize;
+            return true;
+        }
+
+        /**
+         * 删除损坏的记录并通知回调
+         */
+        private void drop(String chapterId) throws IOException {
+            if (remove(chapterId)) {
+                RecordListener listener = recordListener;
+                if (listener != null) {
+                    listener.recordDropped(bookId, chapterId);
+                }
+            }
+        }
+
+        synchronized List<SegmentEntry> entries() {
+            List<SegmentEntry> entries = new ArrayList<>(index.size());
+            for (Map.Entry<String, Location> entry : index.entrySet()) {
+                entries.add(new SegmentEntry(bookId, entry.getKey(),
+                        entry.getValue().recordSize, entry.getValue().timestamp));
+            }
+            return entries;
+        }
+
+        synchronized boolean needsCompaction() {
+            if (closed) return false;
+            return (recompressPending && compressionEnabled)
+                    || (garbageBytes >= COMPACT_MIN_GARBAGE_BYTES && garbageBytes > liveBytes);
+        }
+
+        /**
+         * 将有效记录按原顺序写入新一代段文件
+         * 旧版本格式的记录和字典训练前写入的记录在此时重新编码
+         *
+         * 新一代完整写入临时文件并同步到磁盘、重命名为正式文件后才切换，
+         * 任何一步失败都删除临时文件，段文件保持压缩前的状态
+         */
+        synchronized void compact() throws IOException {
+            if (closed) return;
+            boolean migrate = formatVersion < FORMAT_VERSION;
+            boolean recompress = recompressPending && compressionEnabled && dictionary != null;
+            if (garbageBytes == 0 && !migrate && !recompress) return;
+            long usableSpace = rootDir.toFile().getUsableSpace();
+            if (usableSpace < liveBytes + COMPACT_FREE_SPACE_MARGIN) {
+                LOG.warn("磁盘空间不足，跳过段文件压缩: " + file + "，需要 " + liveBytes
+                        + " 字节，剩余 " + usableSpace + " 字节");
+                return;
+            }
+            long startTime = System.currentTimeMillis();
+            long oldSize = writePosition;
+            long newGeneration = generation + 1;
+            Path newFile = rootDir.resolve(baseName + "." + newGeneration + SEGMENT_SUFFIX);
+            Path partialFile = rootDir.resolve(baseName + "." + newGeneration + PARTIAL_SUFFIX);
+
+            List<Map.Entry<String, Location>> live = new ArrayList<>(index.entrySet());
+            live.sort(Comparator.comparingLong(entry -> entry.getValue().offset));
+            Map<String, Location> compacted = new HashMap<>(index.size() * 2);
+            long newLiveBytes = 0;
+            int newDictionaryRecordSize = 0;
+            long position;
+            int recoded = 0;
+            List<String> dropped = new ArrayList<>();
+            Map<String, Integer> resized = new HashMap<>();
+            try (FileChannel partial = FileChannel.open(partialFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer header = encodeHeader(bookId);
+                position = header.remaining();
+                writeFully(partial, header, 0);
+                if (dictionary != null) {
+                    newDictionaryRecordSize = writeRecordAt(partial, position, DICTIONARY_KEY, dictionary, startTime)
+                            .recordSize;
+                    position += newDictionaryRecordSize;
+                    newLiveBytes += newDictionaryRecordSize;
+                }
+                for (Map.Entry<String, Location> entry : live) {
+                    Location location = entry.getValue();
+                    byte[] payload = new byte[location.length];
+                    readFully(channel, ByteBuffer.wrap(payload), location.offset);
+                    if (checksum(payload) != location.crc) {
+                        LOG.warn("段文件记录校验失败，压缩时丢弃: " + file + ", 章节: " + entry.getKey());
+                        dropped.add(entry.getKey());
+                        continue;
+                    }
+                    if (migrate || (recompress && ChapterCodec.codecOf(payload) != ChapterCodec.DEFLATE_DICT)) {
+                        try {
+                            payload = encode(decode(payload, migrate ? 1 : FORMAT_VERSION));
+                            recoded++;
+                        } catch (IOException e) {
+                            LOG.warn("段文件记录解码失败，压缩时丢弃: " + file + ", 章节: " + entry.getKey());
+                            dropped.add(entry.getKey());
+                            continue;
+                        }
+                    }
+                    Location written = writeRecordAt(partial, position, entry.getKey(), payload, location.timestamp);
+                    position += written.recordSize;
+                    compacted.put(entry.getKey(), written);
+                    if (written.recordSize != location.recordSize) {
+                        resized.put(entry.getKey(), written.recordSize);
+                    }
+                    newLiveBytes += written.recordSize;
+                }
+                partial.force(true);
+            } catch (IOException e) {
+                deletePartial(partialFile);
+                throw e;
+            }
+
+            FileChannel newChannel;
+            try {
+                Files.move(partialFile, newFile, StandardCopyOption.ATOMIC_MOVE);
+                newChannel = FileChannel.open(newFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                deletePartial(partialFile);
+                throw e;
+            }
+
+            // 新一代已经完整落盘，切换所有状态
+            FileChannel oldChannel = channel;
+            Path oldFile = file;
+            generation = newGeneration;
+            file = newFile;
+            channel = newChannel;
+            writePosition = position;
+            mapped = null;
+            index.clear();
+            index.putAll(compacted);
+            liveBytes = newLiveBytes;
+            garbageBytes = 0;
+            formatVersion = FORMAT_VERSION;
+            dictionaryRecordSize = newDictionaryRecordSize;
+            if (recompress) {
+                recompressPending = false;
+            }
+            RecordListener listener = recordListener;
+            if (listener != null) {
+                if (!resized.isEmpty()) {
+                    listener.recordsResized(bookId, resized);
+                }
+                for (String chapterId : dropped) {
+                    listener.recordDropped(bookId, chapterId);
+                }
+            }
+
+            try {
+                oldChannel.close();
+            } catch (IOException e) {
+                LOG.warn("关闭旧段文件失败: " + oldFile + ", 错误: " + e.getMessage());
+            }
+            try {
+                Files.deleteIfExists(oldFile);
+            } catch (IOException e) {
+                LOG.debug("旧段文件暂时无法删除，将在下次打开时清理: " + oldFile);
+            }
+            LOG.info("段文件压缩完成: " + file + "，回收 " + (oldSize - writePosition) + " 字节，重新编码 "
+                    + recoded + " 章，耗时: " + (System.currentTimeMillis() - startTime) + "ms");
+        }
+
+        synchronized void close() {
+            if (closed) return;
+            closed = true;
+            mapped = null;
+            index.clear();
+            trainingSamples = null;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOG.warn("关闭段文件失败: " + file + ", 错误: " + e.getMessage());
+            }
+        }
+
+        /**
+         * 用已有章节训练字典，用于升级前写入、尚未压缩的段文件
+         */
+        private void trainFromExisting() throws IOException {
+            if (index.size() < TRAINING_SAMPLES) return;
+            List<Map.Entry<String, Location>> existing = new ArrayList<>(index.entrySet());
+            existing.sort(Comparator.comparingLong(entry -> entry.getValue().offset));
+            for (int i = 0; i < TRAINING_SAMPLES; i++) {
+                StoredChapter chapter = read(existing.get(i).getKey());
+                if (chapter != null) {
+                    collectSample(chapter.content());
+                }
+            }
+        }
+
+        private void collectSample(String content) throws IOException {
+            if (trainingSamples == null) return;
+            trainingSamples.add(content.length() > MAX_SAMPLE_LENGTH ? content.substring(0, MAX_SAMPLE_LENGTH) : content);
+            if (trainingSamples.size() < TRAINING_SAMPLES) return;
+
+            byte[] trained = ChapterCodec.trainDictionary(trainingSamples);
+            trainingSamples = null;
+            if (trained.length == 0) return;
+            int recordSize = writeRecord(DICTIONARY_KEY, trained, System.currentTimeMillis()).recordSize;
+            dictionary = trained;
+            dictionaryId = ChapterCodec.dictionaryId(trained);
+            dictionaryRecordSize = recordSize;
+            liveBytes += recordSize;
+            recompressPending = !index.isEmpty();
+            LOG.debug("书籍压缩字典训练完成: " + bookId + "，字典大小: " + trained.length + " 字节");
+        }
+
+        private byte[] encode(String content) {
+            return compressionEnabled
+                    ? ChapterCodec.encode(content, dictionary, dictionaryId)
+                    : ChapterCodec.encodeRaw(content);
+        }
+
+        private String decode(byte[] payload, int version) throws IOException {
+            if (version < FORMAT_VERSION) {
+                // 旧版本直接保存UTF-8原文
+                return new String(payload, StandardCharsets.UTF_8);
+            }
+            return ChapterCodec.decode(payload, dictionary, dictionaryId);
+        }
+
+        /**
+         * 在写入位置追加一条记录，不更新索引
+         */
+        private Location writeRecord(String key, byte[] payload, long timestamp) throws IOException {
+            Location written = writeRecordAt(channel, writePosition, key, payload, timestamp);
+            writePosition += written.recordSize;
+            return written;
+        }
+
+        private void deletePartial(Path partialFile) {
+            try {
+                Files.deleteIfExists(partialFile);
+            } catch (IOException e) {
+                LOG.warn("删除未完成的段文件失败，将在下次打开时清理: " + partialFile);
+            }
+        }
+
+        private void ensureOpen() throws IOException {
+            if (closed) {
+                throw new IOException("段文件已关闭: " + file);
+            }
+        }
+    }
+
+    /**
+     * 章节记录变化时的回调，用于同步外部维护的缓存大小
+     * 回调在段文件的锁内执行，实现不能再调用段文件存储
+     */
+    public interface RecordListener {
+        /**
+         * 写入了章节，已存在的同名章节被覆盖
+         * 在写入触发的压缩之前发出，写入返回后再记录大小可能晚于压缩的通知
+         *
+         * @param bookId 书籍ID
+         * @param chapterId 章节ID
+         * @param size 记录大小（字节）
+         */
+        void recordWritten(@NotNull String bookId, @NotNull String chapterId, int size);
+
+        /**
+         * 压缩时重新编码了章节，记录大小发生变化
+         *
+         * @param bookId 书籍ID
+         * @param sizes 章节ID到新的记录大小（字节）
+         */
+        void recordsResized(@NotNull String bookId, @NotNull Map<String, Integer> sizes);
+
+        /**
+         * 章节记录校验或解码失败，已被丢弃
+         *
+         * @param bookId 书籍ID
+         * @param chapterId 章节ID
+         */
+        void recordDropped(@NotNull String bookId, @NotNull String chapterId);
+    }
+
+    /**
+     * 记录在段文件中的位置
+     */
+    private record Location(long offset, int length, int crc, long timestamp, int recordSize) {
+    }
+
+    /**
+     * 读取到的章节内容
+     *
+     * @param content 章节内容
+     * @param timestamp 写入时间（毫秒）
+     */
+    public record StoredChapter(String content, long timestamp) {
+    }
+
+    /**
+     * 段文件中的章节条目
+     *
+     * @param bookId 书籍ID
+     * @param chapterId 章节ID
+     * @param size 记录大小（字节）
+     * @param timestamp 写入时间（毫秒）
+     */
+    public record SegmentEntry(String bookId, String chapterId, int size, long timestamp) {
+    }
+}
@@ -0,0 +1,170 @@
+package com.lv.tool.privatereader.storage.cache;
+
+import com.lv.tool.privatereader.util.NetworkPerformanceMonitor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 自适应预加载策略
+ *
+ * 根据每本书的翻章记录估计阅读方向和速度，决定预加载窗口：
+ * - 方向：向前翻章比例的指数滑动平均，读者几乎总是向后读，因此大部分配额给后续章节
+ * - 速度：每分钟翻过的章节数的指数滑动平均，窗口覆盖接下来几分钟内会读到的章节
+ * - 配额：前后章节总数不超过原来对称窗口的大小，不会比固定窗口产生更多请求
+ *
+ * 跳转（一次跨越多章）和长时间停顿不计入速度，只更新当前位置。
+ * 记录不足时退回对称窗口。
+ *
+ * 同时统计预加载命中率：首次打开的章节如果已在预加载窗口中缓存则计为命中。
+ */
+final class PrefetchPolicy {
+    /**
+     * 一次翻过的章节数超过该值视为跳转
+     */
+    private static final int MAX_STEP = 3;
+    private static final long MIN_STEP_INTERVAL_MS = 1_000;
+    private static final long MAX_STEP_INTERVAL_MS = 30 * 60_000;
+    /**
+     * 预加载覆盖接下来几分钟的阅读量
+     */
+    private static final double HORIZON_MINUTES = 3.0;
+    private static final double SMOOTHING = 0.3;
+    private static final int MIN_STEPS = 2;
+    private static final int MAX_BUDGET = 10;
+    private static final int MAX_TRACKED_CHAPTERS = 512;
+
+    private final Map<String, ReadingState> states = new ConcurrentHashMap<>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * 记录阅读位置变化
+     * 同一位置的重复记录（例如导航时记录一次，章节加载完成的事件又记录一次）会被忽略
+     *
+     * @param bookId 书籍ID
+     * @param chapterIndex 新的章节索引
+     * @param chapterUrl 新的章节URL
+     */
+    void recordNavigation(@NotNull String bookId, int chapterIndex, @NotNull String chapterUrl) {
+        ReadingState state = states.computeIfAbsent(bookId, id -> new ReadingState());
+        long now = System.currentTimeMillis();
+        synchronized (state) {
+            if (chapterIndex == state.lastIndex) return;
+
+            if (state.opened.add(chapterUrl)) {
+                trim(state.opened);
+                boolean hit = state.covered.contains(chapterUrl);
+                (hit ? hitCount : missCount).incrementAndGet();
+                NetworkPerformanceMonitor.getInstance().recordPrefetchResult(hit);
+            }
+
+            int delta = chapterIndex - state.lastIndex;
+            long interval = now - state.lastTime;
+            if (state.lastIndex >= 0 && Math.abs(delta) <= MAX_STEP) {
+                double forward = delta > 0 ? 1.0 : 0.0;
+                state.forwardRatio = state.steps == 0 ? forward
+                        : SMOOTHING * forward + (1 - SMOOTHING) * state.forwardRatio;
+                if (interval >= MIN_STEP_INTERVAL_MS && interval <= MAX_STEP_INTERVAL_MS) {
+                    double rate = Math.abs(delta) / (interval / 60_000.0);
+                    state.chaptersPerMinute = state.chaptersPerMinute == 0 ? rate
+                            : SMOOTHING * rate + (1 - SMOOTHING) * state.chaptersPerMinute;
+                }
+                state.steps++;
+            }
+            state.lastIndex = chapterIndex;
+            state.lastTime = now;
+        }
+    }
+
+    /**
+     * 记录已在缓存中的章节，之后首次打开这些章节计为命中
+     *
+     * @param bookId 书籍ID
+     * @param chapterUrl 章节URL
+     */
+    void recordCovered(@NotNull String bookId, @NotNull String chapterUrl) {
+        ReadingState state = states.computeIfAbsent(bookId, id -> new ReadingState());
+        synchronized (state) {
+            state.covered.add(chapterUrl);
+            trim(state.covered);
+        }
+    }
+
+    /**
+     * 计算预加载窗口
+     *
+     * @param bookId 书籍ID
+     * @param preloadCount 设置中的预加载章节数，作为对称窗口的单侧大小
+     * @return 预加载窗口
+     */
+    @NotNull
+    Window window(@NotNull String bookId, int preloadCount) {
+        int base = Math.max(1, preloadCount);
+        ReadingState state = states.get(bookId);
+        if (state == null) {
+            return new Window(base, base);
+        }
+        synchronized (state) {
+            if (state.steps < MIN_STEPS) {
+                return new Window(base, base);
+            }
+            int budget = Math.min(MAX_BUDGET, base * 2);
+            int wanted = state.chaptersPerMinute > 0
+                    ? (int) Math.ceil(state.chaptersPerMinute * HORIZON_MINUTES)
+                    : base;
+            int primary = Math.max(1, Math.min(budget, wanted));
+            double dominance = Math.max(state.forwardRatio, 1 - state.forwardRatio);
+            int secondary = Math.min(budget - primary, (int) Math.round(budget * (1 - dominance)));
+            return state.forwardRatio >= 0.5
+                    ? new Window(secondary, primary)
+                    : new Window(primary, secondary);
+        }
+    }
+
+    /**
+     * 丢弃书籍的阅读记录
+     *
+     * @param bookId 书籍ID
+     */
+    void forget(@NotNull String bookId) {
+        states.remove(bookId);
+    }
+
+    long getHitCount() {
+        return hitCount.get();
+    }
+
+    long getMissCount() {
+        return missCount.get();
+    }
+
+    private static void trim(Set<String> urls) {
+        if (urls.size() > MAX_TRACKED_CHAPTERS) {
+            urls.remove(urls.iterator().next());
+        }
+    }
+
+    /**
+     * 预加载窗口
+     *
+     * @param behind 当前章节之前预加载的章节数
+     * @param ahead 当前章节之后预加载的章节数
+     */
+    record Window(int behind, int ahead) {
+    }
+
+    private static final class ReadingState {
+        private int lastIndex = -1;
+        private long lastTime;
+        private int steps;
+        private double forwardRatio = 1.0;
+        private double chaptersPerMinute;
+        private final Set<String> opened = new LinkedHashSet<>();
+        private final Set<String> covered = new LinkedHashSet<>();
+    }
+}
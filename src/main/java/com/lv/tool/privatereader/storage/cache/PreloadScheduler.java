@@ -0,0 +1,276 @@
+package com.lv.tool.privatereader.storage.cache;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.lv.tool.privatereader.async.ReactiveSchedulers;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 预加载调度器
+ *
+ * 按书籍维护预加载队列，并按站点限制请求：
+ * - 每本书一个有序队列，重新提交时替换整个队列，不再需要的在途任务被取消
+ * - 最近提交的书籍优先调度，其他书籍使用剩余的配额
+ * - 每个站点限制同时进行的请求数，并用令牌桶限制请求速率
+ * - 某个站点受限时不影响其他站点的任务
+ *
+ * 所有状态在同一把锁内修改，任务在锁外启动。
+ * 站点配额在任务的加载动作真正返回时才释放：取消只是不再等待结果，
+ * 已在IO线程上执行的阻塞请求仍然占用配额，直到它结束。
+ */
+final class PreloadScheduler {
+    private static final Logger LOG = Logger.getInstance(PreloadScheduler.class);
+
+    private final Map<String, BookQueue> queues = new LinkedHashMap<>();
+    private final Map<String, HostLimiter> hosts = new HashMap<>();
+    private boolean wakeupScheduled;
+
+    /**
+     * 提交书籍的预加载任务，替换该书尚未执行的任务
+     * 已在执行且仍在新任务列表中的章节不会重复加载，其他在途任务被取消
+     *
+     * @param bookId 书籍ID
+     * @param tasks 按优先级排列的任务
+     * @param concurrency 同一站点的最大并发数
+     * @param minIntervalMs 同一站点两次请求的平均最小间隔，0表示不限速
+     * @return 本次提交的任务全部完成、被取代或被取消时完成
+     */
+    @NotNull
+    Mono<Void> submit(@NotNull String bookId, @NotNull List<Task> tasks, int concurrency, int minIntervalMs) {
+        BookQueue queue;
+        synchronized (this) {
+            queue = queues.remove(bookId);
+            if (queue == null) {
+                queue = new BookQueue();
+            } else {
+                Set<String> wanted = new HashSet<>();
+                for (Task task : tasks) {
+                    wanted.add(task.key());
+                }
+                Iterator<Map.Entry<String, Disposable.Swap>> running = queue.running.entrySet().iterator();
+                while (running.hasNext()) {
+                    Map.Entry<String, Disposable.Swap> entry = running.next();
+                    if (!wanted.contains(entry.getKey())) {
+                        entry.getValue().dispose();
+                        running.remove();
+                    }
+                }
+                queue.pending.clear();
+                queue.completion.tryEmitEmpty();
+                queue.completion = Sinks.empty();
+            }
+            for (Task task : tasks) {
+                if (!queue.running.containsKey(task.key())) {
+                    queue.pending.add(task);
+                }
+                hosts.computeIfAbsent(task.host(), h -> new HostLimiter())
+                        .configure(concurrency, minIntervalMs);
+            }
+            // 重新放入使其排在最后，即优先级最高
+            queues.put(bookId, queue);
+        }
+        Mono<Void> completion = queue.completion.asMono();
+        dispatch();
+        return completion;
+    }
+
+    /**
+     * 取消书籍的所有预加载任务
+     *
+     * @param bookId 书籍ID
+     */
+    void cancel(@NotNull String bookId) {
+        synchronized (this) {
+            BookQueue queue = queues.remove(bookId);
+            if (queue == null) return;
+            queue.pending.clear();
+            for (Disposable.Swap swap : queue.running.values()) {
+                swap.dispose();
+            }
+            queue.running.clear();
+            queue.completion.tryEmitEmpty();
+        }
+        // 尚未开始的任务已释放站点配额，执行中的任务在返回后释放
+        dispatch();
+    }
+
+    /**
+     * 启动所有可以执行的任务
+     */
+    private void dispatch() {
+        List<Runnable> starts = new ArrayList<>();
+        long wakeupDelay = Long.MAX_VALUE;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            List<Map.Entry<String, BookQueue>> ordered = new ArrayList<>(queues.entrySet());
+            for (int i = ordered.size() - 1; i >= 0; i--) {
+                String bookId = ordered.get(i).getKey();
+                BookQueue queue = ordered.get(i).getValue();
+                Iterator<Task> iterator = queue.pending.iterator();
+                while (iterator.hasNext()) {
+                    Task task = iterator.next();
+                    long wait = hosts.get(task.host()).tryAcquire(now);
+                    if (wait > 0) {
+                        wakeupDelay = Math.min(wakeupDelay, wait);
+                    }
+                    if (wait != 0) {
+                        continue;
+                    }
+                    iterator.remove();
+                    Disposable.Swap swap = Disposables.swap();
+                    AtomicBoolean started = new AtomicBoolean();
+                    queue.running.put(task.key(), swap);
+                    starts.add(() -> swap.update(Mono.fromRunnable(() -> runTask(task, started))
+                            .subscribeOn(ReactiveSchedulers.getInstance().io())
+                            .doFinally(signal -> onTaskFinished(bookId, task, swap, started))
+                            .subscribe(null, e -> LOG.warn("预加载任务失败: " + task.key() + ", 错误: " + e.getMessage()))));
+                }
+            }
+            completeFinishedQueues();
+            if (wakeupDelay != Long.MAX_VALUE && !wakeupScheduled) {
+                wakeupScheduled = true;
+            } else {
+                wakeupDelay = Long.MAX_VALUE;
+            }
+        }
+        for (Runnable start : starts) {
+            start.run();
+        }
+        if (wakeupDelay != Long.MAX_VALUE) {
+            ReactiveSchedulers.getInstance().timer().schedule(() -> {
+                synchronized (this) {
+                    wakeupScheduled = false;
+                }
+                dispatch();
+            }, wakeupDelay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 执行加载动作，动作返回后释放站点配额
+     * 已被取消、尚未开始的任务不再执行，配额由 {@link #onTaskFinished} 释放
+     */
+    private void runTask(Task task, AtomicBoolean started) {
+        if (!started.compareAndSet(false, true)) return;
+        try {
+            task.action().run();
+        } finally {
+            synchronized (this) {
+                hosts.get(task.host()).release();
+            }
+            dispatch();
+        }
+    }
+
+    private void onTaskFinished(String bookId, Task task, Disposable.Swap swap, AtomicBoolean started) {
+        synchronized (this) {
+            if (started.compareAndSet(false, true)) {
+                // 取消时加载动作还没有开始，不会再执行
+                hosts.get(task.host()).release();
+            }
+            BookQueue queue = queues.get(bookId);
+            if (queue != null) {
+                queue.running.remove(task.key(), swap);
+            }
+        }
+        dispatch();
+    }
+
+    private void completeFinishedQueues() {
+        Iterator<BookQueue> iterator = queues.values().iterator();
+        while (iterator.hasNext()) {
+            BookQueue queue = iterator.next();
+            if (queue.pending.isEmpty() && queue.running.isEmpty()) {
+                queue.completion.tryEmitEmpty();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * 获取URL的站点，作为限流的分组依据
+     */
+    @NotNull
+    static String hostOf(@NotNull String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host : "";
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    /**
+     * 预加载任务
+     *
+     * @param key 任务标识（章节URL），同一本书内唯一
+     * @param host 请求的站点
+     * @param action 加载并缓存章节，在IO线程上执行
+     */
+    record Task(@NotNull String key, @NotNull String host, @NotNull Runnable action) {
+    }
+
+    private static final class BookQueue {
+        private final ArrayDeque<Task> pending = new ArrayDeque<>();
+        private final Map<String, Disposable.Swap> running = new HashMap<>();
+        private Sinks.Empty<Void> completion = Sinks.empty();
+    }
+
+    /**
+     * 单个站点的并发限制和令牌桶
+     * 桶容量等于并发数，允许短时间的突发请求，长期速率不超过每个间隔一次
+     */
+    private static final class HostLimiter {
+        private int maxConcurrency = 1;
+        private int minIntervalMs;
+        private int active;
+        private double tokens = 1;
+        private long lastRefill = System.currentTimeMillis();
+
+        void configure(int concurrency, int intervalMs) {
+            this.maxConcurrency = Math.max(1, concurrency);
+            this.minIntervalMs = Math.max(0, intervalMs);
+        }
+
+        /**
+         * 尝试占用一个请求配额
+         *
+         * @return 0表示成功；大于0表示需要等待令牌的毫秒数；小于0表示并发已满，等待在途请求完成
+         */
+        long tryAcquire(long now) {
+            if (active >= maxConcurrency) {
+                return -1;
+            }
+            if (minIntervalMs > 0) {
+                tokens = Math.min(maxConcurrency, tokens + (double) (now - lastRefill) / minIntervalMs);
+                lastRefill = now;
+                if (tokens < 1) {
+                    return Math.max(1, (long) Math.ceil((1 - tokens) * minIntervalMs));
+                }
+                tokens -= 1;
+            }
+            active++;
+            return 0;
+        }
+
+        void release() {
+            active = Math.max(0, active - 1);
+        }
+    }
+}
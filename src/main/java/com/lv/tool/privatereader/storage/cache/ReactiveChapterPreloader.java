@@ -1,37 +1,76 @@
 package com.lv.tool.privatereader.storage.cache;
 
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.Service;
 import com.intellij.openapi.diagnostic.Logger;
+import com.lv.tool.privatereader.messaging.ChapterPreloadedNotifier;
+import com.lv.tool.privatereader.messaging.CurrentChapterNotifier;
 import com.lv.tool.privatereader.model.Book;
 import com.lv.tool.privatereader.parser.NovelParser;
 import com.lv.tool.privatereader.settings.CacheSettings;
 import com.lv.tool.privatereader.settings.PluginSettings;
 
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * 响应式章节预加载服务
  * 使用响应式编程在后台同时预加载当前章节前后的章节，提升连续阅读体验
  * 通过并行预加载前后章节，减少阅读等待时间
+ *
+ * 章节请求由 {@link PreloadScheduler} 调度：同一站点按设置的并发数并行加载，
+ * 并以预加载延迟作为令牌桶的平均请求间隔；每本书一个队列，
+ * 跳转章节时重新提交会替换原有队列并取消不再需要的请求。
+ *
+ * 预加载窗口由 {@link PrefetchPolicy} 根据阅读方向和速度决定，
+ * 翻章记录来自 {@link CurrentChapterNotifier} 事件和通知栏模式的章节导航。
+ * 预加载范围内的章节内容就绪后发布 {@link ChapterPreloadedNotifier} 事件。
  */
 @Service(Service.Level.APP)
-public final class ReactiveChapterPreloader {
+public final class ReactiveChapterPreloader implements Disposable {
     private static final Logger LOG = Logger.getInstance(ReactiveChapterPreloader.class);
 
-    private final AtomicBoolean isPreloading = new AtomicBoolean(false);
-    private final AtomicReference<String> currentPreloadingBookId = new AtomicReference<>(null);
+    private final PreloadScheduler scheduler = new PreloadScheduler();
+    private final PrefetchPolicy prefetchPolicy = new PrefetchPolicy();
 
     public ReactiveChapterPreloader() {
         LOG.info("初始化响应式章节预加载器");
+        ApplicationManager.getApplication().getMessageBus().connect(this)
+            .subscribe(CurrentChapterNotifier.TOPIC, new CurrentChapterNotifier() {
+                @Override
+                public void currentChapterChanged(Book book, NovelParser.Chapter newChapter) {
+                    if (book != null && newChapter != null) {
+                        recordNavigation(book, book.getChapterIndex(newChapter.url()));
+                    }
+                }
+            });
+    }
+
+    /**
+     * 记录阅读位置变化，用于学习阅读方向和速度
+     * 同一位置重复记录会被忽略
+     * @param book 书籍
+     * @param chapterIndex 新的章节索引
+     */
+    public void recordNavigation(Book book, int chapterIndex) {
+        if (book == null || book.getId() == null) return;
+        List<NovelParser.Chapter> chapters = book.getCachedChapters();
+        if (chapters == null || chapterIndex < 0 || chapterIndex >= chapters.size()) return;
+        NovelParser.Chapter chapter = chapters.get(chapterIndex);
+        if (chapter == null || chapter.url() == null) return;
+        prefetchPolicy.recordNavigation(book.getId(), chapterIndex, chapter.url());
+    }
+
+    /**
+     * 获取预加载统计
+     * @return 预加载统计
+     */
+    public PrefetchStats getPrefetchStats() {
+        return new PrefetchStats(prefetchPolicy.getHitCount(), prefetchPolicy.getMissCount());
     }
 
     /**
@@ -39,19 +78,20 @@ public final class ReactiveChapterPreloader {
      * @param bookId 书籍ID
      */
     public void stopPreload(String bookId) {
-        if (bookId != null && bookId.equals(currentPreloadingBookId.get())) {
+        if (bookId != null) {
             LOG.info("停止书籍预加载任务: " + bookId);
-            isPreloading.set(false);
-            currentPreloadingBookId.set(null);
+            scheduler.cancel(bookId);
+            prefetchPolicy.forget(bookId);
         }
     }
 
     /**
      * 响应式预加载指定书籍前后章节
      * 同时预加载当前章节前后的章节，提高阅读体验
+     * 同一本书再次调用时替换尚未完成的预加载任务
      * @param book 当前阅读的书籍
      * @param currentChapterIndex 当前章节索引
-     * @return 预加载操作的Mono
+     * @return 预加载操作的Mono，本次提交的章节全部处理完或被新的提交取代时完成
      */
     public Mono<Void> preloadChaptersReactive(Book book, int currentChapterIndex) {
         return Mono.defer(() -> {
@@ -71,141 +111,112 @@ public final class ReactiveChapterPreloader {
                 return Mono.empty();
             }
 
-            // 避免重复预加载
-            if (isPreloading.get()) {
-                LOG.debug("已有预加载任务在执行，跳过本次预加载");
-                return Mono.empty();
-            }
-
-            // 设置预加载状态
-            if (!isPreloading.compareAndSet(false, true)) {
-                return Mono.empty();
-            }
-            currentPreloadingBookId.set(book.getId());
-
-            LOG.info("开始响应式预加载前后章节，书籍: " + book.getTitle() + "，当前章节索引: " + currentChapterIndex);
-
             if (book == null || book.getParser() == null) {
                 LOG.warn("书籍或解析器为空，无法预加载");
-                resetPreloadingState();
                 return Mono.empty();
             }
 
             List<NovelParser.Chapter> chapters = book.getCachedChapters();
             if (chapters == null || chapters.isEmpty()) {
                 LOG.warn("章节列表为空，无法预加载");
-                resetPreloadingState();
+                return Mono.empty();
+            }
+            if (currentChapterIndex < 0 || currentChapterIndex >= chapters.size()) {
+                LOG.warn("章节索引超出范围，无法预加载: " + currentChapterIndex);
                 return Mono.empty();
             }
 
+            LOG.info("开始响应式预加载前后章节，书籍: " + book.getTitle() + "，当前章节索引: " + currentChapterIndex);
+
             // 获取预加载配置
             int preloadCount = cacheSettings.getPreloadCount();
             int preloadDelay = cacheSettings.getPreloadDelay();
+            int concurrency = cacheSettings.getPreloadConcurrency();
 
             int totalChapters = chapters.size();
 
+            // 根据阅读方向和速度计算前后窗口，记录不足时为前后各 preloadCount 章
+            PrefetchPolicy.Window window = prefetchPolicy.window(book.getId(), preloadCount);
+
             // 计算后续章节的预加载范围
-            int endIndex = Math.min(currentChapterIndex + preloadCount, totalChapters - 1);
+            int endIndex = Math.min(currentChapterIndex + window.ahead(), totalChapters - 1);
 
             // 计算前面章节的预加载范围
-            int startIndex = Math.max(0, currentChapterIndex - preloadCount);
+            int startIndex = Math.max(0, currentChapterIndex - window.behind());
 
-            // 创建优先级队列，按照与当前章节的距离排序
+            // 按优先级排列：当前章节、后续章节、前面章节
             List<Integer> prioritizedIndices = new ArrayList<>();
-            
-            // 首先添加当前章节（如果需要预加载）
-            ChapterCacheManager cacheManager = ApplicationManager.getApplication().getService(ChapterCacheManager.class);
-            NovelParser.Chapter currentChapter = chapters.get(currentChapterIndex);
-            String cachedCurrentContent = cacheManager.getCachedContent(book.getId(), currentChapter.url());
-            if (cachedCurrentContent == null) {
-                prioritizedIndices.add(currentChapterIndex);
-            }
-            
-            // 然后添加后续章节
+            prioritizedIndices.add(currentChapterIndex);
             for (int i = currentChapterIndex + 1; i <= endIndex; i++) {
                 prioritizedIndices.add(i);
             }
-            
-            // 最后添加前面章节
             for (int i = currentChapterIndex - 1; i >= startIndex; i--) {
                 prioritizedIndices.add(i);
             }
 
-            // 创建预加载流
-            Flux<Void> preloadFlux = Flux.fromIterable(prioritizedIndices)
-                // 检查是否仍在预加载状态
-                .takeWhile(i -> isPreloading.get())
-                // 获取章节对象
-                .map(i -> chapters.get(i))
-                // 过滤掉null章节
-                .filter(chapter -> chapter != null)
-                // 对每个章节进行预加载处理
-                .concatMap(chapter -> preloadChapter(book, chapter, preloadDelay));
-
-            // 使用弹性线程池执行
-            return preloadFlux
-                .subscribeOn(Schedulers.boundedElastic())
-                // 完成后记录日志
-                .doOnComplete(() -> LOG.info("章节预加载完成，书籍: " + book.getTitle() + "，预加载范围: 前面(" + startIndex + " - " + (currentChapterIndex - 1) + "), 后面(" + (currentChapterIndex + 1) + " - " + endIndex + ")"))
-                // 错误处理
-                .doOnError(e -> LOG.error("章节预加载过程发生错误: " + e.getMessage(), e))
-                // 无论成功失败都重置状态
-                .doFinally(signal -> resetPreloadingState())
-                // 转换为Mono<Void>
-                .then();
+            // 已缓存的章节不进入队列，只查缓存索引，不读取内容，也不影响缓存统计和淘汰顺序
+            ChapterCacheManager cacheManager = ApplicationManager.getApplication().getService(ChapterCacheManager.class);
+            List<PreloadScheduler.Task> tasks = new ArrayList<>();
+            for (int index : prioritizedIndices) {
+                NovelParser.Chapter chapter = chapters.get(index);
+                if (chapter == null || chapter.url() == null) continue;
+                if (cacheManager.isCached(book.getId(), chapter.url())) {
+                    prefetchPolicy.recordCovered(book.getId(), chapter.url());
+                    publishCached(book, chapter, cacheManager);
+                    continue;
+                }
+                tasks.add(new PreloadScheduler.Task(chapter.url(), PreloadScheduler.hostOf(chapter.url()),
+                        () -> preloadChapter(book, chapter, cacheManager)));
+            }
+
+            return scheduler.submit(book.getId(), tasks, concurrency, preloadDelay)
+                .doOnSuccess(v -> LOG.info("章节预加载完成，书籍: " + book.getTitle() + "，预加载范围: 前面(" + startIndex + " - " + (currentChapterIndex - 1) + "), 后面(" + (currentChapterIndex + 1) + " - " + endIndex + ")"));
         });
     }
 
     /**
      * 预加载单个章节
      * 检查缓存是否存在，如不存在则获取内容并缓存
+     * 在IO线程上执行，失败只记录日志
      * @param book 书籍
      * @param chapter 章节
-     * @param delayMs 延迟毫秒数，避免请求过于频繁
-     * @return 预加载操作的Mono
+     * @param cacheManager 缓存管理器
      */
-    private Mono<Void> preloadChapter(Book book, NovelParser.Chapter chapter, int delayMs) {
-        return Mono.defer(() -> {
-            // 检查缓存是否已存在
-            ChapterCacheManager cacheManager = ApplicationManager.getApplication().getService(ChapterCacheManager.class);
-            String cachedContent = cacheManager.getCachedContent(book.getId(), chapter.url());
-
-            // 如果缓存已存在，跳过预加载
-            if (cachedContent != null) {
-                LOG.debug("章节已缓存，跳过预加载: " + chapter.title());
-                return Mono.empty();
-            }
-
-            // 预加载章节内容
-            return Mono.fromCallable(() -> {
-                LOG.info("预加载章节: " + chapter.title() + "，书籍: " + book.getTitle());
-                return book.getParser().parseChapterContent(chapter.url());
-            })
-            // 过滤掉空内容
-            .filter(content -> content != null && !content.isEmpty())
-            // 缓存内容
-            .doOnNext(content -> {
+    private void preloadChapter(Book book, NovelParser.Chapter chapter, ChapterCacheManager cacheManager) {
+        // 排队期间可能已被阅读器加载
+        if (cacheManager.isCached(book.getId(), chapter.url())) {
+            LOG.debug("章节已缓存，跳过预加载: " + chapter.title());
+            publishCached(book, chapter, cacheManager);
+            return;
+        }
+        try {
+            LOG.info("预加载章节: " + chapter.title() + "，书籍: " + book.getTitle());
+            String content = book.getParser().parseChapterContent(chapter.url());
+            if (content != null && !content.isEmpty()) {
                 cacheManager.cacheContent(book.getId(), chapter.url(), content);
+                prefetchPolicy.recordCovered(book.getId(), chapter.url());
+                publishPreloaded(book, chapter, () -> content);
                 LOG.info("成功预加载并缓存章节: " + chapter.title() + "，书籍: " + book.getTitle() + "，内容长度: " + content.length());
-            })
-            // 添加延迟，避免请求过于频繁
-            .delayElement(Duration.ofMillis(delayMs))
-            // 错误处理
-            .onErrorResume(e -> {
-                LOG.warn("预加载章节失败: " + chapter.title() + "，书籍: " + book.getTitle() + ", 错误: " + e.getMessage());
-                return Mono.empty();
-            })
-            // 转换为Mono<Void>
-            .then();
-        });
+            }
+        } catch (Exception e) {
+            LOG.warn("预加载章节失败: " + chapter.title() + "，书籍: " + book.getTitle() + ", 错误: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 通知订阅者章节已在缓存中，内容在订阅者需要时才从缓存读取
+     */
+    private void publishCached(Book book, NovelParser.Chapter chapter, ChapterCacheManager cacheManager) {
+        publishPreloaded(book, chapter, () -> cacheManager.peekCachedContent(book.getId(), chapter.url()));
     }
 
     /**
-     * 重置预加载状态
+     * 通知订阅者章节内容已在缓存中，通知栏模式据此提前分页相邻章节
      */
-    private void resetPreloadingState() {
-        isPreloading.set(false);
-        currentPreloadingBookId.set(null);
+    private void publishPreloaded(Book book, NovelParser.Chapter chapter, Supplier<String> content) {
+        ApplicationManager.getApplication().getMessageBus()
+            .syncPublisher(ChapterPreloadedNotifier.TOPIC)
+            .chapterPreloaded(book, chapter, content);
     }
 
     /**
@@ -218,4 +229,29 @@ public final class ReactiveChapterPreloader {
         preloadChaptersReactive(book, currentChapterIndex)
             .subscribe();
     }
-}
\ No newline at end of file
+
+    @Override
+    public void dispose() {
+        PrefetchStats stats = getPrefetchStats();
+        LOG.info("预加载命中率: " + String.format("%.1f%%", stats.hitRate() * 100)
+                + " (命中 " + stats.hitCount() + ", 未命中 " + stats.missCount() + ")");
+    }
+
+    /**
+     * 预加载统计
+     *
+     * @param hitCount  首次打开时已由预加载缓存的章节数
+     * @param missCount 首次打开时未被预加载的章节数
+     */
+    public record PrefetchStats(long hitCount, long missCount) {
+        /**
+         * 获取预加载命中率
+         *
+         * @return 命中率（0-1）
+         */
+        public double hitRate() {
+            long total = hitCount + missCount;
+            return total == 0 ? 0.0 : (double) hitCount / total;
+        }
+    }
+}
@@ -17,6 +17,7 @@ import com.lv.tool.privatereader.settings.CacheSettingsListener;
 import com.lv.tool.privatereader.settings.ReaderModeSettings;
 import com.intellij.openapi.application.ApplicationManager;
 import com.lv.tool.privatereader.async.ReactiveSchedulers;
+import com.lv.tool.privatereader.storage.cache.ReactiveChapterPreloader;
 import com.intellij.openapi.ui.Messages;
 import com.lv.tool.privatereader.events.ChapterChangeManager;
 import com.lv.tool.privatereader.events.ChapterChangeEventSource;
@@ -26,6 +27,8 @@ import reactor.core.publisher.Mono;
 import com.lv.tool.privatereader.ui.mvi.ReaderViewModel;
 import com.lv.tool.privatereader.ui.mvi.ReaderUiState;
 import com.lv.tool.privatereader.ui.mvi.IReaderIntent;
+import com.lv.tool.privatereader.ui.helper.ChapterListModel;
+import com.lv.tool.privatereader.ui.helper.ListModelDiff;
 import io.reactivex.rxjava3.disposables.CompositeDisposable;
 import javax.swing.SwingUtilities;
 import com.intellij.openapi.application.ModalityState;
@@ -69,7 +72,7 @@ public class ReaderPanel extends SimpleToolWindowPanel implements Disposable {
     // UI组件
     private final DefaultListModel<Book> booksListModel;
     private final JBList<Book> booksList;
-    private final DefaultListModel<Chapter> chaptersListModel;
+    private final ChapterListModel chaptersListModel;
     private final JBList<Chapter> chaptersList;
     private final JTextArea contentTextArea;
     private final JBScrollPane contentScrollPane;
@@ -98,6 +101,9 @@ public class ReaderPanel extends SimpleToolWindowPanel implements Disposable {
     private final ReaderViewModel viewModel;
     private final CompositeDisposable disposables = new CompositeDisposable();
     private ReaderUiState currentUiState; // Cache the last rendered state
+    // 列表模型对应的状态列表版本，-1 表示列表模型已被直接修改，需要重新同步
+    private long renderedBooksVersion = -1;
+    private long renderedChaptersVersion = -1;
 
     public ReaderPanel(Project project) {
         super(true);
@@ -154,9 +160,10 @@ public class ReaderPanel extends SimpleToolWindowPanel implements Disposable {
         booksList = new JBList<>(booksListModel);
         booksList.setCellRenderer(new BookListCellRenderer());
 
-        chaptersListModel = new DefaultListModel<>();
+        chaptersListModel = new ChapterListModel();
         chaptersList = new JBList<>(chaptersListModel);
         chaptersList.setCellRenderer(new ChapterListCellRenderer());
+        ChapterListModel.useFixedCellSize(chaptersList);
 
         contentTextArea = new JTextArea();
         contentTextArea.setEditable(false);
@@ -476,18 +483,15 @@ public class ReaderPanel extends SimpleToolWindowPanel implements Disposable {
                 }
             }
             
-            // 如果索引Map中没有找到，则回退到线性搜索
-            if (chapterToLoad == null) {
-                LOG.debug("索引Map中未找到章节，回退到线性搜索");
-                for (int i = 0; i < chaptersListModel.getSize(); i++) {
-                    Chapter chapter = chaptersListModel.getElementAt(i);
-                    if (lastReadChapterId.equals(chapter.url())) {
-                            chapterToLoad = chapter;
-                            chapterIndexToSelect = i;
-                        LOG.debug("通过线性搜索自动选择上次阅读的章节: " + chapter.title());
-                            break;
-                        }
-                    }
+            // 书籍索引与显示的列表不一致时，按列表模型的索引查找
+            if (chapterToLoad == null || chapterIndexToSelect >= chaptersListModel.getSize()
+                    || chaptersListModel.getElementAt(chapterIndexToSelect) != chapterToLoad) {
+                chapterToLoad = null;
+                chapterIndexToSelect = chaptersListModel.indexOf(lastReadChapterId);
+                if (chapterIndexToSelect != -1) {
+                    chapterToLoad = chaptersListModel.getElementAt(chapterIndexToSelect);
+                    LOG.debug("通过列表模型索引自动选择上次阅读的章节: " + chapterToLoad.title());
+                }
             }
             
                     if (chapterToLoad == null) {
@@ -666,8 +670,13 @@ public class ReaderPanel extends SimpleToolWindowPanel implements Disposable {
      * 停止预加载
      */
     private void stopPreloading() {
-        // TODO: 实现预加载停止逻辑
         LOG.info("停止预加载");
+        if (selectedBook != null) {
+            ReactiveChapterPreloader preloader = ApplicationManager.getApplication().getService(ReactiveChapterPreloader.class);
+            if (preloader != null) {
+                preloader.stopPreload(selectedBook.getId());
+            }
+        }
     }
 
     /**
@@ -829,7 +838,8 @@ public class ReaderPanel extends SimpleToolWindowPanel implements Disposable {
         if (selectedBook != null) {
             LOG.info("刷新章节列表: " + selectedBook.getTitle());
             // Clear current list model before loading
-            chaptersListModel.clear();
+            chaptersListModel.setChapters(List.of());
+            renderedChaptersVersion = -1;
             loadChapters(selectedBook);
              // Provide user feedback
             if (notificationService != null) {
@@ -899,7 +909,7 @@ public class ReaderPanel extends SimpleToolWindowPanel implements Disposable {
                 } else {
                         LOG.debug("在索引 " + foundIndex + " 找到书籍，设置选中项");
                         // 合并UI更新操作
-                        selectedBook = booksListModel.getElementAt(foundIndex);
+                        selectedBook = bookToSelect; // 列表中是书架条目，不含章节和进度
                         booksList.setSelectedIndex(foundIndex);
                         booksList.ensureIndexIsVisible(foundIndex);
                         LOG.debug("[selectBookAndLoadProgress] 直接加载书籍章节");
@@ -958,42 +968,22 @@ public class ReaderPanel extends SimpleToolWindowPanel implements Disposable {
                         LOG.warn("[loadChapter] 列表中未找到目标书籍 " + book.getTitle());
                     }
                     
-                    // 清空并重新加载章节列表
-                    chaptersListModel.clear();
+                    // 重新加载章节列表
                     List<Chapter> chaptersFromCache = book.getCachedChapters();
+                    renderedChaptersVersion = -1;
                     if (chaptersFromCache != null && !chaptersFromCache.isEmpty()) {
-                        for (Chapter chap : chaptersFromCache) {
-                            chaptersListModel.addElement(chap);
-                        }
+                        chaptersListModel.setChapters(chaptersFromCache, book);
                     } else {
+                        chaptersListModel.setChapters(List.of());
                         LOG.warn("[loadChapter] 书籍 " + book.getTitle() + " 没有缓存的章节，无法加载特定章节 " + chapter.title());
                     }
 
                     // 在章节列表中查找并选择目标章节
-                    boolean chapterFoundInList = false;
-            for (int i = 0; i < chaptersListModel.getSize(); i++) {
-                        if (chaptersListModel.getElementAt(i).url().equals(chapter.url())) {
-                            chaptersList.setSelectedIndex(i);
-                            chaptersList.ensureIndexIsVisible(i);
-                            chapterFoundInList = true;
-                            break;
-                        }
-                    }
-                    
-                    if (!chapterFoundInList && chaptersListModel.isEmpty() && 
-                        chaptersFromCache != null && chaptersFromCache.contains(chapter)) {
-                        LOG.debug("[loadChapter] 章节 " + chapter.title() + " 在刷新后的列表模型中未找到，但存在于缓存中，添加它");
-                        chaptersListModel.addElement(chapter);
-                        
-                        // 再次尝试选择
-                        for (int i = 0; i < chaptersListModel.getSize(); i++) {
-                            if (chaptersListModel.getElementAt(i).url().equals(chapter.url())) {
-                    chaptersList.setSelectedIndex(i);
-                    chaptersList.ensureIndexIsVisible(i);
-                                chapterFoundInList = true;
-                    break;
-                }
-            }
+                    int chapterIndex = chaptersListModel.indexOf(chapter.url());
+                    boolean chapterFoundInList = chapterIndex != -1;
+                    if (chapterFoundInList) {
+                        chaptersList.setSelectedIndex(chapterIndex);
+                        chaptersList.ensureIndexIsVisible(chapterIndex);
                     }
                      if (!chapterFoundInList) {
                         LOG.warn("[loadChapter] 目标章节 " + chapter.title() + " 在书籍 " + book.getTitle() + " 的章节列表中未找到");
@@ -1003,17 +993,14 @@ public class ReaderPanel extends SimpleToolWindowPanel implements Disposable {
                     this.selectedChapter = chapter;
                     
                     // 在章节列表中查找并选择目标章节
-                    boolean chapterFoundInList = false;
-            for (int i = 0; i < chaptersListModel.getSize(); i++) {
-                        if (chaptersListModel.getElementAt(i).url().equals(chapter.url())) {
-                            if (chaptersList.getSelectedIndex() != i) {
-                                chaptersList.setSelectedIndex(i);
-                            }
-                    chaptersList.ensureIndexIsVisible(i);
-                            chapterFoundInList = true;
-                    break;
-                }
-            }
+                    int chapterIndex = chaptersListModel.indexOf(chapter.url());
+                    boolean chapterFoundInList = chapterIndex != -1;
+                    if (chapterFoundInList) {
+                        if (chaptersList.getSelectedIndex() != chapterIndex) {
+                            chaptersList.setSelectedIndex(chapterIndex);
+                        }
+                        chaptersList.ensureIndexIsVisible(chapterIndex);
+                    }
                     
                      if (!chapterFoundInList) {
                         LOG.warn("[loadChapter] 目标章节 " + chapter.title() + " 在当前书籍 " + book.getTitle() + " 的章节列表中未找到");
@@ -1047,13 +1034,10 @@ public class ReaderPanel extends SimpleToolWindowPanel implements Disposable {
         booksList.setEnabled(!state.isLoadingBooks());
         chaptersList.setEnabled(!state.isLoadingChapters());
 
-        // Update books list
-        // A more efficient update would be better, but for now this is fine.
-        if (booksListModel.isEmpty() || !state.getBooks().equals(booksListModel.elements().asIterator())) {
-            booksListModel.clear();
-            for (Book book : state.getBooks()) {
-                booksListModel.addElement(book);
-            }
+        // Update books list: only when the state carries a different list, and only the changed range
+        if (state.getBooksVersion() != renderedBooksVersion) {
+            ListModelDiff.apply(booksListModel, state.getBooks(), (shown, book) -> shown == book);
+            renderedBooksVersion = state.getBooksVersion();
         }
         
         // Update selected book
@@ -1069,25 +1053,23 @@ public class ReaderPanel extends SimpleToolWindowPanel implements Disposable {
             }
         }
 
+        // The list holds shelf entries only; progress and chapters come from the full selected book
+        if (state.getSelectedBook() != null) {
+            selectedBook = state.getSelectedBook();
+        }
+
         // Update chapters, content, etc. will be added here
-        if (state.getChapters() != null) {
-            chaptersListModel.clear();
-            for (Chapter chapter : state.getChapters()) {
-                chaptersListModel.addElement(chapter);
-            }
+        if (state.getChapters() != null && state.getChaptersVersion() != renderedChaptersVersion) {
+            chaptersListModel.setChapters(state.getChapters(), selectedBook);
+            renderedChaptersVersion = state.getChaptersVersion();
         }
         
         if (state.getSelectedChapterId() != null) {
-            for (int i = 0; i < chaptersListModel.getSize(); i++) {
-                if (chaptersListModel.getElementAt(i).url().equals(state.getSelectedChapterId())) {
-                    if (chaptersList.getSelectedIndex() != i) {
-                        chaptersList.setSelectedIndex(i);
-                        chaptersList.ensureIndexIsVisible(i);
-                    }
-                    break;
-                }
+            int i = chaptersListModel.indexOf(state.getSelectedChapterId());
+            if (i != -1 && chaptersList.getSelectedIndex() != i) {
+                chaptersList.setSelectedIndex(i);
+                chaptersList.ensureIndexIsVisible(i);
             }
-        
         }
         
         currentChapterDisplayLabel.setText(state.getCurrentChapterTitle());
@@ -6,11 +6,13 @@ import com.intellij.openapi.ui.DialogWrapper;
 import com.intellij.ui.components.JBList;
 import com.intellij.ui.components.JBScrollPane;
 import com.intellij.util.ui.JBUI;
+import com.lv.tool.privatereader.events.BookEvents;
 import com.lv.tool.privatereader.model.Book;
 import com.lv.tool.privatereader.parser.NovelParser;
 import com.lv.tool.privatereader.service.ChapterService;
 import com.lv.tool.privatereader.async.ReactiveSchedulers;
 import com.lv.tool.privatereader.service.NotificationService;
+import com.lv.tool.privatereader.ui.helper.ChapterListModel;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,8 +20,6 @@ import com.intellij.openapi.ui.Messages;
 import com.lv.tool.privatereader.messaging.CurrentChapterNotifier;
 import com.intellij.util.messages.MessageBusConnection;
 import javax.swing.SwingUtilities;
-import javax.swing.DefaultListModel;
-import javax.swing.ListModel;
 
 import javax.swing.*;
 import java.awt.*;
@@ -30,6 +30,7 @@ import java.util.List;
 public class ChapterListDialog extends DialogWrapper {
     private final Project project;
     private final Book book;
+    private final ChapterListModel chapterModel;
     private final JBList<NovelParser.Chapter> chapterList;
     private JPanel mainPanel;
     private JLabel infoLabel;
@@ -42,7 +43,8 @@ public class ChapterListDialog extends DialogWrapper {
         super(project, true);
         this.project = project;
         this.book = book;
-        this.chapterList = new JBList<>();
+        this.chapterModel = new ChapterListModel();
+        this.chapterList = new JBList<>(chapterModel);
 
         this.chapterService = com.intellij.openapi.application.ApplicationManager.getApplication()
             .getService(com.lv.tool.privatereader.service.ChapterService.class);
@@ -76,7 +78,7 @@ public class ChapterListDialog extends DialogWrapper {
                                 // 保存当前选中的索引，以便刷新后尽量恢复视图
                                 int previouslySelectedIndex = chapterList.getSelectedIndex();
 
-                                chapterList.setListData(currentCachedChapters.toArray(new NovelParser.Chapter[0]));
+                                chapterModel.setChapters(currentCachedChapters, ChapterListDialog.this.book);
                                 LOG.debug("ChapterListDialog model refreshed with " + currentCachedChapters.size() + " chapters from book's cache.");
                                 
                                 found = findAndSelectChapter(newChapter.url());
@@ -99,17 +101,23 @@ public class ChapterListDialog extends DialogWrapper {
                 });
             }
         });
+
+        // 目录分多页抓取时，先显示已加载的章节
+        connection.subscribe(BookEvents.ChapterListListener.CHAPTER_LIST_TOPIC,
+            (BookEvents.ChapterListListener) (bookUrl, chapters) -> SwingUtilities.invokeLater(() -> {
+                if (isLoading && bookUrl != null && bookUrl.equals(book.getUrl())) {
+                    chapterModel.setChapters(chapters, book);
+                }
+            }));
     }
 
     // Helper method to avoid code duplication
     private boolean findAndSelectChapter(String chapterUrl) {
-        ListModel<NovelParser.Chapter> model = chapterList.getModel();
-        for (int i = 0; i < model.getSize(); i++) {
-            if (model.getElementAt(i).url().equals(chapterUrl)) {
-                chapterList.setSelectedIndex(i);
-                chapterList.ensureIndexIsVisible(i);
-                return true; // Found and selected
-            }
+        int index = chapterModel.indexOf(chapterUrl);
+        if (index != -1) {
+            chapterList.setSelectedIndex(index);
+            chapterList.ensureIndexIsVisible(index);
+            return true; // Found and selected
         }
         return false; // Not found
     }
@@ -124,6 +132,7 @@ public class ChapterListDialog extends DialogWrapper {
 
         // 创建章节列表
         chapterList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        ChapterListModel.useFixedCellSize(chapterList);
         chapterList.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
@@ -190,7 +199,7 @@ public class ChapterListDialog extends DialogWrapper {
     private void loadChapters() {
         if (book == null || chapterService == null) {
             LOG.warn("无法加载章节列表：书籍或章节服务为空");
-            chapterList.setListData(new NovelParser.Chapter[0]);
+            chapterModel.setChapters(List.of());
             return;
         }
 
@@ -202,7 +211,7 @@ public class ChapterListDialog extends DialogWrapper {
         if (book.getParser() == null) {
             LOG.error("书籍解析器为空，无法加载章节列表：书籍=" + book.getTitle() + ", URL=" + book.getUrl());
             ApplicationManager.getApplication().getService(NotificationService.class).showError("错误", "无法加载章节列表：书籍解析器初始化失败");
-            chapterList.setListData(new NovelParser.Chapter[0]);
+            chapterModel.setChapters(List.of());
             setLoading(false);
             isLoading = false;
             return;
@@ -212,18 +221,16 @@ public class ChapterListDialog extends DialogWrapper {
         java.util.List<NovelParser.Chapter> bookCachedChapters = book.getCachedChapters();
         if (bookCachedChapters != null && !bookCachedChapters.isEmpty()) {
             LOG.info("直接使用Book对象的缓存章节列表：书籍=" + book.getTitle() + ", 章节数量=" + bookCachedChapters.size());
-            chapterList.setListData(bookCachedChapters.toArray(new NovelParser.Chapter[0]));
+            chapterModel.setChapters(bookCachedChapters, book);
 
             // 尝试选择上次阅读的章节
             String lastChapterId = book.getLastReadChapterId();
             if (lastChapterId != null) {
-                for (int i = 0; i < bookCachedChapters.size(); i++) {
-                    if (lastChapterId.equals(bookCachedChapters.get(i).url())) {
-                        chapterList.setSelectedIndex(i);
-                        chapterList.ensureIndexIsVisible(i);
-                        LOG.debug("已选择上次阅读的章节：索引=" + i + ", 标题=" + bookCachedChapters.get(i).title());
-                        break;
-                    }
+                int index = chapterModel.indexOf(lastChapterId);
+                if (index != -1) {
+                    chapterList.setSelectedIndex(index);
+                    chapterList.ensureIndexIsVisible(index);
+                    LOG.debug("已选择上次阅读的章节：索引=" + index + ", 标题=" + bookCachedChapters.get(index).title());
                 }
             }
 
@@ -243,17 +250,15 @@ public class ChapterListDialog extends DialogWrapper {
             java.util.List<NovelParser.Chapter> cachedChapters = book.getCachedChapters();
             if (cachedChapters != null && !cachedChapters.isEmpty()) {
                 LOG.info("使用缓存的章节列表：书籍=" + book.getTitle() + ", 章节数量=" + cachedChapters.size());
-                chapterList.setListData(cachedChapters.toArray(new NovelParser.Chapter[0]));
+                chapterModel.setChapters(cachedChapters, book);
 
                 // 尝试选择上次阅读的章节
                 String lastChapterId = book.getLastReadChapterId();
                 if (lastChapterId != null) {
-                    for (int i = 0; i < cachedChapters.size(); i++) {
-                        if (lastChapterId.equals(cachedChapters.get(i).url())) {
-                            chapterList.setSelectedIndex(i);
-                            chapterList.ensureIndexIsVisible(i);
-                            break;
-                        }
+                    int index = chapterModel.indexOf(lastChapterId);
+                    if (index != -1) {
+                        chapterList.setSelectedIndex(index);
+                        chapterList.ensureIndexIsVisible(index);
                     }
                 }
 
@@ -272,7 +277,7 @@ public class ChapterListDialog extends DialogWrapper {
             } else {
                 LOG.warn("没有缓存的章节列表，无法在离线模式下加载");
                 ApplicationManager.getApplication().getService(NotificationService.class).showError("无法加载章节列表", "网络连接不可用，且没有缓存的章节列表。");
-                chapterList.setListData(new NovelParser.Chapter[0]);
+                chapterModel.setChapters(List.of());
                 setLoading(false);
                 isLoading = false;
                 return;
@@ -324,7 +329,7 @@ public class ChapterListDialog extends DialogWrapper {
                             "章节列表为空");
 
                         // 更新UI，显示空列表
-                        chapterList.setListData(new NovelParser.Chapter[0]);
+                        chapterModel.setChapters(List.of());
 
                         // 重置重试计数
                         retryCount = 0;
@@ -335,19 +340,17 @@ public class ChapterListDialog extends DialogWrapper {
                     }
 
                     // 更新UI
-                    chapterList.setListData(chapters.toArray(new NovelParser.Chapter[0]));
+                    chapterModel.setChapters(chapters, book);
 
                     // Try to select current chapter if provided
                     String lastChapterId = book.getLastReadChapterId();
                     if (lastChapterId != null) {
                         LOG.debug("尝试选择上次阅读的章节：章节ID=" + lastChapterId);
-                        for (int i = 0; i < chapters.size(); i++) {
-                            if (lastChapterId.equals(chapters.get(i).url())) {
-                                chapterList.setSelectedIndex(i);
-                                chapterList.ensureIndexIsVisible(i);
-                                LOG.debug("已选择上次阅读的章节：索引=" + i + ", 标题=" + chapters.get(i).title());
-                                break;
-                            }
+                        int index = chapterModel.indexOf(lastChapterId);
+                        if (index != -1) {
+                            chapterList.setSelectedIndex(index);
+                            chapterList.ensureIndexIsVisible(index);
+                            LOG.debug("已选择上次阅读的章节：索引=" + index + ", 标题=" + chapters.get(index).title());
                         }
                     }
                     updateInfoLabel(chapters);
@@ -390,17 +393,15 @@ public class ChapterListDialog extends DialogWrapper {
                     java.util.List<NovelParser.Chapter> cachedChapters = book.getCachedChapters();
                     if (cachedChapters != null && !cachedChapters.isEmpty()) {
                         LOG.info("加载失败，使用缓存的章节列表：书籍=" + book.getTitle() + ", 章节数量=" + cachedChapters.size());
-                        chapterList.setListData(cachedChapters.toArray(new NovelParser.Chapter[0]));
+                        chapterModel.setChapters(cachedChapters, book);
 
                         // 尝试选择上次阅读的章节
                         String lastChapterId = book.getLastReadChapterId();
                         if (lastChapterId != null) {
-                            for (int i = 0; i < cachedChapters.size(); i++) {
-                                if (lastChapterId.equals(cachedChapters.get(i).url())) {
-                                    chapterList.setSelectedIndex(i);
-                                    chapterList.ensureIndexIsVisible(i);
-                                    break;
-                                }
+                            int index = chapterModel.indexOf(lastChapterId);
+                            if (index != -1) {
+                                chapterList.setSelectedIndex(index);
+                                chapterList.ensureIndexIsVisible(index);
                             }
                         }
 
@@ -414,7 +415,7 @@ public class ChapterListDialog extends DialogWrapper {
                             "使用缓存");
                     } else {
                         ApplicationManager.getApplication().getService(NotificationService.class).showError("加载章节列表失败", error.getMessage());
-                        chapterList.setListData(new NovelParser.Chapter[0]);
+                        chapterModel.setChapters(List.of());
                     }
 
                     // 重置重试计数
@@ -501,7 +502,7 @@ public class ChapterListDialog extends DialogWrapper {
                                 loadingProgress.setStringPainted(false);
 
                                 // 更新章节列表
-                                chapterList.setListData(chapters.toArray(new NovelParser.Chapter[0]));
+                                chapterModel.setChapters(chapters, book);
 
                                 // 尝试选择上次阅读的章节
                                 selectLastReadChapter(chapters);
@@ -552,7 +553,7 @@ public class ChapterListDialog extends DialogWrapper {
                                 loadingProgress.setStringPainted(false);
 
                                 // 更新章节列表
-                                chapterList.setListData(chapters.toArray(new NovelParser.Chapter[0]));
+                                chapterModel.setChapters(chapters, book);
 
                                 // 尝试选择上次阅读的章节
                                 selectLastReadChapter(chapters);
@@ -683,14 +684,13 @@ public class ChapterListDialog extends DialogWrapper {
             LOG.debug("尝试选择上次阅读的章节：章节ID=" + lastChapterId);
 
             // 在章节列表中查找上次阅读的章节
-            for (int i = 0; i < chapters.size(); i++) {
-                if (lastChapterId.equals(chapters.get(i).url())) {
-                    // 选择章节
-                    chapterList.setSelectedIndex(i);
-                    chapterList.ensureIndexIsVisible(i);
-                    LOG.debug("已选择上次阅读的章节：索引=" + i + ", 标题=" + chapters.get(i).title());
-                    return;
-                }
+            int index = chapterModel.indexOf(lastChapterId);
+            if (index != -1) {
+                // 选择章节
+                chapterList.setSelectedIndex(index);
+                chapterList.ensureIndexIsVisible(index);
+                LOG.debug("已选择上次阅读的章节：索引=" + index + ", 标题=" + chapterModel.getElementAt(index).title());
+                return;
             }
 
             LOG.warn("未找到上次阅读的章节：章节ID=" + lastChapterId);
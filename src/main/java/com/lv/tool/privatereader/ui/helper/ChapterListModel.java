@@ -0,0 +1,179 @@
+package com.lv.tool.privatereader.ui.helper;
+
+import com.lv.tool.privatereader.model.Book;
+import com.lv.tool.privatereader.parser.NovelParser.Chapter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.AbstractListModel;
+import javax.swing.JList;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 只读章节列表模型
+ *
+ * 直接使用书籍的章节列表作为数据，不复制章节，显示时才读取对应的元素：
+ * - 更换列表时只比较新旧列表的公共前缀和后缀，中间部分整段删除、整段插入，
+ *   最多触发两个列表事件；首次显示不做任何比较，与章节数无关
+ * - 配合 {@link #useFixedCellSize} 使用固定行高，列表布局不再逐行测量所有章节
+ * - 按URL查找章节时优先使用 {@link Book#getChapterIndex} 的索引，
+ *   不是书籍章节存储的列表在第一次查找时建立索引
+ *
+ * 模型不修改列表，调用方也不能修改已交给模型的列表，需要变化时传入新的列表。
+ * 必须在EDT上使用。
+ */
+public final class ChapterListModel extends AbstractListModel<Chapter> {
+    /**
+     * 计算固定行高和最小行宽的样例章节
+     */
+    private static final Chapter PROTOTYPE = new Chapter("第0000章 章节标题示例文字", "");
+
+    private List<Chapter> chapters = List.of();
+    @Nullable
+    private Book book;
+    @Nullable
+    private Map<String, Integer> urlIndex;
+
+    /**
+     * 设置列表使用固定的行高和最小行宽
+     * 行高按样例章节计算，行宽跟随视口，过长的标题在行末截断
+     *
+     * @param list 章节列表，调用前应已设置渲染器
+     */
+    public static void useFixedCellSize(@NotNull JList<Chapter> list) {
+        list.setPrototypeCellValue(PROTOTYPE);
+    }
+
+    @Override
+    public int getSize() {
+        return chapters.size();
+    }
+
+    @Override
+    public Chapter getElementAt(int index) {
+        return chapters.get(index);
+    }
+
+    /**
+     * 当前显示的章节列表，只读
+     */
+    @NotNull
+    public List<Chapter> getChapters() {
+        return chapters;
+    }
+
+    public boolean isEmpty() {
+        return chapters.isEmpty();
+    }
+
+    /**
+     * 显示书籍的章节存储
+     *
+     * @param book 书籍，章节为空时显示空列表
+     */
+    public void setBook(@NotNull Book book) {
+        List<Chapter> cached = book.getCachedChapters();
+        setChapters(cached != null ? cached : List.of(), book);
+    }
+
+    /**
+     * 显示章节列表
+     *
+     * @param chapters 章节列表
+     */
+    public void setChapters(@NotNull List<Chapter> chapters) {
+        setChapters(chapters, null);
+    }
+
+    /**
+     * 显示章节列表
+     *
+     * @param chapters 章节列表
+     * @param book 章节列表所属的书籍，列表是该书的章节存储时用它的索引查找章节
+     */
+    public void setChapters(@NotNull List<Chapter> chapters, @Nullable Book book) {
+        List<Chapter> old = this.chapters;
+        this.book = book;
+        this.urlIndex = null;
+        if (old == chapters) {
+            return;
+        }
+
+        int oldSize = old.size();
+        int newSize = chapters.size();
+        int limit = Math.min(oldSize, newSize);
+        int prefix = 0;
+        while (prefix < limit && sameChapter(old.get(prefix), chapters.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < limit - prefix
+                && sameChapter(old.get(oldSize - 1 - suffix), chapters.get(newSize - 1 - suffix))) {
+            suffix++;
+        }
+
+        if (oldSize - suffix > prefix) {
+            // 先只保留前缀和后缀，删除事件发出时模型的大小与事件一致
+            this.chapters = join(chapters.subList(0, prefix), chapters.subList(newSize - suffix, newSize));
+            fireIntervalRemoved(this, prefix, oldSize - suffix - 1);
+        }
+        this.chapters = chapters;
+        if (newSize - suffix > prefix) {
+            fireIntervalAdded(this, prefix, newSize - suffix - 1);
+        }
+    }
+
+    /**
+     * 查找章节在列表中的位置
+     *
+     * @param url 章节URL
+     * @return 章节索引，不在列表中时返回-1
+     */
+    public int indexOf(@Nullable String url) {
+        if (url == null || chapters.isEmpty()) {
+            return -1;
+        }
+        if (book != null && book.getCachedChapters() == chapters) {
+            int index = book.getChapterIndex(url);
+            if (index >= 0 && index < chapters.size() && url.equals(chapters.get(index).url())) {
+                return index;
+            }
+        }
+        if (urlIndex == null) {
+            Map<String, Integer> index = new HashMap<>(chapters.size() * 2);
+            for (int i = chapters.size() - 1; i >= 0; i--) {
+                index.put(chapters.get(i).url(), i);
+            }
+            urlIndex = index;
+        }
+        Integer index = urlIndex.get(url);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * 地址和标题都相同时显示内容不变
+     */
+    private static boolean sameChapter(Chapter shown, Chapter chapter) {
+        return shown == chapter || (shown.url().equals(chapter.url()) && shown.title().equals(chapter.title()));
+    }
+
+    private static List<Chapter> join(List<Chapter> head, List<Chapter> tail) {
+        if (tail.isEmpty()) {
+            return head;
+        }
+        return new AbstractList<>() {
+            @Override
+            public Chapter get(int index) {
+                return index < head.size() ? head.get(index) : tail.get(index - head.size());
+            }
+
+            @Override
+            public int size() {
+                return head.size() + tail.size();
+            }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.lv.tool.privatereader.ui.helper;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.DefaultListModel;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * 列表模型增量更新
+ *
+ * 比较列表模型和新列表的公共前缀和公共后缀，只替换中间不同的部分：
+ * 中间部分整段删除、整段插入，每次更新最多触发两个列表事件，
+ * 而不是逐个元素清空再添加时的成千上万个事件。
+ * 章节列表追加新章节时只触发一次插入事件，选中项和滚动位置不受影响。
+ *
+ * 必须在EDT上调用。
+ */
+public final class ListModelDiff {
+
+    private ListModelDiff() {
+    }
+
+    /**
+     * 把列表模型更新为新列表的内容
+     *
+     * @param model 列表模型
+     * @param items 新列表
+     * @param same 判断模型中的元素能否保留，不能保留的元素会被替换
+     * @return 触发的列表事件数
+     */
+    public static <T> int apply(@NotNull DefaultListModel<T> model, @NotNull List<? extends T> items,
+                                @NotNull BiPredicate<? super T, ? super T> same) {
+        int oldSize = model.getSize();
+        int newSize = items.size();
+        int prefix = 0;
+        int limit = Math.min(oldSize, newSize);
+        while (prefix < limit && same.test(model.getElementAt(prefix), items.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < limit - prefix
+                && same.test(model.getElementAt(oldSize - 1 - suffix), items.get(newSize - 1 - suffix))) {
+            suffix++;
+        }
+
+        int events = 0;
+        if (oldSize - suffix > prefix) {
+            model.removeRange(prefix, oldSize - suffix - 1);
+            events++;
+        }
+        if (newSize - suffix > prefix) {
+            model.addAll(prefix, items.subList(prefix, newSize - suffix));
+            events++;
+        }
+        return events;
+    }
+}
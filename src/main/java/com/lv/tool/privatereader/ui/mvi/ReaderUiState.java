@@ -6,30 +6,46 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class ReaderUiState {
+    // Every books/chapters list put into a state gets a new version, so the view can skip unchanged lists
+    private static final AtomicLong LIST_VERSIONS = new AtomicLong();
+
     private final boolean isLoadingBooks;
     private final boolean isLoadingChapters;
     private final boolean isLoadingContent;
     private final List<Book> books;
     private final List<Chapter> chapters;
+    private final long booksVersion;
+    private final long chaptersVersion;
     private final String content;
     private final String currentChapterTitle;
     @Nullable
     private final String selectedBookId;
+    // The books list holds lightweight shelf entries; this is the fully loaded selected book
+    @Nullable
+    private final Book selectedBook;
     @Nullable
     private final String selectedChapterId;
     @Nullable
     private final String error;
     public ReaderUiState(boolean isLoadingBooks, boolean isLoadingChapters, boolean isLoadingContent, List<Book> books, List<Chapter> chapters, String content, String currentChapterTitle, @Nullable String selectedBookId, @Nullable String selectedChapterId, @Nullable String error) {
+        this(isLoadingBooks, isLoadingChapters, isLoadingContent, books, LIST_VERSIONS.incrementAndGet(), chapters, LIST_VERSIONS.incrementAndGet(), content, currentChapterTitle, selectedBookId, null, selectedChapterId, error);
+    }
+
+    private ReaderUiState(boolean isLoadingBooks, boolean isLoadingChapters, boolean isLoadingContent, List<Book> books, long booksVersion, List<Chapter> chapters, long chaptersVersion, String content, String currentChapterTitle, @Nullable String selectedBookId, @Nullable Book selectedBook, @Nullable String selectedChapterId, @Nullable String error) {
         this.isLoadingBooks = isLoadingBooks;
         this.isLoadingChapters = isLoadingChapters;
         this.isLoadingContent = isLoadingContent;
         this.books = books;
         this.chapters = chapters;
+        this.booksVersion = booksVersion;
+        this.chaptersVersion = chaptersVersion;
         this.content = content;
         this.currentChapterTitle = currentChapterTitle;
         this.selectedBookId = selectedBookId;
+        this.selectedBook = selectedBook;
         this.selectedChapterId = selectedChapterId;
         this.error = error;
     }
@@ -44,9 +60,15 @@ public final class ReaderUiState {
     public boolean isLoadingContent() { return isLoadingContent; }
     public List<Book> getBooks() { return books; }
     public List<Chapter> getChapters() { return chapters; }
+    /** Changes whenever a different books list is set; equal versions mean the same list instance */
+    public long getBooksVersion() { return booksVersion; }
+    /** Changes whenever a different chapters list is set; equal versions mean the same list instance */
+    public long getChaptersVersion() { return chaptersVersion; }
     public String getContent() { return content; }
     public String getCurrentChapterTitle() { return currentChapterTitle; }
     @Nullable public String getSelectedBookId() { return selectedBookId; }
+    /** The full book for {@link #getSelectedBookId()}, or null until it has been loaded */
+    @Nullable public Book getSelectedBook() { return selectedBook; }
     @Nullable public String getSelectedChapterId() { return selectedChapterId; }
     @Nullable public String getError() { return error; }
     // Using a Builder for a cleaner copyWith pattern
@@ -60,9 +82,12 @@ public final class ReaderUiState {
         private boolean isLoadingContent;
         private List<Book> books;
         private List<Chapter> chapters;
+        private long booksVersion;
+        private long chaptersVersion;
         private String content;
         private String currentChapterTitle;
         @Nullable private String selectedBookId;
+        @Nullable private Book selectedBook;
         @Nullable private String selectedChapterId;
         @Nullable private String error;
         public Builder() {}
@@ -73,9 +98,12 @@ public final class ReaderUiState {
             this.isLoadingContent = state.isLoadingContent;
             this.books = state.books;
             this.chapters = state.chapters;
+            this.booksVersion = state.booksVersion;
+            this.chaptersVersion = state.chaptersVersion;
             this.content = state.content;
             this.currentChapterTitle = state.currentChapterTitle;
             this.selectedBookId = state.selectedBookId;
+            this.selectedBook = state.selectedBook;
             this.selectedChapterId = state.selectedChapterId;
             this.error = state.error;
         }
@@ -83,15 +111,36 @@ public final class ReaderUiState {
         public Builder isLoadingBooks(boolean isLoadingBooks) { this.isLoadingBooks = isLoadingBooks; return this; }
         public Builder isLoadingChapters(boolean isLoadingChapters) { this.isLoadingChapters = isLoadingChapters; return this; }
         public Builder isLoadingContent(boolean isLoadingContent) { this.isLoadingContent = isLoadingContent; return this; }
-        public Builder books(List<Book> books) { this.books = books; return this; }
-        public Builder chapters(List<Chapter> chapters) { this.chapters = chapters; return this; }
+        public Builder books(List<Book> books) {
+            if (books != this.books || booksVersion == 0) booksVersion = LIST_VERSIONS.incrementAndGet();
+            this.books = books;
+            return this;
+        }
+        public Builder chapters(List<Chapter> chapters) {
+            if (chapters != this.chapters || chaptersVersion == 0) chaptersVersion = LIST_VERSIONS.incrementAndGet();
+            this.chapters = chapters;
+            return this;
+        }
         public Builder content(String content) { this.content = content; return this; }
         public Builder currentChapterTitle(String currentChapterTitle) { this.currentChapterTitle = currentChapterTitle; return this; }
-        public Builder selectedBookId(@Nullable String selectedBookId) { this.selectedBookId = selectedBookId; return this; }
+        public Builder selectedBookId(@Nullable String selectedBookId) {
+            // A different selection drops the full book loaded for the previous one
+            if (selectedBook != null && !selectedBook.getId().equals(selectedBookId)) selectedBook = null;
+            this.selectedBookId = selectedBookId;
+            return this;
+        }
+        public Builder selectedBook(@Nullable Book selectedBook) {
+            this.selectedBook = selectedBook;
+            if (selectedBook != null) this.selectedBookId = selectedBook.getId();
+            return this;
+        }
         public Builder selectedChapterId(@Nullable String selectedChapterId) { this.selectedChapterId = selectedChapterId; return this; }
         public Builder error(@Nullable String error) { this.error = error; return this; }
         public ReaderUiState build() {
-            return new ReaderUiState(isLoadingBooks, isLoadingChapters, isLoadingContent, books, chapters, content, currentChapterTitle, selectedBookId, selectedChapterId, error);
+            return new ReaderUiState(isLoadingBooks, isLoadingChapters, isLoadingContent, books,
+                    booksVersion != 0 ? booksVersion : LIST_VERSIONS.incrementAndGet(), chapters,
+                    chaptersVersion != 0 ? chaptersVersion : LIST_VERSIONS.incrementAndGet(),
+                    content, currentChapterTitle, selectedBookId, selectedBook, selectedChapterId, error);
         }
     }
 }
\ No newline at end of file
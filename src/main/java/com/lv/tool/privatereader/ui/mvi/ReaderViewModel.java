@@ -7,6 +7,7 @@ import com.intellij.openapi.project.Project;
 import com.lv.tool.privatereader.async.ReactiveSchedulers;
 import com.lv.tool.privatereader.async.RxJava3Adapter;
 import com.lv.tool.privatereader.model.Book;
+import com.lv.tool.privatereader.model.BookshelfEntry;
 import com.lv.tool.privatereader.storage.cache.ReactiveChapterPreloader;
 import com.lv.tool.privatereader.parser.NovelParser;
 import com.lv.tool.privatereader.parser.site.UniversalParser;
@@ -23,6 +24,7 @@ import io.reactivex.rxjava3.subjects.PublishSubject;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import io.reactivex.rxjava3.core.Single;
@@ -68,12 +70,11 @@ public class ReaderViewModel implements Disposable {
         } else if (intent instanceof IReaderIntent.SelectBook selectBook) {
             loadChaptersForBook(selectBook.bookId(), null);
         } else if (intent instanceof IReaderIntent.SelectChapter selectChapter) {
-            Book currentBook = findBookInCurrentState(uiState.getValue().getSelectedBookId());
             NovelParser.Chapter chapterToLoad = findChapterInCurrentState(selectChapter.chapterId());
-            if (currentBook != null && chapterToLoad != null) {
-                loadChapterContent(currentBook, chapterToLoad);
+            if (chapterToLoad != null) {
+                withSelectedBook(currentBook -> loadChapterContent(currentBook, chapterToLoad));
             } else {
-                LOG.warn("Could not handle SelectChapter intent, book or chapter not found in current state.");
+                LOG.warn("Could not handle SelectChapter intent, chapter not found in current state.");
             }
         } else if (intent instanceof IReaderIntent.AddBook addBook) {
             addNewBook(addBook.url());
@@ -178,6 +179,38 @@ public class ReaderViewModel implements Disposable {
         );
     }
 
+    /**
+     * Runs the action with the full selected book. The books list only holds shelf entries without
+     * chapters or progress, so the book is fetched by id and kept in the state when not loaded yet.
+     */
+    private void withSelectedBook(Consumer<Book> action) {
+        ReaderUiState state = uiState.getValue();
+        String bookId = state.getSelectedBookId();
+        if (bookId == null) {
+            LOG.warn("No book selected");
+            return;
+        }
+        if (state.getSelectedBook() != null) {
+            action.accept(state.getSelectedBook());
+            return;
+        }
+        disposables.add(
+            RxJava3Adapter.from(bookService.getBookById(bookId)).firstElement()
+                .subscribeOn(Schedulers.io())
+                .subscribe(
+                    book -> {
+                        if (!bookId.equals(uiState.getValue().getSelectedBookId())) {
+                            return;
+                        }
+                        uiState.onNext(uiState.getValue().toBuilder().selectedBook(book).build());
+                        action.accept(book);
+                    },
+                    error -> LOG.error("Failed to load selected book: " + bookId, error),
+                    () -> LOG.warn("Selected book not found: " + bookId)
+                )
+        );
+    }
+
     private NovelParser.Chapter findChapterInCurrentState(String chapterId) {
         if (uiState.getValue().getChapters() == null || chapterId == null) return null;
         return uiState.getValue().getChapters().stream()
@@ -213,9 +246,13 @@ public class ReaderViewModel implements Disposable {
                         // Determine which chapter to select after loading. Prioritize the explicitly passed one.
                         String chapterIdToSelect = chapterIdToRestore != null ? chapterIdToRestore : latestBook.getLastReadChapterId();
 
+                        if (!bookId.equals(uiState.getValue().getSelectedBookId())) {
+                            return;
+                        }
                         uiState.onNext(
                             uiState.getValue().toBuilder()
                                 .isLoadingChapters(false)
+                                .selectedBook(latestBook)
                                 .chapters(chapters)
                                 .build()
                         );
@@ -254,7 +291,8 @@ public class ReaderViewModel implements Disposable {
     private void loadInitialData() {
         uiState.onNext(uiState.getValue().toBuilder().isLoadingBooks(true).build());
         disposables.add(
-            RxJava3Adapter.from(bookService.getAllBooks()).toList()
+            // The list only needs shelf data; full details are fetched by id when a book is selected
+            RxJava3Adapter.from(bookService.getBookshelf()).map(BookshelfEntry::toBook).toList()
                 .subscribeOn(Schedulers.io())
                 .subscribe(books -> {
                     disposables.add(
@@ -303,8 +341,8 @@ public class ReaderViewModel implements Disposable {
         LOG.info("Searching for books with keyword: " + keyword);
         uiState.onNext(uiState.getValue().toBuilder().isLoadingBooks(true).build());
         disposables.add(
-            RxJava3Adapter.from(bookService.getAllBooks())
-                .filter(b -> matchesKeyword(b, keyword))
+            RxJava3Adapter.from(bookService.searchBookshelf(keyword == null ? "" : keyword))
+                .map(BookshelfEntry::toBook)
                 .toList()
                 .subscribeOn(Schedulers.io())
                 .subscribe(
@@ -317,15 +355,6 @@ public class ReaderViewModel implements Disposable {
                 )
         );
     }
-    
-    private boolean matchesKeyword(Book book, String keyword) {
-        if (keyword == null || keyword.trim().isEmpty()) {
-            return true;
-        }
-        String lowerKeyword = keyword.toLowerCase();
-        return book.getTitle().toLowerCase().contains(lowerKeyword) ||
-               (book.getAuthor() != null && book.getAuthor().toLowerCase().contains(lowerKeyword));
-    }
 
     private void refreshChapters() {
         ReaderUiState currentState = uiState.getValue();
@@ -335,8 +364,45 @@ public class ReaderViewModel implements Disposable {
             LOG.warn("Cannot refresh chapters, no book selected");
             return;
         }
-        // Pass the current chapter ID to be restored after the list is reloaded
-        loadChaptersForBook(bookId, chapterId);
+        Book book = currentState.getSelectedBook();
+        if (book == null || book.getCachedChapters() == null || book.getCachedChapters().isEmpty()) {
+            // Nothing stored yet: do a full load, restoring the current chapter afterwards
+            loadChaptersForBook(bookId, chapterId);
+            return;
+        }
+
+        // Diff against the stored list; only new chapters are appended, the open chapter stays as it is
+        uiState.onNext(uiState.getValue().toBuilder().isLoadingChapters(true).build());
+        disposables.add(
+            RxJava3Adapter.from(bookService.getBookById(bookId))
+                .flatMap(latestBook -> chapterService.refreshChapterList(latestBook)
+                        .map(update -> latestBook))
+                .subscribeOn(Schedulers.io())
+                .subscribe(
+                    latestBook -> {
+                        if (!bookId.equals(uiState.getValue().getSelectedBookId())) {
+                            return;
+                        }
+                        uiState.onNext(
+                            uiState.getValue().toBuilder()
+                                .isLoadingChapters(false)
+                                .selectedBook(latestBook)
+                                .chapters(latestBook.getCachedChapters())
+                                .build()
+                        );
+                    },
+                    error -> {
+                        LOG.error("Failed to refresh chapters for book: " + bookId, error);
+                        notificationService.showError("刷新章节列表失败", error.getMessage());
+                        uiState.onNext(uiState.getValue().toBuilder().isLoadingChapters(false).build());
+                    },
+                    () -> {
+                        if (uiState.getValue().isLoadingChapters()) {
+                            uiState.onNext(uiState.getValue().toBuilder().isLoadingChapters(false).build());
+                        }
+                    }
+                )
+        );
     }
 
     private void addNewBook(String url) {
@@ -432,21 +498,25 @@ public class ReaderViewModel implements Disposable {
        }
        LOG.debug("Handling external chapter change for book: " + book.getTitle() + ", chapter: " + chapter.title());
 
-       // First, ensure we have the latest chapter list for the book.
+       // First, resolve the full book and ensure we have the latest chapter list for it.
        disposables.add(
-           RxJava3Adapter.from(chapterService.getChapterList(book))
+           RxJava3Adapter.from(bookService.getBookById(book.getId())).firstElement()
+               .defaultIfEmpty(book)
+               .flatMap(latestBook -> RxJava3Adapter.from(chapterService.getChapterList(latestBook)).firstOrError()
+                       .map(chapters -> new kotlin.Pair<>(latestBook, chapters)))
                .subscribeOn(Schedulers.io())
                .subscribe(
-                   chapters -> {
+                   pair -> {
+                       Book latestBook = pair.getFirst();
                        // With the latest chapter list, we can now safely update the state and load the content.
                        uiState.onNext(
                            uiState.getValue().toBuilder()
-                               .selectedBookId(book.getId())
-                               .chapters(chapters) // Update the chapter list in the state
+                               .selectedBook(latestBook)
+                               .chapters(pair.getSecond()) // Update the chapter list in the state
                                .build()
                        );
                        // Now, trigger the content load for the specific chapter.
-                       loadChapterContent(book, chapter);
+                       loadChapterContent(latestBook, chapter);
                    },
                    error -> {
                        LOG.error("Failed to load chapters during external change for book: " + book.getId(), error);
@@ -50,9 +50,11 @@ public class CacheConfigurable implements Configurable {
     private JBCheckBox enableCacheCheckBox;
     private JSpinner maxCacheSizeSpinner;
     private JSpinner maxCacheAgeSpinner;
+    private JBCheckBox compressCacheCheckBox;
     private JBCheckBox enablePreloadCheckBox;
     private JSpinner preloadCountSpinner;
     private JSpinner preloadDelaySpinner;
+    private JSpinner preloadConcurrencySpinner;
     private JLabel cachePathLabel;
     private JLabel booksPathLabel;
     private JButton clearCacheButton;
@@ -80,6 +82,8 @@ public class CacheConfigurable implements Configurable {
         SpinnerNumberModel ageModel = new SpinnerNumberModel(7, 1, 365, 1);
         maxCacheAgeSpinner = new JSpinner(ageModel);
 
+        compressCacheCheckBox = new JBCheckBox("压缩章节缓存（节省磁盘空间，同样大小可缓存更多章节）");
+
         // 预加载设置
         enablePreloadCheckBox = new JBCheckBox("启用章节预加载");
 
@@ -89,6 +93,9 @@ public class CacheConfigurable implements Configurable {
         SpinnerNumberModel delayModel = new SpinnerNumberModel(500, 100, 5000, 100);
         preloadDelaySpinner = new JSpinner(delayModel);
 
+        SpinnerNumberModel concurrencyModel = new SpinnerNumberModel(2, 1, 8, 1);
+        preloadConcurrencySpinner = new JSpinner(concurrencyModel);
+
         // 获取存储管理器
         StorageManager storageManager = null;
         Project[] openProjects = ProjectManager.getInstance().getOpenProjects();
@@ -230,10 +237,12 @@ public class CacheConfigurable implements Configurable {
             .addLabeledComponent("启用缓存:", enableCacheCheckBox)
             .addLabeledComponent("最大缓存大小 (MB):", maxCacheSizeSpinner)
             .addLabeledComponent("缓存过期时间 (天):", maxCacheAgeSpinner)
+            .addLabeledComponent("缓存压缩:", compressCacheCheckBox)
             .addSeparator(10)
             .addLabeledComponent("预加载设置:", enablePreloadCheckBox)
             .addLabeledComponent("预加载章节数:", preloadCountSpinner)
             .addLabeledComponent("预加载延迟 (毫秒):", preloadDelaySpinner)
+            .addLabeledComponent("同站点并发数:", preloadConcurrencySpinner)
             .addSeparator(10)
             .addLabeledComponent("缓存目录:", cachePathPanel)
             .addComponentToRightColumn(openCacheLink)
@@ -254,9 +263,11 @@ public class CacheConfigurable implements Configurable {
         return settings.isEnableCache() != enableCacheCheckBox.isSelected() ||
                settings.getMaxCacheSize() != (Integer) maxCacheSizeSpinner.getValue() ||
                settings.getMaxCacheAge() != (Integer) maxCacheAgeSpinner.getValue() ||
+               settings.isCompressCache() != compressCacheCheckBox.isSelected() ||
                settings.isEnablePreload() != enablePreloadCheckBox.isSelected() ||
                settings.getPreloadCount() != (Integer) preloadCountSpinner.getValue() ||
-               settings.getPreloadDelay() != (Integer) preloadDelaySpinner.getValue();
+               settings.getPreloadDelay() != (Integer) preloadDelaySpinner.getValue() ||
+               settings.getPreloadConcurrency() != (Integer) preloadConcurrencySpinner.getValue();
     }
 
     @Override
@@ -266,34 +277,42 @@ public class CacheConfigurable implements Configurable {
         boolean oldEnableCache = settings.isEnableCache();
         int oldMaxCacheSize = settings.getMaxCacheSize();
         int oldMaxCacheAge = settings.getMaxCacheAge();
+        boolean oldCompressCache = settings.isCompressCache();
         boolean oldEnablePreload = settings.isEnablePreload();
         int oldPreloadCount = settings.getPreloadCount();
         int oldPreloadDelay = settings.getPreloadDelay();
+        int oldPreloadConcurrency = settings.getPreloadConcurrency();
 
         boolean newEnableCache = enableCacheCheckBox.isSelected();
         int newMaxCacheSize = (Integer) maxCacheSizeSpinner.getValue();
         int newMaxCacheAge = (Integer) maxCacheAgeSpinner.getValue();
+        boolean newCompressCache = compressCacheCheckBox.isSelected();
         boolean newEnablePreload = enablePreloadCheckBox.isSelected();
         int newPreloadCount = (Integer) preloadCountSpinner.getValue();
         int newPreloadDelay = (Integer) preloadDelaySpinner.getValue();
+        int newPreloadConcurrency = (Integer) preloadConcurrencySpinner.getValue();
 
         LOG.info("[配置诊断] CacheConfigurable.apply(): 旧值: enableCache=" + oldEnableCache +
                 ", maxCacheSize=" + oldMaxCacheSize + ", maxCacheAge=" + oldMaxCacheAge +
+                ", compressCache=" + oldCompressCache +
                 ", enablePreload=" + oldEnablePreload + ", preloadCount=" + oldPreloadCount +
-                ", preloadDelay=" + oldPreloadDelay);
+                ", preloadDelay=" + oldPreloadDelay + ", preloadConcurrency=" + oldPreloadConcurrency);
 
         LOG.info("[配置诊断] CacheConfigurable.apply(): 新值: enableCache=" + newEnableCache +
                 ", maxCacheSize=" + newMaxCacheSize + ", maxCacheAge=" + newMaxCacheAge +
+                ", compressCache=" + newCompressCache +
                 ", enablePreload=" + newEnablePreload + ", preloadCount=" + newPreloadCount +
-                ", preloadDelay=" + newPreloadDelay);
+                ", preloadDelay=" + newPreloadDelay + ", preloadConcurrency=" + newPreloadConcurrency);
 
         // 设置新值
         settings.setEnableCache(newEnableCache);
         settings.setMaxCacheSize(newMaxCacheSize);
         settings.setMaxCacheAge(newMaxCacheAge);
+        settings.setCompressCache(newCompressCache);
         settings.setEnablePreload(newEnablePreload);
         settings.setPreloadCount(newPreloadCount);
         settings.setPreloadDelay(newPreloadDelay);
+        settings.setPreloadConcurrency(newPreloadConcurrency);
 
         // 强制保存设置
         settings.saveSettings();
@@ -303,9 +322,11 @@ public class CacheConfigurable implements Configurable {
         boolean settingsChanged = oldEnableCache != newEnableCache ||
                                  oldMaxCacheSize != newMaxCacheSize ||
                                  oldMaxCacheAge != newMaxCacheAge ||
+                                 oldCompressCache != newCompressCache ||
                                  oldEnablePreload != newEnablePreload ||
                                  oldPreloadCount != newPreloadCount ||
-                                 oldPreloadDelay != newPreloadDelay;
+                                 oldPreloadDelay != newPreloadDelay ||
+                                 oldPreloadConcurrency != newPreloadConcurrency;
 
         if (settingsChanged) {
             LOG.info("[配置诊断] CacheConfigurable.apply(): 设置发生变化，发布事件");
@@ -328,13 +349,16 @@ public class CacheConfigurable implements Configurable {
         enableCacheCheckBox.setSelected(settings.isEnableCache());
         maxCacheSizeSpinner.setValue(settings.getMaxCacheSize());
         maxCacheAgeSpinner.setValue(settings.getMaxCacheAge());
+        compressCacheCheckBox.setSelected(settings.isCompressCache());
         enablePreloadCheckBox.setSelected(settings.isEnablePreload());
         preloadCountSpinner.setValue(settings.getPreloadCount());
         preloadDelaySpinner.setValue(settings.getPreloadDelay());
+        preloadConcurrencySpinner.setValue(settings.getPreloadConcurrency());
 
         // 更新启用状态
         preloadCountSpinner.setEnabled(enablePreloadCheckBox.isSelected());
         preloadDelaySpinner.setEnabled(enablePreloadCheckBox.isSelected());
+        preloadConcurrencySpinner.setEnabled(enablePreloadCheckBox.isSelected());
     }
 
     /**
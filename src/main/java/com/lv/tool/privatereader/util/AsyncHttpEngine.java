@@ -0,0 +1,341 @@
+package com.lv.tool.privatereader.util;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.net.JdkProxyProvider;
+import com.intellij.util.net.ssl.CertificateManager;
+import com.lv.tool.privatereader.async.ReactiveSchedulers;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 异步HTTP引擎
+ *
+ * 基于 java.net.http.HttpClient 发送请求，不再为每个请求占用一个阻塞线程：
+ * - 支持HTTP/2，连接由客户端复用（keep-alive）
+ * - 每个站点限制同时进行的请求数，超出的请求排队等待，不占用线程
+ * - 单次尝试的总超时从取得配额开始计算；超时或调用方取消时撤回排队或中止请求，不会继续占用配额
+ * - 自动处理gzip压缩和重定向，不跟随 https 到 http 的降级跳转，避免请求被中间人改为明文
+ * - 使用IDE的HTTP代理设置、代理认证和证书库，与IDE中其他网络请求一致
+ * - 按 Content-Type 或页面 meta 标签中的字符集解码，默认UTF-8
+ */
+final class AsyncHttpEngine {
+    private static final Logger LOG = Logger.getInstance(AsyncHttpEngine.class);
+    private static final Pattern HEADER_CHARSET = Pattern.compile("charset\\s*=\\s*\"?([\\w.:-]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern META_CHARSET = Pattern.compile("<meta[^>]+charset\\s*=\\s*[\"']?([\\w.:-]+)", Pattern.CASE_INSENSITIVE);
+    private static final int CHARSET_SNIFF_LENGTH = 2048;
+    static final int NOT_MODIFIED = 304;
+
+    private final HttpClient client;
+    private final int attemptTimeoutMs;
+    private final int maxConnectionsPerHost;
+    private final Map<String, HostPermits> hosts = new ConcurrentHashMap<>();
+    private final Scheduler timer;
+
+    AsyncHttpEngine(int connectTimeoutMs, int attemptTimeoutMs, int maxConnectionsPerHost) {
+        this(connectTimeoutMs, attemptTimeoutMs, maxConnectionsPerHost, ReactiveSchedulers.getInstance().timer());
+    }
+
+    /**
+     * @param timer 用于单次尝试超时的调度器
+     */
+    AsyncHttpEngine(int connectTimeoutMs, int attemptTimeoutMs, int maxConnectionsPerHost, @NotNull Scheduler timer) {
+        this.timer = timer;
+        this.attemptTimeoutMs = attemptTimeoutMs;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        AtomicInteger counter = new AtomicInteger(1);
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(Executors.newCachedThreadPool(r -> {
+                    Thread thread = new Thread(r, "HTTP-Async-" + counter.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+        configureIdeNetworking(builder);
+        this.client = builder.build();
+    }
+
+    /**
+     * 使用IDE的代理选择器、代理认证和证书库
+     * 没有IDE应用环境时使用JDK默认设置
+     */
+    private static void configureIdeNetworking(HttpClient.Builder builder) {
+        if (ApplicationManager.getApplication() == null) {
+            LOG.warn("IDE应用环境不可用，HTTP请求使用JDK默认的代理和证书设置");
+            return;
+        }
+        JdkProxyProvider proxyProvider = JdkProxyProvider.getInstance();
+        builder.proxy(proxyProvider.getProxySelector())
+                .authenticator(proxyProvider.getAuthenticator())
+                .sslContext(CertificateManager.getInstance().getSslContext());
+    }
+
+    /**
+     * 异步发送GET请求
+     *
+     * @param url 请求的URL
+     * @param host 用于并发限制的站点
+     * @param userAgent User-Agent
+     * @param timeoutMs 等待响应的超时时间
+     * @return 响应，状态码不是2xx时以IOException结束，单次尝试超时以TimeoutException结束；
+     *         取消返回的 future 会撤回排队中的请求或中止已发出的请求
+     */
+    @NotNull
+    CompletableFuture<Response> get(@NotNull String url, @NotNull String host, @NotNull String userAgent, int timeoutMs) {
+        return get(url, host, userAgent, timeoutMs, Map.of());
+    }
+
+    /**
+     * 异步发送带附加请求头的GET请求
+     * 附加请求头包含 If-None-Match 或 If-Modified-Since 时，304响应正常返回，内容为空
+     *
+     * @param url 请求的URL
+     * @param host 用于并发限制的站点
+     * @param userAgent User-Agent
+     * @param timeoutMs 等待响应的超时时间
+     * @param headers 附加的请求头
+     * @return 响应，状态码不是2xx或304时以IOException结束，单次尝试超时以TimeoutException结束；
+     *         取消返回的 future 会撤回排队中的请求或中止已发出的请求
+     */
+    @NotNull
+    CompletableFuture<Response> get(@NotNull String url, @NotNull String host, @NotNull String userAgent, int timeoutMs,
+                                    @NotNull Map<String, String> headers) {
+        HttpRequest request;
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                    .GET()
+                    .timeout(Duration.ofMillis(timeoutMs))
+                    .header("User-Agent", userAgent)
+                    .header("Accept-Encoding", "gzip");
+            headers.forEach(builder::header);
+            request = builder.build();
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(new IOException("无效的URL: " + url, e));
+        }
+
+        HostPermits permits = hosts.computeIfAbsent(host, h -> new HostPermits());
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        CompletableFuture<Void> permit = permits.acquire(maxConnectionsPerHost);
+        AtomicReference<CompletableFuture<HttpResponse<byte[]>>> sendingRef = new AtomicReference<>();
+
+        permit.thenRun(() -> {
+            if (result.isDone()) {
+                // 等待配额期间调用方已取消
+                permits.release();
+                return;
+            }
+            CompletableFuture<HttpResponse<byte[]>> sending;
+            try {
+                sending = client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+            } catch (RuntimeException e) {
+                permits.release();
+                result.completeExceptionally(e);
+                return;
+            }
+            // 单次尝试的超时从取得配额开始计算，排队时间不计入
+            Disposable deadline = timer.schedule(() -> {
+                if (result.completeExceptionally(new TimeoutException("请求超时（" + attemptTimeoutMs + "ms）: " + url))) {
+                    sending.cancel(true);
+                }
+            }, attemptTimeoutMs, TimeUnit.MILLISECONDS);
+            // 无论成功、失败还是被取消，请求结束时都归还配额
+            sending.whenComplete((response, error) -> {
+                deadline.dispose();
+                permits.release();
+                if (error != null) {
+                    result.completeExceptionally(unwrap(error));
+                    return;
+                }
+                try {
+                    result.complete(toResponse(response));
+                } catch (CompletionException e) {
+                    result.completeExceptionally(unwrap(e));
+                }
+            });
+            sendingRef.set(sending);
+            if (result.isCancelled()) {
+                sending.cancel(true);
+            }
+        });
+
+        // 调用方取消时撤回排队中的配额请求，已发出的请求一并取消
+        result.whenComplete((response, error) -> {
+            if (!result.isCancelled()) return;
+            permits.cancel(permit);
+            CompletableFuture<HttpResponse<byte[]>> sending = sendingRef.get();
+            if (sending != null) {
+                sending.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * 获取引擎状态
+     */
+    @NotNull
+    String getStatus() {
+        int active = 0;
+        int queued = 0;
+        for (HostPermits permits : hosts.values()) {
+            synchronized (permits) {
+                active += permits.active;
+                queued += permits.waiters.size();
+            }
+        }
+        return String.format("进行中: %d, 排队: %d, 站点数: %d, 单站点并发上限: %d",
+                active, queued, hosts.size(), maxConnectionsPerHost);
+    }
+
+    private static Response toResponse(HttpResponse<byte[]> response) {
+        int status = response.statusCode();
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        if (status == NOT_MODIFIED) {
+            return new Response(status, "", 0, etag, lastModified);
+        }
+        if (status < 200 || status >= 300) {
+            throw new CompletionException(
+                    new IOException("HTTP状态码 " + status + ": " + response.uri()));
+        }
+        try {
+            byte[] body = decodeBody(response);
+            String contentType = response.headers().firstValue("Content-Type").orElse(null);
+            return new Response(status, new String(body, detectCharset(contentType, body)), body.length,
+                    etag, lastModified);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static byte[] decodeBody(HttpResponse<byte[]> response) throws IOException {
+        byte[] body = response.body();
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("");
+        if (!"gzip".equalsIgnoreCase(encoding.trim()) || body == null || body.length == 0) {
+            return body != null ? body : new byte[0];
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @NotNull
+    static Charset detectCharset(@Nullable String contentType, byte[] body) {
+        Charset charset = null;
+        if (contentType != null) {
+            charset = lookupCharset(HEADER_CHARSET.matcher(contentType));
+        }
+        if (charset == null) {
+            // 很多中文站点只在页面的 meta 标签中声明 GBK
+            String head = new String(body, 0, Math.min(body.length, CHARSET_SNIFF_LENGTH), StandardCharsets.ISO_8859_1);
+            charset = lookupCharset(META_CHARSET.matcher(head));
+        }
+        return charset != null ? charset : StandardCharsets.UTF_8;
+    }
+
+    @Nullable
+    private static Charset lookupCharset(Matcher matcher) {
+        if (!matcher.find()) return null;
+        try {
+            return Charset.forName(matcher.group(1).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            LOG.debug("不支持的字符集: " + matcher.group(1));
+            return null;
+        }
+    }
+
+    /**
+     * HTTP响应
+     *
+     * @param statusCode 状态码
+     * @param body 解码后的内容
+     * @param bodySize 内容字节数（解压后）
+     * @param etag ETag 响应头
+     * @param lastModified Last-Modified 响应头
+     */
+    record Response(int statusCode, String body, int bodySize, @Nullable String etag, @Nullable String lastModified) {
+        boolean isNotModified() {
+            return statusCode == NOT_MODIFIED;
+        }
+    }
+
+    /**
+     * 单个站点的并发配额
+     * 配额用完时请求在队列中等待，归还配额时直接交给下一个等待者
+     */
+    private static final class HostPermits {
+        private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+        private int active;
+
+        synchronized CompletableFuture<Void> acquire(int limit) {
+            if (active < limit) {
+                active++;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return waiter;
+        }
+
+        /**
+         * 撤回尚未取得配额的请求，已取得的配额由请求结束时归还
+         */
+        void cancel(CompletableFuture<Void> waiter) {
+            synchronized (this) {
+                if (waiter.isDone()) return;
+                waiters.remove(waiter);
+            }
+            waiter.cancel(false);
+        }
+
+        void release() {
+            CompletableFuture<Void> next;
+            synchronized (this) {
+                do {
+                    next = waiters.poll();
+                } while (next != null && next.isDone());
+                if (next == null) {
+                    active--;
+                    return;
+                }
+            }
+            // 配额直接转交，在锁外完成以免在锁内执行后续请求
+            if (!next.complete(null)) {
+                release();
+            }
+        }
+    }
+}
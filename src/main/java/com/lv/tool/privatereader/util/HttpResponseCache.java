@@ -0,0 +1,255 @@
+package com.lv.tool.privatereader.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * HTTP响应磁盘缓存
+ *
+ * 按URL保存响应内容及其校验信息，用于条件请求：
+ * - 元数据文件保存 ETag、Last-Modified 和内容的SHA-256摘要
+ * - 内容文件保存解码后的页面，读取时用摘要校验，损坏的条目视为不存在
+ * - 先写内容再写元数据，均通过临时文件原子替换，中途失败不会留下不一致的条目
+ * - 条目数超过上限时删除最久未使用的条目
+ *
+ * 目录爬取一次可能请求上百个目录页，这些页面单独保存在 {@link #getCatalogInstance()} 中，
+ * 各自按自己的上限淘汰，不会挤掉书籍页面的校验信息。
+ *
+ * 没有 ETag 和 Last-Modified 的页面无法发起条件请求，但仍然保存，
+ * 调用方可以通过摘要判断内容是否与上次相同。
+ */
+final class HttpResponseCache {
+    private static final Logger LOG = Logger.getInstance(HttpResponseCache.class);
+    private static final String META_SUFFIX = ".meta";
+    private static final String BODY_SUFFIX = ".body";
+    private static final int MAX_PAGE_ENTRIES = 256;
+    // 可容纳几本书的完整分页目录
+    private static final int MAX_CATALOG_ENTRIES = 1024;
+    private static final int PRUNE_INTERVAL = 16;
+
+    private static final Path CACHE_ROOT = Path.of(PathManager.getSystemPath(), "private-reader");
+    private static final HttpResponseCache INSTANCE =
+            new HttpResponseCache(CACHE_ROOT.resolve("http-cache"), MAX_PAGE_ENTRIES);
+    private static final HttpResponseCache CATALOG_INSTANCE =
+            new HttpResponseCache(CACHE_ROOT.resolve("http-catalog-cache"), MAX_CATALOG_ENTRIES);
+
+    private final Path directory;
+    private final int maxEntries;
+    private final Gson gson = new Gson();
+    private final AtomicInteger storesSincePrune = new AtomicInteger();
+
+    HttpResponseCache(@NotNull Path directory, int maxEntries) {
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * 书籍页面等单个页面的缓存
+     */
+    @NotNull
+    static HttpResponseCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 目录分页页面的缓存
+     */
+    @NotNull
+    static HttpResponseCache getCatalogInstance() {
+        return CATALOG_INSTANCE;
+    }
+
+    /**
+     * 查找URL的缓存条目
+     *
+     * @param url 请求的URL
+     * @return 缓存条目，不存在或已损坏时返回null
+     */
+    @Nullable
+    Entry lookup(@NotNull String url) {
+        String key = keyOf(url);
+        Path metaFile = directory.resolve(key + META_SUFFIX);
+        Path bodyFile = directory.resolve(key + BODY_SUFFIX);
+        try {
+            Meta meta = gson.fromJson(Files.readString(metaFile, StandardCharsets.UTF_8), Meta.class);
+            if (meta == null || !url.equals(meta.url)) {
+                return null;
+            }
+            byte[] body = Files.readAllBytes(bodyFile);
+            if (!digestOf(body).equals(meta.digest)) {
+                LOG.warn("HTTP缓存内容校验失败，丢弃条目: " + url);
+                delete(key);
+                return null;
+            }
+            return new Entry(meta.etag, meta.lastModified, meta.digest,
+                    new String(body, StandardCharsets.UTF_8), body.length);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | JsonParseException e) {
+            LOG.warn("读取HTTP缓存失败: " + url + ", 错误: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 保存响应
+     *
+     * @param url 请求的URL
+     * @param body 响应内容
+     * @param etag ETag 响应头
+     * @param lastModified Last-Modified 响应头
+     * @return 内容的摘要
+     */
+    @NotNull
+    String store(@NotNull String url, @NotNull String body, @Nullable String etag, @Nullable String lastModified) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        String digest = digestOf(bytes);
+        String key = keyOf(url);
+        try {
+            Files.createDirectories(directory);
+            writeAtomically(directory.resolve(key + BODY_SUFFIX), bytes);
+            Meta meta = new Meta();
+            meta.url = url;
+            meta.etag = etag;
+            meta.lastModified = lastModified;
+            meta.digest = digest;
+            writeAtomically(directory.resolve(key + META_SUFFIX), gson.toJson(meta).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LOG.warn("写入HTTP缓存失败: " + url + ", 错误: " + e.getMessage());
+            delete(key);
+        }
+        if (storesSincePrune.incrementAndGet() >= PRUNE_INTERVAL) {
+            storesSincePrune.set(0);
+            prune();
+        }
+        return digest;
+    }
+
+    /**
+     * 标记条目刚被使用，延后其淘汰
+     *
+     * @param url 请求的URL
+     */
+    void touch(@NotNull String url) {
+        try {
+            Files.setLastModifiedTime(directory.resolve(keyOf(url) + META_SUFFIX), FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            LOG.debug("更新HTTP缓存访问时间失败: " + url);
+        }
+    }
+
+    /**
+     * 删除最久未使用的条目，使条目数不超过上限
+     */
+    private void prune() {
+        List<Path> metaFiles = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(META_SUFFIX)).forEach(metaFiles::add);
+        } catch (IOException e) {
+            LOG.debug("列出HTTP缓存目录失败: " + e.getMessage());
+            return;
+        }
+        int excess = metaFiles.size() - maxEntries;
+        if (excess <= 0) return;
+
+        metaFiles.sort(Comparator.comparingLong(HttpResponseCache::lastModifiedMillis));
+        for (int i = 0; i < excess; i++) {
+            String name = metaFiles.get(i).getFileName().toString();
+            delete(name.substring(0, name.length() - META_SUFFIX.length()));
+        }
+        LOG.debug("清理HTTP缓存条目: " + excess);
+    }
+
+    private void delete(String key) {
+        try {
+            // 先删元数据，只剩内容文件的条目不会被读取
+            Files.deleteIfExists(directory.resolve(key + META_SUFFIX));
+            Files.deleteIfExists(directory.resolve(key + BODY_SUFFIX));
+        } catch (IOException e) {
+            LOG.debug("删除HTTP缓存条目失败: " + key);
+        }
+    }
+
+    private static void writeAtomically(Path target, byte[] content) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static long lastModifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @NotNull
+    private static String keyOf(String url) {
+        return hex(sha256(url.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @NotNull
+    static String digestOf(byte[] body) {
+        return hex(sha256(body));
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 缓存条目
+     *
+     * @param etag ETag 响应头
+     * @param lastModified Last-Modified 响应头
+     * @param digest 内容的SHA-256摘要
+     * @param body 响应内容
+     * @param bodySize 内容字节数（UTF-8）
+     */
+    record Entry(@Nullable String etag, @Nullable String lastModified, @NotNull String digest,
+                 @NotNull String body, int bodySize) {
+    }
+
+    private static final class Meta {
+        private String url;
+        private String etag;
+        private String lastModified;
+        private String digest;
+    }
+}
@@ -27,6 +27,15 @@ public class NetworkPerformanceMonitor {
     private final AtomicLong totalResponseTime = new AtomicLong(0);
     private final AtomicLong totalDataSize = new AtomicLong(0);
     
+    // 条件请求统计
+    private final AtomicLong conditionalRequests = new AtomicLong(0);
+    private final AtomicLong notModifiedResponses = new AtomicLong(0);
+    private final AtomicLong bytesSaved = new AtomicLong(0);
+    
+    // 章节预加载统计
+    private final AtomicLong prefetchHits = new AtomicLong(0);
+    private final AtomicLong prefetchMisses = new AtomicLong(0);
+    
     // 响应时间统计
     private final AtomicLong minResponseTime = new AtomicLong(Long.MAX_VALUE);
     private final AtomicLong maxResponseTime = new AtomicLong(0);
@@ -129,6 +138,55 @@ public class NetworkPerformanceMonitor {
         LOG.debug("[性能监控] 请求超时: " + domain + ", 超时时间: " + timeoutDuration + "ms");
     }
     
+    /**
+     * 记录条件请求的结果
+     *
+     * @param domain 域名
+     * @param notModified 服务器是否返回304
+     * @param savedBytes 未修改时使用缓存而节省的字节数
+     */
+    public void recordConditionalResponse(String domain, boolean notModified, long savedBytes) {
+        conditionalRequests.incrementAndGet();
+        if (notModified) {
+            notModifiedResponses.incrementAndGet();
+            bytesSaved.addAndGet(savedBytes);
+        }
+        
+        LOG.debug("[性能监控] 条件请求: " + domain + ", " + (notModified ? "未修改, 节省 " + savedBytes + " 字节" : "内容已更新"));
+    }
+    
+    /**
+     * 记录首次打开的章节是否已由预加载缓存
+     * 
+     * @param hit 章节已在预加载范围内
+     */
+    public void recordPrefetchResult(boolean hit) {
+        (hit ? prefetchHits : prefetchMisses).incrementAndGet();
+    }
+    
+    /**
+     * 获取预加载命中率（百分比）
+     */
+    public double getPrefetchHitRate() {
+        long prefetched = prefetchHits.get() + prefetchMisses.get();
+        return prefetched > 0 ? (double) prefetchHits.get() / prefetched * 100 : 0;
+    }
+    
+    /**
+     * 获取条件请求中返回304的比例（百分比）
+     */
+    public double getNotModifiedRate() {
+        long conditional = conditionalRequests.get();
+        return conditional > 0 ? (double) notModifiedResponses.get() / conditional * 100 : 0;
+    }
+    
+    /**
+     * 获取条件请求节省的字节数
+     */
+    public long getBytesSaved() {
+        return bytesSaved.get();
+    }
+    
     /**
      * 更新响应时间统计
      */
@@ -144,7 +202,7 @@ public class NetworkPerformanceMonitor {
     public String getPerformanceReport() {
         long total = totalRequests.get();
         if (total == 0) {
-            return "暂无网络请求统计";
+            return "暂无网络请求统计" + (hasPrefetchStats() ? "\n" + getPrefetchStats() : "");
         }
         
         long success = successfulRequests.get();
@@ -167,6 +225,13 @@ public class NetworkPerformanceMonitor {
         report.append(String.format("最小响应时间: %dms\n", minResponseTime.get() == Long.MAX_VALUE ? 0 : minResponseTime.get()));
         report.append(String.format("最大响应时间: %dms\n", maxResponseTime.get()));
         report.append(String.format("平均数据大小: %.1f 字节\n", avgDataSize));
+        if (conditionalRequests.get() > 0) {
+            report.append(String.format("条件请求: %d, 未修改(304): %d (%.1f%%), 节省流量: %d 字节\n",
+                    conditionalRequests.get(), notModifiedResponses.get(), getNotModifiedRate(), bytesSaved.get()));
+        }
+        if (hasPrefetchStats()) {
+            report.append(getPrefetchStats()).append("\n");
+        }
         
         // 错误类型统计
         if (!errorTypes.isEmpty()) {
@@ -194,7 +259,7 @@ public class NetworkPerformanceMonitor {
     public String getSimpleStats() {
         long total = totalRequests.get();
         if (total == 0) {
-            return "暂无请求";
+            return hasPrefetchStats() ? "暂无请求, " + getPrefetchStats() : "暂无请求";
         }
         
         long success = successfulRequests.get();
@@ -202,8 +267,24 @@ public class NetworkPerformanceMonitor {
         double successRate = (double) success / total * 100;
         double avgTime = (double) totalTime / total;
         
-        return String.format("请求: %d, 成功率: %.1f%%, 平均耗时: %.1fms", 
+        String stats = String.format("请求: %d, 成功率: %.1f%%, 平均耗时: %.1fms", 
                 total, successRate, avgTime);
+        if (conditionalRequests.get() > 0) {
+            stats += String.format(", 304比例: %.1f%%, 节省: %d 字节", getNotModifiedRate(), bytesSaved.get());
+        }
+        if (hasPrefetchStats()) {
+            stats += ", " + getPrefetchStats();
+        }
+        return stats;
+    }
+    
+    private boolean hasPrefetchStats() {
+        return prefetchHits.get() + prefetchMisses.get() > 0;
+    }
+    
+    private String getPrefetchStats() {
+        return String.format("预加载命中率: %.1f%% (命中 %d, 未命中 %d)",
+                getPrefetchHitRate(), prefetchHits.get(), prefetchMisses.get());
     }
     
     /**
@@ -216,6 +297,11 @@ public class NetworkPerformanceMonitor {
         timeoutRequests.set(0);
         totalResponseTime.set(0);
         totalDataSize.set(0);
+        conditionalRequests.set(0);
+        notModifiedResponses.set(0);
+        bytesSaved.set(0);
+        prefetchHits.set(0);
+        prefetchMisses.set(0);
         minResponseTime.set(Long.MAX_VALUE);
         maxResponseTime.set(0);
         errorTypes.clear();
@@ -251,7 +337,7 @@ public class NetworkPerformanceMonitor {
      */
     private void logPerformanceReport() {
         long total = totalRequests.get();
-        if (total > 0) {
+        if (total > 0 || hasPrefetchStats()) {
             LOG.info("[性能监控] " + getSimpleStats());
         }
     }
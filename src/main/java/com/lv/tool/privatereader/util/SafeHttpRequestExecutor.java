@@ -4,23 +4,32 @@ import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.util.io.HttpRequests;
 
+import com.lv.tool.privatereader.async.ReactiveSchedulers;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
 import java.io.IOException;
-import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
+import java.net.http.HttpTimeoutException;
+import java.nio.channels.UnresolvedAddressException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 安全的HTTP请求执行器
  * 用于执行HTTP请求，避免在ForkJoinPool中执行时出现SecurityException
  * 添加了重试机制和更详细的日志
+ *
+ * 请求由 {@link AsyncHttpEngine} 异步发送，等待响应和重试间隔都不占用线程；
+ * 同步方法只阻塞调用线程本身，不再经过固定大小的请求线程池。
+ * 目录页等重复请求的页面通过 {@link #executeCachedGetRequest} 发起条件请求，未修改时不重新下载。
  */
 public class SafeHttpRequestExecutor {
     private static final Logger LOG = Logger.getInstance(SafeHttpRequestExecutor.class);
@@ -28,10 +37,12 @@ public class SafeHttpRequestExecutor {
     private static final int DEFAULT_RETRY_DELAY_MS = 1000;
     private static final int DEFAULT_CONNECT_TIMEOUT = 20000;  // 增加连接超时到20秒
     private static final int DEFAULT_READ_TIMEOUT = 25000;     // 增加读取超时到25秒
+    private static final int DEFAULT_ATTEMPT_TIMEOUT = 30000;  // 单次尝试（含读取内容）的总超时
+    private static final int MAX_CONNECTIONS_PER_HOST = 6;
     private static final String DEFAULT_USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
 
-    // 专用HTTP请求线程池
-    private static final ExecutorService httpExecutor = createHttpExecutor();
+    // 异步HTTP引擎
+    private static final AsyncHttpEngine engine = new AsyncHttpEngine(DEFAULT_CONNECT_TIMEOUT, DEFAULT_ATTEMPT_TIMEOUT, MAX_CONNECTIONS_PER_HOST);
     
     // 性能监控统计
     private static final AtomicLong totalRequests = new AtomicLong(0);
@@ -40,72 +51,10 @@ public class SafeHttpRequestExecutor {
     private static final AtomicLong totalRequestTime = new AtomicLong(0);
 
     /**
-     * 创建专用的HTTP请求线程池
-     */
-    private static ExecutorService createHttpExecutor() {
-        int threadCount = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);  // 增加线程数
-        LOG.info("[线程池] 创建专用HTTP请求线程池，线程数: " + threadCount);
-        java.util.concurrent.BlockingQueue<Runnable> queue = new java.util.concurrent.LinkedBlockingQueue<>(100);
-        java.util.concurrent.RejectedExecutionHandler handler = (r, executor) -> {
-            LOG.error("[线程池] HTTP请求线程池队列已满，拒绝新任务，当前活跃线程: " + executor.getActiveCount() + ", 队列长度: " + executor.getQueue().size());
-            // CallerRunsPolicy: 由提交任务的线程自己执行，防止任务丢失
-            if (!executor.isShutdown()) {
-                r.run();
-            }
-        };
-        return new java.util.concurrent.ThreadPoolExecutor(
-            threadCount,
-            threadCount,
-            60L, TimeUnit.SECONDS,
-            queue,
-            new ThreadFactory() {
-                private final AtomicInteger counter = new AtomicInteger(1);
-                @Override
-                public Thread newThread(Runnable r) {
-                    Thread thread = new Thread(r, "HTTP-Request-" + counter.getAndIncrement());
-                    thread.setDaemon(true);
-                    thread.setPriority(Thread.NORM_PRIORITY);
-                    return thread;
-                }
-            },
-            handler
-        );
-    }
-
-    /**
-     * 关闭HTTP请求线程池
-     */
-    public static void shutdown() {
-        LOG.info("[线程池] 关闭HTTP请求线程池");
-        httpExecutor.shutdown();
-        try {
-            if (!httpExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                LOG.warn("[线程池] HTTP请求线程池未能在5秒内关闭，强制关闭");
-                httpExecutor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            LOG.warn("[线程池] 等待HTTP请求线程池关闭时被中断");
-            httpExecutor.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
-    }
-
-    /**
-     * 获取线程池状态信息
+     * 获取HTTP引擎状态信息
      */
     public static String getThreadPoolStatus() {
-        if (httpExecutor.isShutdown()) {
-            return "线程池已关闭";
-        }
-        
-        if (httpExecutor instanceof java.util.concurrent.ThreadPoolExecutor) {
-            java.util.concurrent.ThreadPoolExecutor tpe = (java.util.concurrent.ThreadPoolExecutor) httpExecutor;
-            return String.format("活跃线程: %d, 核心线程: %d, 最大线程: %d, 队列大小: %d", 
-                    tpe.getActiveCount(), tpe.getCorePoolSize(), tpe.getMaximumPoolSize(), 
-                    tpe.getQueue().size());
-        }
-        
-        return "线程池运行中";
+        return engine.getStatus();
     }
 
     /**
@@ -121,6 +70,7 @@ public class SafeHttpRequestExecutor {
 
     /**
      * 安全地执行HTTP请求，带有重试机制和自定义重试参数
+     * 阻塞调用线程直到请求完成
      *
      * @param url 请求的URL
      * @param maxRetries 最大重试次数
@@ -129,168 +79,240 @@ public class SafeHttpRequestExecutor {
      * @throws IOException 如果请求失败或被中断
      */
     public static String executeGetRequest(final String url, final int maxRetries, final int retryDelayMs) throws IOException {
-        long requestId = totalRequests.incrementAndGet();
-        long startTime = System.currentTimeMillis();
-        
-        // 提取域名用于性能监控
-        String domain = extractDomain(url);
-        
-        LOG.info("[性能监控] 开始HTTP请求 #" + requestId + ": " + url + "，最大重试次数: " + maxRetries);
-        LOG.info("[性能监控] 当前线程: " + Thread.currentThread().getName() + "，线程ID: " + Thread.currentThread().getId());
-
-        // 记录请求开始
-        NetworkPerformanceMonitor.getInstance().recordRequestStart(url, domain);
-
-        IOException lastException = null;
-        for (int attempt = 0; attempt <= maxRetries; attempt++) {
-            long attemptStartTime = System.currentTimeMillis();
-            
-            if (attempt > 0) {
-                LOG.info("[性能监控] 第 " + attempt + " 次重试请求 #" + requestId + ": " + url);
-                try {
-                    Thread.sleep(retryDelayMs);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    LOG.warn("[性能监控] 重试等待被中断 #" + requestId);
-                    throw new IOException("重试等待被中断", ie);
-                }
-            }
-
-            try {
-                String result = executeHttpRequest(url, requestId, attempt);
-                long totalTime = System.currentTimeMillis() - startTime;
-                long attemptTime = System.currentTimeMillis() - attemptStartTime;
-                
-                successfulRequests.incrementAndGet();
-                totalRequestTime.addAndGet(totalTime);
-                
-                // 记录请求成功
-                NetworkPerformanceMonitor.getInstance().recordRequestSuccess(url, domain, totalTime, result != null ? result.length() : 0);
-                
-                LOG.info("[性能监控] HTTP请求成功 #" + requestId + ": " + url + 
-                        "，总耗时: " + totalTime + "ms，本次尝试耗时: " + attemptTime + "ms" +
-                        "，内容长度: " + (result != null ? result.length() : 0) + " 字节");
-                
-                // 记录性能统计
-                logPerformanceStats();
-                
-                return result;
-            } catch (IOException e) {
-                long attemptTime = System.currentTimeMillis() - attemptStartTime;
-                lastException = e;
-
-                // 根据异常类型决定是否继续重试
-                if (e instanceof UnknownHostException) {
-                    LOG.warn("[性能监控] 无法解析主机名 #" + requestId + ": " + url + "，耗时: " + attemptTime + "ms", e);
-                    NetworkPerformanceMonitor.getInstance().recordRequestFailure(url, domain, attemptTime, "UNKNOWN_HOST", e.getMessage());
-                } else if (e instanceof SocketTimeoutException) {
-                    LOG.warn("[性能监控] 请求超时 #" + requestId + ": " + url + "，耗时: " + attemptTime + "ms", e);
-                    NetworkPerformanceMonitor.getInstance().recordRequestTimeout(url, domain, attemptTime);
-                } else {
-                    LOG.warn("[性能监控] 请求失败 #" + requestId + ": " + url + "，耗时: " + attemptTime + "ms，错误: " + e.getMessage(), e);
-                    NetworkPerformanceMonitor.getInstance().recordRequestFailure(url, domain, attemptTime, "IO_ERROR", e.getMessage());
-                }
-
-                // 如果已经达到最大重试次数，抛出最后一个异常
-                if (attempt == maxRetries) {
-                    failedRequests.incrementAndGet();
-                    long totalTime = System.currentTimeMillis() - startTime;
-                    LOG.error("[性能监控] 达到最大重试次数 (" + maxRetries + ") #" + requestId + ": " + url + "，总耗时: " + totalTime + "ms", e);
-                    
-                    // 记录性能统计
-                    logPerformanceStats();
-                    
-                    throw new IOException("请求失败，已重试 " + maxRetries + " 次: " + e.getMessage(), e);
-                }
-            }
-        }
-
-        // 这里不应该到达，但为了编译器满意
-        throw lastException != null ? lastException : new IOException("未知错误");
+        return await(executeGetRequestAsync(url, maxRetries, retryDelayMs), url);
     }
 
     /**
-     * 执行单个HTTP请求
+     * 使用HTTP响应缓存执行条件请求
+     * 阻塞调用线程直到请求完成，页面未修改时返回缓存的内容
      *
      * @param url 请求的URL
-     * @param requestId 请求ID
-     * @param attempt 尝试次数
      * @return HTTP响应内容
      * @throws IOException 如果请求失败或被中断
      */
-    private static String executeHttpRequest(final String url, long requestId, int attempt) throws IOException {
-        long httpStartTime = System.currentTimeMillis();
-        LOG.debug("[性能监控] 执行HTTP请求 #" + requestId + " (尝试 " + (attempt + 1) + "): " + url);
-        
-        // 使用专用线程池而不是共享平台线程池
-        Future<String> future = httpExecutor.submit(() -> {
-            long threadStartTime = System.currentTimeMillis();
-            LOG.debug("[性能监控] 线程池任务开始 #" + requestId + "，线程: " + Thread.currentThread().getName());
-            
-            try {
-                String result = HttpRequests.request(url)
-                        .userAgent(DEFAULT_USER_AGENT)
-                        .connectTimeout(DEFAULT_CONNECT_TIMEOUT)
-                        .readTimeout(DEFAULT_READ_TIMEOUT)
-                        .forceHttps(false)
-                        .connect(request -> {
-                            long connectTime = System.currentTimeMillis() - threadStartTime;
-                            LOG.debug("[性能监控] 连接成功 #" + requestId + "，连接耗时: " + connectTime + "ms，开始读取内容");
-                            String content = request.readString();
-                            long readTime = System.currentTimeMillis() - threadStartTime - connectTime;
-                            LOG.debug("[性能监控] 内容读取完成 #" + requestId + "，读取耗时: " + readTime + "ms，内容长度: " + (content != null ? content.length() : 0) + " 字节");
-                            return content;
-                        });
-                
-                long totalThreadTime = System.currentTimeMillis() - threadStartTime;
-                LOG.debug("[性能监控] 线程池任务完成 #" + requestId + "，总耗时: " + totalThreadTime + "ms");
-                return result;
-            } catch (Exception e) {
-                long totalThreadTime = System.currentTimeMillis() - threadStartTime;
-                LOG.error("[性能监控] 线程池任务失败 #" + requestId + "，耗时: " + totalThreadTime + "ms", e);
-                throw e;
-            }
-        });
+    public static String executeCachedGetRequest(final String url) throws IOException {
+        return await(executeCachedGetRequestAsync(url), url).body();
+    }
+
+    /**
+     * 使用HTTP响应缓存执行条件请求，同时返回页面是否与上次相同
+     * 阻塞调用线程直到请求完成
+     *
+     * @param url 请求的URL
+     * @return 响应内容及是否与上次相同
+     * @throws IOException 如果请求失败或被中断
+     */
+    public static CachedResponse executeCachedGetRequestWithStatus(final String url) throws IOException {
+        return await(executeCachedGetRequestAsync(url), url);
+    }
 
+    /**
+     * 阻塞等待异步请求完成
+     */
+    private static <T> T await(Mono<T> request, String url) throws IOException {
+        // 使用Future等待而不是block()，调用方可能位于不允许block()的Reactor线程
+        CompletableFuture<T> future = request.toFuture();
         try {
-            // 设置超时时间为18秒，确保不会卡死
-            String result = future.get(18, TimeUnit.SECONDS);
-            long totalHttpTime = System.currentTimeMillis() - httpStartTime;
-            LOG.debug("[性能监控] HTTP请求成功完成 #" + requestId + "，总耗时: " + totalHttpTime + "ms");
-            return result;
+            return future.get();
         } catch (InterruptedException e) {
-            long totalHttpTime = System.currentTimeMillis() - httpStartTime;
-            LOG.warn("[性能监控] 执行HTTP请求时线程被中断 #" + requestId + "，URL: " + url + "，耗时: " + totalHttpTime + "ms", e);
-            LOG.warn("[线程池状态] " + getThreadPoolStatus() + ", URL: " + url);
+            future.cancel(true);
             Thread.currentThread().interrupt(); // 恢复中断状态
+            LOG.warn("[性能监控] 等待HTTP请求时线程被中断，URL: " + url);
             throw new IOException("HTTP请求被中断: " + url, e);
         } catch (ExecutionException e) {
-            long totalHttpTime = System.currentTimeMillis() - httpStartTime;
             Throwable cause = e.getCause();
-            LOG.error("[性能监控] 执行HTTP请求时发生错误 #" + requestId + "，URL: " + url + "，耗时: " + totalHttpTime + "ms，原因: " + (cause != null ? cause.getMessage() : "null"), e);
-            LOG.error("[线程池状态] " + getThreadPoolStatus() + ", URL: " + url);
-
             if (cause instanceof IOException) {
                 throw (IOException) cause;
-            } else if (cause instanceof Exception) {
-                throw new IOException("执行HTTP请求时发生内部错误: " + cause.getMessage(), cause);
-            } else {
-                throw new IOException("执行HTTP请求时发生未知错误", e);
             }
-        } catch (TimeoutException e) {
-            long totalHttpTime = System.currentTimeMillis() - httpStartTime;
-            future.cancel(true); // 主动中断底层线程
-            LOG.error("[性能监控] HTTP请求超时(18秒)并已主动取消 #" + requestId + "，URL: " + url + "，耗时: " + totalHttpTime + "ms", e);
-            LOG.error("[线程池状态] " + getThreadPoolStatus() + ", URL: " + url);
-            throw new IOException("HTTP请求超时(18秒)并已主动取消: " + url, e);
-        } catch (Exception e) {
-            long totalHttpTime = System.currentTimeMillis() - httpStartTime;
-            LOG.error("[性能监控] 获取HTTP请求结果时发生意外错误 #" + requestId + "，URL: " + url + "，耗时: " + totalHttpTime + "ms", e);
-            LOG.error("[线程池状态] " + getThreadPoolStatus() + ", URL: " + url);
-            throw new IOException("获取HTTP请求结果时发生意外错误: " + e.getMessage() + ", URL: " + url, e);
+            throw new IOException("执行HTTP请求时发生内部错误: " + (cause != null ? cause.getMessage() : "null"), cause);
         }
     }
 
+    /**
+     * 异步执行HTTP请求，带有重试机制
+     *
+     * @param url 请求的URL
+     * @return HTTP响应内容的Mono，订阅时才发送请求
+     */
+    public static Mono<String> executeGetRequestAsync(final String url) {
+        return executeGetRequestAsync(url, DEFAULT_MAX_RETRIES, DEFAULT_RETRY_DELAY_MS);
+    }
+
+    /**
+     * 异步执行HTTP请求，返回CompletableFuture
+     *
+     * @param url 请求的URL
+     * @return HTTP响应内容的Future，立即发送请求
+     */
+    public static CompletableFuture<String> executeGetRequestFuture(final String url) {
+        return executeGetRequestAsync(url).toFuture();
+    }
+
+    /**
+     * 异步执行HTTP请求，带有重试机制和自定义重试参数
+     * 重试间隔由定时调度器计时，不阻塞任何线程
+     *
+     * @param url 请求的URL
+     * @param maxRetries 最大重试次数
+     * @param retryDelayMs 重试延迟（毫秒）
+     * @return HTTP响应内容的Mono，失败时以IOException结束
+     */
+    public static Mono<String> executeGetRequestAsync(final String url, final int maxRetries, final int retryDelayMs) {
+        return requestAsync(url, maxRetries, retryDelayMs, Map.of()).map(AsyncHttpEngine.Response::body);
+    }
+
+    /**
+     * 使用HTTP响应缓存异步执行条件请求
+     *
+     * 缓存中有该URL的 ETag 或 Last-Modified 时发送 If-None-Match / If-Modified-Since，
+     * 服务器返回304时不传输内容，直接使用缓存；返回新内容时更新缓存。
+     * 适合目录页这类经常重复请求、大多数时候没有变化的页面。
+     *
+     * @param url 请求的URL
+     * @return 响应内容及是否与上次相同，失败时以IOException结束
+     */
+    public static Mono<CachedResponse> executeCachedGetRequestAsync(final String url) {
+        return cachedRequestAsync(url, HttpResponseCache.getInstance());
+    }
+
+    /**
+     * 使用目录页缓存异步执行条件请求
+     *
+     * 与 {@link #executeCachedGetRequestAsync} 相同，但目录分页页面保存在单独的缓存中，
+     * 一次抓取大量目录页不会淘汰书籍页面的缓存。
+     *
+     * @param url 目录页URL
+     * @return 响应内容及是否与上次相同，失败时以IOException结束
+     */
+    public static Mono<CachedResponse> executeCatalogGetRequestAsync(final String url) {
+        return cachedRequestAsync(url, HttpResponseCache.getCatalogInstance());
+    }
+
+    private static Mono<CachedResponse> cachedRequestAsync(final String url, final HttpResponseCache cache) {
+        return Mono.fromCallable(() -> Optional.ofNullable(cache.lookup(url)))
+            .subscribeOn(ReactiveSchedulers.getInstance().io())
+            .flatMap(cached -> {
+                HttpResponseCache.Entry entry = cached.orElse(null);
+                Map<String, String> headers = conditionalHeaders(entry);
+                return requestAsync(url, DEFAULT_MAX_RETRIES, DEFAULT_RETRY_DELAY_MS, headers)
+                    // 读写缓存文件
+                    .publishOn(ReactiveSchedulers.getInstance().io())
+                    .flatMap(response -> {
+                        String domain = extractDomain(url);
+                        if (response.isNotModified()) {
+                            if (entry == null) {
+                                return Mono.error(new IOException("服务器返回304但没有缓存内容: " + url));
+                            }
+                            cache.touch(url);
+                            NetworkPerformanceMonitor.getInstance().recordConditionalResponse(domain, true, entry.bodySize());
+                            LOG.info("[性能监控] 页面未修改，使用缓存内容: " + url + "，节省 " + entry.bodySize() + " 字节");
+                            return Mono.just(new CachedResponse(entry.body(), true));
+                        }
+                        if (!headers.isEmpty()) {
+                            NetworkPerformanceMonitor.getInstance().recordConditionalResponse(domain, false, 0);
+                        }
+                        String digest = cache.store(url, response.body(), response.etag(), response.lastModified());
+                        return Mono.just(new CachedResponse(response.body(), entry != null && entry.digest().equals(digest)));
+                    });
+            });
+    }
+
+    private static Map<String, String> conditionalHeaders(HttpResponseCache.Entry entry) {
+        if (entry == null) {
+            return Map.of();
+        }
+        Map<String, String> headers = new HashMap<>();
+        if (entry.etag() != null) {
+            headers.put("If-None-Match", entry.etag());
+        }
+        if (entry.lastModified() != null) {
+            headers.put("If-Modified-Since", entry.lastModified());
+        }
+        return headers;
+    }
+
+    private static Mono<AsyncHttpEngine.Response> requestAsync(final String url, final int maxRetries, final int retryDelayMs,
+                                                              final Map<String, String> headers) {
+        return Mono.defer(() -> {
+            long requestId = totalRequests.incrementAndGet();
+            long startTime = System.currentTimeMillis();
+
+            // 提取域名用于性能监控
+            String domain = extractDomain(url);
+
+            LOG.info("[性能监控] 开始HTTP请求 #" + requestId + ": " + url + "，最大重试次数: " + maxRetries);
+
+            // 记录请求开始
+            NetworkPerformanceMonitor.getInstance().recordRequestStart(url, domain);
+
+            return Mono.defer(() -> {
+                    long attemptStartTime = System.currentTimeMillis();
+                    // 单次尝试的超时由引擎从取得配额时开始计算；取消订阅会取消 future，撤回排队或中止请求
+                    return Mono.fromFuture(() -> engine.get(url, domain, DEFAULT_USER_AGENT, DEFAULT_READ_TIMEOUT, headers))
+                        .doOnError(e -> recordAttemptFailure(url, domain, requestId, System.currentTimeMillis() - attemptStartTime, e));
+                })
+                .retryWhen(Retry.fixedDelay(maxRetries, Duration.ofMillis(retryDelayMs))
+                    .scheduler(ReactiveSchedulers.getInstance().timer())
+                    .doBeforeRetry(signal -> LOG.info("[性能监控] 第 " + (signal.totalRetries() + 1) + " 次重试请求 #" + requestId + ": " + url))
+                    .onRetryExhaustedThrow((spec, signal) -> new IOException(
+                        "请求失败，已重试 " + maxRetries + " 次: " + describe(signal.failure()), signal.failure())))
+                .doOnNext(response -> {
+                    long totalTime = System.currentTimeMillis() - startTime;
+                    successfulRequests.incrementAndGet();
+                    totalRequestTime.addAndGet(totalTime);
+
+                    // 记录请求成功
+                    NetworkPerformanceMonitor.getInstance().recordRequestSuccess(url, domain, totalTime, response.bodySize());
+
+                    LOG.info("[性能监控] HTTP请求成功 #" + requestId + ": " + url +
+                            "，总耗时: " + totalTime + "ms，内容长度: " + response.bodySize() + " 字节");
+
+                    // 记录性能统计
+                    logPerformanceStats();
+                })
+                .doOnError(e -> {
+                    failedRequests.incrementAndGet();
+                    long totalTime = System.currentTimeMillis() - startTime;
+                    LOG.error("[性能监控] 达到最大重试次数 (" + maxRetries + ") #" + requestId + ": " + url + "，总耗时: " + totalTime + "ms", e);
+
+                    // 记录性能统计
+                    logPerformanceStats();
+                });
+        });
+    }
+
+    /**
+     * 记录单次尝试的失败
+     */
+    private static void recordAttemptFailure(String url, String domain, long requestId, long attemptTime, Throwable e) {
+        if (isUnknownHost(e)) {
+            LOG.warn("[性能监控] 无法解析主机名 #" + requestId + ": " + url + "，耗时: " + attemptTime + "ms");
+            NetworkPerformanceMonitor.getInstance().recordRequestFailure(url, domain, attemptTime, "UNKNOWN_HOST", describe(e));
+        } else if (e instanceof HttpTimeoutException || e instanceof TimeoutException) {
+            LOG.warn("[性能监控] 请求超时 #" + requestId + ": " + url + "，耗时: " + attemptTime + "ms");
+            NetworkPerformanceMonitor.getInstance().recordRequestTimeout(url, domain, attemptTime);
+        } else {
+            LOG.warn("[性能监控] 请求失败 #" + requestId + ": " + url + "，耗时: " + attemptTime + "ms，错误: " + describe(e));
+            NetworkPerformanceMonitor.getInstance().recordRequestFailure(url, domain, attemptTime, "IO_ERROR", describe(e));
+        }
+    }
+
+    /**
+     * HttpClient 的部分异常（例如连接失败）没有消息，使用异常类型代替
+     */
+    private static String describe(Throwable e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    private static boolean isUnknownHost(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof UnknownHostException || t instanceof UnresolvedAddressException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * 记录性能统计信息
      */
@@ -389,6 +411,15 @@ public class SafeHttpRequestExecutor {
         }
     }
 
+    /**
+     * 条件请求的结果
+     *
+     * @param body 页面内容，未修改时为缓存的内容
+     * @param unchanged 内容与上次获取时相同（服务器返回304，或新内容的摘要与缓存一致）
+     */
+    public record CachedResponse(String body, boolean unchanged) {
+    }
+
     /**
      * HTTP请求配置器接口
      */
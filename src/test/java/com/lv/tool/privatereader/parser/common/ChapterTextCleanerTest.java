@@ -0,0 +1,87 @@
+package com.lv.tool.privatereader.parser.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * {@link ChapterTextCleaner} 和 {@link TextFormatter} 与原 replaceAll 实现的结果对比
+ */
+class ChapterTextCleanerTest {
+    /**
+     * 随机文本的组成片段，覆盖各条清理和格式化规则
+     */
+    private static final String[] FRAGMENTS = {
+        "广告", "推广", "HTTP", "www", ".com", "笔趣阁", "新笔趣阁", "88中文网", "八八中文网", "顶点小说",
+        "最新章节", "最新章节！", "！", "，", "。", "？", "；", "：", "、", "…", "……", "...", "!!", "??",
+        " ", "　", "\t", "\n", "\r\n", "\r", "\n\n\n",
+        "第一章", "第12章", "第三回", "序章", "楔子", "前言", "后记", "卷三", "番外", "间插", "1、", "2.",
+        "「", "」", "『", "』", "“", "”", "\"", "'", "（", "）", "《", "》",
+        "这时", "然而", "突然", "第二天", "只见", "与此同时",
+        "他说", "少年", "小镇", "陈平安", "风从河面上吹过来", "a", "1"
+    };
+
+    @ParameterizedTest
+    @ValueSource(strings = {"biquge-ads.txt", "dingdian-inline.txt", "title-only.txt", "long-paragraph.txt"})
+    void cleanMatchesReplaceAllChainOnChapterFixtures(String fixture) throws IOException {
+        String text = readFixture(fixture);
+
+        String cleaned = ChapterTextCleaner.clean(text);
+        assertEquals(LegacyTextCleanup.clean(text), cleaned);
+        assertEquals(LegacyTextCleanup.format(cleaned), TextFormatter.format(cleaned));
+    }
+
+    @Test
+    void cleanRemovesSiteAdsFromFixture() throws IOException {
+        String cleaned = ChapterTextCleaner.clean(readFixture("biquge-ads.txt"));
+
+        assertFalse(cleaned.contains("笔趣阁"));
+        assertFalse(cleaned.contains("最新章节！"));
+    }
+
+    @Test
+    void cleanClearsTitleOnlyText() throws IOException {
+        assertEquals("", ChapterTextCleaner.clean(readFixture("title-only.txt")));
+    }
+
+    @Test
+    void cleanMatchesReplaceAllChainOnRandomText() {
+        Random random = new Random(20240601L);
+        for (int i = 0; i < 20000; i++) {
+            String text = randomText(random);
+
+            String cleaned = ChapterTextCleaner.clean(text);
+            assertEquals(LegacyTextCleanup.clean(text), cleaned, () -> "输入: " + escape(text));
+            assertEquals(LegacyTextCleanup.format(text), TextFormatter.format(text), () -> "输入: " + escape(text));
+        }
+    }
+
+    private static String randomText(Random random) {
+        StringBuilder text = new StringBuilder();
+        int count = random.nextInt(30);
+        for (int i = 0; i < count; i++) {
+            text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+        }
+        return text.toString();
+    }
+
+    private static String readFixture(String name) throws IOException {
+        try (InputStream in = ChapterTextCleanerTest.class.getResourceAsStream("/chapters/" + name)) {
+            assertNotNull(in, "缺少测试章节: " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String escape(String text) {
+        return text.replace("\r", "\\r").replace("\n", "\\n").replace("\t", "\\t");
+    }
+}
@@ -0,0 +1,44 @@
+package com.lv.tool.privatereader.parser.common;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 基于 {@link DensityScorer} 的文本密度查找与原 TextDensityAnalyzer 在保存的章节页面上选中同一个正文元素
+ */
+class DensityScorerTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "biquge-chapter.html, #booktxt",
+        "article-chapter.html, html > body > main.reader > article.chapter-body",
+        "nested-divs-chapter.html, #txt"
+    })
+    void picksSameContentElementAsTextDensityAnalyzer(String page, String expectedSelector) throws IOException {
+        Document document = readPage(page);
+
+        Element legacy = LegacyDensityAnalyzer.findByTextDensity(document);
+        Element scored = TextDensityAnalyzer.findByTextDensity(document);
+
+        assertNotNull(scored);
+        assertSame(legacy, scored);
+        assertEquals(expectedSelector, scored.cssSelector());
+    }
+
+    private static Document readPage(String name) throws IOException {
+        try (InputStream in = DensityScorerTest.class.getResourceAsStream("/pages/" + name)) {
+            assertNotNull(in, "缺少测试页面: " + name);
+            return Jsoup.parse(in, "UTF-8", "");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.lv.tool.privatereader.parser.common;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 改动前 TextDensityAnalyzer 的文本密度查找，作为 {@link DensityScorer} 的对照
+ *
+ * 每个候选元素调用 text() 和 html() 计算密度，按密度乘以文本长度排序。
+ */
+final class LegacyDensityAnalyzer {
+    private static final int MIN_TEXT_LENGTH = 50;
+    private static final double TEXT_DENSITY_THRESHOLD = 0.3;
+    private static final Set<String> CONTENT_TAGS = Set.of("article", "div", "p", "section");
+    private static final Set<String> NOISE_CLASS_KEYWORDS = Set.of(
+        "copyright", "footer", "header", "comment", "menu", "nav", "sidebar",
+        "ad", "author", "meta", "recommend", "related", "share", "tag", "tool"
+    );
+
+    private LegacyDensityAnalyzer() {
+    }
+
+    static Element findByTextDensity(Element root) {
+        List<Element> candidates = new ArrayList<>();
+        Elements elements = root.select(String.join(",", CONTENT_TAGS));
+        for (Element element : elements) {
+            if (isValidContentElement(element) && !containsNoiseKeywords(element)) {
+                candidates.add(element);
+            }
+        }
+
+        candidates.sort((a, b) -> Double.compare(
+            getTextDensity(b) * b.text().length(),
+            getTextDensity(a) * a.text().length()
+        ));
+
+        return candidates.isEmpty() ? null : candidates.get(0);
+    }
+
+    private static double getTextDensity(Element element) {
+        int textLength = element.text().length();
+        int htmlLength = element.html().length();
+        return htmlLength > 0 ? (double) textLength / htmlLength : 0;
+    }
+
+    private static boolean isValidContentElement(Element element) {
+        String text = element.text().trim();
+        if (text.length() < MIN_TEXT_LENGTH) {
+            return false;
+        }
+        return getTextDensity(element) >= TEXT_DENSITY_THRESHOLD;
+    }
+
+    private static boolean containsNoiseKeywords(Element element) {
+        String classNames = element.className().toLowerCase();
+        String id = element.id().toLowerCase();
+        return NOISE_CLASS_KEYWORDS.stream()
+            .anyMatch(keyword -> classNames.contains(keyword) || id.contains(keyword));
+    }
+}
@@ -0,0 +1,159 @@
+package com.lv.tool.privatereader.parser.common;
+
+/**
+ * 改动前的正文清理和格式化实现，作为 {@link ChapterTextCleaner} 和 {@link TextFormatter} 的对照
+ *
+ * 规则和顺序与原实现相同：清理是 UniversalParser.cleanContent 中的 replaceAll 链，
+ * 格式化是每次调用时编译正则表达式的 TextFormatter（去掉了输出相同的分支）。
+ */
+final class LegacyTextCleanup {
+    private static final int MAX_PARAGRAPH_LENGTH = 500;
+
+    private static final String[] PARAGRAPH_INDICATORS = {
+        // 时间转换
+        "一天", "这天", "那天", "某天", "第二天", "翌日", "次日", "当天", "后来", "此后", "从此",
+        // 场景转换
+        "这时", "此时", "这会", "不一会", "片刻", "一会儿", "一阵子", "转眼", "眨眼",
+        // 视角转换
+        "另一边", "与此同时", "同时", "这边", "那边", "远处", "不远处",
+        // 情节转折
+        "然而", "但是", "不过", "可是", "突然", "忽然", "猛然", "蓦地",
+        // 人物动作
+        "只见", "只听", "就见", "就听"
+    };
+
+    private static final String[] DIALOG_MARKERS = {
+        "「", "」", "“", "”", "『", "』", "'", "'", "\"", "'"
+    };
+
+    private static final String[] PUNCTUATION_MARKS = {
+        "，", "。", "！", "？", "；", "：", "、", "…"
+    };
+
+    private LegacyTextCleanup() {
+    }
+
+    static String clean(String text) {
+        return text.replaceAll("(?i)^\\s*(广告|推广|http|www|com|net|org|xyz)[^，。！？]*", "")
+                .replaceAll("(?i)(八八中文网|88中文网|求书网|新笔趣阁|笔趣阁|顶点小说|番茄小说)[^，。！？]*", "")
+                .replaceAll("最新章节！", "")
+                .replaceAll("\\s*([，。！？])\\s*", "$1\n")
+                .replaceAll("\\s+", "\n")
+                .replaceAll("\\n{3,}", "\n\n")
+                .replaceAll("^\\s*第[0-9零一二三四五六七八九十百千万亿]+[章节卷集部篇].*$", "")
+                .replaceAll("^\\s*[0-9]+[、.][^0-9]*$", "")
+                .replaceAll("^\\s*第[0-9零一二三四五六七八九十百千万亿]+回.*$", "")
+                .replaceAll("^\\s*[序楔终][章话].*$", "")
+                .replaceAll("^\\s*[前序楔引]言.*$", "")
+                .replaceAll("^\\s*[后终]记.*$", "")
+                .replaceAll("^\\s*[卷部篇][0-9零一二三四五六七八九十百千万亿]+.*$", "")
+                .replaceAll("^\\s*[上中下]篇.*$|^\\s*番外.*$|^\\s*特别篇.*$|^\\s*外传.*$", "")
+                .replaceAll("^\\s*[早中午晚]章.*$|^\\s*[春夏秋冬]章.*$", "")
+                .replaceAll("^\\s*(间|幕)?插.*$", "")
+                .trim();
+    }
+
+    static String format(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return "";
+        }
+
+        text = preprocess(text);
+        text = formatParagraphs(text);
+        text = postprocess(text);
+        return text;
+    }
+
+    private static String preprocess(String text) {
+        text = text.replaceAll("\\r\\n|\\r", "\n")
+                  .replaceAll("[ 　\\t]+", " ")
+                  .trim();
+
+        text = text.replaceAll("…{2,}|\\.\\.\\.", "……")
+                  .replaceAll("!{2,}", "！！")
+                  .replaceAll("\\?{2,}", "？？");
+
+        text = text.replaceAll("([。！？])(?=[^「」『』\\s])", "$1 ");
+        text = text.replaceAll("([。！？])(?=\\n)", "$1 ");
+
+        text = text.replaceAll("([。！？][「」『』])(?=[^，。！？])", "$1 ");
+
+        text = text.replaceAll("(?m)^(第[零一二三四五六七八九十百千万]+[章节]\\s*[^\\n]+)$",
+            "\n\n        $1\n\n");
+
+        return text;
+    }
+
+    private static String formatParagraphs(String text) {
+        String[] rawParagraphs = text.split(
+            "\\n\\s*\\n+" +
+            "|(?<=[。！？])(?=\\s*\\n)" +
+            "|(?<=[。！？])(?=[^，。！？]*?(" + String.join("|", PARAGRAPH_INDICATORS) + "))"
+        );
+
+        StringBuilder result = new StringBuilder();
+
+        for (String para : rawParagraphs) {
+            para = para.trim();
+            if (para.isEmpty()) continue;
+
+            if (para.matches("^\\s*第[零一二三四五六七八九十百千万]+[章节].*$")) {
+                result.append("\n    ").append(para).append("\n");
+                continue;
+            }
+
+            if (containsDialog(para)) {
+                result.append("    ").append(para).append("\n");
+                continue;
+            }
+
+            if (para.length() > MAX_PARAGRAPH_LENGTH) {
+                String[] sentences = para.split("(?<=[。！？])");
+                StringBuilder temp = new StringBuilder();
+
+                for (String sent : sentences) {
+                    if (temp.length() + sent.length() > MAX_PARAGRAPH_LENGTH) {
+                        if (temp.length() > 0) {
+                            result.append("    ").append(temp).append("\n");
+                            temp = new StringBuilder();
+                        }
+                    }
+                    temp.append(sent);
+                }
+
+                if (temp.length() > 0) {
+                    result.append("    ").append(temp).append("\n");
+                }
+                continue;
+            }
+
+            result.append("    ").append(para).append("\n");
+        }
+
+        return result.toString().trim();
+    }
+
+    private static boolean containsDialog(String text) {
+        return text.matches(".*[「『].*[」』].*") ||
+               text.matches(".*[「『][^「『」』]+$") ||
+               text.startsWith("「") || text.startsWith("『");
+    }
+
+    private static String postprocess(String text) {
+        for (String mark : PUNCTUATION_MARKS) {
+            if (mark.equals("。") || mark.equals("！") || mark.equals("？")) {
+                text = text.replaceAll("\\s*" + mark + "(?!\\s)", mark + " ");
+            } else {
+                text = text.replaceAll("\\s*" + mark + "\\s*", mark);
+            }
+        }
+
+        for (String marker : DIALOG_MARKERS) {
+            text = text.replaceAll("\\s*" + marker + "\\s*", marker);
+        }
+
+        text = text.replaceAll("\\s*([（）()《》「」『』]+)\\s*", "$1");
+
+        return text;
+    }
+}
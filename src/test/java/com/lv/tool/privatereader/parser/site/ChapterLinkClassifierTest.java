@@ -0,0 +1,111 @@
+package com.lv.tool.privatereader.parser.site;
+
+import com.lv.tool.privatereader.parser.NovelParser;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link ChapterLinkClassifier#collect} 与原 isChapterLink 筛选加 HashSet 去重在保存的目录页上结果一致
+ */
+class ChapterLinkClassifierTest {
+    private static final String BASE_URI = "https://www.biquge.example/1024/";
+
+    @ParameterizedTest
+    @ValueSource(strings = {"catalog-page1.html", "catalog-page2.html"})
+    void collectMatchesLegacyFilterOnCatalogPage(String page) throws IOException {
+        Elements links = readLinks(page);
+
+        List<NovelParser.Chapter> legacy = new ArrayList<>();
+        int legacyAdded = LegacyChapterLinkFilter.collect(links, new HashSet<>(), legacy);
+
+        List<NovelParser.Chapter> chapters = new ArrayList<>();
+        int added = ChapterLinkClassifier.collect(links, new UrlHashSet(), chapters);
+
+        assertEquals(legacyAdded, added);
+        assertEquals(describe(legacy), describe(chapters));
+    }
+
+    @Test
+    void collectDeduplicatesAcrossPagesInDocumentOrder() throws IOException {
+        Elements page1 = readLinks("catalog-page1.html");
+        Elements page2 = readLinks("catalog-page2.html");
+
+        Set<String> legacySeen = new HashSet<>();
+        List<NovelParser.Chapter> legacy = new ArrayList<>();
+        int legacyAdded1 = LegacyChapterLinkFilter.collect(page1, legacySeen, legacy);
+        int legacyAdded2 = LegacyChapterLinkFilter.collect(page2, legacySeen, legacy);
+
+        UrlHashSet seen = new UrlHashSet();
+        List<NovelParser.Chapter> chapters = new ArrayList<>();
+        int added1 = ChapterLinkClassifier.collect(page1, seen, chapters);
+        int added2 = ChapterLinkClassifier.collect(page2, seen, chapters);
+
+        assertEquals(legacyAdded1, added1);
+        assertEquals(legacyAdded2, added2);
+        assertEquals(describe(legacy), describe(chapters));
+
+        Set<String> urls = chapters.stream().map(NovelParser.Chapter::url).collect(Collectors.toSet());
+        assertEquals(chapters.size(), urls.size());
+        for (String url : legacySeen) {
+            assertTrue(seen.contains(url), url);
+        }
+    }
+
+    @Test
+    void collectKeepsFirstOccurrenceOfLatestChapterBlock() throws IOException {
+        List<NovelParser.Chapter> chapters = new ArrayList<>();
+        ChapterLinkClassifier.collect(readLinks("catalog-page1.html"), new UrlHashSet(), chapters);
+
+        List<String> urls = chapters.stream().map(NovelParser.Chapter::url).collect(Collectors.toList());
+        assertTrue(urls.indexOf(BASE_URI + "100012.html") < urls.indexOf(BASE_URI + "99998.html"));
+        assertFalse(urls.contains(BASE_URI + "login.php"));
+        assertFalse(urls.contains("javascript:addBookCase(1024)"));
+    }
+
+    @Test
+    void isChapterLinkMatchesLegacyFilterOnEveryLink() throws IOException {
+        for (String page : List.of("catalog-page1.html", "catalog-page2.html")) {
+            for (Element link : readLinks(page)) {
+                String href = link.attr("abs:href");
+                String title = link.text().trim();
+                assertEquals(LegacyChapterLinkFilter.isChapterLink(href, title),
+                        ChapterLinkClassifier.isChapterLink(href, title), () -> title + " -> " + href);
+            }
+        }
+    }
+
+    /**
+     * Chapter 只按URL判断相等，比较时把标题也带上
+     */
+    private static List<String> describe(List<NovelParser.Chapter> chapters) {
+        return chapters.stream()
+                .map(chapter -> chapter.title() + " -> " + chapter.url())
+                .collect(Collectors.toList());
+    }
+
+    private static Elements readLinks(String name) throws IOException {
+        try (InputStream in = ChapterLinkClassifierTest.class.getResourceAsStream("/catalogs/" + name)) {
+            assertNotNull(in, "缺少测试目录页: " + name);
+            Document document = Jsoup.parse(in, "UTF-8", BASE_URI);
+            return document.select("a[href]");
+        }
+    }
+}
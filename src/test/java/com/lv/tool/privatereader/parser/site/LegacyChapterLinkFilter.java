@@ -0,0 +1,103 @@
+package com.lv.tool.privatereader.parser.site;
+
+import com.lv.tool.privatereader.parser.NovelParser;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 改动前 UniversalParser 的章节链接筛选，作为 {@link ChapterLinkClassifier} 的对照
+ *
+ * 规则和顺序与原实现相同：每条URL规则逐个调用 {@code String.matches}，
+ * 标题规则是原先的 ChapterTitleUtils.isChapterTitle，按 HashSet 去重。
+ */
+final class LegacyChapterLinkFilter {
+    private static final Pattern[] TITLE_PATTERNS = {
+        Pattern.compile("^第[0-9零一二三四五六七八九十百千万亿]+[章节卷集部篇].*$"),
+        Pattern.compile("^[0-9]+[、.][^0-9]*$"),
+        Pattern.compile("^第[0-9零一二三四五六七八九十百千万亿]+回.*$"),
+        Pattern.compile("^[序楔终][章话].*$"),
+        Pattern.compile("^[前序楔引]言.*$"),
+        Pattern.compile("^[后终]记.*$"),
+        Pattern.compile("^[卷部篇][0-9零一二三四五六七八九十百千万亿]+.*$"),
+        Pattern.compile("^\\d+$"),
+        Pattern.compile("^[上中下]篇.*$|^番外.*$|^特别篇.*$|^外传.*$"),
+        Pattern.compile("^[早中午晚]章.*$|^[春夏秋冬]章.*$"),
+        Pattern.compile("^(间|幕)?插.*$")
+    };
+
+    private LegacyChapterLinkFilter() {
+    }
+
+    static int collect(Elements links, Set<String> seenUrls, List<NovelParser.Chapter> chapters) {
+        int added = 0;
+        for (Element link : links) {
+            String href = link.attr("abs:href");
+            String title = link.text().trim();
+
+            if (isChapterLink(href, title) && seenUrls.add(href)) {
+                chapters.add(new NovelParser.Chapter(title, href));
+                added++;
+            }
+        }
+        return added;
+    }
+
+    static boolean isChapterLink(String href, String title) {
+        if (href == null || title == null || href.isEmpty() || title.isEmpty()) {
+            return false;
+        }
+
+        boolean urlMatch = href.contains("/chapter/") ||
+                          href.contains("/read/") ||
+                          href.contains("/book/") ||
+                          href.matches(".*/(\\d+).(html|htm|shtml|aspx|php)$") ||
+                          href.matches(".*/chapter_\\d+.*") ||
+                          href.matches(".*/c\\d+.*") ||
+                          href.matches(".*/\\d+/\\d+.*");
+
+        boolean titleMatch = isChapterTitle(title);
+
+        if (!urlMatch && !titleMatch) {
+            boolean hasSequentialNumbers = href.matches(".*\\d+.*") &&
+                                        !href.contains("javascript") &&
+                                        !href.contains("login") &&
+                                        !href.contains("register");
+
+            boolean titleLengthValid = title.length() >= 2 && title.length() <= 50;
+            boolean titleHasValidChars = !title.contains("登录") &&
+                                       !title.contains("注册") &&
+                                       !title.contains("首页") &&
+                                       !title.contains("最新") &&
+                                       !title.contains("排行");
+
+            if (hasSequentialNumbers && titleLengthValid && titleHasValidChars) {
+                return true;
+            }
+        }
+
+        return urlMatch || titleMatch;
+    }
+
+    private static boolean isChapterTitle(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return false;
+        }
+
+        text = text.trim();
+
+        if (text.length() > 50 || text.contains("http") || text.contains("www")) {
+            return false;
+        }
+
+        for (Pattern pattern : TITLE_PATTERNS) {
+            if (pattern.matcher(text).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,195 @@
+package com.lv.tool.privatereader.util;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 原阻塞线程池请求方式与 {@link AsyncHttpEngine} 的吞吐量和尾延迟对比
+ *
+ * 本地桩服务器对每个请求延迟固定时间后返回章节页面，模拟较慢的小说站点。
+ * 请求一次性提交，分布在多个站点上，和预加载、目录抓取时的突发请求相近。
+ * 原方式按改动前的 SafeHttpRequestExecutor 复现：2倍CPU数的固定线程池、
+ * 容量100的队列、队列满时由调用线程执行，每个请求阻塞读取完整内容。
+ *
+ * 运行：./gradlew benchmark
+ */
+@Tag("benchmark")
+class AsyncHttpEngineBenchmarkTest {
+    private static final int SERVER_LATENCY_MS = 40;
+    private static final int HOSTS = 8;
+    private static final int REQUESTS = 400;
+    private static final int WARMUP_REQUESTS = 40;
+    private static final int CONNECT_TIMEOUT = 20000;
+    private static final int READ_TIMEOUT = 25000;
+    private static final int ATTEMPT_TIMEOUT = 30000;
+    private static final int MAX_CONNECTIONS_PER_HOST = 6;
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
+    private static final byte[] PAGE = chapterPage();
+
+    private static HttpServer server;
+    private static ExecutorService serverExecutor;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(SERVER_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+            exchange.sendResponseHeaders(200, PAGE.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(PAGE);
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void compareBlockingPoolWithAsyncEngine() throws Exception {
+        ThreadPoolExecutor blockingPool = createBlockingPool();
+        Scheduler timer = Schedulers.newSingle("benchmark-timer");
+        AsyncHttpEngine engine = new AsyncHttpEngine(CONNECT_TIMEOUT, ATTEMPT_TIMEOUT, MAX_CONNECTIONS_PER_HOST, timer);
+        try {
+            runBlocking(blockingPool, WARMUP_REQUESTS);
+            runAsync(engine, WARMUP_REQUESTS);
+
+            Result blocking = runBlocking(blockingPool, REQUESTS);
+            Result async = runAsync(engine, REQUESTS);
+
+            System.out.println("请求数: " + REQUESTS + ", 站点数: " + HOSTS + ", 服务器延迟: " + SERVER_LATENCY_MS + "ms");
+            System.out.println("阻塞线程池 (" + blockingPool.getCorePoolSize() + " 线程): " + blocking);
+            System.out.println("异步引擎 (每站点 " + MAX_CONNECTIONS_PER_HOST + " 并发): " + async);
+        } finally {
+            blockingPool.shutdownNow();
+            timer.dispose();
+        }
+    }
+
+    private static Result runBlocking(ThreadPoolExecutor pool, int requests) throws Exception {
+        long[] latencies = new long[requests];
+        List<Future<Integer>> futures = new ArrayList<>(requests);
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            String url = url(i);
+            int index = i;
+            long issued = System.nanoTime();
+            futures.add(pool.submit(() -> {
+                int length = readBlocking(url);
+                latencies[index] = System.nanoTime() - issued;
+                return length;
+            }));
+        }
+        for (Future<Integer> future : futures) {
+            assertEquals(PAGE.length, future.get(60, TimeUnit.SECONDS));
+        }
+        return new Result(requests, System.nanoTime() - start, latencies);
+    }
+
+    private static Result runAsync(AsyncHttpEngine engine, int requests) throws Exception {
+        long[] latencies = new long[requests];
+        List<CompletableFuture<AsyncHttpEngine.Response>> futures = new ArrayList<>(requests);
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int index = i;
+            long issued = System.nanoTime();
+            futures.add(engine.get(url(i), "site-" + (i % HOSTS), USER_AGENT, READ_TIMEOUT)
+                    .whenComplete((response, error) -> latencies[index] = System.nanoTime() - issued));
+        }
+        for (CompletableFuture<AsyncHttpEngine.Response> future : futures) {
+            assertEquals(PAGE.length, future.get(60, TimeUnit.SECONDS).bodySize());
+        }
+        return new Result(requests, System.nanoTime() - start, latencies);
+    }
+
+    /**
+     * 改动前的HTTP请求线程池
+     */
+    private static ThreadPoolExecutor createBlockingPool() {
+        int threadCount = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        return new ThreadPoolExecutor(threadCount, threadCount, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(100), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * 阻塞读取完整页面，对应原先的 HttpRequests.request(url).readString()
+     */
+    private static int readBlocking(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT);
+        connection.setReadTimeout(READ_TIMEOUT);
+        connection.setRequestProperty("User-Agent", USER_AGENT);
+        try (InputStream in = connection.getInputStream()) {
+            return in.readAllBytes().length;
+        }
+    }
+
+    private static String url(int i) {
+        return baseUrl + "/site-" + (i % HOSTS) + "/chapter-" + i + ".html";
+    }
+
+    private static byte[] chapterPage() {
+        StringBuilder page = new StringBuilder("<html><head><meta charset=\"UTF-8\"><title>第一章</title></head><body><div id=\"content\">");
+        for (int i = 0; i < 300; i++) {
+            page.append("<p>　　这是章节正文的第").append(i).append("段，用于模拟常见小说站点的页面大小。</p>");
+        }
+        return page.append("</div></body></html>").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Result(int requests, long elapsedNanos, long[] latencies) {
+        double throughput() {
+            return requests / (elapsedNanos / 1e9);
+        }
+
+        double percentileMillis(double percentile) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("吞吐量 %.1f 请求/秒, p50 %.1fms, p99 %.1fms, 最大 %.1fms",
+                    throughput(), percentileMillis(50), percentileMillis(99), percentileMillis(100));
+        }
+    }
+}